@@ -1,12 +1,19 @@
 package kz.enu.museum;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
+import java.util.concurrent.FutureTask;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
@@ -22,8 +29,16 @@ import kz.enu.museum.repository.ExhibitRepository;
 import kz.enu.museum.service.ArtistService;
 import kz.enu.museum.service.CategoryService;
 import kz.enu.museum.service.ExhibitService;
+import kz.enu.museum.service.ExportFormat;
+import kz.enu.museum.service.ExportOptions;
+import kz.enu.museum.service.ExportService;
+import kz.enu.museum.service.ReportJob;
+import kz.enu.museum.service.ReportScheduler;
 import kz.enu.museum.service.ReportService;
+import kz.enu.museum.service.SearchIndexStore;
 import kz.enu.museum.service.SearchService;
+import kz.enu.museum.service.SimilarityService;
+import kz.enu.museum.service.SuggestionService;
 import kz.enu.museum.util.JsonDataManager;
 
 
@@ -41,7 +56,12 @@ public class Main extends Application {
     private CategoryService categoryService;
     private ArtistService artistService;
     private SearchService searchService;
+    private SimilarityService similarityService;
+    private SuggestionService suggestionService;
     private ReportService reportService;
+    private ExportService exportService;
+    private ReportScheduler reportScheduler;
+    private MainController controller;
 
     // Менеджеры данных: предпочитаем H2, но поддерживаем JSON-файлы как fallback
     private kz.enu.museum.util.H2DataManager h2DataManager;
@@ -79,8 +99,12 @@ public class Main extends Application {
             loadData();
 
             // Инициализация сервисов поиска и отчётов
-            searchService = new SearchService(exhibitRepository.findAll());
-            reportService = new ReportService(exhibitRepository.findAll(), categoryService, artistService);
+            searchService = new SearchService(exhibitRepository, new SearchIndexStore(Paths.get("data")));
+            similarityService = new SimilarityService(exhibitRepository);
+            suggestionService = new SuggestionService(exhibitRepository,
+                    artistRepository.findAll(), categoryRepository.findAll());
+            reportService = new ReportService(exhibitRepository, categoryService, artistService);
+            exportService = new ExportService();
             logger.info("Сервисы поиска и отчётов инициализированы");
 
             logger.info("=== Инициализация завершена успешно ===");
@@ -138,7 +162,14 @@ public class Main extends Application {
             Parent root = loader.load();
 
             // Инициализация контроллера
-            MainController controller = loader.getController();
+            controller = loader.getController();
+            controller.setSimilarityService(similarityService);
+            controller.setSuggestionService(suggestionService);
+            controller.setReportService(reportService);
+            controller.setExportService(exportService);
+            reportScheduler = new ReportScheduler(exhibitRepository, Platform::runLater);
+            scheduleNightlyReports();
+            controller.setReportScheduler(reportScheduler);
             controller.initialize(
                     exhibitService,
                     categoryService,
@@ -173,6 +204,22 @@ public class Main extends Application {
         }
     }
 
+    /**
+     * Ночная выгрузка каталога в PDF в каталог data/reports.
+     * Снимок экспонатов берётся в потоке интерфейса, где меняется репозиторий.
+     */
+    private void scheduleNightlyReports() {
+        reportScheduler.scheduleDaily(LocalTime.of(3, 0), () -> new ReportJob<Long>("Ночной PDF-каталог", job -> {
+            FutureTask<List<MuseumItem>> snapshot = new FutureTask<>(exhibitRepository::findAll);
+            Platform.runLater(snapshot);
+            List<MuseumItem> exhibits = snapshot.get();
+            Path directory = Files.createDirectories(Paths.get("data", "reports"));
+            return exportService.export(exhibits,
+                    directory.resolve("catalog-" + LocalDate.now() + ".pdf"),
+                    new ExportOptions(ExportFormat.PDF).progress(job::progress, ExportOptions.DEFAULT_PROGRESS_STEP));
+        }).priority(ReportJob.Priority.LOW), count -> logger.info("Ночной PDF-каталог: " + count + " экспонатов"));
+    }
+
     /**
      * Обработчик закрытия приложения.
      * Сохраняет данные перед выходом.
@@ -193,10 +240,28 @@ public class Main extends Application {
             }
 
             logger.info("Данные сохранены успешно");
-            logger.info("=== Приложение завершено ===");
+
+            // Снимок индекса поиска соответствует только что сохранённому каталогу;
+            // ошибка записи снимка не должна мешать остановке потоков
+            try {
+                searchService.saveIndex();
+            } catch (IOException e) {
+                logger.error("Не удалось сохранить индекс поиска при выходе", e);
+            }
 
         } catch (Exception e) {
             logger.error("Ошибка при сохранении данных при выходе", e);
+        } finally {
+            // Фоновые потоки останавливаются при любом исходе сохранения
+            searchService.shutdown();
+            exportService.shutdown();
+            if (controller != null) {
+                controller.shutdown();
+            }
+            if (reportScheduler != null) {
+                reportScheduler.shutdown();
+            }
+            logger.info("=== Приложение завершено ===");
         }
     }
 
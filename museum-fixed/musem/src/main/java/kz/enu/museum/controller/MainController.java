@@ -2,7 +2,6 @@ package kz.enu.museum.controller;
 
 import java.io.File;
 import java.io.InputStream;
-import java.io.PrintWriter;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.util.List;
@@ -17,6 +16,7 @@ import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.geometry.Insets;
+import javafx.geometry.Side;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.ButtonBar;
@@ -24,9 +24,11 @@ import javafx.scene.control.ButtonType;
 import javafx.scene.control.CheckBox;
 import javafx.scene.control.ChoiceDialog;
 import javafx.scene.control.ComboBox;
+import javafx.scene.control.ContextMenu;
 import javafx.scene.control.Dialog;
 import javafx.scene.control.Label;
 import javafx.scene.control.ListCell;
+import javafx.scene.control.MenuItem;
 import javafx.scene.control.Spinner;
 import javafx.scene.control.TableCell;
 import javafx.scene.control.TableColumn;
@@ -36,6 +38,7 @@ import javafx.scene.control.TextInputDialog;
 import javafx.scene.control.TreeItem;
 import javafx.scene.control.TreeView;
 import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.VBox;
 import javafx.stage.FileChooser;
@@ -49,10 +52,27 @@ import kz.enu.museum.model.Painting;
 import kz.enu.museum.model.Sculpture;
 import kz.enu.museum.model.enums.ExhibitStatus;
 import kz.enu.museum.service.ArtistService;
+import kz.enu.museum.service.AsyncSearchRunner;
+import kz.enu.museum.service.CatalogAggregates;
 import kz.enu.museum.service.CategoryService;
 import kz.enu.museum.service.ExhibitService;
+import kz.enu.museum.service.ExportFormat;
+import kz.enu.museum.service.ExportOptions;
+import kz.enu.museum.service.ExportService;
+import kz.enu.museum.service.FacetCounts;
+import kz.enu.museum.service.ReportEngine;
+import kz.enu.museum.service.ReportQuery;
+import kz.enu.museum.service.ReportJob;
+import kz.enu.museum.service.ReportResult;
+import kz.enu.museum.service.ReportScheduler;
 import kz.enu.museum.service.ReportService;
+import kz.enu.museum.service.SearchFilter;
+import kz.enu.museum.service.SearchHit;
+import kz.enu.museum.service.SearchPage;
 import kz.enu.museum.service.SearchService;
+import kz.enu.museum.service.SimilarityService;
+import kz.enu.museum.service.Suggestion;
+import kz.enu.museum.service.SuggestionService;
 
 /**
  * Главный контроллер приложения.
@@ -71,9 +91,24 @@ public class MainController implements Initializable {
     private CategoryService categoryService;
     private ArtistService artistService;
     private SearchService searchService;
+    private AsyncSearchRunner asyncSearch;
+    // Показанная в таблице выдача поиска (null - весь каталог) и её запрос
+    private SearchPage shownPage;
+    private String shownQuery;
+    private SearchFilter shownFilter;
+    private FacetCounts facetCounts;
+    private SimilarityService similarityService;
+    private SuggestionService suggestionService;
 
     // Сервисы
     private ReportService reportService;
+    private ExportService exportService;
+    private ReportScheduler reportScheduler;
+    // Планировщик создан контроллером и останавливается им же
+    private boolean ownsReportScheduler;
+    // Последний запущенный отчёт (для кнопки отмены) и текущая выгрузка
+    private ReportJob<?> activeReport;
+    private ReportJob<?> activeExport;
 
     // FXML элементы - дерево и таблица
     @FXML private TreeView<Category> categoryTree;
@@ -104,8 +139,10 @@ public class MainController implements Initializable {
 
     // FXML элементы - статус бар
     @FXML private Label statusBar;
+    @FXML private Button cancelReportButton;
     @FXML private Label tableTitle;
     @FXML private Label countLabel;
+    @FXML private Button loadMoreButton;
     @FXML private Label selectedCountLabel;
 
     @Override
@@ -130,6 +167,12 @@ public class MainController implements Initializable {
         this.categoryService = categoryService;
         this.artistService = artistService;
         this.searchService = searchService;
+        this.asyncSearch = new AsyncSearchRunner(searchService, javafx.application.Platform::runLater);
+        if (reportScheduler == null) {
+            // Без репозитория результаты отчётов не кэшируются
+            reportScheduler = new ReportScheduler(null, javafx.application.Platform::runLater);
+            ownsReportScheduler = true;
+        }
 
         logger.info("MainController инициализирован с сервисами");
 
@@ -148,6 +191,51 @@ public class MainController implements Initializable {
         }
     }
 
+    /**
+     * Подключает сервис похожих экспонатов для окна просмотра.
+     *
+     * @param similarityService сервис похожих экспонатов
+     */
+    public void setSimilarityService(SimilarityService similarityService) {
+        this.similarityService = similarityService;
+    }
+
+    /**
+     * Подключает сервис автодополнения для строки поиска и списков выбора.
+     *
+     * @param suggestionService сервис автодополнения
+     */
+    public void setSuggestionService(SuggestionService suggestionService) {
+        this.suggestionService = suggestionService;
+    }
+
+    /**
+     * Подключает сервис отчётов с агрегатами каталога для окна статистики.
+     *
+     * @param reportService сервис отчётов
+     */
+    public void setReportService(ReportService reportService) {
+        this.reportService = reportService;
+    }
+
+    /**
+     * Подключает сервис потоковой выгрузки каталога.
+     *
+     * @param exportService сервис выгрузки
+     */
+    public void setExportService(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    /**
+     * Подключает планировщик фоновых отчётов.
+     *
+     * @param reportScheduler планировщик отчётов
+     */
+    public void setReportScheduler(ReportScheduler reportScheduler) {
+        this.reportScheduler = reportScheduler;
+    }
+
     /**
      * Инициализирует таблицу экспонатов.
      */
@@ -335,6 +423,7 @@ public class MainController implements Initializable {
         if (statusFilter != null) {
             ObservableList<ExhibitStatus> statuses = FXCollections.observableArrayList(ExhibitStatus.values());
             statusFilter.setItems(statuses);
+            statusFilter.setCellFactory(param -> createStatusFacetCell());
         }
 
         if (authorFilter != null) {
@@ -354,17 +443,60 @@ public class MainController implements Initializable {
                 }
             });
 
-            authorFilter.setCellFactory(param -> new javafx.scene.control.ListCell<Artist>() {
-                @Override
-                protected void updateItem(Artist item, boolean empty) {
-                    super.updateItem(item, empty);
-                    if (empty || item == null) {
-                        setText(null);
-                    } else {
-                        setText(item.getFullName());
-                    }
+            authorFilter.setCellFactory(param -> createAuthorFacetCell());
+            installTypeAhead(authorFilter, SuggestionService.Kind.ARTIST);
+        }
+    }
+
+    /**
+     * Создаёт ячейку списка статусов с количеством экспонатов по текущему запросу.
+     */
+    private ListCell<ExhibitStatus> createStatusFacetCell() {
+        return new ListCell<ExhibitStatus>() {
+            @Override
+            protected void updateItem(ExhibitStatus item, boolean empty) {
+                super.updateItem(item, empty);
+                if (empty || item == null) {
+                    setText(null);
+                } else if (facetCounts == null) {
+                    setText(item.getDisplayName());
+                } else {
+                    setText(item.getDisplayName() + " (" + facetCounts.getStatusCounts().getOrDefault(item, 0) + ")");
                 }
-            });
+            }
+        };
+    }
+
+    /**
+     * Создаёт ячейку списка авторов с количеством экспонатов по текущему запросу.
+     */
+    private ListCell<Artist> createAuthorFacetCell() {
+        return new ListCell<Artist>() {
+            @Override
+            protected void updateItem(Artist item, boolean empty) {
+                super.updateItem(item, empty);
+                if (empty || item == null) {
+                    setText(null);
+                } else if (facetCounts == null) {
+                    setText(item.getFullName());
+                } else {
+                    setText(item.getFullName() + " (" + facetCounts.getAuthorCounts().getOrDefault(item.getId(), 0) + ")");
+                }
+            }
+        };
+    }
+
+    /**
+     * Обновляет счётчики в списках фильтров.
+     * Ячейки пересоздаются, чтобы открытый список показал новые значения.
+     */
+    private void updateFacetCounts(FacetCounts counts) {
+        facetCounts = counts;
+        if (statusFilter != null) {
+            statusFilter.setCellFactory(param -> createStatusFacetCell());
+        }
+        if (authorFilter != null) {
+            authorFilter.setCellFactory(param -> createAuthorFacetCell());
         }
     }
 
@@ -377,6 +509,7 @@ public class MainController implements Initializable {
         // Поиск в реальном времени
         if (searchTextField != null) {
             searchTextField.textProperty().addListener((obs, oldVal, newVal) -> handleSearch());
+            initializeSearchSuggestions();
         }
 
         // Фильтры
@@ -393,6 +526,78 @@ public class MainController implements Initializable {
         }
     }
 
+    /**
+     * Показывает варианты дополнения под строкой поиска при вводе текста.
+     */
+    private void initializeSearchSuggestions() {
+        if (suggestionService == null) {
+            return;
+        }
+        ContextMenu suggestionMenu = new ContextMenu();
+        searchTextField.textProperty().addListener((obs, oldVal, newVal) -> {
+            List<Suggestion> suggestions = newVal == null || !searchTextField.isFocused()
+                    ? List.of()
+                    : suggestionService.suggest(newVal, SuggestionService.MAX_SUGGESTIONS);
+            suggestionMenu.getItems().clear();
+            for (Suggestion suggestion : suggestions) {
+                // Уже введённый вариант не предлагаем повторно
+                if (suggestion.getText().equalsIgnoreCase(newVal.trim())) {
+                    continue;
+                }
+                MenuItem item = new MenuItem(suggestion.getText() + "  —  " + suggestion.getKind().getDisplayName());
+                item.setOnAction(event -> {
+                    suggestionService.recordUse(suggestion);
+                    searchTextField.setText(suggestion.getText());
+                    searchTextField.positionCaret(suggestion.getText().length());
+                });
+                suggestionMenu.getItems().add(item);
+            }
+            if (suggestionMenu.getItems().isEmpty()) {
+                suggestionMenu.hide();
+            } else if (!suggestionMenu.isShowing()) {
+                suggestionMenu.show(searchTextField, Side.BOTTOM, 0, 0);
+            }
+        });
+        searchTextField.focusedProperty().addListener((obs, oldVal, focused) -> {
+            if (!focused) {
+                suggestionMenu.hide();
+            }
+        });
+    }
+
+    /**
+     * Включает выбор элемента списка по первым буквам: набранный префикс
+     * дополняется сервисом автодополнения, и выбирается самый весомый вариант.
+     */
+    private <T> void installTypeAhead(ComboBox<T> combo, SuggestionService.Kind kind) {
+        if (suggestionService == null) {
+            return;
+        }
+        StringBuilder typed = new StringBuilder();
+        long[] lastKeyTime = {0};
+        combo.addEventHandler(KeyEvent.KEY_TYPED, event -> {
+            String character = event.getCharacter();
+            if (character.isEmpty() || Character.isISOControl(character.charAt(0))) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            // Пауза больше секунды начинает новый префикс
+            if (now - lastKeyTime[0] > 1000) {
+                typed.setLength(0);
+            }
+            lastKeyTime[0] = now;
+            typed.append(character);
+            for (Suggestion suggestion : suggestionService.suggest(typed.toString(), kind, SuggestionService.MAX_SUGGESTIONS)) {
+                int index = combo.getItems().indexOf(suggestion.getValue());
+                if (index >= 0) {
+                    combo.getSelectionModel().select(index);
+                    event.consume();
+                    break;
+                }
+            }
+        });
+    }
+
     /**
      * Обновить счётчик выбранных элементов.
      */
@@ -413,6 +618,8 @@ public class MainController implements Initializable {
             exhibitTable.setItems(data);
             updateCountLabel();
         }
+        shownPage = null;
+        showLoadMore(false);
     }
 
     /**
@@ -427,20 +634,83 @@ public class MainController implements Initializable {
 
     /**
      * Обработчик поиска.
+     * Поиск выполняется в фоновом потоке после паузы во вводе,
+     * таблица обновляется только результатом последнего запроса
+     * и показывает первую страницу лучших совпадений; остальные
+     * догружаются кнопкой "Показать ещё". Пустой запрос без фильтров
+     * сразу показывает весь каталог.
      */
     private void handleSearch() {
         String query = searchTextField != null ? searchTextField.getText() : "";
         ExhibitStatus status = statusFilter != null ? statusFilter.getValue() : null;
         Artist author = authorFilter != null ? authorFilter.getValue() : null;
 
-        List<MuseumItem> results = searchService.advancedSearch(query, null, author, status);
+        SearchFilter filter = new SearchFilter()
+                .addStatus(status)
+                .addAuthor(author);
 
-        if (exhibitTable != null) {
-            ObservableList<MuseumItem> data = FXCollections.observableArrayList(results);
-            exhibitTable.setItems(data);
+        if ((query == null || query.isBlank()) && filter.isEmpty()) {
+            asyncSearch.cancel();
+            updateExhibitTable();
+            return;
+        }
+
+        asyncSearch.submit(query, filter, page -> {
+            shownQuery = query;
+            shownFilter = filter;
+            shownPage = page;
+            if (exhibitTable != null) {
+                ObservableList<MuseumItem> data = FXCollections.observableArrayList(page.getItems());
+                exhibitTable.setItems(data);
+                updateCountLabel(page);
+            }
+            showLoadMore(page.hasMore());
+            updateFacetCounts(page.getFacets());
+
+            logger.info("Поиск выполнен: найдено " + page.getTotalHits() + " результатов");
+            logger.debug(String.format("Кэш поиска: %s; задержка: последняя %.1f мс, средняя %.1f мс, макс. %.1f мс, отменено %d",
+                    searchService.getResultCache(), asyncSearch.getLastLatencyMillis(),
+                    asyncSearch.getAverageLatencyMillis(), asyncSearch.getMaxLatencyMillis(),
+                    asyncSearch.getCancelledCount()));
+        });
+    }
+
+    /**
+     * Обработчик кнопки "Показать ещё": запрашивает следующую страницу
+     * с тем же запросом и фильтрами и добавляет её в конец таблицы.
+     */
+    @FXML
+    public void handleLoadMore() {
+        if (shownPage == null || !shownPage.hasMore()) {
+            return;
         }
+        SearchPage previous = shownPage;
+        int offset = previous.getOffset() + previous.getItems().size();
+        showLoadMore(false);
+        asyncSearch.loadMore(shownQuery, shownFilter, offset, page -> {
+            // Таблица за это время могла смениться другим поиском
+            if (shownPage != previous) {
+                return;
+            }
+            shownPage = page;
+            if (exhibitTable != null) {
+                exhibitTable.getItems().addAll(page.getItems());
+                updateCountLabel(page);
+            }
+            showLoadMore(page.hasMore());
+        });
+    }
 
-        logger.info("Поиск выполнен: найдено " + results.size() + " результатов");
+    /**
+     * Показывает или скрывает кнопку догрузки результатов.
+     *
+     * @param visible true если есть ещё совпадения
+     */
+    private void showLoadMore(boolean visible) {
+        if (loadMoreButton != null) {
+            loadMoreButton.setVisible(visible);
+            loadMoreButton.setManaged(visible);
+        }
     }
 
     /**
@@ -644,6 +914,7 @@ public class MainController implements Initializable {
         }
         authorCombo.setStyle(fieldStyle);
         authorCombo.setMaxWidth(Double.MAX_VALUE);
+        installTypeAhead(authorCombo, SuggestionService.Kind.ARTIST);
 
         // Настройка отображения автора
         authorCombo.setButtonCell(new ListCell<Artist>() {
@@ -1030,6 +1301,32 @@ public class MainController implements Initializable {
 
         mainContent.getChildren().addAll(headerBox, imageContainer, infoBox);
 
+        // Похожие экспонаты
+        if (similarityService != null) {
+            List<SearchHit> similar = similarityService.findSimilar(selected);
+            if (!similar.isEmpty()) {
+                VBox similarBox = new VBox(6);
+                similarBox.setStyle(
+                        "-fx-background-color: white;" +
+                                "-fx-background-radius: 12;" +
+                                "-fx-padding: 16;"
+                );
+                Label similarTitle = new Label("🔗 Похожие экспонаты");
+                similarTitle.setStyle("-fx-font-size: 14px; -fx-font-weight: bold; -fx-text-fill: #3a3a3a;");
+                similarBox.getChildren().add(similarTitle);
+                for (SearchHit hit : similar) {
+                    MuseumItem item = hit.getItem();
+                    String author = item instanceof Exhibit exhibit && exhibit.getAuthor() != null
+                            ? " — " + exhibit.getAuthor().getFullName() : "";
+                    Label similarLabel = new Label(item.getName() + author
+                            + " (" + Math.round(hit.getScore() * 100) + "%)");
+                    similarLabel.setStyle(infoStyle);
+                    similarBox.getChildren().add(similarLabel);
+                }
+                mainContent.getChildren().add(similarBox);
+            }
+        }
+
         // Scroll если контент большой
         javafx.scene.control.ScrollPane scrollPane = new javafx.scene.control.ScrollPane(mainContent);
         scrollPane.setFitToWidth(true);
@@ -1279,6 +1576,7 @@ public class MainController implements Initializable {
         authorCombo.setItems(FXCollections.observableArrayList(artistService.getAllArtists()));
         authorCombo.setStyle(fieldStyle);
         authorCombo.setMaxWidth(Double.MAX_VALUE);
+        installTypeAhead(authorCombo, SuggestionService.Kind.ARTIST);
         authorCombo.setButtonCell(new ListCell<Artist>() {
             @Override
             protected void updateItem(Artist item, boolean empty) {
@@ -1298,6 +1596,7 @@ public class MainController implements Initializable {
         categoryCombo.setItems(FXCollections.observableArrayList(categoryService.getAllCategories()));
         categoryCombo.setStyle(fieldStyle);
         categoryCombo.setMaxWidth(Double.MAX_VALUE);
+        installTypeAhead(categoryCombo, SuggestionService.Kind.CATEGORY);
 
         // Добавляем элементы
         Label l1 = new Label("📝 Название *"); l1.setStyle(labelStyle);
@@ -1409,6 +1708,8 @@ public class MainController implements Initializable {
 
         ComboBox<Category> categoryCombo = new ComboBox<>();
         categoryCombo.setItems(FXCollections.observableArrayList(categoryService.getAllCategories()));
+        installTypeAhead(authorCombo, SuggestionService.Kind.ARTIST);
+        installTypeAhead(categoryCombo, SuggestionService.Kind.CATEGORY);
 
         grid.add(new Label("Название:"), 0, 0);
         grid.add(nameField, 1, 0);
@@ -1517,6 +1818,8 @@ public class MainController implements Initializable {
 
         ComboBox<Category> categoryCombo = new ComboBox<>();
         categoryCombo.setItems(FXCollections.observableArrayList(categoryService.getAllCategories()));
+        installTypeAhead(authorCombo, SuggestionService.Kind.ARTIST);
+        installTypeAhead(categoryCombo, SuggestionService.Kind.CATEGORY);
 
         grid.add(new Label("Название:"), 0, 0);
         grid.add(nameField, 1, 0);
@@ -1844,6 +2147,9 @@ public class MainController implements Initializable {
         result.ifPresent(artist -> {
             try {
                 artistService.addArtist(artist);
+                if (suggestionService != null) {
+                    suggestionService.addArtist(artist);
+                }
                 showInfo("Успех", "Художник \"" + artist.getFullName() + "\" добавлен!");
             } catch (Exception e) {
                 logger.error("Ошибка при добавлении художника", e);
@@ -1858,23 +2164,19 @@ public class MainController implements Initializable {
     @FXML
     public void handleManageLocations() {
         logger.info("Открытие менеджера залов");
-
-        Dialog<Void> dialog = new Dialog<>();
-        dialog.setTitle("🏛️ Залы музея");
-        dialog.setHeaderText("Управление залами и местоположениями");
-
-        dialog.getDialogPane().getButtonTypes().addAll(ButtonType.CLOSE);
-
-        VBox content = new VBox(16);
-        content.setPadding(new Insets(24));
-        content.setStyle("-fx-background-color: #fdfcfb;");
-
-        // Заголовок
-        Label titleLabel = new Label("🏛️ Залы музея");
-        titleLabel.setStyle("-fx-font-size: 18px; -fx-font-weight: bold; -fx-text-fill: #6a5040;");
-
-        // Собираем информацию о залах из экспонатов
+        // Снимок берётся в потоке интерфейса: репозиторий меняется только в нём
         List<MuseumItem> allExhibits = exhibitService.getAllExhibits();
+        runReport(new ReportJob<java.util.Map<String, Integer>>("Отчёт по залам",
+                job -> collectHallCounts(allExhibits)).cached("locations"), this::showLocations);
+    }
+
+    /**
+     * Считает экспонаты по залам (в фоновом потоке).
+     *
+     * @param allExhibits снимок экспонатов
+     * @return количество экспонатов по названию зала
+     */
+    private java.util.Map<String, Integer> collectHallCounts(List<MuseumItem> allExhibits) {
         java.util.Map<String, Integer> hallCounts = new java.util.HashMap<>();
 
         for (MuseumItem item : allExhibits) {
@@ -1888,6 +2190,28 @@ public class MainController implements Initializable {
                 }
             }
         }
+        return java.util.Collections.unmodifiableMap(hallCounts);
+    }
+
+    /**
+     * Показывает окно залов по готовым счётчикам.
+     *
+     * @param hallCounts количество экспонатов по залам
+     */
+    private void showLocations(java.util.Map<String, Integer> hallCounts) {
+        Dialog<Void> dialog = new Dialog<>();
+        dialog.setTitle("🏛️ Залы музея");
+        dialog.setHeaderText("Управление залами и местоположениями");
+
+        dialog.getDialogPane().getButtonTypes().addAll(ButtonType.CLOSE);
+
+        VBox content = new VBox(16);
+        content.setPadding(new Insets(24));
+        content.setStyle("-fx-background-color: #fdfcfb;");
+
+        // Заголовок
+        Label titleLabel = new Label("🏛️ Залы музея");
+        titleLabel.setStyle("-fx-font-size: 18px; -fx-font-weight: bold; -fx-text-fill: #6a5040;");
 
         StringBuilder sb = new StringBuilder();
         sb.append("╔══════════════════════════════════════════════════╗\n");
@@ -1912,7 +2236,8 @@ public class MainController implements Initializable {
         }
 
         // Статистика
-        Label statsLabel = new Label("📊 Всего залов: " + hallCounts.size() + " | Экспонатов: " + allExhibits.size());
+        int exhibitTotal = hallCounts.values().stream().mapToInt(Integer::intValue).sum();
+        Label statsLabel = new Label("📊 Всего залов: " + hallCounts.size() + " | Экспонатов: " + exhibitTotal);
         statsLabel.setStyle("-fx-font-size: 14px; -fx-font-weight: 600; -fx-text-fill: #d4a88a; -fx-padding: 12 0 0 0;");
 
         content.getChildren().addAll(titleLabel, hallsBox, statsLabel);
@@ -1934,7 +2259,64 @@ public class MainController implements Initializable {
     @FXML
     public void handleStatistics() {
         logger.info("Открытие статистики");
+        runReport(new ReportJob<long[]>("Статистика музея", job -> collectStatistics())
+                .priority(ReportJob.Priority.HIGH)
+                .cached("statistics"), this::showStatistics);
+    }
+
+    /**
+     * Считает экспонаты по типам и статусам (в фоновом потоке).
+     *
+     * @return всего, картин, скульптур, артефактов, на экспозиции, в хранилище, на реставрации, в аренде
+     */
+    private long[] collectStatistics() {
+        long totalCount;
+        long paintingCount;
+        long sculptureCount;
+        long artifactCount;
+        long onDisplay;
+        long inStorage;
+        long onRestoration;
+        long onLoan;
+        if (reportService != null) {
+            // Готовые агрегаты: без прохода по каталогу
+            CatalogAggregates aggregates = reportService.getAggregates();
+            totalCount = aggregates.getTotalCount();
+            paintingCount = aggregates.getCount(CatalogAggregates.Dimension.TYPE, Painting.class.getSimpleName());
+            sculptureCount = aggregates.getCount(CatalogAggregates.Dimension.TYPE, Sculpture.class.getSimpleName());
+            artifactCount = aggregates.getCount(CatalogAggregates.Dimension.TYPE, Artifact.class.getSimpleName());
+            onDisplay = aggregates.getCount(CatalogAggregates.Dimension.STATUS, ExhibitStatus.ON_DISPLAY.getDisplayName());
+            inStorage = aggregates.getCount(CatalogAggregates.Dimension.STATUS, ExhibitStatus.IN_STORAGE.getDisplayName());
+            onRestoration = aggregates.getCount(CatalogAggregates.Dimension.STATUS, ExhibitStatus.ON_RESTORATION.getDisplayName());
+            onLoan = aggregates.getCount(CatalogAggregates.Dimension.STATUS, ExhibitStatus.ON_LOAN.getDisplayName());
+        } else {
+            // Один проход по каталогу с группировкой по типу и статусу
+            ReportResult byTypeAndStatus = new ReportEngine().execute(exhibitService.getAllExhibits(),
+                    new ReportQuery()
+                            .groupBy("Тип", item -> item.getClass())
+                            .groupBy("Статус", MuseumItem::getStatus)
+                            .count("Экспонатов"));
+            ReportResult byType = byTypeAndStatus.rollUp("Тип");
+            ReportResult byStatus = byTypeAndStatus.rollUp("Статус");
+            totalCount = byTypeAndStatus.getTotal().getCount();
+            paintingCount = byType.getCount(Painting.class);
+            sculptureCount = byType.getCount(Sculpture.class);
+            artifactCount = byType.getCount(Artifact.class);
+            onDisplay = byStatus.getCount(ExhibitStatus.ON_DISPLAY);
+            inStorage = byStatus.getCount(ExhibitStatus.IN_STORAGE);
+            onRestoration = byStatus.getCount(ExhibitStatus.ON_RESTORATION);
+            onLoan = byStatus.getCount(ExhibitStatus.ON_LOAN);
+        }
+        return new long[]{totalCount, paintingCount, sculptureCount, artifactCount,
+                onDisplay, inStorage, onRestoration, onLoan};
+    }
 
+    /**
+     * Показывает окно статистики по готовым счётчикам.
+     *
+     * @param counts счётчики из {@link #collectStatistics()}
+     */
+    private void showStatistics(long[] counts) {
         Dialog<Void> dialog = new Dialog<>();
         dialog.setTitle("📊 Статистика музея");
         dialog.setHeaderText("Подробная статистика коллекции");
@@ -1945,19 +2327,6 @@ public class MainController implements Initializable {
         content.setPadding(new Insets(24));
         content.setStyle("-fx-background-color: #fdfcfb;");
 
-        List<MuseumItem> allExhibits = exhibitService.getAllExhibits();
-
-        // Подсчёт по типам
-        long paintingCount = allExhibits.stream().filter(e -> e instanceof Painting).count();
-        long sculptureCount = allExhibits.stream().filter(e -> e instanceof Sculpture).count();
-        long artifactCount = allExhibits.stream().filter(e -> e instanceof Artifact).count();
-
-        // Подсчёт по статусам
-        long onDisplay = exhibitService.filterByStatus(ExhibitStatus.ON_DISPLAY).size();
-        long inStorage = exhibitService.filterByStatus(ExhibitStatus.IN_STORAGE).size();
-        long onRestoration = exhibitService.filterByStatus(ExhibitStatus.ON_RESTORATION).size();
-        long onLoan = exhibitService.filterByStatus(ExhibitStatus.ON_LOAN).size();
-
         // Заголовок
         Label titleLabel = new Label("📊 Статистика коллекции");
         titleLabel.setStyle("-fx-font-size: 18px; -fx-font-weight: bold; -fx-text-fill: #5a4a65;");
@@ -1966,7 +2335,7 @@ public class MainController implements Initializable {
         VBox totalBox = new VBox(8);
         totalBox.setStyle("-fx-background-color: #f0e8f4; -fx-background-radius: 12; -fx-padding: 16;");
 
-        Label totalLabel = new Label("🏛️ Всего экспонатов: " + allExhibits.size());
+        Label totalLabel = new Label("🏛️ Всего экспонатов: " + counts[0]);
         totalLabel.setStyle("-fx-font-size: 16px; -fx-font-weight: 700; -fx-text-fill: #5a4a65;");
         totalBox.getChildren().add(totalLabel);
 
@@ -1979,9 +2348,9 @@ public class MainController implements Initializable {
 
         javafx.scene.layout.HBox typesRow = new javafx.scene.layout.HBox(16);
         typesRow.getChildren().addAll(
-                createStatCard("🖼️ Картины", String.valueOf(paintingCount), "#c9a9a9"),
-                createStatCard("🗿 Скульптуры", String.valueOf(sculptureCount), "#9cb4a0"),
-                createStatCard("⚱️ Артефакты", String.valueOf(artifactCount), "#d4a88a")
+                createStatCard("🖼️ Картины", String.valueOf(counts[1]), "#c9a9a9"),
+                createStatCard("🗿 Скульптуры", String.valueOf(counts[2]), "#9cb4a0"),
+                createStatCard("⚱️ Артефакты", String.valueOf(counts[3]), "#d4a88a")
         );
 
         typesBox.getChildren().addAll(typesTitle, typesRow);
@@ -1995,14 +2364,14 @@ public class MainController implements Initializable {
 
         javafx.scene.layout.HBox statusRow1 = new javafx.scene.layout.HBox(16);
         statusRow1.getChildren().addAll(
-                createStatCard("✅ На экспозиции", String.valueOf(onDisplay), "#9cb4a0"),
-                createStatCard("📦 В хранилище", String.valueOf(inStorage), "#7d8a96")
+                createStatCard("✅ На экспозиции", String.valueOf(counts[4]), "#9cb4a0"),
+                createStatCard("📦 В хранилище", String.valueOf(counts[5]), "#7d8a96")
         );
 
         javafx.scene.layout.HBox statusRow2 = new javafx.scene.layout.HBox(16);
         statusRow2.getChildren().addAll(
-                createStatCard("🔧 На реставрации", String.valueOf(onRestoration), "#d4a88a"),
-                createStatCard("📤 В аренде", String.valueOf(onLoan), "#a08cb0")
+                createStatCard("🔧 На реставрации", String.valueOf(counts[6]), "#d4a88a"),
+                createStatCard("📤 В аренде", String.valueOf(counts[7]), "#a08cb0")
         );
 
         statusBox.getChildren().addAll(statusTitle, statusRow1, statusRow2);
@@ -2058,9 +2427,20 @@ public class MainController implements Initializable {
     @FXML
     public void handleRestorationReport() {
         logger.info("Отчёт по реставрации");
+        List<MuseumItem> allExhibits = exhibitService.getAllExhibits();
+        runReport(new ReportJob<List<MuseumItem>>("Отчёт по реставрации",
+                job -> allExhibits.stream()
+                        .filter(item -> item.getStatus() == ExhibitStatus.ON_RESTORATION)
+                        .toList())
+                .cached("restoration"), this::showRestorationReport);
+    }
 
-        List<MuseumItem> onRestorationList = exhibitService.filterByStatus(ExhibitStatus.ON_RESTORATION);
-
+    /**
+     * Показывает окно отчёта по реставрации.
+     *
+     * @param onRestorationList экспонаты на реставрации
+     */
+    private void showRestorationReport(List<MuseumItem> onRestorationList) {
         Dialog<Void> dialog = new Dialog<>();
         dialog.setTitle("🔧 Отчёт по реставрации");
         dialog.setHeaderText("Экспонаты на реставрации");
@@ -2157,45 +2537,7 @@ public class MainController implements Initializable {
     @FXML
     public void handleExportJson() {
         logger.info("Экспорт в JSON");
-
-        FileChooser fileChooser = new FileChooser();
-        fileChooser.setTitle("Сохранить как JSON");
-        fileChooser.setInitialFileName("exhibits_export.json");
-        fileChooser.getExtensionFilters().add(
-                new FileChooser.ExtensionFilter("JSON файлы", "*.json")
-        );
-
-        File file = fileChooser.showSaveDialog(null);
-        if (file != null) {
-            try {
-                List<MuseumItem> exhibits = exhibitService.getAllExhibits();
-
-                // Простой JSON экспорт
-                StringBuilder json = new StringBuilder("[\n");
-                for (int i = 0; i < exhibits.size(); i++) {
-                    MuseumItem item = exhibits.get(i);
-                    json.append("  {\n");
-                    json.append("    \"id\": ").append(item.getId()).append(",\n");
-                    json.append("    \"name\": \"").append(item.getName()).append("\",\n");
-                    json.append("    \"inventoryNumber\": \"").append(item.getInventoryNumber()).append("\",\n");
-                    json.append("    \"status\": \"").append(item.getStatus()).append("\",\n");
-                    json.append("    \"type\": \"").append(item.getClass().getSimpleName()).append("\"\n");
-                    json.append("  }");
-                    if (i < exhibits.size() - 1) json.append(",");
-                    json.append("\n");
-                }
-                json.append("]");
-
-                try (PrintWriter writer = new PrintWriter(file)) {
-                    writer.print(json.toString());
-                }
-
-                showInfo("Экспорт завершён", "Данные экспортированы в:\n" + file.getAbsolutePath());
-            } catch (Exception e) {
-                logger.error("Ошибка экспорта", e);
-                showError("Ошибка экспорта", e.getMessage());
-            }
-        }
+        exportCatalog(ExportFormat.JSON, "Сохранить как JSON", "exhibits_export", "JSON файлы");
     }
 
     /**
@@ -2204,41 +2546,7 @@ public class MainController implements Initializable {
     @FXML
     public void handleExportCsv() {
         logger.info("Экспорт в CSV");
-
-        FileChooser fileChooser = new FileChooser();
-        fileChooser.setTitle("Сохранить как CSV");
-        fileChooser.setInitialFileName("exhibits_export.csv");
-        fileChooser.getExtensionFilters().add(
-                new FileChooser.ExtensionFilter("CSV файлы", "*.csv")
-        );
-
-        File file = fileChooser.showSaveDialog(null);
-        if (file != null) {
-            try {
-                List<MuseumItem> exhibits = exhibitService.getAllExhibits();
-
-                try (PrintWriter writer = new PrintWriter(file)) {
-                    // Заголовок
-                    writer.println("ID;Инвентарный номер;Название;Тип;Статус");
-
-                    // Данные
-                    for (MuseumItem item : exhibits) {
-                        writer.printf("%d;%s;%s;%s;%s%n",
-                                item.getId(),
-                                item.getInventoryNumber(),
-                                item.getName(),
-                                item.getClass().getSimpleName(),
-                                item.getStatus()
-                        );
-                    }
-                }
-
-                showInfo("Экспорт завершён", "Данные экспортированы в:\n" + file.getAbsolutePath());
-            } catch (Exception e) {
-                logger.error("Ошибка экспорта", e);
-                showError("Ошибка экспорта", e.getMessage());
-            }
-        }
+        exportCatalog(ExportFormat.CSV, "Сохранить как CSV", "exhibits_export", "CSV файлы");
     }
 
     /**
@@ -2247,47 +2555,125 @@ public class MainController implements Initializable {
     @FXML
     public void handleExportPdf() {
         logger.info("Экспорт в PDF");
+        exportCatalog(ExportFormat.PDF, "Сохранить отчёт как PDF", "museum_report", "PDF файлы");
+    }
 
+    /**
+     * Выгружает каталог в выбранный пользователем файл потоково,
+     * не собирая содержимое файла в памяти. Выгрузка идёт в фоновом потоке,
+     * строки сериализуются параллельно, ход отображается в строке состояния.
+     *
+     * @param format формат выгрузки
+     * @param title заголовок диалога
+     * @param fileName имя файла по умолчанию без расширения
+     * @param filterName название фильтра файлов
+     */
+    private void exportCatalog(ExportFormat format, String title, String fileName, String filterName) {
+        if (exportService == null) {
+            showError("Ошибка экспорта", "Сервис выгрузки не подключён");
+            return;
+        }
+
+        ExportOptions options = new ExportOptions(format);
         FileChooser fileChooser = new FileChooser();
-        fileChooser.setTitle("Сохранить отчёт как PDF");
-        fileChooser.setInitialFileName("museum_report.txt");
+        fileChooser.setTitle(title);
+        fileChooser.setInitialFileName(fileName + "." + options.getFileExtension());
         fileChooser.getExtensionFilters().add(
-                new FileChooser.ExtensionFilter("Текстовые файлы", "*.txt")
+                new FileChooser.ExtensionFilter(filterName, "*." + options.getFileExtension())
         );
 
         File file = fileChooser.showSaveDialog(null);
         if (file != null) {
-            try {
-                List<MuseumItem> exhibits = exhibitService.getAllExhibits();
-
-                try (PrintWriter writer = new PrintWriter(file)) {
-                    writer.println("═══════════════════════════════════════════════════════════");
-                    writer.println("                   ОТЧЁТ МУЗЕЯ");
-                    writer.println("═══════════════════════════════════════════════════════════");
-                    writer.println();
-                    writer.println("Дата формирования: " + java.time.LocalDateTime.now());
-                    writer.println();
-                    writer.println("СПИСОК ЭКСПОНАТОВ:");
-                    writer.println("───────────────────────────────────────────────────────────");
-
-                    for (MuseumItem item : exhibits) {
-                        writer.printf("  • %s (%s)%n", item.getName(), item.getInventoryNumber());
-                        writer.printf("    Тип: %s | Статус: %s%n",
-                                item.getClass().getSimpleName(),
-                                getStatusText(item.getStatus()));
-                        writer.println();
-                    }
+            // Снимок ссылок берётся в потоке интерфейса, сериализация идёт в фоне
+            List<MuseumItem> exhibits = exhibitService.getAllExhibits();
+            ReportJob<Long> job = new ReportJob<Long>("Экспорт " + format.getDisplayName(), running ->
+                    exportService.export(exhibits, file.toPath(), options.parallel(true)
+                            .progress(running::progress, ExportOptions.DEFAULT_PROGRESS_STEP * 10)))
+                    .onProgress((written, total) -> {
+                        if (statusBar != null) {
+                            statusBar.setText("Экспорт: " + written + " из " + total);
+                        }
+                    });
+            // Новая выгрузка заменяет незавершённую: две записи в фоне не нужны
+            if (activeExport != null && activeExport.cancel()) {
+                logger.info("Предыдущая выгрузка отменена: " + activeExport.getName());
+            }
+            activeExport = job;
+            runReport(job, count -> showInfo("Экспорт завершён", "Экспортировано экспонатов: " + count
+                    + "\nФайл: " + file.getAbsolutePath()));
+        }
+    }
 
-                    writer.println("───────────────────────────────────────────────────────────");
-                    writer.printf("Всего экспонатов: %d%n", exhibits.size());
-                    writer.println("═══════════════════════════════════════════════════════════");
-                }
+    /**
+     * Запускает отчёт в планировщике: строка состояния показывает, что отчёт
+     * строится, и предлагает его отменить; результат или ошибка возвращаются
+     * в поток интерфейса.
+     *
+     * @param job задание отчёта
+     * @param onResult обработчик результата
+     * @param <T> тип результата
+     */
+    private <T> void runReport(ReportJob<T> job, java.util.function.Consumer<? super T> onResult) {
+        if (statusBar != null) {
+            statusBar.setText("⏳ " + job.getName() + "...");
+        }
+        job.onError(e -> {
+            finishReport(job);
+            showError(job.getName(), e.getMessage());
+        });
+        activeReport = job;
+        showCancelReport(true);
+        reportScheduler.submit(job, result -> {
+            finishReport(job);
+            onResult.accept(result);
+        });
+    }
 
-                showInfo("Отчёт сформирован", "Отчёт сохранён в:\n" + file.getAbsolutePath());
-            } catch (Exception e) {
-                logger.error("Ошибка формирования отчёта", e);
-                showError("Ошибка", e.getMessage());
-            }
+    /**
+     * Обработчик кнопки отмены в строке состояния: отменяет последний
+     * запущенный отчёт или выгрузку. Результат отменённого задания
+     * не доставляется.
+     */
+    @FXML
+    public void handleCancelReport() {
+        ReportJob<?> job = activeReport;
+        if (job == null) {
+            return;
+        }
+        if (job.cancel()) {
+            logger.info("Отчёт отменён пользователем: " + job.getName());
+        }
+        finishReport(job);
+        if (statusBar != null) {
+            statusBar.setText("Отменено: " + job.getName());
+        }
+    }
+
+    /**
+     * Снимает отметки о завершённом задании и возвращает строку состояния.
+     *
+     * @param job завершённое или отменённое задание
+     */
+    private void finishReport(ReportJob<?> job) {
+        if (activeExport == job) {
+            activeExport = null;
+        }
+        if (activeReport == job) {
+            activeReport = null;
+            showCancelReport(false);
+        }
+        updateStatusBar();
+    }
+
+    /**
+     * Показывает или скрывает кнопку отмены отчёта.
+     *
+     * @param visible true пока отчёт выполняется
+     */
+    private void showCancelReport(boolean visible) {
+        if (cancelReportButton != null) {
+            cancelReportButton.setVisible(visible);
+            cancelReportButton.setManaged(visible);
         }
     }
 
@@ -2411,6 +2797,18 @@ public class MainController implements Initializable {
         }
     }
 
+    /**
+     * Обновляет счётчик по странице поиска: при неполной выдаче
+     * показывает, сколько совпадений из общего числа выведено.
+     */
+    private void updateCountLabel(SearchPage page) {
+        if (countLabel != null) {
+            countLabel.setText(page.hasMore()
+                    ? "Показано: " + (page.getOffset() + page.getItems().size()) + " из " + page.getTotalHits()
+                    : "Всего: " + page.getTotalHits());
+        }
+    }
+
     /**
      * Обработчик выхода из приложения.
      */
@@ -2424,7 +2822,25 @@ public class MainController implements Initializable {
 
         if (alert.showAndWait().orElse(ButtonType.CANCEL) == ButtonType.OK) {
             logger.info("Приложение закрыто пользователем");
+            shutdown();
             javafx.application.Platform.exit();
         }
     }
+
+    /**
+     * Останавливает фоновые потоки контроллера: поиск при вводе,
+     * незавершённую выгрузку и планировщик отчётов, если он создан
+     * самим контроллером.
+     */
+    public void shutdown() {
+        if (activeExport != null) {
+            activeExport.cancel();
+        }
+        if (asyncSearch != null) {
+            asyncSearch.shutdown();
+        }
+        if (ownsReportScheduler) {
+            reportScheduler.shutdown();
+        }
+    }
 }
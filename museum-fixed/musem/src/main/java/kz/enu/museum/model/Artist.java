@@ -1,5 +1,7 @@
 package kz.enu.museum.model;
 
+import kz.enu.museum.util.SearchTextUtil;
+
 /**
  * Класс для представления художника/автора экспоната.
  * Содержит информацию о художнике, его годах жизни и биографии.
@@ -15,6 +17,7 @@ public class Artist {
     private Integer deathYear; // может быть null если художник жив
     private String country;
     private String biography;
+    private transient String fullNameKey; // имя в нижнем регистре для поиска
     
     /**
      * Конструктор по умолчанию.
@@ -72,6 +75,19 @@ public class Artist {
             throw new IllegalArgumentException("Имя художника не может быть пустым");
         }
         this.fullName = fullName;
+        this.fullNameKey = SearchTextUtil.searchKey(fullName);
+    }
+    
+    /**
+     * Ключ поиска по имени (имя в нижнем регистре).
+     *
+     * @return ключ поиска
+     */
+    public String getFullNameSearchKey() {
+        if (fullNameKey == null) {
+            fullNameKey = SearchTextUtil.searchKey(fullName);
+        }
+        return fullNameKey;
     }
     
     public int getBirthYear() {
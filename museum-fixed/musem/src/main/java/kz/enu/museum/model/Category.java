@@ -3,6 +3,8 @@ package kz.enu.museum.model;
 import java.util.ArrayList;
 import java.util.List;
 
+import kz.enu.museum.util.SearchTextUtil;
+
 /**
  * Класс для представления категории экспонатов.
  * Поддерживает иерархическую структуру с подкатегориями.
@@ -18,6 +20,7 @@ public class Category {
     private String categoryCode; // например, ПЛ для Живопись, СК для Скульптура
     private Category parentCategory; // null для корневых категорий
     private List<Category> subcategories;
+    private transient String nameKey; // название в нижнем регистре для поиска
     
     /**
      * Конструктор по умолчанию.
@@ -74,6 +77,19 @@ public class Category {
             throw new IllegalArgumentException("Название категории не может быть пустым");
         }
         this.name = name;
+        this.nameKey = SearchTextUtil.searchKey(name);
+    }
+    
+    /**
+     * Ключ поиска по названию (название в нижнем регистре).
+     *
+     * @return ключ поиска
+     */
+    public String getNameSearchKey() {
+        if (nameKey == null) {
+            nameKey = SearchTextUtil.searchKey(name);
+        }
+        return nameKey;
     }
     
     public String getDescription() {
@@ -3,6 +3,7 @@ package kz.enu.museum.model;
 import kz.enu.museum.interfaces.Exportable;
 import kz.enu.museum.interfaces.Searchable;
 import kz.enu.museum.model.enums.ExhibitStatus;
+import kz.enu.museum.util.SearchTextUtil;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -28,6 +29,12 @@ public abstract class MuseumItem implements Searchable, Exportable {
     private String inventoryNumber; // Формат: МУЗ-{категория}-{год}-{номер}
     private ExhibitStatus status;
     
+    // Ключи поиска в нижнем регистре: вычисляются при изменении поля,
+    // при загрузке из JSON (минуя сеттеры) - при первом обращении
+    private transient String nameKey;
+    private transient String descriptionKey;
+    private transient String inventoryKey;
+    
     /**
      * Конструктор по умолчанию.
      */
@@ -62,6 +69,7 @@ public abstract class MuseumItem implements Searchable, Exportable {
             throw new IllegalArgumentException("Название экспоната не может быть пустым");
         }
         this.name = name;
+        this.nameKey = SearchTextUtil.searchKey(name);
     }
     
     public String getDescription() {
@@ -70,6 +78,7 @@ public abstract class MuseumItem implements Searchable, Exportable {
     
     public void setDescription(String description) {
         this.description = description != null ? description : "";
+        this.descriptionKey = SearchTextUtil.searchKey(this.description);
     }
     
     public LocalDate getCreationDate() {
@@ -103,6 +112,7 @@ public abstract class MuseumItem implements Searchable, Exportable {
             throw new IllegalArgumentException("Инвентарный номер не может быть пустым");
         }
         this.inventoryNumber = inventoryNumber;
+        this.inventoryKey = SearchTextUtil.searchKey(inventoryNumber);
     }
     
     public ExhibitStatus getStatus() {
@@ -116,6 +126,42 @@ public abstract class MuseumItem implements Searchable, Exportable {
         this.status = status;
     }
     
+    /**
+     * Ключ поиска по названию (название в нижнем регистре).
+     *
+     * @return ключ поиска
+     */
+    public String getNameSearchKey() {
+        if (nameKey == null) {
+            nameKey = SearchTextUtil.searchKey(name);
+        }
+        return nameKey;
+    }
+    
+    /**
+     * Ключ поиска по описанию (описание в нижнем регистре, пустое для null).
+     *
+     * @return ключ поиска
+     */
+    public String getDescriptionSearchKey() {
+        if (descriptionKey == null) {
+            descriptionKey = SearchTextUtil.searchKey(description);
+        }
+        return descriptionKey;
+    }
+    
+    /**
+     * Ключ поиска по инвентарному номеру (номер в нижнем регистре).
+     *
+     * @return ключ поиска
+     */
+    public String getInventorySearchKey() {
+        if (inventoryKey == null) {
+            inventoryKey = SearchTextUtil.searchKey(inventoryNumber);
+        }
+        return inventoryKey;
+    }
+    
     /**
      * Реализация интерфейса Searchable.
      * Проверяет соответствие объекта поисковому запросу.
@@ -129,10 +175,21 @@ public abstract class MuseumItem implements Searchable, Exportable {
             return true;
         }
         
-        String lowerQuery = query.toLowerCase();
-        return name.toLowerCase().contains(lowerQuery) ||
-               description.toLowerCase().contains(lowerQuery) ||
-               inventoryNumber.toLowerCase().contains(lowerQuery);
+        return matchesNormalizedSearch(SearchTextUtil.searchKey(query));
+    }
+    
+    /**
+     * Проверяет соответствие уже нормализованному запросу (в нижнем регистре).
+     * Сравнение идёт по готовым ключам поиска и не создаёт новых строк,
+     * поэтому вызывающий код нормализует запрос один раз на весь каталог.
+     *
+     * @param normalizedQuery запрос в нижнем регистре
+     * @return true если объект соответствует запросу
+     */
+    public boolean matchesNormalizedSearch(String normalizedQuery) {
+        return getNameSearchKey().contains(normalizedQuery) ||
+               getDescriptionSearchKey().contains(normalizedQuery) ||
+               getInventorySearchKey().contains(normalizedQuery);
     }
     
     /**
@@ -1,6 +1,7 @@
 package kz.enu.museum.repository;
 
 import kz.enu.museum.model.Artist;
+import kz.enu.museum.util.SearchTextUtil;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -82,9 +83,9 @@ public class ArtistRepository implements Repository<Artist> {
             return new ArrayList<>();
         }
         
-        String lowerName = name.toLowerCase();
+        String lowerName = SearchTextUtil.searchKey(name);
         return storage.values().stream()
-                .filter(artist -> artist.getFullName().toLowerCase().contains(lowerName))
+                .filter(artist -> artist.getFullNameSearchKey().contains(lowerName))
                 .collect(Collectors.toList());
     }
     
@@ -1,6 +1,7 @@
 package kz.enu.museum.repository;
 
 import kz.enu.museum.model.Category;
+import kz.enu.museum.util.SearchTextUtil;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -82,9 +83,9 @@ public class CategoryRepository implements Repository<Category> {
             return new ArrayList<>();
         }
         
-        String lowerName = name.toLowerCase();
+        String lowerName = SearchTextUtil.searchKey(name);
         return storage.values().stream()
-                .filter(cat -> cat.getName().toLowerCase().contains(lowerName))
+                .filter(cat -> cat.getNameSearchKey().contains(lowerName))
                 .collect(Collectors.toList());
     }
     
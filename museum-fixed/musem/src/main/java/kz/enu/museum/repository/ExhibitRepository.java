@@ -1,11 +1,14 @@
 package kz.enu.museum.repository;
 
 import kz.enu.museum.model.MuseumItem;
+import kz.enu.museum.util.SearchTextUtil;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -21,6 +24,7 @@ public class ExhibitRepository implements Repository<MuseumItem> {
     private static final Logger logger = LogManager.getLogger(ExhibitRepository.class);
     private final Map<Long, MuseumItem> storage = new HashMap<>();
     private final AtomicLong idGenerator = new AtomicLong(1);
+    private final List<RepositoryListener<MuseumItem>> listeners = new CopyOnWriteArrayList<>();
     
     @Override
     public MuseumItem save(MuseumItem entity) {
@@ -36,6 +40,7 @@ public class ExhibitRepository implements Repository<MuseumItem> {
         }
         
         storage.put(entity.getId(), entity);
+        notifyListeners(listener -> listener.onSaved(entity), "сохранении");
         return entity;
     }
     
@@ -54,6 +59,7 @@ public class ExhibitRepository implements Repository<MuseumItem> {
         if (storage.containsKey(id)) {
             MuseumItem removed = storage.remove(id);
             logger.info("Удалён экспонат: " + removed.getName() + " (ID: " + id + ")");
+            notifyListeners(listener -> listener.onDeleted(removed), "удалении");
             return true;
         }
         logger.warn("Попытка удаления несуществующего экспоната (ID: " + id + ")");
@@ -69,6 +75,48 @@ public class ExhibitRepository implements Repository<MuseumItem> {
     public void deleteAll() {
         logger.info("Удалены все экспонаты (" + storage.size() + " шт)");
         storage.clear();
+        notifyListeners(RepositoryListener::onCleared, "очистке");
+    }
+    
+    /**
+     * Оповещает всех слушателей об изменении. Хранилище к этому моменту
+     * уже изменено, поэтому ошибка одного слушателя записывается в журнал
+     * и не прерывает ни операцию, ни оповещение остальных.
+     *
+     * @param event оповещение
+     * @param operation название операции для журнала
+     */
+    private void notifyListeners(Consumer<RepositoryListener<MuseumItem>> event, String operation) {
+        for (RepositoryListener<MuseumItem> listener : listeners) {
+            try {
+                event.accept(listener);
+            } catch (RuntimeException e) {
+                logger.error("Ошибка слушателя " + listener.getClass().getName()
+                        + " при " + operation + " экспоната", e);
+            }
+        }
+    }
+    
+    /**
+     * Подписывает слушателя на изменения экспонатов.
+     *
+     * @param listener слушатель
+     */
+    public void addListener(RepositoryListener<MuseumItem> listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Слушатель не может быть null");
+        }
+        listeners.add(listener);
+    }
+    
+    /**
+     * Отписывает слушателя от изменений экспонатов.
+     *
+     * @param listener слушатель
+     * @return true если слушатель был подписан
+     */
+    public boolean removeListener(RepositoryListener<MuseumItem> listener) {
+        return listeners.remove(listener);
     }
     
     /**
@@ -82,9 +130,9 @@ public class ExhibitRepository implements Repository<MuseumItem> {
             return new ArrayList<>();
         }
         
-        String lowerName = name.toLowerCase();
+        String lowerName = SearchTextUtil.searchKey(name);
         return storage.values().stream()
-                .filter(item -> item.getName().toLowerCase().contains(lowerName))
+                .filter(item -> item.getNameSearchKey().contains(lowerName))
                 .collect(Collectors.toList());
     }
     
@@ -0,0 +1,34 @@
+package kz.enu.museum.repository;
+
+/**
+ * Слушатель изменений репозитория.
+ * Позволяет производным структурам (индексам поиска, агрегатам отчётов)
+ * обновляться по одной изменённой сущности вместо полного перестроения.
+ * Методы вызываются в потоке, выполнившем изменение, после его применения.
+ *
+ * @param <T> тип сущности
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+public interface RepositoryListener<T> {
+
+    /**
+     * Сущность добавлена или обновлена.
+     *
+     * @param entity сохранённая сущность
+     */
+    void onSaved(T entity);
+
+    /**
+     * Сущность удалена.
+     *
+     * @param entity удалённая сущность
+     */
+    void onDeleted(T entity);
+
+    /**
+     * Репозиторий очищен.
+     */
+    void onCleared();
+}
@@ -0,0 +1,257 @@
+package kz.enu.museum.service;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Асинхронный запуск поиска с задержкой (debounce) и отменой устаревших запросов.
+ * Запрос выполняется в фоновом потоке после паузы во вводе и возвращает
+ * только первую страницу лучших совпадений; следующие страницы того же
+ * запроса догружаются по {@link #loadMore}. Каждый новый запрос
+ * отменяет ожидающий или выполняющийся предыдущий. Результат передаётся через
+ * исполнитель доставки (в приложении - Platform::runLater) и только если
+ * за это время не поступил более новый запрос.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+public class AsyncSearchRunner {
+
+    private static final Logger logger = LogManager.getLogger(AsyncSearchRunner.class);
+
+    /** Задержка по умолчанию между последним вводом и запуском поиска. */
+    public static final long DEFAULT_DEBOUNCE_MILLIS = 150;
+
+    /** Размер страницы по умолчанию: сколько лучших совпадений показывается в таблице. */
+    public static final int DEFAULT_PAGE_SIZE = 500;
+
+    private final SearchService searchService;
+    private final Executor deliveryExecutor;
+    private final long debounceMillis;
+    private final int pageSize;
+    private final ScheduledExecutorService worker;
+    private final AtomicLong generation = new AtomicLong();
+    private ScheduledFuture<?> pending;
+
+    // Метрики задержки
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong cancelled = new AtomicLong();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+    private volatile long lastLatencyNanos;
+    private volatile long lastSearchNanos;
+
+    /**
+     * Конструктор с задержкой по умолчанию.
+     *
+     * @param searchService сервис поиска
+     * @param deliveryExecutor исполнитель для доставки результата (поток интерфейса)
+     */
+    public AsyncSearchRunner(SearchService searchService, Executor deliveryExecutor) {
+        this(searchService, deliveryExecutor, DEFAULT_DEBOUNCE_MILLIS);
+    }
+
+    /**
+     * Конструктор.
+     *
+     * @param searchService сервис поиска
+     * @param deliveryExecutor исполнитель для доставки результата (поток интерфейса)
+     * @param debounceMillis задержка перед запуском поиска, мс
+     */
+    public AsyncSearchRunner(SearchService searchService, Executor deliveryExecutor, long debounceMillis) {
+        this(searchService, deliveryExecutor, debounceMillis, DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * Конструктор.
+     *
+     * @param searchService сервис поиска
+     * @param deliveryExecutor исполнитель для доставки результата (поток интерфейса)
+     * @param debounceMillis задержка перед запуском поиска, мс
+     * @param pageSize размер страницы результатов
+     */
+    public AsyncSearchRunner(SearchService searchService, Executor deliveryExecutor, long debounceMillis,
+                             int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Размер страницы должен быть положительным числом");
+        }
+        this.searchService = searchService;
+        this.deliveryExecutor = deliveryExecutor;
+        this.debounceMillis = debounceMillis;
+        this.pageSize = pageSize;
+        this.worker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "search-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Ставит поиск в очередь. Предыдущий незавершённый поиск отменяется.
+     *
+     * @param query поисковый запрос
+     * @param filter фильтры
+     * @param onResult обработчик первой страницы (вызывается через исполнитель доставки)
+     */
+    public synchronized void submit(String query, SearchFilter filter, Consumer<SearchPage> onResult) {
+        long ticket = generation.incrementAndGet();
+        long submittedAt = System.nanoTime();
+        SearchFilter snapshot = filter.copy();
+
+        if (pending != null && !pending.isDone()) {
+            pending.cancel(true);
+            cancelled.incrementAndGet();
+        }
+
+        pending = worker.schedule(() -> run(ticket, submittedAt, query, snapshot, 0, onResult),
+                debounceMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Догружает следующую страницу того же запроса без задержки.
+     * Ожидающий новый запрос не отменяется: если он уже поставлен,
+     * следующая страница старого запроса не доставляется.
+     *
+     * @param query поисковый запрос
+     * @param filter фильтры
+     * @param offset количество уже показанных совпадений
+     * @param onResult обработчик страницы (вызывается через исполнитель доставки)
+     */
+    public synchronized void loadMore(String query, SearchFilter filter, int offset,
+                                      Consumer<SearchPage> onResult) {
+        long ticket = generation.get();
+        SearchFilter snapshot = filter.copy();
+        worker.execute(() -> run(ticket, System.nanoTime(), query, snapshot, offset, onResult));
+    }
+
+    /**
+     * Отменяет ожидающий или выполняющийся поиск: его результат не будет доставлен.
+     */
+    public synchronized void cancel() {
+        generation.incrementAndGet();
+        if (pending != null && !pending.isDone()) {
+            pending.cancel(true);
+            cancelled.incrementAndGet();
+        }
+    }
+
+    private void run(long ticket, long submittedAt, String query, SearchFilter filter, int offset,
+                     Consumer<SearchPage> onResult) {
+        if (ticket != generation.get()) {
+            return;
+        }
+
+        long started = System.nanoTime();
+        SearchPage result;
+        try {
+            result = searchService.searchPage(query, filter, offset, pageSize);
+        } catch (CancellationException e) {
+            logger.debug("Поиск '" + query + "' отменён более новым запросом");
+            return;
+        } catch (RuntimeException e) {
+            logger.error("Ошибка фонового поиска: " + query, e);
+            return;
+        }
+        long searchNanos = System.nanoTime() - started;
+
+        deliveryExecutor.execute(() -> {
+            // Доставляем только самый свежий результат
+            if (ticket != generation.get()) {
+                return;
+            }
+            long latencyNanos = System.nanoTime() - submittedAt;
+            recordLatency(latencyNanos, searchNanos);
+            logger.debug(String.format("Поиск '%s': %d результатов, поиск %.2f мс, от ввода до показа %.2f мс",
+                    query, result.getTotalHits(), searchNanos / 1e6, latencyNanos / 1e6));
+            onResult.accept(result);
+        });
+    }
+
+    private void recordLatency(long latencyNanos, long searchNanos) {
+        completed.incrementAndGet();
+        totalLatencyNanos.addAndGet(latencyNanos);
+        maxLatencyNanos.accumulateAndGet(latencyNanos, Math::max);
+        lastLatencyNanos = latencyNanos;
+        lastSearchNanos = searchNanos;
+    }
+
+    /**
+     * Останавливает фоновый поток.
+     */
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    public long getDebounceMillis() {
+        return debounceMillis;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Количество доставленных результатов.
+     *
+     * @return количество запросов
+     */
+    public long getCompletedCount() {
+        return completed.get();
+    }
+
+    /**
+     * Количество запросов, отменённых более новыми.
+     *
+     * @return количество запросов
+     */
+    public long getCancelledCount() {
+        return cancelled.get();
+    }
+
+    /**
+     * Средняя задержка от ввода до показа результата.
+     *
+     * @return задержка, мс
+     */
+    public double getAverageLatencyMillis() {
+        long count = completed.get();
+        return count == 0 ? 0.0 : totalLatencyNanos.get() / 1e6 / count;
+    }
+
+    /**
+     * Максимальная задержка от ввода до показа результата.
+     *
+     * @return задержка, мс
+     */
+    public double getMaxLatencyMillis() {
+        return maxLatencyNanos.get() / 1e6;
+    }
+
+    /**
+     * Задержка последнего доставленного запроса (включая паузу debounce).
+     *
+     * @return задержка, мс
+     */
+    public double getLastLatencyMillis() {
+        return lastLatencyNanos / 1e6;
+    }
+
+    /**
+     * Время выполнения самого поиска для последнего доставленного запроса.
+     *
+     * @return время поиска, мс
+     */
+    public double getLastSearchMillis() {
+        return lastSearchNanos / 1e6;
+    }
+}
@@ -0,0 +1,283 @@
+package kz.enu.museum.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import kz.enu.museum.model.Exhibit;
+import kz.enu.museum.model.MuseumItem;
+import kz.enu.museum.model.enums.ExhibitStatus;
+import kz.enu.museum.repository.ExhibitRepository;
+import kz.enu.museum.repository.RepositoryListener;
+import kz.enu.museum.util.CentsSum;
+import kz.enu.museum.util.MoneyUtil;
+
+/**
+ * Материализованные агрегаты каталога: количество экспонатов и сумма
+ * оценочной стоимости в разрезе статуса, типа, категории, автора и зала.
+ * Для каждого экспоната запоминается его вклад (значения разрезов и
+ * стоимость на момент учёта), поэтому сохранение или удаление экспоната
+ * вычитает прежний вклад и прибавляет новый за O(1) независимо от размера
+ * каталога, а чтение статистики не проходит по экспонатам. Суммы стоимости
+ * ведутся в копейках ({@link CentsSum}) и переводятся в BigDecimal при чтении.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+public class CatalogAggregates implements RepositoryListener<MuseumItem> {
+
+    private static final Logger logger = LogManager.getLogger(CatalogAggregates.class);
+
+    /** Группа для экспонатов без значения разреза (без категории, автора, зала). */
+    public static final String NONE = "Не указано";
+
+    /**
+     * Разрез статистики.
+     */
+    public enum Dimension {
+        STATUS("Статус"),
+        TYPE("Тип"),
+        CATEGORY("Категория"),
+        AUTHOR("Автор"),
+        HALL("Зал");
+
+        private final String displayName;
+
+        Dimension(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        /**
+         * Возвращает группу экспоната в этом разрезе.
+         *
+         * @param item экспонат
+         * @return значение разреза или {@link #NONE}
+         */
+        public String groupOf(MuseumItem item) {
+            String group = null;
+            Exhibit exhibit = item instanceof Exhibit ? (Exhibit) item : null;
+            switch (this) {
+                case STATUS:
+                    group = item.getStatus() != null ? item.getStatus().getDisplayName() : null;
+                    break;
+                case TYPE:
+                    group = item.getClass().getSimpleName();
+                    break;
+                case CATEGORY:
+                    group = exhibit != null && exhibit.getCategory() != null ? exhibit.getCategory().getName() : null;
+                    break;
+                case AUTHOR:
+                    group = exhibit != null && exhibit.getAuthor() != null ? exhibit.getAuthor().getFullName() : null;
+                    break;
+                default:
+                    group = exhibit != null && exhibit.getLocation() != null ? exhibit.getLocation().getHallName() : null;
+                    break;
+            }
+            return group != null ? group : NONE;
+        }
+    }
+
+    private final Map<Dimension, Map<String, Cell>> groups = new EnumMap<>(Dimension.class);
+
+    // Вклад каждого учтённого экспоната (для вычитания после изменения полей)
+    private final Map<Long, Contribution> counted = new HashMap<>();
+
+    private final Cell total = new Cell();
+
+    /**
+     * Конструктор по набору экспонатов.
+     *
+     * @param exhibits экспонаты
+     */
+    public CatalogAggregates(Collection<MuseumItem> exhibits) {
+        for (Dimension dimension : Dimension.values()) {
+            groups.put(dimension, new LinkedHashMap<>());
+        }
+        // Все статусы присутствуют в разрезе всегда, в том числе с нулём
+        for (ExhibitStatus status : ExhibitStatus.values()) {
+            groups.get(Dimension.STATUS).put(status.getDisplayName(), new Cell());
+        }
+        if (exhibits != null) {
+            for (MuseumItem item : exhibits) {
+                add(item);
+            }
+        }
+        logger.debug("Агрегаты каталога построены: " + counted.size() + " экспонатов");
+    }
+
+    /**
+     * Конструктор агрегатов, следящих за репозиторием экспонатов.
+     *
+     * @param repository репозиторий экспонатов
+     */
+    public CatalogAggregates(ExhibitRepository repository) {
+        this(repository.findAll());
+        repository.addListener(this);
+    }
+
+    /**
+     * Возвращает количество учтённых экспонатов.
+     *
+     * @return количество экспонатов
+     */
+    public synchronized long getTotalCount() {
+        return total.count;
+    }
+
+    /**
+     * Возвращает суммарную оценочную стоимость каталога.
+     *
+     * @return сумма стоимости
+     */
+    public synchronized BigDecimal getTotalValue() {
+        return total.value.toBigDecimal();
+    }
+
+    /**
+     * Возвращает количество экспонатов в одной группе разреза.
+     *
+     * @param dimension разрез
+     * @param group значение разреза (для статуса - отображаемое название)
+     * @return количество экспонатов, 0 если группы нет
+     */
+    public synchronized long getCount(Dimension dimension, String group) {
+        Cell cell = cells(dimension).get(group);
+        return cell != null ? cell.count : 0;
+    }
+
+    /**
+     * Возвращает количество экспонатов по группам разреза.
+     *
+     * @param dimension разрез
+     * @return группа -> количество, в порядке появления групп
+     */
+    public synchronized Map<String, Long> getCounts(Dimension dimension) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Cell> entry : cells(dimension).entrySet()) {
+            result.put(entry.getKey(), entry.getValue().count);
+        }
+        return result;
+    }
+
+    /**
+     * Возвращает сумму оценочной стоимости по группам разреза.
+     *
+     * @param dimension разрез
+     * @return группа -> сумма стоимости, в порядке появления групп
+     */
+    public synchronized Map<String, BigDecimal> getValues(Dimension dimension) {
+        Map<String, BigDecimal> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Cell> entry : cells(dimension).entrySet()) {
+            result.put(entry.getKey(), entry.getValue().value.toBigDecimal());
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized void onSaved(MuseumItem item) {
+        add(item);
+    }
+
+    @Override
+    public synchronized void onDeleted(MuseumItem item) {
+        if (item.getId() != null) {
+            remove(item.getId());
+        }
+    }
+
+    @Override
+    public synchronized void onCleared() {
+        counted.clear();
+        total.count = 0;
+        total.value.clear();
+        for (Map.Entry<Dimension, Map<String, Cell>> entry : groups.entrySet()) {
+            if (entry.getKey() == Dimension.STATUS) {
+                for (Cell cell : entry.getValue().values()) {
+                    cell.count = 0;
+                    cell.value.clear();
+                }
+            } else {
+                entry.getValue().clear();
+            }
+        }
+    }
+
+    private Map<String, Cell> cells(Dimension dimension) {
+        if (dimension == null) {
+            throw new IllegalArgumentException("Разрез статистики не может быть null");
+        }
+        return groups.get(dimension);
+    }
+
+    private void add(MuseumItem item) {
+        if (item.getId() == null) {
+            return;
+        }
+        Contribution contribution = new Contribution(item);
+        remove(item.getId());
+        counted.put(item.getId(), contribution);
+        total.add(contribution.value, 1);
+        for (Dimension dimension : Dimension.values()) {
+            groups.get(dimension).computeIfAbsent(contribution.keys.get(dimension), key -> new Cell())
+                    .add(contribution.value, 1);
+        }
+    }
+
+    private void remove(Long id) {
+        Contribution contribution = counted.remove(id);
+        if (contribution == null) {
+            return;
+        }
+        total.add(-contribution.value, -1);
+        for (Dimension dimension : Dimension.values()) {
+            Map<String, Cell> cells = groups.get(dimension);
+            String key = contribution.keys.get(dimension);
+            Cell cell = cells.get(key);
+            cell.add(-contribution.value, -1);
+            if (cell.count == 0 && dimension != Dimension.STATUS) {
+                cells.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Счётчик группы: количество и сумма стоимости.
+     */
+    private static final class Cell {
+        private long count;
+        private final CentsSum value = new CentsSum();
+
+        private void add(long cents, int countDelta) {
+            count += countDelta;
+            value.add(cents);
+        }
+    }
+
+    /**
+     * Вклад экспоната в агрегаты на момент учёта.
+     */
+    private static final class Contribution {
+        private final EnumMap<Dimension, String> keys = new EnumMap<>(Dimension.class);
+        private final long value;
+
+        private Contribution(MuseumItem item) {
+            for (Dimension dimension : Dimension.values()) {
+                keys.put(dimension, dimension.groupOf(item));
+            }
+            BigDecimal estimated = item instanceof Exhibit exhibit ? exhibit.getEstimatedValue() : null;
+            value = estimated != null ? MoneyUtil.toCentsSaturated(estimated, RoundingMode.HALF_UP) : 0;
+        }
+    }
+}
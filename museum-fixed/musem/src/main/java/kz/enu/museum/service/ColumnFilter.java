@@ -0,0 +1,120 @@
+package kz.enu.museum.service;
+
+import java.math.BigDecimal;
+import java.util.EnumSet;
+import java.util.Set;
+
+import kz.enu.museum.model.enums.ExhibitStatus;
+
+/**
+ * Условия прохода по числовым колонкам каталога: статус, год создания,
+ * год поступления и диапазон оценочной стоимости. Все заданные условия
+ * должны выполняться одновременно; незаданные не ограничивают выборку.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+public class ColumnFilter {
+
+    private final Set<ExhibitStatus> statuses = EnumSet.noneOf(ExhibitStatus.class);
+    private int[] creationYears;
+    private int[] acquisitionYears;
+    private BigDecimal[] values;
+
+    /**
+     * Добавляет допустимый статус.
+     *
+     * @param status статус
+     * @return этот фильтр
+     */
+    public ColumnFilter addStatus(ExhibitStatus status) {
+        if (status != null) {
+            statuses.add(status);
+        }
+        return this;
+    }
+
+    /**
+     * Ограничивает год создания (границы включаются).
+     *
+     * @param from начальный год
+     * @param to конечный год
+     * @return этот фильтр
+     */
+    public ColumnFilter creationYears(int from, int to) {
+        creationYears = new int[] {from, to};
+        return this;
+    }
+
+    /**
+     * Ограничивает год поступления (границы включаются).
+     *
+     * @param from начальный год
+     * @param to конечный год
+     * @return этот фильтр
+     */
+    public ColumnFilter acquisitionYears(int from, int to) {
+        acquisitionYears = new int[] {from, to};
+        return this;
+    }
+
+    /**
+     * Ограничивает оценочную стоимость (границы включаются, сравнение с точностью до копейки).
+     *
+     * @param from минимальная стоимость или null
+     * @param to максимальная стоимость или null
+     * @return этот фильтр
+     */
+    public ColumnFilter values(BigDecimal from, BigDecimal to) {
+        if (from != null && to != null && from.compareTo(to) > 0) {
+            throw new IllegalArgumentException("Некорректный диапазон стоимости: " + from + ".." + to);
+        }
+        values = new BigDecimal[] {from, to};
+        return this;
+    }
+
+    public Set<ExhibitStatus> getStatuses() {
+        return statuses;
+    }
+
+    public int[] getCreationYears() {
+        return creationYears;
+    }
+
+    public int[] getAcquisitionYears() {
+        return acquisitionYears;
+    }
+
+    public BigDecimal[] getValues() {
+        return values;
+    }
+
+    /**
+     * Проверяет, что фильтр не задаёт ни одного условия.
+     *
+     * @return true если условий нет
+     */
+    public boolean isEmpty() {
+        return statuses.isEmpty() && creationYears == null && acquisitionYears == null && values == null;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("ColumnFilter{");
+        if (!statuses.isEmpty()) {
+            sb.append("statuses=").append(statuses).append(' ');
+        }
+        if (creationYears != null) {
+            sb.append("year=").append(creationYears[0]).append("..").append(creationYears[1]).append(' ');
+        }
+        if (acquisitionYears != null) {
+            sb.append("acquired=").append(acquisitionYears[0]).append("..").append(acquisitionYears[1]).append(' ');
+        }
+        if (values != null) {
+            sb.append("value=").append(values[0] != null ? values[0].toPlainString() : "")
+                    .append("..").append(values[1] != null ? values[1].toPlainString() : "");
+        }
+        return sb.toString().trim() + "}";
+    }
+}
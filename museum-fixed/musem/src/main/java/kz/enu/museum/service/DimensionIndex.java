@@ -0,0 +1,235 @@
+package kz.enu.museum.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import kz.enu.museum.model.Exhibit;
+import kz.enu.museum.model.MuseumItem;
+import kz.enu.museum.model.Painting;
+import kz.enu.museum.model.Sculpture;
+import kz.enu.museum.util.KdTree;
+
+/**
+ * Индекс по физическим размерам и стоимости экспонатов.
+ * Картины хранятся в k-d дереве по ширине и высоте (см),
+ * скульптуры - по весу (кг) и высоте (см), экспонаты с оценочной
+ * стоимостью - в одномерном дереве по стоимости. Поиск по диапазону
+ * и поиск ближайших по размеру выполняются за логарифмическое время
+ * плюс количество найденных экспонатов.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+public class DimensionIndex {
+
+    private static final double[] UNBOUNDED = {Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY};
+
+    private final KdTree<MuseumItem> paintings = new KdTree<>(2);
+    private final KdTree<MuseumItem> sculptures = new KdTree<>(2);
+    private final KdTree<MuseumItem> values = new KdTree<>(1);
+
+    // Точки, под которыми экспонат попал в деревья (для удаления после изменения полей)
+    private final Map<Object, IndexedPoints> indexed = new HashMap<>();
+
+    /**
+     * Перестраивает индекс по коллекции экспонатов.
+     *
+     * @param exhibits экспонаты
+     */
+    public void rebuild(Collection<MuseumItem> exhibits) {
+        clear();
+        for (MuseumItem item : exhibits) {
+            add(item);
+        }
+        paintings.rebuild();
+        sculptures.rebuild();
+        values.rebuild();
+    }
+
+    /**
+     * Очищает индекс.
+     */
+    public void clear() {
+        paintings.clear();
+        sculptures.clear();
+        values.clear();
+        indexed.clear();
+    }
+
+    /**
+     * Добавляет экспонат в индекс (или переиндексирует уже добавленный).
+     *
+     * @param item экспонат
+     */
+    public void add(MuseumItem item) {
+        remove(item);
+        IndexedPoints points = new IndexedPoints(item);
+        if (item instanceof Painting painting) {
+            points.size = new double[] {painting.getWidth(), painting.getHeight()};
+            paintings.insert(points.size, item);
+        } else if (item instanceof Sculpture sculpture) {
+            points.size = new double[] {sculpture.getWeight(), sculpture.getHeight()};
+            sculptures.insert(points.size, item);
+        }
+        if (item instanceof Exhibit exhibit && exhibit.getEstimatedValue() != null) {
+            points.value = new double[] {exhibit.getEstimatedValue().doubleValue()};
+            values.insert(points.value, item);
+        }
+        indexed.put(identity(item), points);
+    }
+
+    /**
+     * Удаляет экспонат из индекса.
+     *
+     * @param item экспонат
+     */
+    public void remove(MuseumItem item) {
+        IndexedPoints points = indexed.remove(identity(item));
+        if (points == null) {
+            return;
+        }
+        if (points.size != null) {
+            (points.item instanceof Painting ? paintings : sculptures).remove(points.size, points.item);
+        }
+        if (points.value != null) {
+            values.remove(points.value, points.item);
+        }
+    }
+
+    /**
+     * Находит картины по диапазонам ширины и высоты (границы включаются).
+     *
+     * @param minWidth минимальная ширина, см
+     * @param maxWidth максимальная ширина, см
+     * @param minHeight минимальная высота, см
+     * @param maxHeight максимальная высота, см
+     * @return найденные картины
+     */
+    public List<MuseumItem> findPaintings(double minWidth, double maxWidth, double minHeight, double maxHeight) {
+        checkRange(minWidth, maxWidth);
+        checkRange(minHeight, maxHeight);
+        return paintings.range(new double[] {minWidth, minHeight}, new double[] {maxWidth, maxHeight});
+    }
+
+    /**
+     * Находит скульптуры по диапазонам веса и высоты (границы включаются).
+     *
+     * @param minWeight минимальный вес, кг
+     * @param maxWeight максимальный вес, кг
+     * @param minHeight минимальная высота, см
+     * @param maxHeight максимальная высота, см
+     * @return найденные скульптуры
+     */
+    public List<MuseumItem> findSculptures(double minWeight, double maxWeight, double minHeight, double maxHeight) {
+        checkRange(minWeight, maxWeight);
+        checkRange(minHeight, maxHeight);
+        return sculptures.range(new double[] {minWeight, minHeight}, new double[] {maxWeight, maxHeight});
+    }
+
+    /**
+     * Находит экспонаты по размерам. Ширина есть только у картин, вес - только
+     * у скульптур, высота - у тех и других.
+     *
+     * @param width диапазон ширины {от, до} или null
+     * @param height диапазон высоты {от, до} или null
+     * @param weight диапазон веса {от, до} или null
+     * @return найденные экспонаты
+     */
+    public List<MuseumItem> findBySize(double[] width, double[] height, double[] weight) {
+        double[] h = height != null ? height : UNBOUNDED;
+        List<MuseumItem> found = new ArrayList<>();
+        if (weight == null) {
+            double[] w = width != null ? width : UNBOUNDED;
+            found.addAll(findPaintings(w[0], w[1], h[0], h[1]));
+        }
+        if (width == null) {
+            double[] w = weight != null ? weight : UNBOUNDED;
+            found.addAll(findSculptures(w[0], w[1], h[0], h[1]));
+        }
+        return found;
+    }
+
+    /**
+     * Находит экспонаты с оценочной стоимостью в диапазоне (границы включаются).
+     *
+     * @param min минимальная стоимость или null
+     * @param max максимальная стоимость или null
+     * @return найденные экспонаты
+     */
+    public List<MuseumItem> findByValue(BigDecimal min, BigDecimal max) {
+        // Округление в double монотонно: дерево отдаёт надмножество, точная проверка - по BigDecimal
+        double low = min != null ? min.doubleValue() : Double.NEGATIVE_INFINITY;
+        double high = max != null ? max.doubleValue() : Double.POSITIVE_INFINITY;
+        checkRange(low, high);
+        List<MuseumItem> found = new ArrayList<>();
+        for (MuseumItem item : values.range(new double[] {low}, new double[] {high})) {
+            BigDecimal value = ((Exhibit) item).getEstimatedValue();
+            if (value != null && (min == null || value.compareTo(min) >= 0) && (max == null || value.compareTo(max) <= 0)) {
+                found.add(item);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Находит картины, ближайшие по размеру к заданному.
+     *
+     * @param width ширина, см
+     * @param height высота, см
+     * @param limit количество картин
+     * @return картины от самой близкой по размеру
+     */
+    public List<MuseumItem> nearestPaintings(double width, double height, int limit) {
+        return paintings.nearest(new double[] {width, height}, limit);
+    }
+
+    /**
+     * Находит скульптуры, ближайшие по весу и высоте к заданным.
+     * Расстояние считается без нормировки: 1 кг равен 1 см.
+     *
+     * @param weight вес, кг
+     * @param height высота, см
+     * @param limit количество скульптур
+     * @return скульптуры от самой близкой по размеру
+     */
+    public List<MuseumItem> nearestSculptures(double weight, double height, int limit) {
+        return sculptures.nearest(new double[] {weight, height}, limit);
+    }
+
+    /**
+     * Возвращает количество проиндексированных экспонатов.
+     *
+     * @return количество экспонатов
+     */
+    public int size() {
+        return indexed.size();
+    }
+
+    private static void checkRange(double min, double max) {
+        if (Double.isNaN(min) || Double.isNaN(max) || min > max) {
+            throw new IllegalArgumentException("Некорректный диапазон: " + min + ".." + max);
+        }
+    }
+
+    private static Object identity(MuseumItem item) {
+        return item.getId() != null ? item.getId() : item;
+    }
+
+    /**
+     * Точки экспоната в деревьях на момент индексации.
+     */
+    private static final class IndexedPoints {
+        private final MuseumItem item;
+        private double[] size;
+        private double[] value;
+
+        private IndexedPoints(MuseumItem item) {
+            this.item = item;
+        }
+    }
+}
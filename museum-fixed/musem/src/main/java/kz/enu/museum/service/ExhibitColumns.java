@@ -0,0 +1,240 @@
+package kz.enu.museum.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import kz.enu.museum.model.Exhibit;
+import kz.enu.museum.model.MuseumItem;
+import kz.enu.museum.model.enums.ExhibitStatus;
+import kz.enu.museum.util.ColumnScanner;
+import kz.enu.museum.util.MoneyUtil;
+import kz.enu.museum.util.OrdinalBitmap;
+
+/**
+ * Числовые поля экспонатов в виде примитивных колонок по порядковым
+ * номерам индекса фильтров: бит статуса, год создания, год поступления
+ * и оценочная стоимость в копейках. Условия, для которых нет битового
+ * индекса, проверяются последовательным проходом по массивам без
+ * обращения к объектам экспонатов (векторным, если доступен Vector API).
+ * Колонки обновляются по одному экспонату вслед за индексом фильтров.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+public class ExhibitColumns {
+
+    /** Значение колонки года для экспоната без даты. */
+    static final int NO_YEAR = Integer.MIN_VALUE;
+
+    /** Значение колонки стоимости для экспоната без оценки. */
+    static final long NO_VALUE = Long.MIN_VALUE;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    /** Размер строки колонок в снимке индекса, байт. */
+    static final int ROW_BYTES = 4 + 4 + 4 + 8;
+
+    private final ColumnScanner scanner;
+    private int[] statusBits = new int[INITIAL_CAPACITY];
+    private int[] creationYears = new int[INITIAL_CAPACITY];
+    private int[] acquisitionYears = new int[INITIAL_CAPACITY];
+    private long[] valueCents = new long[INITIAL_CAPACITY];
+    private long[] live = new long[ColumnScanner.wordCount(INITIAL_CAPACITY)];
+    private int rows;
+    private int liveCount;
+
+    /**
+     * Конструктор с лучшей доступной реализацией прохода.
+     */
+    public ExhibitColumns() {
+        this(ColumnScanner.create());
+    }
+
+    /**
+     * Конструктор.
+     *
+     * @param scanner реализация прохода по колонкам
+     */
+    public ExhibitColumns(ColumnScanner scanner) {
+        if (scanner == null) {
+            throw new IllegalArgumentException("Реализация прохода не может быть null");
+        }
+        this.scanner = scanner;
+    }
+
+    /**
+     * Записывает поля экспоната в строку с заданным номером.
+     *
+     * @param ordinal порядковый номер экспоната в индексе фильтров
+     * @param item экспонат
+     */
+    public void set(int ordinal, MuseumItem item) {
+        ensureCapacity(ordinal + 1);
+        rows = Math.max(rows, ordinal + 1);
+        statusBits[ordinal] = item.getStatus() != null ? 1 << item.getStatus().ordinal() : 0;
+        creationYears[ordinal] = item.getCreationDate() != null ? item.getCreationDate().getYear() : NO_YEAR;
+        acquisitionYears[ordinal] = item.getAcquisitionDate() != null ? item.getAcquisitionDate().getYear() : NO_YEAR;
+        BigDecimal value = item instanceof Exhibit exhibit ? exhibit.getEstimatedValue() : null;
+        valueCents[ordinal] = value != null ? clampedCents(value, RoundingMode.HALF_UP) : NO_VALUE;
+        if ((live[ordinal >>> 6] & (1L << ordinal)) == 0) {
+            live[ordinal >>> 6] |= 1L << ordinal;
+            liveCount++;
+        }
+    }
+
+    /**
+     * Освобождает строку удалённого экспоната.
+     *
+     * @param ordinal порядковый номер
+     */
+    public void clear(int ordinal) {
+        if (ordinal < 0 || ordinal >= rows || (live[ordinal >>> 6] & (1L << ordinal)) == 0) {
+            return;
+        }
+        live[ordinal >>> 6] &= ~(1L << ordinal);
+        liveCount--;
+        statusBits[ordinal] = 0;
+        creationYears[ordinal] = NO_YEAR;
+        acquisitionYears[ordinal] = NO_YEAR;
+        valueCents[ordinal] = NO_VALUE;
+    }
+
+    /**
+     * Записывает строку в снимок индекса (для свободного номера - пустую строку).
+     *
+     * @param ordinal порядковый номер
+     * @param data буфер снимка
+     */
+    void writeRow(int ordinal, ByteBuffer data) {
+        if (ordinal >= rows || (live[ordinal >>> 6] & (1L << ordinal)) == 0) {
+            data.putInt(0).putInt(NO_YEAR).putInt(NO_YEAR).putLong(NO_VALUE);
+            return;
+        }
+        data.putInt(statusBits[ordinal])
+                .putInt(creationYears[ordinal])
+                .putInt(acquisitionYears[ordinal])
+                .putLong(valueCents[ordinal]);
+    }
+
+    /**
+     * Восстанавливает строку из снимка индекса без обращения к экспонату.
+     *
+     * @param ordinal порядковый номер
+     * @param data буфер снимка
+     * @param offset смещение строки в буфере
+     */
+    void readRow(int ordinal, ByteBuffer data, int offset) {
+        ensureCapacity(ordinal + 1);
+        rows = Math.max(rows, ordinal + 1);
+        statusBits[ordinal] = data.getInt(offset);
+        creationYears[ordinal] = data.getInt(offset + 4);
+        acquisitionYears[ordinal] = data.getInt(offset + 8);
+        valueCents[ordinal] = data.getLong(offset + 12);
+        if ((live[ordinal >>> 6] & (1L << ordinal)) == 0) {
+            live[ordinal >>> 6] |= 1L << ordinal;
+            liveCount++;
+        }
+    }
+
+    /**
+     * Удаляет все строки.
+     */
+    public void reset() {
+        Arrays.fill(live, 0);
+        rows = 0;
+        liveCount = 0;
+    }
+
+    /**
+     * Находит экспонаты, удовлетворяющие всем условиям фильтра.
+     *
+     * @param filter условия
+     * @return множество порядковых номеров
+     */
+    public OrdinalBitmap scan(ColumnFilter filter) {
+        return OrdinalBitmap.fromWords(scanWords(filter));
+    }
+
+    /**
+     * Считает экспонаты, удовлетворяющие всем условиям фильтра, без построения множества.
+     *
+     * @param filter условия
+     * @return количество экспонатов
+     */
+    public int count(ColumnFilter filter) {
+        int count = 0;
+        for (long word : scanWords(filter)) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    private long[] scanWords(ColumnFilter filter) {
+        if (filter == null) {
+            throw new IllegalArgumentException("Фильтр не может быть null");
+        }
+        // Начинаем с живых строк: свободные номера не совпадают ни с одним условием
+        long[] words = Arrays.copyOf(live, ColumnScanner.wordCount(rows));
+        if (!filter.getStatuses().isEmpty()) {
+            int mask = 0;
+            for (ExhibitStatus status : filter.getStatuses()) {
+                mask |= 1 << status.ordinal();
+            }
+            scanner.anyBit(statusBits, rows, mask, words, true);
+        }
+        if (filter.getCreationYears() != null) {
+            scanYears(creationYears, filter.getCreationYears(), words);
+        }
+        if (filter.getAcquisitionYears() != null) {
+            scanYears(acquisitionYears, filter.getAcquisitionYears(), words);
+        }
+        if (filter.getValues() != null) {
+            BigDecimal[] bounds = filter.getValues();
+            long min = bounds[0] != null ? clampedCents(bounds[0], RoundingMode.CEILING) : NO_VALUE + 1;
+            long max = bounds[1] != null ? clampedCents(bounds[1], RoundingMode.FLOOR) : Long.MAX_VALUE;
+            scanner.between(valueCents, rows, Math.max(min, NO_VALUE + 1), max, words, true);
+        }
+        return words;
+    }
+
+    private void scanYears(int[] column, int[] bounds, long[] words) {
+        // Нижняя граница не ниже NO_YEAR + 1: экспонаты без даты не подходят ни под один диапазон
+        scanner.between(column, rows, Math.max(bounds[0], NO_YEAR + 1), bounds[1], words, true);
+    }
+
+    /**
+     * Возвращает количество экспонатов в колонках.
+     *
+     * @return количество экспонатов
+     */
+    public int size() {
+        return liveCount;
+    }
+
+    public ColumnScanner getScanner() {
+        return scanner;
+    }
+
+    /**
+     * Копейки по {@link MoneyUtil#toCents(BigDecimal, RoundingMode)}; суммы вне
+     * диапазона колонки прижимаются к её краям, а не вызывают ошибку.
+     */
+    private static long clampedCents(BigDecimal value, RoundingMode rounding) {
+        return Math.max(MoneyUtil.toCentsSaturated(value, rounding), NO_VALUE + 1);
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= statusBits.length) {
+            return;
+        }
+        int capacity = Math.max(required, statusBits.length * 2);
+        statusBits = Arrays.copyOf(statusBits, capacity);
+        creationYears = Arrays.copyOf(creationYears, capacity);
+        acquisitionYears = Arrays.copyOf(acquisitionYears, capacity);
+        valueCents = Arrays.copyOf(valueCents, capacity);
+        live = Arrays.copyOf(live, ColumnScanner.wordCount(capacity));
+    }
+}
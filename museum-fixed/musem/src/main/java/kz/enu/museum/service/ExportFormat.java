@@ -0,0 +1,36 @@
+package kz.enu.museum.service;
+
+/**
+ * Формат выгрузки каталога.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+public enum ExportFormat {
+    CSV("CSV", "csv"),
+    JSON("JSON", "json"),
+    TEXT("Текстовый отчёт", "txt"),
+    PDF("PDF", "pdf");
+
+    private final String displayName;
+    private final String extension;
+
+    ExportFormat(String displayName, String extension) {
+        this.displayName = displayName;
+        this.extension = extension;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * Возвращает расширение файла без точки (без учёта сжатия).
+     *
+     * @return расширение
+     */
+    public String getExtension() {
+        return extension;
+    }
+}
@@ -0,0 +1,182 @@
+package kz.enu.museum.service;
+
+import java.nio.file.Path;
+
+/**
+ * Параметры выгрузки: формат, сжатие gzip, параллельная сериализация,
+ * разделитель CSV, размер буфера, шрифт PDF и слушатель хода выгрузки.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+public class ExportOptions {
+
+    /** Размер буфера записи по умолчанию. */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    /** Шаг уведомления о ходе выгрузки по умолчанию (в экспонатах). */
+    public static final int DEFAULT_PROGRESS_STEP = 1000;
+
+    /** Размер блока параллельной выгрузки по умолчанию (в экспонатах). */
+    public static final int DEFAULT_CHUNK_SIZE = 1024;
+
+    private final ExportFormat format;
+    private boolean gzip;
+    private boolean parallel;
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private char delimiter = ';';
+    private int bufferSize = DEFAULT_BUFFER_SIZE;
+    private int progressStep = DEFAULT_PROGRESS_STEP;
+    private ExportProgressListener progressListener;
+    private Path fontPath;
+
+    /**
+     * Конструктор.
+     *
+     * @param format формат выгрузки
+     */
+    public ExportOptions(ExportFormat format) {
+        if (format == null) {
+            throw new IllegalArgumentException("Формат выгрузки не может быть null");
+        }
+        this.format = format;
+    }
+
+    /**
+     * Включает сжатие gzip.
+     *
+     * @param gzip true для сжатия
+     * @return эти параметры
+     */
+    public ExportOptions gzip(boolean gzip) {
+        this.gzip = gzip;
+        return this;
+    }
+
+    /**
+     * Включает параллельную сериализацию блоками. Каталоги не больше
+     * одного блока выгружаются последовательно.
+     *
+     * @param parallel true для параллельной выгрузки
+     * @return эти параметры
+     */
+    public ExportOptions parallel(boolean parallel) {
+        this.parallel = parallel;
+        return this;
+    }
+
+    /**
+     * Задаёт размер блока параллельной выгрузки.
+     *
+     * @param chunkSize количество экспонатов в блоке
+     * @return эти параметры
+     */
+    public ExportOptions chunkSize(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Размер блока должен быть положительным числом");
+        }
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * Задаёт разделитель полей CSV (по умолчанию ';').
+     *
+     * @param delimiter разделитель
+     * @return эти параметры
+     */
+    public ExportOptions delimiter(char delimiter) {
+        if (delimiter == '"' || delimiter == '\r' || delimiter == '\n') {
+            throw new IllegalArgumentException("Недопустимый разделитель CSV: " + delimiter);
+        }
+        this.delimiter = delimiter;
+        return this;
+    }
+
+    /**
+     * Задаёт размер буфера записи.
+     *
+     * @param bufferSize размер в символах (байтах для сжатия)
+     * @return эти параметры
+     */
+    public ExportOptions bufferSize(int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Размер буфера должен быть положительным числом");
+        }
+        this.bufferSize = bufferSize;
+        return this;
+    }
+
+    /**
+     * Задаёт слушателя хода выгрузки.
+     *
+     * @param listener слушатель или null
+     * @param step шаг уведомления в экспонатах
+     * @return эти параметры
+     */
+    public ExportOptions progress(ExportProgressListener listener, int step) {
+        if (step <= 0) {
+            throw new IllegalArgumentException("Шаг уведомления должен быть положительным числом");
+        }
+        this.progressListener = listener;
+        this.progressStep = step;
+        return this;
+    }
+
+    /**
+     * Задаёт шрифт TrueType для PDF. По умолчанию ищется системный шрифт с кириллицей.
+     *
+     * @param fontPath файл .ttf или null для поиска в системе
+     * @return эти параметры
+     */
+    public ExportOptions font(Path fontPath) {
+        this.fontPath = fontPath;
+        return this;
+    }
+
+    public ExportFormat getFormat() {
+        return format;
+    }
+
+    public boolean isGzip() {
+        return gzip;
+    }
+
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public char getDelimiter() {
+        return delimiter;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public int getProgressStep() {
+        return progressStep;
+    }
+
+    public ExportProgressListener getProgressListener() {
+        return progressListener;
+    }
+
+    public Path getFontPath() {
+        return fontPath;
+    }
+
+    /**
+     * Возвращает расширение файла с учётом сжатия.
+     *
+     * @return расширение без точки, например "csv.gz"
+     */
+    public String getFileExtension() {
+        return format.getExtension() + (gzip ? ".gz" : "");
+    }
+}
@@ -0,0 +1,22 @@
+package kz.enu.museum.service;
+
+/**
+ * Слушатель хода выгрузки.
+ * Вызывается в потоке выгрузки через каждые {@link ExportOptions#getProgressStep()}
+ * записанных экспонатов и один раз после записи последнего.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+@FunctionalInterface
+public interface ExportProgressListener {
+
+    /**
+     * Сообщает о количестве записанных экспонатов.
+     *
+     * @param written записано экспонатов
+     * @param total всего экспонатов в выгрузке (-1, если неизвестно)
+     */
+    void onProgress(long written, long total);
+}
@@ -0,0 +1,668 @@
+package kz.enu.museum.service;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.CharArrayWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import kz.enu.museum.model.Exhibit;
+import kz.enu.museum.model.MuseumItem;
+import kz.enu.museum.model.enums.ExhibitStatus;
+
+/**
+ * Потоковая выгрузка каталога в CSV, JSON, текстовый отчёт и PDF.
+ * Экспонаты пишутся по одному из переданного снимка через буфер
+ * фиксированного размера в файл (FileChannel) или поток, при необходимости
+ * со сжатием gzip, поэтому расход памяти не зависит от размера каталога.
+ * Значения экранируются по правилам формата (RFC 4180 для CSV, строки
+ * JSON по RFC 8259). О ходе выгрузки сообщает {@link ExportProgressListener};
+ * прерывание потока выгрузки останавливает её. Большие каталоги при
+ * {@link ExportOptions#parallel(boolean)} сериализуются блоками в нескольких
+ * потоках и записываются в исходном порядке.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+public class ExportService {
+
+    private static final Logger logger = LogManager.getLogger(ExportService.class);
+
+    /** Заголовки колонок CSV и текстового отчёта. */
+    static final String[] HEADERS = {
+            "ID", "Инвентарный номер", "Название", "Тип", "Статус", "Автор", "Категория",
+            "Дата создания", "Дата поступления", "Оценочная стоимость", "Зал"
+    };
+
+    /** Имена полей JSON в порядке колонок. */
+    static final String[] JSON_KEYS = {
+            "id", "inventoryNumber", "name", "type", "status", "author", "category",
+            "creationDate", "acquisitionDate", "estimatedValue", "hall"
+    };
+
+    private static final int ID = 0;
+    private static final int STATUS = 4;
+    private static final int VALUE = 9;
+
+    /** Количество блоков в очереди на один поток пула. */
+    private static final int CHUNKS_PER_THREAD = 2;
+
+    /** Оценка длины строки выгрузки для начального размера буфера блока. */
+    private static final int ESTIMATED_ROW_LENGTH = 160;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Конструктор с числом потоков по количеству процессоров.
+     */
+    public ExportService() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Конструктор.
+     *
+     * @param parallelism количество потоков для параллельной выгрузки
+     */
+    public ExportService(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Количество потоков должно быть положительным числом");
+        }
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Останавливает пул потоков.
+     */
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Выгружает экспонаты в файл.
+     *
+     * @param items экспонаты (не изменяются во время выгрузки)
+     * @param target файл (перезаписывается)
+     * @param options параметры выгрузки
+     * @return количество выгруженных экспонатов
+     * @throws IOException при ошибке записи (неполный файл удаляется)
+     */
+    public long export(Collection<? extends MuseumItem> items, Path target, ExportOptions options) throws IOException {
+        if (target == null) {
+            throw new IllegalArgumentException("Файл выгрузки не может быть null");
+        }
+        boolean completed = false;
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long count = export(items, Channels.newOutputStream(channel), options);
+            completed = true;
+            logger.info("Выгружено " + count + " экспонатов в " + target);
+            return count;
+        } finally {
+            if (!completed) {
+                Files.deleteIfExists(target);
+            }
+        }
+    }
+
+    /**
+     * Выгружает экспонаты в поток байтов (UTF-8). Поток не закрывается.
+     *
+     * @param items экспонаты (не изменяются во время выгрузки)
+     * @param out поток
+     * @param options параметры выгрузки
+     * @return количество выгруженных экспонатов
+     * @throws IOException при ошибке записи
+     */
+    public long export(Collection<? extends MuseumItem> items, OutputStream out, ExportOptions options) throws IOException {
+        if (out == null || options == null) {
+            throw new IllegalArgumentException("Поток и параметры выгрузки не могут быть null");
+        }
+        // Закрытие обёрток не должно закрывать поток вызывающего кода
+        OutputStream target = new FilterOutputStream(out) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+        OutputStream sink = options.isGzip() ? new GZIPOutputStream(target, options.getBufferSize()) : target;
+        long count = options.getFormat() == ExportFormat.PDF
+                ? writePdf(items, sink, options)
+                : write(items, new OutputStreamWriter(sink, StandardCharsets.UTF_8), options, pool);
+        if (sink instanceof GZIPOutputStream gzip) {
+            gzip.finish();
+        }
+        sink.flush();
+        return count;
+    }
+
+    /**
+     * Выгружает экспонаты в поток символов (без сжатия). Поток не закрывается.
+     *
+     * @param items экспонаты (не изменяются во время выгрузки)
+     * @param out поток символов
+     * @param options параметры выгрузки
+     * @return количество выгруженных экспонатов
+     * @throws IOException при ошибке записи
+     */
+    public long export(Collection<? extends MuseumItem> items, Writer out, ExportOptions options) throws IOException {
+        if (out == null || options == null) {
+            throw new IllegalArgumentException("Поток и параметры выгрузки не могут быть null");
+        }
+        if (options.isGzip()) {
+            throw new IllegalArgumentException("Сжатие доступно только при записи в файл или поток байтов");
+        }
+        return write(items, out, options, pool);
+    }
+
+    /**
+     * Записывает экспонаты в поток символов; общая часть всех вариантов выгрузки.
+     * С пулом потоков и включённой параллельной выгрузкой большие каталоги
+     * сериализуются блоками в нескольких потоках.
+     */
+    private static long write(Collection<? extends MuseumItem> items, Writer out, ExportOptions options,
+                              ForkJoinPool pool) throws IOException {
+        if (items == null) {
+            throw new IllegalArgumentException("Экспонаты не могут быть null");
+        }
+        if (options.getFormat() == ExportFormat.PDF) {
+            throw new IllegalArgumentException("Формат PDF записывается только в файл или поток байтов");
+        }
+        BufferedWriter writer = new BufferedWriter(out, options.getBufferSize());
+        RowWriter rows = rowWriter(writer, options);
+        Progress progress = new Progress(options, items.size());
+        boolean parallel = pool != null && options.isParallel() && pool.getParallelism() > 1
+                && items.size() > options.getChunkSize();
+        long started = System.nanoTime();
+
+        rows.begin();
+        if (parallel) {
+            writeParallel(items, writer, options, pool, progress);
+        } else {
+            Object[] values = new Object[HEADERS.length];
+            for (MuseumItem item : items) {
+                fill(item, values);
+                rows.row(values, progress.count);
+                progress.advance(1);
+            }
+        }
+        rows.end(progress.count);
+        writer.flush();
+        progress.finish();
+
+        logger.debug(String.format("Выгрузка %s: %d экспонатов за %.2f мс (%s)",
+                options.getFormat(), progress.count, (System.nanoTime() - started) / 1e6,
+                parallel ? pool.getParallelism() + " потоков" : "последовательно"));
+        return progress.count;
+    }
+
+    /**
+     * Параллельная выгрузка: вызывающий поток нарезает каталог на блоки и
+     * отправляет их в пул, где каждый блок сериализуется в собственный буфер.
+     * Готовые буферы пишутся в выход строго в порядке блоков. Очередь
+     * ожидающих блоков ограничена (два на поток), поэтому при медленной
+     * записи нарезка приостанавливается и память остаётся ограниченной.
+     */
+    private static void writeParallel(Collection<? extends MuseumItem> items, Writer writer, ExportOptions options,
+                                      ForkJoinPool pool, Progress progress) throws IOException {
+        int chunkSize = options.getChunkSize();
+        int capacity = pool.getParallelism() * CHUNKS_PER_THREAD;
+        ArrayDeque<ForkJoinTask<CharArrayWriter>> pending = new ArrayDeque<>(capacity);
+        MuseumItem[] chunk = new MuseumItem[chunkSize];
+        int filled = 0;
+        long submitted = 0;
+
+        try {
+            for (MuseumItem item : items) {
+                chunk[filled++] = item;
+                if (filled == chunkSize) {
+                    if (pending.size() == capacity) {
+                        drain(pending.poll(), writer, chunkSize, progress);
+                    }
+                    pending.add(pool.submit(serializer(chunk, filled, submitted, options)));
+                    submitted += filled;
+                    chunk = new MuseumItem[chunkSize];
+                    filled = 0;
+                }
+            }
+            if (filled > 0) {
+                pending.add(pool.submit(serializer(chunk, filled, submitted, options)));
+            }
+            while (!pending.isEmpty()) {
+                ForkJoinTask<CharArrayWriter> task = pending.poll();
+                drain(task, writer, pending.isEmpty() && filled > 0 ? filled : chunkSize, progress);
+            }
+        } finally {
+            for (ForkJoinTask<CharArrayWriter> task : pending) {
+                task.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Сериализация одного блока в отдельный буфер.
+     *
+     * @param chunk экспонаты блока
+     * @param size количество экспонатов в блоке
+     * @param first порядковый номер первого экспоната блока в выгрузке
+     */
+    private static Callable<CharArrayWriter> serializer(MuseumItem[] chunk, int size, long first, ExportOptions options) {
+        return () -> {
+            CharArrayWriter buffer = new CharArrayWriter(size * ESTIMATED_ROW_LENGTH);
+            RowWriter rows = rowWriter(buffer, options);
+            Object[] values = new Object[HEADERS.length];
+            for (int i = 0; i < size; i++) {
+                fill(chunk[i], values);
+                rows.row(values, first + i);
+            }
+            return buffer;
+        };
+    }
+
+    /**
+     * Дожидается сериализации блока и пишет его буфер в выход.
+     */
+    private static void drain(ForkJoinTask<CharArrayWriter> task, Writer writer, int size, Progress progress)
+            throws IOException {
+        CharArrayWriter buffer;
+        try {
+            buffer = task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Выгрузка прервана после " + progress.count + " экспонатов");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException("Ошибка сериализации блока экспонатов", cause);
+        }
+        buffer.writeTo(writer);
+        progress.advance(size);
+    }
+
+    /**
+     * Записывает каталог в PDF. Экспонаты группируются по категориям
+     * (сортируется только список ссылок), страницы пишутся по мере заполнения.
+     * PDF всегда пишется последовательно.
+     */
+    private static long writePdf(Collection<? extends MuseumItem> items, OutputStream out, ExportOptions options)
+            throws IOException {
+        if (items == null) {
+            throw new IllegalArgumentException("Экспонаты не могут быть null");
+        }
+        List<MuseumItem> sorted = new ArrayList<>(items);
+        sorted.sort(Comparator.comparing(ExportService::categoryOf,
+                Comparator.nullsLast(Comparator.<String>naturalOrder())));
+
+        BufferedOutputStream buffered = new BufferedOutputStream(out, options.getBufferSize());
+        PdfReportWriter report = new PdfReportWriter(buffered, PdfReportWriter.loadFont(options.getFontPath()),
+                "Каталог музея");
+        Progress progress = new Progress(options, sorted.size());
+        long started = System.nanoTime();
+        Object[] values = new Object[HEADERS.length];
+
+        report.begin();
+        for (MuseumItem item : sorted) {
+            fill(item, values);
+            report.row(values);
+            progress.advance(1);
+        }
+        report.end(progress.count);
+        buffered.flush();
+        progress.finish();
+
+        logger.debug(String.format("Выгрузка PDF: %d экспонатов за %.2f мс",
+                progress.count, (System.nanoTime() - started) / 1e6));
+        return progress.count;
+    }
+
+    private static String categoryOf(MuseumItem item) {
+        if (item instanceof Exhibit exhibit && exhibit.getCategory() != null) {
+            return exhibit.getCategory().getName();
+        }
+        return null;
+    }
+
+    /**
+     * Заполняет значения колонок экспоната (массив переиспользуется между строками).
+     */
+    private static void fill(MuseumItem item, Object[] values) {
+        Exhibit exhibit = item instanceof Exhibit ? (Exhibit) item : null;
+        values[0] = item.getId();
+        values[1] = item.getInventoryNumber();
+        values[2] = item.getName();
+        values[3] = item.getClass().getSimpleName();
+        values[4] = item.getStatus();
+        values[5] = exhibit != null && exhibit.getAuthor() != null ? exhibit.getAuthor().getFullName() : null;
+        values[6] = exhibit != null && exhibit.getCategory() != null ? exhibit.getCategory().getName() : null;
+        values[7] = item.getCreationDate();
+        values[8] = item.getAcquisitionDate();
+        values[9] = exhibit != null ? exhibit.getEstimatedValue() : null;
+        values[10] = exhibit != null && exhibit.getLocation() != null ? exhibit.getLocation().getHallName() : null;
+    }
+
+    private static RowWriter rowWriter(Writer writer, ExportOptions options) {
+        switch (options.getFormat()) {
+            case CSV:
+                return new CsvRowWriter(writer, options.getDelimiter());
+            case JSON:
+                return new JsonRowWriter(writer);
+            default:
+                return new TextRowWriter(writer);
+        }
+    }
+
+    /**
+     * Текст значения для CSV, текстового отчёта и PDF.
+     */
+    static String text(Object value) {
+        if (value == null) {
+            return "";
+        }
+        if (value instanceof ExhibitStatus status) {
+            return status.getDisplayName();
+        }
+        if (value instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        }
+        return value.toString();
+    }
+
+    /**
+     * Учёт записанных экспонатов: уведомление слушателя через каждые
+     * шаг экспонатов и проверка прерывания выгрузки.
+     */
+    private static final class Progress {
+        private final ExportProgressListener listener;
+        private final int step;
+        private final long total;
+        private long count;
+        private long reported;
+
+        Progress(ExportOptions options, long total) {
+            this.listener = options.getProgressListener();
+            this.step = options.getProgressStep();
+            this.total = total;
+        }
+
+        void advance(int written) throws InterruptedIOException {
+            long before = count;
+            count += written;
+            if (count / step == before / step) {
+                return;
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedIOException("Выгрузка прервана после " + count + " экспонатов");
+            }
+            report();
+        }
+
+        void finish() {
+            if (reported != count) {
+                report();
+            }
+        }
+
+        private void report() {
+            reported = count;
+            if (listener != null) {
+                listener.onProgress(count, total);
+            }
+        }
+    }
+
+    /**
+     * Запись строк в одном формате.
+     */
+    private abstract static class RowWriter {
+        protected final Writer out;
+
+        RowWriter(Writer out) {
+            this.out = out;
+        }
+
+        abstract void begin() throws IOException;
+
+        abstract void row(Object[] values, long index) throws IOException;
+
+        abstract void end(long count) throws IOException;
+    }
+
+    /**
+     * CSV по RFC 4180: поле в кавычках, если содержит разделитель, кавычку или перевод строки.
+     */
+    private static final class CsvRowWriter extends RowWriter {
+        private final char delimiter;
+
+        CsvRowWriter(Writer out, char delimiter) {
+            super(out);
+            this.delimiter = delimiter;
+        }
+
+        @Override
+        void begin() throws IOException {
+            row(HEADERS, -1);
+        }
+
+        @Override
+        void row(Object[] values, long index) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    out.write(delimiter);
+                }
+                field(text(values[i]));
+            }
+            out.write("\r\n");
+        }
+
+        @Override
+        void end(long count) {
+            // Завершающих строк нет
+        }
+
+        private void field(String value) throws IOException {
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == delimiter || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                out.write(value);
+                return;
+            }
+            out.write('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    out.write('"');
+                }
+                out.write(c);
+            }
+            out.write('"');
+        }
+    }
+
+    /**
+     * Массив JSON: один объект на строку.
+     */
+    private static final class JsonRowWriter extends RowWriter {
+
+        JsonRowWriter(Writer out) {
+            super(out);
+        }
+
+        @Override
+        void begin() throws IOException {
+            out.write('[');
+        }
+
+        @Override
+        void row(Object[] values, long index) throws IOException {
+            out.write(index == 0 ? "\n  {" : ",\n  {");
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    out.write(", ");
+                }
+                out.write('"');
+                out.write(JSON_KEYS[i]);
+                out.write("\": ");
+                Object value = values[i];
+                if (value == null) {
+                    out.write("null");
+                } else if (i == ID) {
+                    out.write(value.toString());
+                } else if (i == VALUE) {
+                    out.write(((BigDecimal) value).toPlainString());
+                } else if (i == STATUS) {
+                    string(((ExhibitStatus) value).name());
+                } else {
+                    string(value.toString());
+                }
+            }
+            out.write('}');
+        }
+
+        @Override
+        void end(long count) throws IOException {
+            out.write(count == 0 ? "]\n" : "\n]\n");
+        }
+
+        private void string(String value) throws IOException {
+            out.write('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '"':
+                        out.write("\\\"");
+                        break;
+                    case '\\':
+                        out.write("\\\\");
+                        break;
+                    case '\n':
+                        out.write("\\n");
+                        break;
+                    case '\r':
+                        out.write("\\r");
+                        break;
+                    case '\t':
+                        out.write("\\t");
+                        break;
+                    default:
+                        // Остальные управляющие символы и разделители строк JavaScript - через \\u
+                        if (c < 0x20 || c == 0x2028 || c == 0x2029) {
+                            out.write(String.format("\\u%04x", (int) c));
+                        } else {
+                            out.write(c);
+                        }
+                }
+            }
+            out.write('"');
+        }
+    }
+
+    /**
+     * Текстовый отчёт для печати.
+     */
+    private static final class TextRowWriter extends RowWriter {
+        private static final String DOUBLE_LINE = "═══════════════════════════════════════════════════════════";
+        private static final String LINE = "───────────────────────────────────────────────────────────";
+
+        TextRowWriter(Writer out) {
+            super(out);
+        }
+
+        @Override
+        void begin() throws IOException {
+            line(DOUBLE_LINE);
+            line("                   ОТЧЁТ МУЗЕЯ");
+            line(DOUBLE_LINE);
+            line("");
+            line("Дата формирования: " + LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm")));
+            line("");
+            line("СПИСОК ЭКСПОНАТОВ:");
+            line(LINE);
+        }
+
+        @Override
+        void row(Object[] values, long index) throws IOException {
+            out.write("  • ");
+            out.write(single(values[2]));
+            out.write(" (");
+            out.write(single(values[1]));
+            out.write(")\n");
+            out.write("    ");
+            for (int i = 3; i < values.length; i++) {
+                if (values[i] == null) {
+                    continue;
+                }
+                if (i > 3) {
+                    out.write(" | ");
+                }
+                out.write(HEADERS[i]);
+                out.write(": ");
+                out.write(single(values[i]));
+            }
+            out.write("\n\n");
+        }
+
+        @Override
+        void end(long count) throws IOException {
+            line(LINE);
+            line("Всего экспонатов: " + count);
+            line(DOUBLE_LINE);
+        }
+
+        private void line(String text) throws IOException {
+            out.write(text);
+            out.write('\n');
+        }
+
+        /**
+         * Значение в одну строку: переводы строк не должны ломать вёрстку отчёта.
+         */
+        private static String single(Object value) {
+            String text = text(value);
+            return text.indexOf('\n') < 0 && text.indexOf('\r') < 0 ? text : text.replace("\r\n", " ").replace('\n', ' ').replace('\r', ' ');
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package kz.enu.museum.service;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import kz.enu.museum.model.enums.ExhibitStatus;
+import kz.enu.museum.util.TopKHeap;
+
+/**
+ * Количество экспонатов по значениям фасетов (статус, тип, категория, автор, зал)
+ * для текущего запроса. Счётчик значения показывает, сколько экспонатов
+ * будет найдено, если выбрать это значение вместо уже выбранных
+ * в том же фасете (фильтры остальных фасетов учитываются).
+ * Для каждого фасета хранятся top-N значений по убыванию количества.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+public class FacetCounts {
+
+    /** Количество значений фасета по умолчанию. */
+    public static final int DEFAULT_TOP_N = 10;
+
+    private final int total;
+    private final Map<ExhibitStatus, Integer> statuses;
+    private final Map<String, Integer> types;
+    private final Map<Long, Integer> categories;
+    private final Map<Long, Integer> authors;
+    private final Map<String, Integer> halls;
+
+    FacetCounts(int total,
+                Map<ExhibitStatus, Integer> statuses,
+                Map<String, Integer> types,
+                Map<Long, Integer> categories,
+                Map<Long, Integer> authors,
+                Map<String, Integer> halls,
+                int topN) {
+        if (topN <= 0) {
+            throw new IllegalArgumentException("Количество значений фасета должно быть положительным числом");
+        }
+        this.total = total;
+        this.statuses = top(statuses, topN);
+        this.types = top(types, topN);
+        this.categories = top(categories, topN);
+        this.authors = top(authors, topN);
+        this.halls = top(halls, topN);
+    }
+
+    /**
+     * Количество экспонатов, подходящих под запрос и все фильтры.
+     *
+     * @return количество экспонатов
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    public Map<ExhibitStatus, Integer> getStatusCounts() {
+        return statuses;
+    }
+
+    /**
+     * Количество по типам экспонатов (ключ - простое имя класса, например Painting).
+     *
+     * @return количество по типам
+     */
+    public Map<String, Integer> getTypeCounts() {
+        return types;
+    }
+
+    /**
+     * Количество по категориям (ключ - ID категории).
+     *
+     * @return количество по категориям
+     */
+    public Map<Long, Integer> getCategoryCounts() {
+        return categories;
+    }
+
+    /**
+     * Количество по авторам (ключ - ID автора).
+     *
+     * @return количество по авторам
+     */
+    public Map<Long, Integer> getAuthorCounts() {
+        return authors;
+    }
+
+    /**
+     * Количество по залам (ключ - название зала).
+     *
+     * @return количество по залам
+     */
+    public Map<String, Integer> getHallCounts() {
+        return halls;
+    }
+
+    /**
+     * Отбирает N значений с наибольшим количеством, при равенстве - в порядке ключей.
+     */
+    private static <K extends Comparable<? super K>> Map<K, Integer> top(Map<K, Integer> counts, int topN) {
+        Comparator<Map.Entry<K, Integer>> order = Map.Entry.<K, Integer>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey());
+        TopKHeap<Map.Entry<K, Integer>> heap = new TopKHeap<>(topN, order);
+        for (Map.Entry<K, Integer> entry : counts.entrySet()) {
+            if (entry.getValue() > 0) {
+                heap.offer(entry);
+            }
+        }
+        Map<K, Integer> result = new LinkedHashMap<>();
+        for (Map.Entry<K, Integer> entry : heap.toSortedList()) {
+            result.put(entry.getKey(), entry.getValue());
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    @Override
+    public String toString() {
+        return "FacetCounts{" +
+                "total=" + total +
+                ", statuses=" + statuses +
+                ", types=" + types +
+                ", categories=" + categories +
+                ", authors=" + authors +
+                ", halls=" + halls +
+                '}';
+    }
+}
@@ -0,0 +1,598 @@
+package kz.enu.museum.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import kz.enu.museum.model.Artist;
+import kz.enu.museum.model.Category;
+import kz.enu.museum.model.Exhibit;
+import kz.enu.museum.model.MuseumItem;
+import kz.enu.museum.model.enums.ExhibitStatus;
+import kz.enu.museum.util.OrdinalBitmap;
+
+/**
+ * Битовый индекс для фильтров расширенного поиска.
+ * Каждому экспонату выдаётся плотный порядковый номер (ordinal),
+ * а для каждого значения статуса, категории, автора, типа и зала
+ * хранится сжатое множество номеров. Комбинация фильтров сводится
+ * к пересечению и объединению множеств, а количество результатов -
+ * к мощности множества.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+public class FilterIndex {
+
+    private final List<MuseumItem> items = new ArrayList<>();
+    private final List<FilterKeys> keysByOrdinal = new ArrayList<>();
+    private final Map<Object, Integer> ordinals = new HashMap<>();
+    private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+
+    private OrdinalBitmap all = new OrdinalBitmap();
+    private final Map<ExhibitStatus, OrdinalBitmap> byStatus = new EnumMap<>(ExhibitStatus.class);
+    private final Map<Long, OrdinalBitmap> byCategory = new HashMap<>();
+    private final Map<Long, OrdinalBitmap> byAuthor = new HashMap<>();
+    private final Map<String, OrdinalBitmap> byType = new HashMap<>();
+    private final Map<String, OrdinalBitmap> byHall = new HashMap<>();
+
+    // Справочники значений для разрешения имён в структурированных запросах
+    private final Map<Long, Artist> authors = new HashMap<>();
+    private final Map<Long, Category> categories = new HashMap<>();
+
+    /**
+     * Строит индекс по коллекции экспонатов.
+     *
+     * @param exhibits экспонаты
+     */
+    public void rebuild(Collection<MuseumItem> exhibits) {
+        clear();
+        for (MuseumItem item : exhibits) {
+            add(item);
+        }
+    }
+
+    /**
+     * Очищает индекс.
+     */
+    public void clear() {
+        items.clear();
+        keysByOrdinal.clear();
+        ordinals.clear();
+        freeOrdinals.clear();
+        all = new OrdinalBitmap();
+        byStatus.clear();
+        byCategory.clear();
+        byAuthor.clear();
+        byType.clear();
+        byHall.clear();
+        authors.clear();
+        categories.clear();
+    }
+
+    /**
+     * Добавляет экспонат в индекс (или переиндексирует уже добавленный).
+     * Переиндексация затрагивает только множества прежних и новых значений полей.
+     *
+     * @param item экспонат
+     * @return порядковый номер экспоната
+     */
+    public int add(MuseumItem item) {
+        Object key = identity(item);
+        Integer existing = ordinals.get(key);
+        if (existing != null) {
+            unindex(existing);
+            items.set(existing, item);
+            index(existing, item);
+            return existing;
+        }
+
+        int ordinal;
+        if (!freeOrdinals.isEmpty()) {
+            ordinal = freeOrdinals.pop();
+            items.set(ordinal, item);
+        } else {
+            ordinal = items.size();
+            items.add(item);
+            keysByOrdinal.add(null);
+        }
+        ordinals.put(key, ordinal);
+        index(ordinal, item);
+        return ordinal;
+    }
+
+    /**
+     * Удаляет экспонат из индекса.
+     *
+     * @param item экспонат
+     * @return освобождённый порядковый номер или -1, если экспоната не было в индексе
+     */
+    public int remove(MuseumItem item) {
+        Integer ordinal = ordinals.remove(identity(item));
+        if (ordinal == null) {
+            return -1;
+        }
+        unindex(ordinal);
+        items.set(ordinal, null);
+        freeOrdinals.push(ordinal);
+        return ordinal;
+    }
+
+    /**
+     * Возвращает порядковый номер экспоната.
+     *
+     * @param item экспонат
+     * @return порядковый номер или -1, если экспоната нет в индексе
+     */
+    public int ordinalOf(MuseumItem item) {
+        Integer ordinal = ordinals.get(identity(item));
+        return ordinal != null ? ordinal : -1;
+    }
+
+    /**
+     * Возвращает порядковый номер экспоната по его ID.
+     *
+     * @param id ID экспоната
+     * @return порядковый номер или -1, если экспоната нет в индексе
+     */
+    int ordinalOfId(Long id) {
+        Integer ordinal = ordinals.get(id);
+        return ordinal != null ? ordinal : -1;
+    }
+
+    /**
+     * Проверяет, что экспонат проиндексирован по текущим значениям своих полей.
+     *
+     * @param item экспонат
+     * @return true если индекс актуален для экспоната
+     */
+    public boolean isConsistent(MuseumItem item) {
+        int ordinal = ordinalOf(item);
+        return ordinal >= 0
+                && items.get(ordinal) == item
+                && all.contains(ordinal)
+                && FilterKeys.of(item).equals(keysByOrdinal.get(ordinal));
+    }
+
+    /**
+     * Восстанавливает очередной номер индекса из сохранённой копии.
+     * Номера восстанавливаются строго по порядку, начиная с нуля,
+     * в пустой индекс.
+     *
+     * @param ordinal порядковый номер (равен количеству уже восстановленных номеров)
+     * @param item экспонат или null для свободного номера
+     * @param keys значения полей, под которыми экспонат был проиндексирован
+     */
+    void restore(int ordinal, MuseumItem item, FilterKeys keys) {
+        if (ordinal != items.size()) {
+            throw new IllegalArgumentException("Номера индекса восстанавливаются по порядку: ожидался "
+                    + items.size() + ", получен " + ordinal);
+        }
+        items.add(item);
+        keysByOrdinal.add(null);
+        if (item == null) {
+            freeOrdinals.push(ordinal);
+            return;
+        }
+        ordinals.put(identity(item), ordinal);
+        index(ordinal, item, keys);
+    }
+
+    /**
+     * Возвращает значения полей, под которыми проиндексирован номер.
+     *
+     * @param ordinal порядковый номер
+     * @return значения полей или null для свободного номера
+     */
+    FilterKeys keysAt(int ordinal) {
+        return keysByOrdinal.get(ordinal);
+    }
+
+    /**
+     * Проверяет экспонат по фильтру без обращения к индексу
+     * (для проверки одного изменённого экспоната).
+     *
+     * @param filter фильтр
+     * @param item экспонат
+     * @return true если экспонат проходит все заданные измерения фильтра
+     */
+    static boolean matches(SearchFilter filter, MuseumItem item) {
+        FilterKeys keys = FilterKeys.of(item);
+        return allows(filter.getStatuses(), keys.status)
+                && allows(filter.getTypes(), keys.type)
+                && allows(filter.getCategoryIds(), keys.categoryId)
+                && allows(filter.getAuthorIds(), keys.authorId)
+                && allows(filter.getHalls(), keys.hall);
+    }
+
+    private static <T> boolean allows(Set<T> values, T key) {
+        return values.isEmpty() || (key != null && values.contains(key));
+    }
+
+    /**
+     * Возвращает количество выданных номеров, включая свободные.
+     *
+     * @return верхняя граница номеров
+     */
+    int capacity() {
+        return items.size();
+    }
+
+    /**
+     * Вычисляет множество номеров экспонатов, подходящих под фильтр.
+     *
+     * @param filter фильтр
+     * @return множество порядковых номеров (не изменять)
+     */
+    public OrdinalBitmap evaluate(SearchFilter filter) {
+        OrdinalBitmap result = all;
+        result = restrict(result, byStatus, filter.getStatuses());
+        result = restrict(result, byCategory, filter.getCategoryIds());
+        result = restrict(result, byAuthor, filter.getAuthorIds());
+        result = restrict(result, byType, filter.getTypes());
+        result = restrict(result, byHall, filter.getHalls());
+        return result;
+    }
+
+    /**
+     * Подсчитывает количество экспонатов под фильтром без построения списка.
+     *
+     * @param filter фильтр
+     * @return количество экспонатов
+     */
+    public int count(SearchFilter filter) {
+        return evaluate(filter).cardinality();
+    }
+
+    /**
+     * Преобразует множество номеров в список экспонатов.
+     *
+     * @param bitmap множество порядковых номеров
+     * @return список экспонатов в порядке номеров
+     */
+    public List<MuseumItem> materialize(OrdinalBitmap bitmap) {
+        List<MuseumItem> result = new ArrayList<>(bitmap.cardinality());
+        bitmap.forEach(ordinal -> result.add(items.get(ordinal)));
+        return result;
+    }
+
+    /**
+     * Подсчитывает количество экспонатов по значениям всех фасетов за один проход.
+     * Экспонат, не прошедший фильтр ровно одного фасета, учитывается
+     * только в этом фасете: так счётчик показывает результат выбора значения.
+     * Без запроса и фильтров счётчики берутся из мощностей множеств индекса.
+     *
+     * @param queryMatches номера экспонатов, подходящих под запрос (null - все)
+     * @param filter фильтр
+     * @param topN количество значений на фасет
+     * @return счётчики фасетов
+     */
+    public FacetCounts facets(OrdinalBitmap queryMatches, SearchFilter filter, int topN) {
+        FacetAccumulator accumulator = new FacetAccumulator(filter);
+        if (queryMatches == null && filter.isEmpty()) {
+            accumulator.total = all.cardinality();
+            cardinalities(byStatus, accumulator.statuses);
+            cardinalities(byType, accumulator.types);
+            cardinalities(byCategory, accumulator.categories);
+            cardinalities(byAuthor, accumulator.authors);
+            cardinalities(byHall, accumulator.halls);
+        } else {
+            (queryMatches != null ? queryMatches : all).forEach(accumulator::accept);
+        }
+        return new FacetCounts(accumulator.total, accumulator.statuses, accumulator.types,
+                accumulator.categories, accumulator.authors, accumulator.halls, topN);
+    }
+
+    private static <K> void cardinalities(Map<K, OrdinalBitmap> dimension, Map<K, Integer> counts) {
+        for (Map.Entry<K, OrdinalBitmap> entry : dimension.entrySet()) {
+            counts.put(entry.getKey(), entry.getValue().cardinality());
+        }
+    }
+
+    /**
+     * Находит авторов экспонатов каталога, имя которых содержит текст.
+     *
+     * @param nameKey часть имени в нижнем регистре
+     * @return найденные авторы
+     */
+    public List<Artist> findAuthors(String nameKey) {
+        List<Artist> result = new ArrayList<>();
+        for (Artist author : authors.values()) {
+            if (author.getFullNameSearchKey().contains(nameKey)) {
+                result.add(author);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Находит категории экспонатов каталога по части названия или точному коду.
+     *
+     * @param key часть названия или код категории в нижнем регистре
+     * @return найденные категории
+     */
+    public List<Category> findCategories(String key) {
+        List<Category> result = new ArrayList<>();
+        for (Category category : categories.values()) {
+            if (category.getNameSearchKey().contains(key)
+                    || (category.getCategoryCode() != null && category.getCategoryCode().equalsIgnoreCase(key))) {
+                result.add(category);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Находит залы по названию без учёта регистра.
+     *
+     * @param hallName название зала
+     * @return названия залов в том виде, в котором они проиндексированы
+     */
+    public List<String> findHalls(String hallName) {
+        List<String> result = new ArrayList<>();
+        for (String hall : byHall.keySet()) {
+            if (hall.equalsIgnoreCase(hallName)) {
+                result.add(hall);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Возвращает все проиндексированные экспонаты.
+     *
+     * @return список экспонатов в порядке номеров
+     */
+    public List<MuseumItem> items() {
+        return materialize(all);
+    }
+
+    /**
+     * Возвращает экспонат по порядковому номеру.
+     *
+     * @param ordinal порядковый номер
+     * @return экспонат или null, если номер свободен
+     */
+    public MuseumItem get(int ordinal) {
+        return items.get(ordinal);
+    }
+
+    /**
+     * Возвращает количество проиндексированных экспонатов.
+     *
+     * @return количество экспонатов
+     */
+    public int size() {
+        return ordinals.size();
+    }
+
+    private <K> OrdinalBitmap restrict(OrdinalBitmap current, Map<K, OrdinalBitmap> dimension, Set<K> values) {
+        if (values.isEmpty()) {
+            return current;
+        }
+        OrdinalBitmap union = null;
+        for (K value : values) {
+            OrdinalBitmap bitmap = dimension.get(value);
+            if (bitmap == null) {
+                continue;
+            }
+            union = union == null ? bitmap : OrdinalBitmap.or(union, bitmap);
+        }
+        if (union == null) {
+            return new OrdinalBitmap();
+        }
+        return OrdinalBitmap.and(current, union);
+    }
+
+    private void index(int ordinal, MuseumItem item) {
+        index(ordinal, item, FilterKeys.of(item));
+    }
+
+    private void index(int ordinal, MuseumItem item, FilterKeys keys) {
+        keysByOrdinal.set(ordinal, keys);
+        all.add(ordinal);
+        bitmapFor(byStatus, keys.status).add(ordinal);
+        bitmapFor(byType, keys.type).add(ordinal);
+        if (keys.categoryId != null) {
+            bitmapFor(byCategory, keys.categoryId).add(ordinal);
+            categories.put(keys.categoryId, ((Exhibit) item).getCategory());
+        }
+        if (keys.authorId != null) {
+            bitmapFor(byAuthor, keys.authorId).add(ordinal);
+            authors.put(keys.authorId, ((Exhibit) item).getAuthor());
+        }
+        if (keys.hall != null) {
+            bitmapFor(byHall, keys.hall).add(ordinal);
+        }
+    }
+
+    private void unindex(int ordinal) {
+        FilterKeys keys = keysByOrdinal.get(ordinal);
+        keysByOrdinal.set(ordinal, null);
+        all.remove(ordinal);
+        if (keys == null) {
+            return;
+        }
+        removeFrom(byStatus, keys.status, ordinal);
+        removeFrom(byType, keys.type, ordinal);
+        removeFrom(byCategory, keys.categoryId, ordinal);
+        removeFrom(byAuthor, keys.authorId, ordinal);
+        removeFrom(byHall, keys.hall, ordinal);
+        if (keys.categoryId != null && !byCategory.containsKey(keys.categoryId)) {
+            categories.remove(keys.categoryId);
+        }
+        if (keys.authorId != null && !byAuthor.containsKey(keys.authorId)) {
+            authors.remove(keys.authorId);
+        }
+    }
+
+    private static <K> OrdinalBitmap bitmapFor(Map<K, OrdinalBitmap> dimension, K key) {
+        return dimension.computeIfAbsent(key, k -> new OrdinalBitmap());
+    }
+
+    private static <K> void removeFrom(Map<K, OrdinalBitmap> dimension, K key, int ordinal) {
+        if (key == null) {
+            return;
+        }
+        OrdinalBitmap bitmap = dimension.get(key);
+        if (bitmap != null) {
+            bitmap.remove(ordinal);
+            if (bitmap.isEmpty()) {
+                dimension.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Ключ экспоната в индексе: ID, а для несохранённых - сам объект.
+     */
+    private static Object identity(MuseumItem item) {
+        return item.getId() != null ? item.getId() : item;
+    }
+
+    /**
+     * Счётчики фасетов, накапливаемые за один проход по экспонатам.
+     */
+    private final class FacetAccumulator {
+        private static final int NONE = -1;
+        private static final int STATUS = 0;
+        private static final int TYPE = 1;
+        private static final int CATEGORY = 2;
+        private static final int AUTHOR = 3;
+        private static final int HALL = 4;
+        private static final int SEVERAL = 5;
+
+        private final SearchFilter filter;
+        private final Map<ExhibitStatus, Integer> statuses = new EnumMap<>(ExhibitStatus.class);
+        private final Map<String, Integer> types = new HashMap<>();
+        private final Map<Long, Integer> categories = new HashMap<>();
+        private final Map<Long, Integer> authors = new HashMap<>();
+        private final Map<String, Integer> halls = new HashMap<>();
+        private int total;
+
+        private FacetAccumulator(SearchFilter filter) {
+            this.filter = filter;
+        }
+
+        private void accept(int ordinal) {
+            FilterKeys keys = keysByOrdinal.get(ordinal);
+            int failed = NONE;
+            failed = check(failed, filter.getStatuses(), keys.status, STATUS);
+            failed = check(failed, filter.getTypes(), keys.type, TYPE);
+            failed = check(failed, filter.getCategoryIds(), keys.categoryId, CATEGORY);
+            failed = check(failed, filter.getAuthorIds(), keys.authorId, AUTHOR);
+            failed = check(failed, filter.getHalls(), keys.hall, HALL);
+            if (failed == SEVERAL) {
+                return;
+            }
+            if (failed == NONE) {
+                total++;
+            }
+            if (failed == NONE || failed == STATUS) {
+                increment(statuses, keys.status);
+            }
+            if (failed == NONE || failed == TYPE) {
+                increment(types, keys.type);
+            }
+            if (failed == NONE || failed == CATEGORY) {
+                increment(categories, keys.categoryId);
+            }
+            if (failed == NONE || failed == AUTHOR) {
+                increment(authors, keys.authorId);
+            }
+            if (failed == NONE || failed == HALL) {
+                increment(halls, keys.hall);
+            }
+        }
+
+        private <K> int check(int failed, Set<K> accepted, K value, int dimension) {
+            if (failed == SEVERAL || accepted.isEmpty() || accepted.contains(value)) {
+                return failed;
+            }
+            return failed == NONE ? dimension : SEVERAL;
+        }
+
+        private <K> void increment(Map<K, Integer> counts, K value) {
+            if (value != null) {
+                counts.merge(value, 1, Integer::sum);
+            }
+        }
+    }
+
+    /**
+     * Значения фильтруемых полей, под которыми экспонат попал в индекс.
+     * Нужны, чтобы удалить экспонат из индекса после изменения его полей.
+     */
+    static final class FilterKeys {
+        private final ExhibitStatus status;
+        private final String type;
+        private final Long categoryId;
+        private final Long authorId;
+        private final String hall;
+
+        FilterKeys(ExhibitStatus status, String type, Long categoryId, Long authorId, String hall) {
+            this.status = status;
+            this.type = type;
+            this.categoryId = categoryId;
+            this.authorId = authorId;
+            this.hall = hall;
+        }
+
+        static FilterKeys of(MuseumItem item) {
+            Long categoryId = null;
+            Long authorId = null;
+            String hall = null;
+            if (item instanceof Exhibit exhibit) {
+                categoryId = exhibit.getCategory() != null ? exhibit.getCategory().getId() : null;
+                authorId = exhibit.getAuthor() != null ? exhibit.getAuthor().getId() : null;
+                hall = exhibit.getLocation() != null ? exhibit.getLocation().getHallName() : null;
+            }
+            return new FilterKeys(item.getStatus(), item.getClass().getSimpleName(), categoryId, authorId, hall);
+        }
+
+        ExhibitStatus getStatus() {
+            return status;
+        }
+
+        String getType() {
+            return type;
+        }
+
+        Long getCategoryId() {
+            return categoryId;
+        }
+
+        Long getAuthorId() {
+            return authorId;
+        }
+
+        String getHall() {
+            return hall;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof FilterKeys)) return false;
+            FilterKeys other = (FilterKeys) o;
+            return status == other.status
+                    && type.equals(other.type)
+                    && Objects.equals(categoryId, other.categoryId)
+                    && Objects.equals(authorId, other.authorId)
+                    && Objects.equals(hall, other.hall);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(status, type, categoryId, authorId, hall);
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package kz.enu.museum.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Predicate;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import kz.enu.museum.model.MuseumItem;
+
+/**
+ * Параллельная проверка произвольного условия по каталогу.
+ * Используется для запросов, которые нельзя ответить по индексу
+ * (регулярные выражения, поля отдельных типов экспонатов и т.п.).
+ * Каталог делится на блоки, блоки проверяются в пуле ForkJoin,
+ * результаты склеиваются в исходном порядке. При ограничении количества
+ * результатов блоки, которые уже не могут попасть в выдачу, не проверяются.
+ * Небольшие каталоги проверяются последовательно.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+public class ParallelSearchExecutor {
+
+    private static final Logger logger = LogManager.getLogger(ParallelSearchExecutor.class);
+
+    /** Размер каталога, начиная с которого поиск выполняется параллельно. */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 8192;
+
+    private static final int MIN_CHUNK_SIZE = 1024;
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final int CANCELLATION_CHECK_MASK = 255;
+
+    private final ForkJoinPool pool;
+    private final boolean ownsPool;
+    private final int parallelThreshold;
+
+    /**
+     * Конструктор на общем пуле ForkJoin: собственные потоки не создаются,
+     * и останавливать их не нужно.
+     */
+    public ParallelSearchExecutor() {
+        this.pool = ForkJoinPool.commonPool();
+        this.ownsPool = false;
+        this.parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+    }
+
+    /**
+     * Конструктор с собственным пулом, который останавливается
+     * методом {@link #shutdown()}.
+     *
+     * @param parallelism количество потоков пула
+     * @param parallelThreshold размер каталога, начиная с которого поиск идёт параллельно
+     */
+    public ParallelSearchExecutor(int parallelism, int parallelThreshold) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Количество потоков должно быть положительным числом");
+        }
+        if (parallelThreshold < 0) {
+            throw new IllegalArgumentException("Порог параллельного поиска не может быть отрицательным");
+        }
+        this.pool = new ForkJoinPool(parallelism);
+        this.ownsPool = true;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Отбирает экспонаты, удовлетворяющие условию, с сохранением порядка.
+     * Условие вызывается из нескольких потоков и не должно изменять экспонаты.
+     * Прерывание вызывающего потока отменяет поиск.
+     *
+     * @param items экспонаты (не изменяются во время поиска)
+     * @param predicate условие
+     * @param limit максимальное количество результатов
+     * @return первые limit подходящих экспонатов в порядке списка
+     * @throws CancellationException если вызывающий поток прерван
+     */
+    public List<MuseumItem> filter(List<MuseumItem> items, Predicate<? super MuseumItem> predicate, int limit) {
+        if (limit <= 0) {
+            return new ArrayList<>();
+        }
+        if (items.size() < parallelThreshold || pool.getParallelism() == 1) {
+            return filterSequential(items, predicate, limit);
+        }
+
+        int chunkSize = Math.max(MIN_CHUNK_SIZE,
+                (items.size() + pool.getParallelism() * CHUNKS_PER_THREAD - 1) / (pool.getParallelism() * CHUNKS_PER_THREAD));
+        int chunkCount = (items.size() + chunkSize - 1) / chunkSize;
+
+        Scan scan = new Scan(items, predicate, limit, chunkSize, chunkCount, Thread.currentThread());
+        long started = System.nanoTime();
+        pool.invoke(new ChunkRange(scan, 0, chunkCount));
+        if (scan.cancelled) {
+            throw new CancellationException("Параллельный поиск отменён");
+        }
+
+        List<MuseumItem> result = new ArrayList<>();
+        for (int chunk = 0; chunk < chunkCount && result.size() < limit; chunk++) {
+            List<MuseumItem> part = scan.results.get(chunk);
+            if (part == null) {
+                break;
+            }
+            for (int i = 0; i < part.size() && result.size() < limit; i++) {
+                result.add(part.get(i));
+            }
+        }
+
+        logger.debug(String.format("Параллельный поиск: %d экспонатов, %d блоков, %d потоков, найдено %d за %.2f мс",
+                items.size(), chunkCount, pool.getParallelism(), result.size(), (System.nanoTime() - started) / 1e6));
+        return result;
+    }
+
+    private List<MuseumItem> filterSequential(List<MuseumItem> items, Predicate<? super MuseumItem> predicate, int limit) {
+        List<MuseumItem> result = new ArrayList<>();
+        for (int i = 0; i < items.size() && result.size() < limit; i++) {
+            if ((i & CANCELLATION_CHECK_MASK) == 0 && Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("Поиск отменён");
+            }
+            MuseumItem item = items.get(i);
+            if (predicate.test(item)) {
+                result.add(item);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Останавливает собственный пул потоков; общий пул не затрагивается.
+     */
+    public void shutdown() {
+        if (ownsPool) {
+            pool.shutdownNow();
+        }
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * Общее состояние одного параллельного поиска.
+     * cutoff - номер блока, после которого проверка не нужна: префикс
+     * завершённых блоков до него включительно уже набрал limit результатов.
+     */
+    private static final class Scan {
+        private final List<MuseumItem> items;
+        private final Predicate<? super MuseumItem> predicate;
+        private final int limit;
+        private final int chunkSize;
+        private final Thread caller;
+        private final List<List<MuseumItem>> results;
+        private final AtomicIntegerArray counts;
+        private final AtomicInteger cutoff;
+        private volatile boolean cancelled;
+
+        private Scan(List<MuseumItem> items, Predicate<? super MuseumItem> predicate, int limit,
+                     int chunkSize, int chunkCount, Thread caller) {
+            this.items = items;
+            this.predicate = predicate;
+            this.limit = limit;
+            this.chunkSize = chunkSize;
+            this.caller = caller;
+            this.results = new ArrayList<>(Collections.nCopies(chunkCount, null));
+            this.counts = new AtomicIntegerArray(chunkCount);
+            this.cutoff = new AtomicInteger(chunkCount);
+            for (int i = 0; i < chunkCount; i++) {
+                counts.set(i, -1);
+            }
+        }
+
+        private boolean skipped(int chunk) {
+            return cancelled || chunk > cutoff.get();
+        }
+
+        private void scanChunk(int chunk) {
+            if (skipped(chunk)) {
+                return;
+            }
+            int from = chunk * chunkSize;
+            int to = Math.min(items.size(), from + chunkSize);
+            List<MuseumItem> found = new ArrayList<>();
+            for (int i = from; i < to && found.size() < limit; i++) {
+                if (((i - from) & CANCELLATION_CHECK_MASK) == 0) {
+                    if (caller.isInterrupted()) {
+                        cancelled = true;
+                    }
+                    if (skipped(chunk)) {
+                        return;
+                    }
+                }
+                MuseumItem item = items.get(i);
+                if (predicate.test(item)) {
+                    found.add(item);
+                }
+            }
+            results.set(chunk, found);
+            counts.set(chunk, found.size());
+            advanceCutoff();
+        }
+
+        /**
+         * Сдвигает границу отсечения по непрерывному префиксу завершённых блоков.
+         */
+        private void advanceCutoff() {
+            int total = 0;
+            for (int chunk = 0; chunk < results.size(); chunk++) {
+                int count = counts.get(chunk);
+                if (count < 0) {
+                    return;
+                }
+                total += count;
+                if (total >= limit) {
+                    cutoff.accumulateAndGet(chunk, Math::min);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Задача ForkJoin над диапазоном блоков [from, to).
+     */
+    private static final class ChunkRange extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Scan scan;
+        private final int from;
+        private final int to;
+
+        private ChunkRange(Scan scan, int from, int to) {
+            this.scan = scan;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                scan.scanChunk(from);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ChunkRange(scan, from, middle), new ChunkRange(scan, middle, to));
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package kz.enu.museum.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import kz.enu.museum.util.PdfWriter;
+import kz.enu.museum.util.TrueTypeFont;
+
+/**
+ * Разметка каталога в PDF: таблица экспонатов по разделам-категориям,
+ * итоги по разделам и номера страниц. Экспонаты должны поступать
+ * сгруппированными по категории. Каждая заполненная страница сразу
+ * записывается через {@link PdfWriter}, поэтому память не зависит
+ * от размера каталога.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+final class PdfReportWriter {
+
+    private static final Logger logger = LogManager.getLogger(PdfReportWriter.class);
+
+    /** Буквы, которые должны быть в шрифте отчёта: русский и казахский алфавиты. */
+    static final String REQUIRED_LETTERS = "АаЁёЯяӘәҒғҚқҢңӨөҰұҮүҺһІі";
+
+    /** Название раздела для экспонатов без категории. */
+    static final String NO_CATEGORY = "Без категории";
+
+    /** Шрифты с кириллицей, которые ищутся в системе, если шрифт не задан. */
+    private static final String[] SYSTEM_FONTS = {
+            "C:/Windows/Fonts/arial.ttf",
+            "/usr/share/fonts/truetype/dejavu/DejaVuSans.ttf",
+            "/usr/share/fonts/dejavu/DejaVuSans.ttf",
+            "/usr/share/fonts/TTF/DejaVuSans.ttf",
+            "/usr/share/fonts/truetype/noto/NotoSans-Regular.ttf",
+            "/usr/share/fonts/noto/NotoSans-Regular.ttf",
+            "/System/Library/Fonts/Supplemental/Arial.ttf",
+            "/Library/Fonts/Arial.ttf"
+    };
+
+    // Альбомный A4
+    private static final float PAGE_WIDTH = PdfWriter.A4_HEIGHT;
+    private static final float PAGE_HEIGHT = PdfWriter.A4_WIDTH;
+    private static final float MARGIN = 36;
+    private static final float BOTTOM = MARGIN + 18;
+    private static final float FONT_SIZE = 9;
+    private static final float ROW_HEIGHT = 14;
+    private static final float CELL_PADDING = 3;
+
+    private static final String[] COLUMNS = {"Инв. номер", "Название", "Тип", "Автор", "Статус", "Зал"};
+    /** Индексы значений {@link ExportService#HEADERS} для колонок таблицы. */
+    private static final int[] SOURCES = {1, 2, 3, 5, 4, 10};
+    private static final float[] WIDTHS = {95, 235, 70, 150, 105, PAGE_WIDTH - 2 * MARGIN - 655};
+    private static final int CATEGORY = 6;
+
+    private final PdfWriter pdf;
+    private final String title;
+    private final String date;
+    private PdfWriter.Page page;
+    private int pageNumber;
+    private float y;
+    private String section;
+    private long sectionCount;
+
+    /**
+     * Конструктор.
+     *
+     * @param out поток (не закрывается)
+     * @param font шрифт с кириллицей
+     * @param title заголовок отчёта
+     * @throws IOException при ошибке записи
+     */
+    PdfReportWriter(OutputStream out, TrueTypeFont font, String title) throws IOException {
+        this.pdf = new PdfWriter(out, font);
+        this.title = title;
+        this.date = LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm"));
+    }
+
+    /**
+     * Загружает шрифт для отчёта: заданный файл или первый найденный системный
+     * шрифт, в котором есть все буквы русского и казахского алфавитов.
+     *
+     * @param path файл шрифта или null для поиска в системе
+     * @return шрифт
+     * @throws IOException если заданный файл не читается или подходящий шрифт не найден
+     * @throws IllegalArgumentException если в заданном шрифте нет кириллицы
+     */
+    static TrueTypeFont loadFont(Path path) throws IOException {
+        if (path != null) {
+            TrueTypeFont font = TrueTypeFont.load(path);
+            if (!font.covers(REQUIRED_LETTERS)) {
+                throw new IllegalArgumentException("В шрифте " + path.getFileName()
+                        + " нет букв русского или казахского алфавита");
+            }
+            return font;
+        }
+        for (String candidate : SYSTEM_FONTS) {
+            Path file = Path.of(candidate);
+            if (!Files.isRegularFile(file)) {
+                continue;
+            }
+            try {
+                TrueTypeFont font = TrueTypeFont.load(file);
+                if (font.covers(REQUIRED_LETTERS)) {
+                    return font;
+                }
+                logger.warn("В шрифте " + file + " нет казахских букв, шрифт пропущен");
+            } catch (IOException | IllegalArgumentException e) {
+                logger.warn("Не удалось загрузить шрифт " + file + ": " + e.getMessage());
+            }
+        }
+        throw new IOException("Не найден шрифт с кириллицей и казахскими буквами для PDF; "
+                + "укажите файл шрифта .ttf в параметрах выгрузки");
+    }
+
+    void begin() throws IOException {
+        newPage();
+        page.text(MARGIN, y - 16, 16, title);
+        page.text(MARGIN, y - 32, FONT_SIZE, "Дата формирования: " + date);
+        y -= 48;
+    }
+
+    void row(Object[] values) throws IOException {
+        String category = values[CATEGORY] != null ? values[CATEGORY].toString() : NO_CATEGORY;
+        if (!category.equals(section)) {
+            if (section != null) {
+                endSection();
+            }
+            startSection(category);
+        }
+        if (y - ROW_HEIGHT < BOTTOM) {
+            newPage();
+            sectionHeading(section + " (продолжение)");
+            tableHeader();
+        }
+
+        if (sectionCount % 2 == 1) {
+            page.fillRect(MARGIN, y - ROW_HEIGHT, PAGE_WIDTH - 2 * MARGIN, ROW_HEIGHT, 0.95f);
+        }
+        float x = MARGIN;
+        for (int i = 0; i < COLUMNS.length; i++) {
+            String text = single(ExportService.text(values[SOURCES[i]]));
+            page.text(x + CELL_PADDING, y - ROW_HEIGHT + 4, FONT_SIZE,
+                    pdf.fit(text, FONT_SIZE, WIDTHS[i] - 2 * CELL_PADDING));
+            x += WIDTHS[i];
+        }
+        y -= ROW_HEIGHT;
+        sectionCount++;
+    }
+
+    void end(long count) throws IOException {
+        if (section != null) {
+            endSection();
+        }
+        if (y - 2 * ROW_HEIGHT < BOTTOM) {
+            newPage();
+        }
+        page.line(MARGIN, y, PAGE_WIDTH - MARGIN, y, 1);
+        page.text(MARGIN, y - ROW_HEIGHT - 2, 11, "Всего экспонатов: " + count);
+        endPage();
+        pdf.finish(title);
+        logger.debug("PDF-отчёт: " + count + " экспонатов, " + pdf.getPageCount() + " страниц");
+    }
+
+    private void startSection(String name) throws IOException {
+        // Заголовок раздела не остаётся внизу страницы без строк таблицы
+        if (y - 24 - 2 * ROW_HEIGHT < BOTTOM) {
+            newPage();
+        }
+        section = name;
+        sectionCount = 0;
+        sectionHeading(name);
+        tableHeader();
+    }
+
+    private void endSection() throws IOException {
+        if (y - ROW_HEIGHT < BOTTOM) {
+            newPage();
+        }
+        page.line(MARGIN, y, PAGE_WIDTH - MARGIN, y, 0.5f);
+        page.textRight(PAGE_WIDTH - MARGIN - CELL_PADDING, y - ROW_HEIGHT + 4, FONT_SIZE,
+                "Итого в разделе: " + sectionCount);
+        y -= ROW_HEIGHT + 10;
+    }
+
+    private void sectionHeading(String name) {
+        page.text(MARGIN, y - 14, 12, pdf.fit(single(name), 12, PAGE_WIDTH - 2 * MARGIN));
+        y -= 24;
+    }
+
+    private void tableHeader() {
+        page.fillRect(MARGIN, y - ROW_HEIGHT, PAGE_WIDTH - 2 * MARGIN, ROW_HEIGHT, 0.85f);
+        float x = MARGIN;
+        for (int i = 0; i < COLUMNS.length; i++) {
+            page.text(x + CELL_PADDING, y - ROW_HEIGHT + 4, FONT_SIZE, COLUMNS[i]);
+            x += WIDTHS[i];
+        }
+        y -= ROW_HEIGHT;
+    }
+
+    private void newPage() throws IOException {
+        if (page != null) {
+            endPage();
+        }
+        page = pdf.beginPage(PAGE_WIDTH, PAGE_HEIGHT);
+        pageNumber++;
+        y = PAGE_HEIGHT - MARGIN;
+    }
+
+    private void endPage() throws IOException {
+        page.line(MARGIN, MARGIN + 10, PAGE_WIDTH - MARGIN, MARGIN + 10, 0.5f);
+        page.text(MARGIN, MARGIN, 8, title + " - " + date);
+        page.textRight(PAGE_WIDTH - MARGIN, MARGIN, 8, "Страница " + pageNumber);
+        page.end();
+        page = null;
+    }
+
+    private static String single(String text) {
+        return text.replace('\r', ' ').replace('\n', ' ');
+    }
+}
@@ -0,0 +1,457 @@
+package kz.enu.museum.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import kz.enu.museum.model.Category;
+import kz.enu.museum.model.Exhibit;
+import kz.enu.museum.model.MuseumItem;
+import kz.enu.museum.repository.ExhibitRepository;
+import kz.enu.museum.repository.RepositoryListener;
+import kz.enu.museum.service.CatalogAggregates.Dimension;
+import kz.enu.museum.util.CentsSum;
+import kz.enu.museum.util.MoneyUtil;
+
+/**
+ * Куб сводных таблиц каталога: количество экспонатов и сумма оценочной
+ * стоимости по любому набору осей (статус, тип, категория, зал, страна
+ * автора, десятилетие создания).
+ * Куб хранит несколько материализованных группировок (кубоидов): базовый
+ * по всем осям, общий итог, все одномерные и двумерные. Каждое сохранение
+ * или удаление экспоната вычитает его прежний вклад и прибавляет новый
+ * в каждом кубоиде. Сводная таблица по другому набору осей сворачивается
+ * из ближайшего материализованного кубоида, содержащего эти оси (из того,
+ * где меньше ячеек), поэтому время построения зависит от количества ячеек,
+ * а не от размера каталога. Категория хранится вместе с цепочкой
+ * родителей, и таблица может свернуть её до любого уровня иерархии.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+public class PivotCube implements RepositoryListener<MuseumItem> {
+
+    private static final Logger logger = LogManager.getLogger(PivotCube.class);
+
+    /** Значение оси для экспонатов без категории, зала, автора или даты. */
+    public static final String NONE = CatalogAggregates.NONE;
+
+    /** Уровень категории без свёртки: категория самого экспоната. */
+    public static final int LEAF_LEVEL = -1;
+
+    // Разделитель названий в цепочке категорий (внутри ключа куба)
+    private static final char PATH_SEPARATOR = '\u001F';
+
+    // Защита от циклов в иерархии категорий
+    private static final int MAX_CATEGORY_DEPTH = 64;
+
+    /**
+     * Ось сводной таблицы.
+     */
+    public enum Axis {
+        STATUS("Статус"),
+        TYPE("Тип"),
+        CATEGORY("Категория"),
+        HALL("Зал"),
+        COUNTRY("Страна автора"),
+        DECADE("Десятилетие");
+
+        private final String displayName;
+
+        Axis(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        /**
+         * Возвращает значение оси для экспоната. Для категории -
+         * цепочка названий от корня.
+         */
+        String valueOf(MuseumItem item) {
+            Exhibit exhibit = item instanceof Exhibit ? (Exhibit) item : null;
+            switch (this) {
+                case STATUS:
+                    return Dimension.STATUS.groupOf(item);
+                case TYPE:
+                    return Dimension.TYPE.groupOf(item);
+                case CATEGORY:
+                    return exhibit != null && exhibit.getCategory() != null ? path(exhibit.getCategory()) : NONE;
+                case HALL:
+                    return Dimension.HALL.groupOf(item);
+                case COUNTRY:
+                    String country = exhibit != null && exhibit.getAuthor() != null
+                            ? exhibit.getAuthor().getCountry() : null;
+                    return country != null && !country.isBlank() ? country : NONE;
+                default:
+                    if (item.getCreationDate() == null) {
+                        return NONE;
+                    }
+                    int year = item.getCreationDate().getYear();
+                    return (year - Math.floorMod(year, 10)) + "-е";
+            }
+        }
+
+        /**
+         * Сравнивает значения оси для сортировки строк таблицы:
+         * десятилетия по порядку лет, остальные по алфавиту, "не указано" в конце.
+         */
+        int compare(String a, String b) {
+            if (a.equals(b)) {
+                return 0;
+            }
+            if (NONE.equals(a) || NONE.equals(b)) {
+                return NONE.equals(a) ? 1 : -1;
+            }
+            if (this == DECADE) {
+                return Integer.compare(decadeYear(a), decadeYear(b));
+            }
+            return a.compareTo(b);
+        }
+
+        private static int decadeYear(String decade) {
+            return Integer.parseInt(decade.substring(0, decade.length() - 2));
+        }
+    }
+
+    private final Map<EnumSet<Axis>, Cuboid> cuboids = new LinkedHashMap<>();
+    private final Cuboid base;
+
+    // Вклад каждого учтённого экспоната (для вычитания после изменения полей)
+    private final Map<Long, Contribution> counted = new HashMap<>();
+
+    // Один экземпляр строки на значение оси: цепочки категорий и десятилетия
+    // строятся заново для каждого экспоната
+    private final Map<String, String> values = new HashMap<>();
+
+    /**
+     * Конструктор по набору экспонатов.
+     *
+     * @param exhibits экспонаты
+     */
+    public PivotCube(Collection<MuseumItem> exhibits) {
+        base = new Cuboid(EnumSet.allOf(Axis.class));
+        cuboids.put(base.axes, base);
+        cuboids.put(EnumSet.noneOf(Axis.class), new Cuboid(EnumSet.noneOf(Axis.class)));
+        Axis[] axes = Axis.values();
+        for (int i = 0; i < axes.length; i++) {
+            cuboids.put(EnumSet.of(axes[i]), new Cuboid(EnumSet.of(axes[i])));
+        }
+        for (int i = 0; i < axes.length; i++) {
+            for (int j = i + 1; j < axes.length; j++) {
+                cuboids.put(EnumSet.of(axes[i], axes[j]), new Cuboid(EnumSet.of(axes[i], axes[j])));
+            }
+        }
+        if (exhibits != null) {
+            for (MuseumItem item : exhibits) {
+                add(item);
+            }
+        }
+        logger.debug("Куб сводных таблиц построен: " + counted.size() + " экспонатов, "
+                + cuboids.size() + " кубоидов");
+    }
+
+    /**
+     * Конструктор куба, следящего за репозиторием экспонатов.
+     *
+     * @param repository репозиторий экспонатов
+     */
+    public PivotCube(ExhibitRepository repository) {
+        this(repository.findAll());
+        repository.addListener(this);
+    }
+
+    /**
+     * Строит сводную таблицу без свёртки категорий.
+     *
+     * @param axes оси таблицы в порядке ключа (без осей - общий итог)
+     * @return сводная таблица
+     */
+    public PivotTable pivot(Axis... axes) {
+        return pivot(axes != null ? Arrays.asList(axes) : null, LEAF_LEVEL);
+    }
+
+    /**
+     * Строит сводную таблицу.
+     *
+     * @param axes оси таблицы в порядке ключа (без осей - общий итог)
+     * @param categoryLevel уровень категории: 0 - корневые категории, 1 - их
+     *                      подкатегории и т.д.; {@link #LEAF_LEVEL} - без свёртки.
+     *                      Категория выше заданного уровня остаётся собой
+     * @return сводная таблица
+     */
+    public synchronized PivotTable pivot(List<Axis> axes, int categoryLevel) {
+        EnumSet<Axis> wanted = axisSet(axes);
+        if (categoryLevel < LEAF_LEVEL) {
+            throw new IllegalArgumentException("Некорректный уровень категории: " + categoryLevel);
+        }
+        long started = System.nanoTime();
+        Cuboid source = nearest(wanted);
+        int[] positions = source.positionsOf(axes);
+        int category = axes.indexOf(Axis.CATEGORY);
+        Map<String, String> rolledUp = new HashMap<>();
+
+        Map<List<String>, Cell> result = new HashMap<>();
+        for (Map.Entry<List<String>, Cell> entry : source.cells.entrySet()) {
+            String[] key = new String[positions.length];
+            for (int i = 0; i < positions.length; i++) {
+                key[i] = entry.getKey().get(positions[i]);
+            }
+            if (category >= 0) {
+                key[category] = rolledUp.computeIfAbsent(key[category], path -> categoryAt(path, categoryLevel));
+            }
+            result.computeIfAbsent(List.of(key), k -> new Cell()).add(entry.getValue());
+        }
+
+        List<PivotTable.Cell> cells = new ArrayList<>(result.size());
+        for (Map.Entry<List<String>, Cell> entry : result.entrySet()) {
+            Cell cell = entry.getValue();
+            cells.add(new PivotTable.Cell(entry.getKey(), cell.count, cell.value.toBigDecimal()));
+        }
+        PivotTable table = new PivotTable(axes, cells, EnumSet.copyOf(source.axes));
+        logger.debug(String.format("Сводная таблица %s из кубоида %s (%d ячеек) за %.2f мс",
+                axes, source.axes, source.cells.size(), (System.nanoTime() - started) / 1e6));
+        return table;
+    }
+
+    /**
+     * Материализует кубоид по набору осей, чтобы частые таблицы по нему
+     * не сворачивались из более крупного кубоида. Кубоид строится из
+     * ближайшего материализованного и далее обновляется вместе с остальными.
+     *
+     * @param axes оси кубоида
+     */
+    public synchronized void materialize(Collection<Axis> axes) {
+        EnumSet<Axis> wanted = axisSet(axes);
+        if (cuboids.containsKey(wanted)) {
+            return;
+        }
+        Cuboid source = nearest(wanted);
+        Cuboid cuboid = new Cuboid(wanted);
+        int[] positions = source.positionsOf(cuboid.order);
+        for (Map.Entry<List<String>, Cell> entry : source.cells.entrySet()) {
+            String[] key = new String[positions.length];
+            for (int i = 0; i < positions.length; i++) {
+                key[i] = entry.getKey().get(positions[i]);
+            }
+            cuboid.cells.computeIfAbsent(List.of(key), k -> new Cell()).add(entry.getValue());
+        }
+        cuboids.put(cuboid.axes, cuboid);
+        logger.debug("Материализован кубоид " + wanted + ": " + cuboid.cells.size() + " ячеек");
+    }
+
+    /**
+     * Возвращает наборы осей материализованных кубоидов.
+     *
+     * @return наборы осей
+     */
+    public synchronized Set<Set<Axis>> getMaterialized() {
+        Set<Set<Axis>> result = new HashSet<>();
+        for (EnumSet<Axis> axes : cuboids.keySet()) {
+            result.add(Collections.unmodifiableSet(EnumSet.copyOf(axes)));
+        }
+        return Collections.unmodifiableSet(result);
+    }
+
+    /**
+     * Возвращает количество учтённых экспонатов.
+     *
+     * @return количество экспонатов
+     */
+    public synchronized long getTotalCount() {
+        return counted.size();
+    }
+
+    @Override
+    public synchronized void onSaved(MuseumItem item) {
+        add(item);
+    }
+
+    @Override
+    public synchronized void onDeleted(MuseumItem item) {
+        if (item.getId() != null) {
+            remove(item.getId());
+        }
+    }
+
+    @Override
+    public synchronized void onCleared() {
+        counted.clear();
+        values.clear();
+        for (Cuboid cuboid : cuboids.values()) {
+            cuboid.cells.clear();
+        }
+    }
+
+    private static EnumSet<Axis> axisSet(Collection<Axis> axes) {
+        if (axes == null) {
+            throw new IllegalArgumentException("Оси сводной таблицы не могут быть null");
+        }
+        EnumSet<Axis> result = EnumSet.noneOf(Axis.class);
+        for (Axis axis : axes) {
+            if (axis == null) {
+                throw new IllegalArgumentException("Ось сводной таблицы не может быть null");
+            }
+            if (!result.add(axis)) {
+                throw new IllegalArgumentException("Ось указана дважды: " + axis.getDisplayName());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Находит материализованный кубоид с наименьшим числом ячеек,
+     * содержащий все нужные оси. Базовый кубоид содержит все оси всегда.
+     */
+    private Cuboid nearest(Set<Axis> axes) {
+        Cuboid best = base;
+        for (Cuboid cuboid : cuboids.values()) {
+            if (cuboid.axes.containsAll(axes) && cuboid.cells.size() < best.cells.size()) {
+                best = cuboid;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Сворачивает цепочку категорий до уровня и возвращает название категории.
+     */
+    private static String categoryAt(String path, int level) {
+        if (NONE.equals(path)) {
+            return path;
+        }
+        int start = 0;
+        int end = path.indexOf(PATH_SEPARATOR);
+        int depth = 0;
+        while (end >= 0 && (level == LEAF_LEVEL || depth < level)) {
+            start = end + 1;
+            end = path.indexOf(PATH_SEPARATOR, start);
+            depth++;
+        }
+        return path.substring(start, end >= 0 ? end : path.length());
+    }
+
+    private static String path(Category category) {
+        List<String> names = new ArrayList<>();
+        Set<Category> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Category current = category; current != null && names.size() < MAX_CATEGORY_DEPTH
+                && seen.add(current); current = current.getParentCategory()) {
+            names.add(current.getName() != null ? current.getName() : NONE);
+        }
+        Collections.reverse(names);
+        return String.join(String.valueOf(PATH_SEPARATOR), names);
+    }
+
+    private void add(MuseumItem item) {
+        if (item.getId() == null) {
+            return;
+        }
+        Axis[] axes = Axis.values();
+        String[] key = new String[axes.length];
+        for (int i = 0; i < axes.length; i++) {
+            key[i] = values.computeIfAbsent(axes[i].valueOf(item), value -> value);
+        }
+        BigDecimal estimated = item instanceof Exhibit exhibit ? exhibit.getEstimatedValue() : null;
+        Contribution contribution = new Contribution(key,
+                estimated != null ? MoneyUtil.toCentsSaturated(estimated, RoundingMode.HALF_UP) : 0);
+        remove(item.getId());
+        counted.put(item.getId(), contribution);
+        for (Cuboid cuboid : cuboids.values()) {
+            cuboid.cells.computeIfAbsent(cuboid.project(key), k -> new Cell()).add(contribution.value, 1);
+        }
+    }
+
+    private void remove(Long id) {
+        Contribution contribution = counted.remove(id);
+        if (contribution == null) {
+            return;
+        }
+        for (Cuboid cuboid : cuboids.values()) {
+            List<String> key = cuboid.project(contribution.keys);
+            Cell cell = cuboid.cells.get(key);
+            cell.add(-contribution.value, -1);
+            if (cell.count == 0) {
+                cuboid.cells.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Материализованная группировка по набору осей.
+     */
+    private static final class Cuboid {
+        private final EnumSet<Axis> axes;
+        // Оси ключа ячейки в порядке объявления
+        private final List<Axis> order;
+        private final Map<List<String>, Cell> cells = new HashMap<>();
+
+        private Cuboid(EnumSet<Axis> axes) {
+            this.axes = axes;
+            this.order = List.copyOf(axes);
+        }
+
+        private List<String> project(String[] baseKey) {
+            String[] key = new String[order.size()];
+            for (int i = 0; i < key.length; i++) {
+                key[i] = baseKey[order.get(i).ordinal()];
+            }
+            return List.of(key);
+        }
+
+        private int[] positionsOf(List<Axis> wanted) {
+            int[] positions = new int[wanted.size()];
+            for (int i = 0; i < positions.length; i++) {
+                positions[i] = order.indexOf(wanted.get(i));
+            }
+            return positions;
+        }
+    }
+
+    /**
+     * Ячейка кубоида: количество и сумма стоимости.
+     */
+    private static final class Cell {
+        private long count;
+        private final CentsSum value = new CentsSum();
+
+        private void add(long cents, int countDelta) {
+            count += countDelta;
+            value.add(cents);
+        }
+
+        private void add(Cell other) {
+            count += other.count;
+            value.add(other.value);
+        }
+    }
+
+    /**
+     * Вклад экспоната в куб на момент учёта.
+     */
+    private static final class Contribution {
+        private final String[] keys;
+        private final long value;
+
+        private Contribution(String[] keys, long value) {
+            this.keys = keys;
+            this.value = value;
+        }
+    }
+}
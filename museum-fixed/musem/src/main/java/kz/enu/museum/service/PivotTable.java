@@ -0,0 +1,185 @@
+package kz.enu.museum.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import kz.enu.museum.service.PivotCube.Axis;
+
+/**
+ * Сводная таблица, построенная {@link PivotCube}: ячейки по значениям осей
+ * с количеством экспонатов и суммой оценочной стоимости. Ячейки
+ * отсортированы по осям в порядке запроса. Снимок на момент запроса.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+public class PivotTable {
+
+    /**
+     * Ячейка сводной таблицы.
+     */
+    public static final class Cell {
+        private final List<String> key;
+        private final long count;
+        private final BigDecimal value;
+
+        Cell(List<String> key, long count, BigDecimal value) {
+            this.key = key;
+            this.count = count;
+            this.value = value;
+        }
+
+        /**
+         * Возвращает значения осей ячейки.
+         *
+         * @return значения в порядке осей таблицы
+         */
+        public List<String> getKey() {
+            return key;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public BigDecimal getValue() {
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            return key + ": " + count + " / " + value;
+        }
+    }
+
+    private final List<Axis> axes;
+    private final List<Cell> cells;
+    private final Map<List<String>, Cell> byKey = new HashMap<>();
+    private final Set<Axis> source;
+    private final long totalCount;
+    private final BigDecimal totalValue;
+
+    PivotTable(List<Axis> axes, List<Cell> cells, Set<Axis> source) {
+        this.axes = List.copyOf(axes);
+        this.source = Collections.unmodifiableSet(source);
+        cells.sort((a, b) -> {
+            for (int i = 0; i < this.axes.size(); i++) {
+                int result = this.axes.get(i).compare(a.getKey().get(i), b.getKey().get(i));
+                if (result != 0) {
+                    return result;
+                }
+            }
+            return 0;
+        });
+        this.cells = Collections.unmodifiableList(cells);
+
+        long count = 0;
+        BigDecimal value = BigDecimal.ZERO;
+        for (Cell cell : cells) {
+            byKey.put(cell.getKey(), cell);
+            count += cell.getCount();
+            value = value.add(cell.getValue());
+        }
+        this.totalCount = count;
+        this.totalValue = value;
+    }
+
+    public List<Axis> getAxes() {
+        return axes;
+    }
+
+    /**
+     * Возвращает непустые ячейки таблицы.
+     *
+     * @return ячейки в порядке сортировки
+     */
+    public List<Cell> getCells() {
+        return cells;
+    }
+
+    /**
+     * Возвращает ячейку по значениям осей.
+     *
+     * @param key значения осей в порядке таблицы
+     * @return ячейка или null, если экспонатов нет
+     */
+    public Cell getCell(String... key) {
+        return byKey.get(List.of(key));
+    }
+
+    /**
+     * Возвращает количество экспонатов в ячейке.
+     *
+     * @param key значения осей в порядке таблицы
+     * @return количество экспонатов, 0 если ячейки нет
+     */
+    public long getCount(String... key) {
+        Cell cell = getCell(key);
+        return cell != null ? cell.getCount() : 0;
+    }
+
+    /**
+     * Возвращает сумму стоимости в ячейке.
+     *
+     * @param key значения осей в порядке таблицы
+     * @return сумма стоимости, 0 если ячейки нет
+     */
+    public BigDecimal getValue(String... key) {
+        Cell cell = getCell(key);
+        return cell != null ? cell.getValue() : BigDecimal.ZERO;
+    }
+
+    /**
+     * Возвращает значения одной оси, встречающиеся в таблице
+     * (заголовки строк или столбцов при выводе).
+     *
+     * @param axis ось таблицы
+     * @return значения в порядке сортировки
+     */
+    public List<String> getMembers(Axis axis) {
+        int position = axes.indexOf(axis);
+        if (position < 0) {
+            throw new IllegalArgumentException("Нет оси в таблице: " + axis);
+        }
+        Set<String> members = new LinkedHashSet<>();
+        for (Cell cell : cells) {
+            members.add(cell.getKey().get(position));
+        }
+        List<String> result = new ArrayList<>(members);
+        result.sort(axis::compare);
+        return result;
+    }
+
+    /**
+     * Возвращает оси кубоида, из которого построена таблица.
+     *
+     * @return оси кубоида-источника
+     */
+    public Set<Axis> getSource() {
+        return source;
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public BigDecimal getTotalValue() {
+        return totalValue;
+    }
+
+    /**
+     * Возвращает количество непустых ячеек.
+     *
+     * @return количество ячеек
+     */
+    public int size() {
+        return cells.size();
+    }
+}
@@ -0,0 +1,128 @@
+package kz.enu.museum.service;
+
+import java.util.List;
+
+/**
+ * Условие структурированного запроса вида {@code поле:значение},
+ * {@code поле:от..до} или {@code поле>число}.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+public class QueryClause {
+
+    /**
+     * Поля, доступные в запросе.
+     */
+    public enum Field {
+        STATUS("status", "статус"),
+        TYPE("type", "тип"),
+        AUTHOR("author", "автор"),
+        CATEGORY("category", "категория"),
+        HALL("hall", "зал"),
+        YEAR("year", "год"),
+        ACQUIRED("acquired", "поступление"),
+        VALUE("value", "стоимость"),
+        WIDTH("width", "ширина"),
+        HEIGHT("height", "высота"),
+        WEIGHT("weight", "вес"),
+        INVENTORY("inv", "инв");
+
+        private final String name;
+        private final String alias;
+
+        Field(String name, String alias) {
+            this.name = name;
+            this.alias = alias;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Находит поле по имени или русскому синониму (без учёта регистра).
+         *
+         * @param text имя поля
+         * @return поле или null, если такого поля нет
+         */
+        public static Field of(String text) {
+            for (Field field : values()) {
+                if (field.name.equalsIgnoreCase(text) || field.alias.equalsIgnoreCase(text)) {
+                    return field;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Проверяет, что поле числовое (допускает диапазоны и сравнения).
+         *
+         * @return true для года, стоимости и размеров
+         */
+        public boolean isNumeric() {
+            return this == YEAR || this == ACQUIRED || this == VALUE
+                    || this == WIDTH || this == HEIGHT || this == WEIGHT;
+        }
+    }
+
+    /**
+     * Операция сравнения.
+     */
+    public enum Operator {
+        EQUALS(":"),
+        RANGE(".."),
+        GREATER(">"),
+        GREATER_OR_EQUAL(">="),
+        LESS("<"),
+        LESS_OR_EQUAL("<=");
+
+        private final String symbol;
+
+        Operator(String symbol) {
+            this.symbol = symbol;
+        }
+
+        public String getSymbol() {
+            return symbol;
+        }
+    }
+
+    private final Field field;
+    private final Operator operator;
+    private final List<String> values;
+
+    /**
+     * Конструктор условия.
+     *
+     * @param field поле
+     * @param operator операция
+     * @param values значения (для диапазона - две границы, пустая граница не ограничивает)
+     */
+    public QueryClause(Field field, Operator operator, List<String> values) {
+        this.field = field;
+        this.operator = operator;
+        this.values = List.copyOf(values);
+    }
+
+    public Field getField() {
+        return field;
+    }
+
+    public Operator getOperator() {
+        return operator;
+    }
+
+    public List<String> getValues() {
+        return values;
+    }
+
+    @Override
+    public String toString() {
+        if (operator == Operator.RANGE) {
+            return field.getName() + ":" + values.get(0) + ".." + values.get(1);
+        }
+        return field.getName() + operator.getSymbol() + String.join(",", values);
+    }
+}
@@ -0,0 +1,211 @@
+package kz.enu.museum.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import kz.enu.museum.service.QueryClause.Field;
+import kz.enu.museum.service.QueryClause.Operator;
+
+/**
+ * Разбор структурированного поискового запроса, например:
+ * {@code status:ON_DISPLAY author:"Моне" year:1880..1910 value>1000000 type:Painting}.
+ * Условия разделяются пробелами, значения в кавычках могут содержать пробелы,
+ * несколько значений одного поля перечисляются через запятую (объединяются по ИЛИ).
+ * Слова без имени поля образуют обычный текстовый запрос.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+public class QueryParser {
+
+    /**
+     * Разбирает запрос.
+     *
+     * @param query текст запроса
+     * @return разобранный запрос
+     * @throws IllegalArgumentException если запрос содержит синтаксическую ошибку
+     */
+    public static ParsedQuery parse(String query) {
+        List<QueryClause> clauses = new ArrayList<>();
+        StringBuilder text = new StringBuilder();
+        for (String token : tokenize(query != null ? query : "")) {
+            QueryClause clause = parseClause(token);
+            if (clause != null) {
+                clauses.add(clause);
+            } else {
+                if (text.length() > 0) {
+                    text.append(' ');
+                }
+                text.append(unquote(token));
+            }
+        }
+        return new ParsedQuery(clauses, text.toString());
+    }
+
+    private static List<String> tokenize(String query) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < query.length(); i++) {
+            char c = query.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+                current.append(c);
+            } else if (Character.isWhitespace(c) && !quoted) {
+                if (current.length() > 0) {
+                    tokens.add(current.toString());
+                    current.setLength(0);
+                }
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Незакрытая кавычка в запросе");
+        }
+        if (current.length() > 0) {
+            tokens.add(current.toString());
+        }
+        return tokens;
+    }
+
+    /**
+     * Разбирает условие с именем поля.
+     *
+     * @return условие или null, если токен - обычный текст
+     */
+    private static QueryClause parseClause(String token) {
+        int nameEnd = 0;
+        while (nameEnd < token.length() && Character.isLetter(token.charAt(nameEnd))) {
+            nameEnd++;
+        }
+        if (nameEnd == 0 || nameEnd == token.length() || ":=<>".indexOf(token.charAt(nameEnd)) < 0) {
+            return null;
+        }
+
+        String name = token.substring(0, nameEnd);
+        Field field = Field.of(name);
+        if (field == null) {
+            if (token.charAt(nameEnd) == ':') {
+                throw new IllegalArgumentException("Неизвестное поле запроса: " + name);
+            }
+            return null;
+        }
+
+        // Допускаются формы value>10 и value:>10
+        int operatorStart = nameEnd;
+        if (token.charAt(nameEnd) == ':' && nameEnd + 1 < token.length()
+                && "<>".indexOf(token.charAt(nameEnd + 1)) >= 0) {
+            operatorStart++;
+        }
+
+        Operator operator;
+        int valueStart = operatorStart + 1;
+        switch (token.charAt(operatorStart)) {
+            case '>':
+                operator = Operator.GREATER;
+                if (valueStart < token.length() && token.charAt(valueStart) == '=') {
+                    operator = Operator.GREATER_OR_EQUAL;
+                    valueStart++;
+                }
+                break;
+            case '<':
+                operator = Operator.LESS;
+                if (valueStart < token.length() && token.charAt(valueStart) == '=') {
+                    operator = Operator.LESS_OR_EQUAL;
+                    valueStart++;
+                }
+                break;
+            default:
+                operator = Operator.EQUALS;
+        }
+
+        String value = token.substring(valueStart);
+        if (value.isEmpty() || value.equals("\"\"")) {
+            throw new IllegalArgumentException("Не задано значение поля: " + name);
+        }
+
+        List<String> values = new ArrayList<>();
+        if (value.startsWith("\"")) {
+            values.add(unquote(value));
+        } else if (operator == Operator.EQUALS && value.contains("..")) {
+            int separator = value.indexOf("..");
+            operator = Operator.RANGE;
+            values.add(value.substring(0, separator));
+            values.add(value.substring(separator + 2));
+        } else {
+            for (String part : value.split(",")) {
+                if (!part.isEmpty()) {
+                    values.add(part);
+                }
+            }
+        }
+
+        if (operator != Operator.EQUALS && !field.isNumeric()) {
+            throw new IllegalArgumentException("Поле " + name + " не поддерживает сравнение: " + token);
+        }
+        if (field.isNumeric()) {
+            for (String number : values) {
+                if (!number.isEmpty() && !isNumber(number)) {
+                    throw new IllegalArgumentException("Ожидалось число в условии: " + token);
+                }
+            }
+        }
+        return new QueryClause(field, operator, values);
+    }
+
+    private static boolean isNumber(String text) {
+        try {
+            new BigDecimal(text);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static String unquote(String token) {
+        return token.replace("\"", "");
+    }
+
+    /**
+     * Результат разбора: условия по полям и оставшийся текст.
+     */
+    public static class ParsedQuery {
+        private final List<QueryClause> clauses;
+        private final String text;
+
+        private ParsedQuery(List<QueryClause> clauses, String text) {
+            this.clauses = List.copyOf(clauses);
+            this.text = text;
+        }
+
+        public List<QueryClause> getClauses() {
+            return clauses;
+        }
+
+        /**
+         * Текст без имени поля (ищется по названию, описанию и инвентарному номеру).
+         *
+         * @return текст запроса (может быть пустым)
+         */
+        public String getText() {
+            return text;
+        }
+
+        /**
+         * Проверяет, есть ли в запросе условия по полям.
+         *
+         * @return true если запрос структурированный
+         */
+        public boolean isStructured() {
+            return !clauses.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            return "ParsedQuery{clauses=" + clauses + ", text='" + text + "'}";
+        }
+    }
+}
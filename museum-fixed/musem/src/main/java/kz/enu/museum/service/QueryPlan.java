@@ -0,0 +1,709 @@
+package kz.enu.museum.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import kz.enu.museum.model.Artifact;
+import kz.enu.museum.model.Artist;
+import kz.enu.museum.model.Category;
+import kz.enu.museum.model.Exhibit;
+import kz.enu.museum.model.Location;
+import kz.enu.museum.model.MuseumItem;
+import kz.enu.museum.model.Painting;
+import kz.enu.museum.model.Sculpture;
+import kz.enu.museum.model.enums.ExhibitStatus;
+import kz.enu.museum.service.QueryClause.Field;
+import kz.enu.museum.service.QueryClause.Operator;
+import kz.enu.museum.service.QueryParser.ParsedQuery;
+import kz.enu.museum.util.OrdinalBitmap;
+import kz.enu.museum.util.SearchTextUtil;
+
+/**
+ * План выполнения структурированного запроса.
+ * Условия по статусу, типу, автору, категории и залу выполняются
+ * по битовому индексу, условия по размерам и стоимости - по k-d деревьям
+ * {@link DimensionIndex}, условия по годам - проходом по числовым колонкам
+ * {@link ExhibitColumns} (от самого избирательного к наименее избирательному),
+ * остальные условия и текст проверяются за один общий проход по кандидатам,
+ * после чего при наличии текста результаты ранжируются по релевантности.
+ * Для каждого шага сохраняются количество строк и время - см. {@link #explain()}.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+public class QueryPlan {
+
+    private final String query;
+    private final List<IndexLookup> lookups = new ArrayList<>();
+    private final List<String> residualDescriptions = new ArrayList<>();
+    private Predicate<MuseumItem> residual;
+    private String text = "";
+    private String emptyReason;
+
+    private final List<Step> steps = new ArrayList<>();
+    private List<MuseumItem> results;
+    private int resultCount;
+    private long totalNanos;
+
+    private QueryPlan(String query) {
+        this.query = query;
+    }
+
+    /**
+     * Компилирует разобранный запрос в план по текущему индексу.
+     *
+     * @param query исходный текст запроса
+     * @param parsed разобранный запрос
+     * @param index индекс фильтров (для разрешения авторов, категорий и залов)
+     * @param dimensions индекс размеров и стоимости (null - условия проверяются проходом)
+     * @param columns числовые колонки для условий по годам (null - условия проверяются проходом)
+     * @return план запроса
+     * @throws IllegalArgumentException если значение поля некорректно
+     */
+    static QueryPlan compile(String query, ParsedQuery parsed, FilterIndex index, DimensionIndex dimensions,
+                             ExhibitColumns columns) {
+        QueryPlan plan = new QueryPlan(query);
+        List<Residual> residuals = new ArrayList<>();
+        Map<Field, BigDecimal[]> bounds = new EnumMap<>(Field.class);
+        List<String> boundDescriptions = new ArrayList<>();
+
+        for (QueryClause clause : parsed.getClauses()) {
+            switch (clause.getField()) {
+                case STATUS:
+                    plan.addLookup(clause, statusFilter(clause));
+                    break;
+                case TYPE:
+                    plan.addLookup(clause, typeFilter(clause));
+                    break;
+                case AUTHOR: {
+                    SearchFilter filter = new SearchFilter();
+                    for (String value : clause.getValues()) {
+                        for (Artist author : index.findAuthors(SearchTextUtil.normalize(value))) {
+                            filter.addAuthor(author);
+                        }
+                    }
+                    plan.addLookup(clause, filter, authorMatcher(clause));
+                    break;
+                }
+                case CATEGORY: {
+                    SearchFilter filter = new SearchFilter();
+                    for (String value : clause.getValues()) {
+                        for (Category category : index.findCategories(SearchTextUtil.normalize(value))) {
+                            filter.addCategory(category);
+                        }
+                    }
+                    plan.addLookup(clause, filter, categoryMatcher(clause));
+                    break;
+                }
+                case HALL: {
+                    SearchFilter filter = new SearchFilter();
+                    for (String value : clause.getValues()) {
+                        for (String hall : index.findHalls(value)) {
+                            filter.addHall(hall);
+                        }
+                    }
+                    plan.addLookup(clause, filter, hallMatcher(clause));
+                    break;
+                }
+                case YEAR:
+                    residuals.add(new Residual(clause, 1, numeric(clause,
+                            item -> year(item.getCreationDate()))));
+                    narrow(bounds, clause);
+                    break;
+                case ACQUIRED:
+                    residuals.add(new Residual(clause, 1, numeric(clause,
+                            item -> year(item.getAcquisitionDate()))));
+                    narrow(bounds, clause);
+                    break;
+                case VALUE:
+                    residuals.add(new Residual(clause, 1, numeric(clause,
+                            item -> item instanceof Exhibit ? ((Exhibit) item).getEstimatedValue() : null)));
+                    narrow(bounds, clause);
+                    break;
+                case WIDTH:
+                    residuals.add(new Residual(clause, 1, numeric(clause,
+                            item -> item instanceof Painting ? BigDecimal.valueOf(((Painting) item).getWidth()) : null)));
+                    narrow(bounds, clause);
+                    boundDescriptions.add(clause.toString());
+                    break;
+                case HEIGHT:
+                    residuals.add(new Residual(clause, 1, numeric(clause, QueryPlan::height)));
+                    narrow(bounds, clause);
+                    boundDescriptions.add(clause.toString());
+                    break;
+                case WEIGHT:
+                    residuals.add(new Residual(clause, 1, numeric(clause,
+                            item -> item instanceof Sculpture ? BigDecimal.valueOf(((Sculpture) item).getWeight()) : null)));
+                    narrow(bounds, clause);
+                    boundDescriptions.add(clause.toString());
+                    break;
+                case INVENTORY:
+                    residuals.add(new Residual(clause, 2, inventoryPrefix(clause)));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Неподдерживаемое поле: " + clause.getField());
+            }
+        }
+
+        // Деревья отбирают кандидатов по границам условий, точная проверка остаётся в проходе
+        if (dimensions != null && !boundDescriptions.isEmpty()) {
+            double[] width = toDoubles(bounds.get(Field.WIDTH));
+            double[] height = toDoubles(bounds.get(Field.HEIGHT));
+            double[] weight = toDoubles(bounds.get(Field.WEIGHT));
+            plan.lookups.add(new IndexLookup("k-d " + String.join(" ", boundDescriptions),
+                    () -> toBitmap(index, dimensions.findBySize(width, height, weight))));
+        }
+        if (dimensions != null && bounds.containsKey(Field.VALUE)) {
+            BigDecimal[] value = bounds.get(Field.VALUE);
+            plan.lookups.add(new IndexLookup("k-d value:" + bound(value[0]) + ".." + bound(value[1]),
+                    () -> toBitmap(index, dimensions.findByValue(value[0], value[1]))));
+        }
+        // Годы без битового индекса: проход по колонкам вместо проверки каждого объекта
+        if (columns != null && (bounds.containsKey(Field.YEAR) || bounds.containsKey(Field.ACQUIRED))) {
+            ColumnFilter filter = new ColumnFilter();
+            List<String> scanned = new ArrayList<>();
+            int[] years = toYears(bounds.get(Field.YEAR));
+            if (years != null) {
+                filter.creationYears(years[0], years[1]);
+                scanned.add("year:" + years[0] + ".." + years[1]);
+            }
+            int[] acquired = toYears(bounds.get(Field.ACQUIRED));
+            if (acquired != null) {
+                filter.acquisitionYears(acquired[0], acquired[1]);
+                scanned.add("acquired:" + acquired[0] + ".." + acquired[1]);
+            }
+            plan.lookups.add(new IndexLookup("колонки " + String.join(" ", scanned), () -> columns.scan(filter)));
+        }
+
+        plan.text = SearchTextUtil.normalizeQuery(parsed.getText());
+        if (!plan.text.isEmpty()) {
+            String normalized = plan.text;
+            residuals.add(new Residual("текст \"" + normalized + "\"", 3,
+                    item -> item.matchesNormalizedSearch(normalized)));
+        }
+
+        // Дешёвые условия проверяются первыми, текст - последним
+        residuals.sort(Comparator.comparingInt(r -> r.cost));
+        for (Residual r : residuals) {
+            plan.residualDescriptions.add(r.description);
+            plan.residual = plan.residual == null ? r.predicate : plan.residual.and(r.predicate);
+        }
+        return plan;
+    }
+
+    private void addLookup(QueryClause clause, SearchFilter filter) {
+        addLookup(clause, filter, null);
+    }
+
+    /**
+     * Добавляет условие по индексу фильтров.
+     *
+     * @param clause условие запроса
+     * @param filter значения, найденные в индексе на момент компиляции
+     * @param itemMatcher проверка экспоната по самим значениям условия (null - по найденным значениям)
+     */
+    private void addLookup(QueryClause clause, SearchFilter filter, Predicate<MuseumItem> itemMatcher) {
+        if (filter.isEmpty() && emptyReason == null) {
+            emptyReason = "нет значений для условия " + clause;
+        }
+        lookups.add(new IndexLookup(clause.toString(), filter, itemMatcher));
+    }
+
+    // Проверки по полям экспоната с теми же правилами, что и поиск значений в индексе:
+    // подходят и авторы, категории и залы, появившиеся после компиляции плана
+
+    private static Predicate<MuseumItem> authorMatcher(QueryClause clause) {
+        List<String> keys = normalizedValues(clause);
+        return item -> {
+            Artist author = item instanceof Exhibit exhibit ? exhibit.getAuthor() : null;
+            return author != null && keys.stream().anyMatch(author.getFullNameSearchKey()::contains);
+        };
+    }
+
+    private static Predicate<MuseumItem> categoryMatcher(QueryClause clause) {
+        List<String> keys = normalizedValues(clause);
+        return item -> {
+            Category category = item instanceof Exhibit exhibit ? exhibit.getCategory() : null;
+            return category != null && keys.stream().anyMatch(key -> category.getNameSearchKey().contains(key)
+                    || (category.getCategoryCode() != null && category.getCategoryCode().equalsIgnoreCase(key)));
+        };
+    }
+
+    private static Predicate<MuseumItem> hallMatcher(QueryClause clause) {
+        List<String> names = List.copyOf(clause.getValues());
+        return item -> {
+            Location location = item instanceof Exhibit exhibit ? exhibit.getLocation() : null;
+            String hall = location != null ? location.getHallName() : null;
+            return hall != null && names.stream().anyMatch(hall::equalsIgnoreCase);
+        };
+    }
+
+    private static List<String> normalizedValues(QueryClause clause) {
+        List<String> keys = new ArrayList<>();
+        for (String value : clause.getValues()) {
+            keys.add(SearchTextUtil.normalize(value));
+        }
+        return keys;
+    }
+
+    private static SearchFilter statusFilter(QueryClause clause) {
+        SearchFilter filter = new SearchFilter();
+        for (String value : clause.getValues()) {
+            ExhibitStatus found = null;
+            for (ExhibitStatus status : ExhibitStatus.values()) {
+                if (status.name().equalsIgnoreCase(value) || status.getDisplayName().equalsIgnoreCase(value)) {
+                    found = status;
+                }
+            }
+            if (found == null) {
+                throw new IllegalArgumentException("Неизвестный статус: " + value);
+            }
+            filter.addStatus(found);
+        }
+        return filter;
+    }
+
+    private static SearchFilter typeFilter(QueryClause clause) {
+        SearchFilter filter = new SearchFilter();
+        for (String value : clause.getValues()) {
+            switch (value.toLowerCase()) {
+                case "painting":
+                case "картина":
+                    filter.addType(Painting.class);
+                    break;
+                case "sculpture":
+                case "скульптура":
+                    filter.addType(Sculpture.class);
+                    break;
+                case "artifact":
+                case "артефакт":
+                    filter.addType(Artifact.class);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Неизвестный тип экспоната: " + value);
+            }
+        }
+        return filter;
+    }
+
+    private static Predicate<MuseumItem> numeric(QueryClause clause, Function<MuseumItem, BigDecimal> getter) {
+        List<BigDecimal> values = new ArrayList<>();
+        for (String value : clause.getValues()) {
+            values.add(value.isEmpty() ? null : new BigDecimal(value));
+        }
+        Operator operator = clause.getOperator();
+        return item -> {
+            BigDecimal actual = getter.apply(item);
+            if (actual == null) {
+                return false;
+            }
+            switch (operator) {
+                case RANGE:
+                    return (values.get(0) == null || actual.compareTo(values.get(0)) >= 0)
+                            && (values.get(1) == null || actual.compareTo(values.get(1)) <= 0);
+                case GREATER:
+                    return actual.compareTo(values.get(0)) > 0;
+                case GREATER_OR_EQUAL:
+                    return actual.compareTo(values.get(0)) >= 0;
+                case LESS:
+                    return actual.compareTo(values.get(0)) < 0;
+                case LESS_OR_EQUAL:
+                    return actual.compareTo(values.get(0)) <= 0;
+                default:
+                    for (BigDecimal value : values) {
+                        if (actual.compareTo(value) == 0) {
+                            return true;
+                        }
+                    }
+                    return false;
+            }
+        };
+    }
+
+    /**
+     * Сужает границы поля по условию (несколько условий на одно поле пересекаются).
+     * Для строгих сравнений граница берётся нестрогой - точность обеспечивает проход.
+     */
+    private static void narrow(Map<Field, BigDecimal[]> bounds, QueryClause clause) {
+        BigDecimal min = null;
+        BigDecimal max = null;
+        List<String> values = clause.getValues();
+        switch (clause.getOperator()) {
+            case RANGE:
+                min = values.get(0).isEmpty() ? null : new BigDecimal(values.get(0));
+                max = values.get(1).isEmpty() ? null : new BigDecimal(values.get(1));
+                break;
+            case GREATER:
+            case GREATER_OR_EQUAL:
+                min = new BigDecimal(values.get(0));
+                break;
+            case LESS:
+            case LESS_OR_EQUAL:
+                max = new BigDecimal(values.get(0));
+                break;
+            default:
+                for (String value : values) {
+                    BigDecimal number = new BigDecimal(value);
+                    min = min == null || number.compareTo(min) < 0 ? number : min;
+                    max = max == null || number.compareTo(max) > 0 ? number : max;
+                }
+        }
+        BigDecimal[] current = bounds.computeIfAbsent(clause.getField(), f -> new BigDecimal[2]);
+        if (min != null && (current[0] == null || min.compareTo(current[0]) > 0)) {
+            current[0] = min;
+        }
+        if (max != null && (current[1] == null || max.compareTo(current[1]) < 0)) {
+            current[1] = max;
+        }
+    }
+
+    private static double[] toDoubles(BigDecimal[] bound) {
+        if (bound == null) {
+            return null;
+        }
+        double min = bound[0] != null ? bound[0].doubleValue() : Double.NEGATIVE_INFINITY;
+        double max = bound[1] != null ? bound[1].doubleValue() : Double.POSITIVE_INFINITY;
+        // Противоречивые условия (width>100 width<50) дают пустой диапазон
+        return min <= max ? new double[] {min, max} : new double[] {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY};
+    }
+
+    /**
+     * Переводит границы года в целые: нижняя округляется вверх, верхняя - вниз.
+     * Противоречивые условия дают пустой диапазон.
+     */
+    private static int[] toYears(BigDecimal[] bound) {
+        if (bound == null) {
+            return null;
+        }
+        int min = bound[0] != null ? clampYear(bound[0].setScale(0, RoundingMode.CEILING)) : Integer.MIN_VALUE;
+        int max = bound[1] != null ? clampYear(bound[1].setScale(0, RoundingMode.FLOOR)) : Integer.MAX_VALUE;
+        return min <= max ? new int[] {min, max} : new int[] {Integer.MAX_VALUE, Integer.MIN_VALUE};
+    }
+
+    private static int clampYear(BigDecimal year) {
+        return year.max(BigDecimal.valueOf(Integer.MIN_VALUE)).min(BigDecimal.valueOf(Integer.MAX_VALUE)).intValue();
+    }
+
+    private static String bound(BigDecimal value) {
+        return value != null ? value.toPlainString() : "";
+    }
+
+    private static BigDecimal height(MuseumItem item) {
+        if (item instanceof Painting painting) {
+            return BigDecimal.valueOf(painting.getHeight());
+        }
+        if (item instanceof Sculpture sculpture) {
+            return BigDecimal.valueOf(sculpture.getHeight());
+        }
+        return null;
+    }
+
+    private static Predicate<MuseumItem> inventoryPrefix(QueryClause clause) {
+        List<String> prefixes = new ArrayList<>();
+        for (String value : clause.getValues()) {
+            prefixes.add(SearchTextUtil.normalize(value));
+        }
+        return item -> {
+            String inventory = item.getInventorySearchKey();
+            for (String prefix : prefixes) {
+                if (inventory.startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    private static BigDecimal year(LocalDate date) {
+        return date != null ? BigDecimal.valueOf(date.getYear()) : null;
+    }
+
+    /**
+     * Строит проверку одного экспоната по всем условиям запроса
+     * (для поддержки результатов постоянного запроса без повторного выполнения).
+     * Индексные условия проверяются по полям экспоната; авторы, категории
+     * и залы сравниваются с самими значениями условия, а не с найденными
+     * при компиляции, поэтому новые значения тоже подходят. Условия, которые
+     * индекс размеров и колонки отбирают с запасом, уже входят в общий проход.
+     *
+     * @return условие запроса
+     */
+    Predicate<MuseumItem> matcher() {
+        Predicate<MuseumItem> matcher = item -> true;
+        for (IndexLookup lookup : lookups) {
+            if (lookup.itemMatcher != null) {
+                matcher = matcher.and(lookup.itemMatcher);
+            } else if (lookup.filter != null) {
+                SearchFilter filter = lookup.filter;
+                matcher = matcher.and(item -> FilterIndex.matches(filter, item));
+            }
+        }
+        return residual != null ? matcher.and(residual) : matcher;
+    }
+
+    /**
+     * Выполняет план.
+     *
+     * @param index индекс фильтров
+     * @param scorer оценщик релевантности
+     * @param parallel исполнитель общего прохода по кандидатам
+     * @param uiFilter дополнительные фильтры (из списков интерфейса), может быть пустым
+     * @return найденные экспонаты
+     */
+    List<MuseumItem> execute(FilterIndex index, RelevanceScorer scorer,
+                             ParallelSearchExecutor parallel, SearchFilter uiFilter) {
+        long started = System.nanoTime();
+        List<MuseumItem> matched = index.materialize(select(index, parallel, uiFilter));
+
+        // 3. Ранжирование по релевантности текста
+        if (!text.isEmpty()) {
+            long stepStarted = System.nanoTime();
+            List<String> terms = SearchTextUtil.tokenize(text);
+            List<SearchHit> hits = new ArrayList<>(matched.size());
+            for (MuseumItem item : matched) {
+                hits.add(new SearchHit(item, scorer.score(item, text, terms)));
+            }
+            matched = new SearchResults(hits, Integer.MAX_VALUE).drain();
+            step("Ранжирование", "BM25F", matched.size(), stepStarted);
+        }
+        results = matched;
+        finish(matched.size(), started);
+        return matched;
+    }
+
+    /**
+     * Выполняет условия плана без ранжирования: результат - множество
+     * порядковых номеров, которое вызывающий ранжирует сам (например,
+     * отбирает k лучших) или использует для подсчёта фасетов.
+     *
+     * @param index индекс фильтров
+     * @param parallel исполнитель общего прохода по кандидатам
+     * @param uiFilter дополнительные фильтры (из списков интерфейса), может быть null
+     * @return номера найденных экспонатов
+     */
+    OrdinalBitmap match(FilterIndex index, ParallelSearchExecutor parallel, SearchFilter uiFilter) {
+        long started = System.nanoTime();
+        OrdinalBitmap matches = select(index, parallel, uiFilter);
+        results = null;
+        finish(matches.cardinality(), started);
+        return matches;
+    }
+
+    private OrdinalBitmap select(FilterIndex index, ParallelSearchExecutor parallel, SearchFilter uiFilter) {
+        steps.clear();
+        if (emptyReason != null) {
+            step("Пустой результат", emptyReason, 0, System.nanoTime());
+            return new OrdinalBitmap();
+        }
+
+        // 1. Индексные условия: от меньшей мощности к большей
+        List<IndexLookup> ordered = new ArrayList<>(lookups);
+        if (uiFilter != null && !uiFilter.isEmpty()) {
+            ordered.add(new IndexLookup("фильтры " + uiFilter, uiFilter, null));
+        }
+        // Время шага - вычисление множества по индексу (k-d дерево, колонки,
+        // битовые множества) плюс пересечение с кандидатами
+        for (IndexLookup lookup : ordered) {
+            long lookupStarted = System.nanoTime();
+            lookup.bitmap = lookup.filter != null ? index.evaluate(lookup.filter) : lookup.scan.get();
+            lookup.evaluateNanos = System.nanoTime() - lookupStarted;
+        }
+        ordered.sort(Comparator.comparingInt(lookup -> lookup.bitmap.cardinality()));
+
+        OrdinalBitmap candidates = null;
+        for (IndexLookup lookup : ordered) {
+            long stepStarted = System.nanoTime() - lookup.evaluateNanos;
+            candidates = candidates == null ? lookup.bitmap : OrdinalBitmap.and(candidates, lookup.bitmap);
+            step("Индекс", lookup.description, candidates.cardinality(), stepStarted);
+        }
+        if (candidates == null) {
+            long stepStarted = System.nanoTime();
+            candidates = index.evaluate(new SearchFilter());
+            step("Весь каталог", "индексных условий нет", candidates.cardinality(), stepStarted);
+        }
+
+        // 2. Один общий проход по кандидатам для остальных условий
+        if (residual != null) {
+            long stepStarted = System.nanoTime();
+            List<MuseumItem> matched = parallel.filter(index.materialize(candidates), residual, Integer.MAX_VALUE);
+            candidates = toBitmap(index, matched);
+            step("Проход", String.join(", ", residualDescriptions), matched.size(), stepStarted);
+        }
+        return candidates;
+    }
+
+    private static OrdinalBitmap toBitmap(FilterIndex index, List<MuseumItem> items) {
+        OrdinalBitmap bitmap = new OrdinalBitmap();
+        for (MuseumItem item : items) {
+            int ordinal = index.ordinalOf(item);
+            if (ordinal >= 0) {
+                bitmap.add(ordinal);
+            }
+        }
+        return bitmap;
+    }
+
+    private void finish(int count, long started) {
+        resultCount = count;
+        totalNanos = System.nanoTime() - started;
+    }
+
+    private void step(String operation, String detail, int rows, long started) {
+        steps.add(new Step(operation, detail, rows, System.nanoTime() - started));
+    }
+
+    /**
+     * Возвращает описание плана с количеством строк и временем каждого шага.
+     *
+     * @return текст плана
+     */
+    public String explain() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("План запроса: ").append(query).append('\n');
+        if (steps.isEmpty()) {
+            for (IndexLookup lookup : lookups) {
+                sb.append("  Индекс: ").append(lookup.description).append('\n');
+            }
+            if (!residualDescriptions.isEmpty()) {
+                sb.append("  Проход: ").append(String.join(", ", residualDescriptions)).append('\n');
+            }
+            return sb.append("  (не выполнен)").toString();
+        }
+        int number = 1;
+        for (Step step : steps) {
+            sb.append(String.format("  %d. %-16s %s -> %d строк, %.3f мс%n",
+                    number++, step.operation, step.detail, step.rows, step.nanos / 1e6));
+        }
+        sb.append(String.format("Итого: %d результатов за %.3f мс", resultCount, totalNanos / 1e6));
+        return sb.toString();
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    /**
+     * Шаги последнего выполнения плана.
+     *
+     * @return список шагов
+     */
+    public List<Step> getSteps() {
+        return List.copyOf(steps);
+    }
+
+    /**
+     * Результаты последнего выполнения плана.
+     *
+     * @return найденные экспонаты или null, если план не выполнялся
+     *         или выполнялся без построения списка
+     */
+    public List<MuseumItem> getResults() {
+        return results;
+    }
+
+    /**
+     * Нормализованный текст запроса (без условий по полям).
+     *
+     * @return текст или пустая строка
+     */
+    public String getText() {
+        return text;
+    }
+
+    public double getTotalMillis() {
+        return totalNanos / 1e6;
+    }
+
+    @Override
+    public String toString() {
+        return explain();
+    }
+
+    /**
+     * Выполненный шаг плана.
+     */
+    public static class Step {
+        private final String operation;
+        private final String detail;
+        private final int rows;
+        private final long nanos;
+
+        private Step(String operation, String detail, int rows, long nanos) {
+            this.operation = operation;
+            this.detail = detail;
+            this.rows = rows;
+            this.nanos = nanos;
+        }
+
+        public String getOperation() {
+            return operation;
+        }
+
+        public String getDetail() {
+            return detail;
+        }
+
+        public int getRows() {
+            return rows;
+        }
+
+        public double getMillis() {
+            return nanos / 1e6;
+        }
+    }
+
+    /**
+     * Условие, выполняемое по битовому индексу, индексу размеров или колонкам.
+     */
+    private static final class IndexLookup {
+        private final String description;
+        private final SearchFilter filter;
+        private final Predicate<MuseumItem> itemMatcher;
+        private final Supplier<OrdinalBitmap> scan;
+        private OrdinalBitmap bitmap;
+        private long evaluateNanos;
+
+        private IndexLookup(String description, SearchFilter filter, Predicate<MuseumItem> itemMatcher) {
+            this.description = description;
+            this.filter = filter;
+            this.itemMatcher = itemMatcher;
+            this.scan = null;
+        }
+
+        private IndexLookup(String description, Supplier<OrdinalBitmap> scan) {
+            this.description = description;
+            this.filter = null;
+            this.itemMatcher = null;
+            this.scan = scan;
+        }
+    }
+
+    /**
+     * Условие, проверяемое при проходе по кандидатам.
+     */
+    private static final class Residual {
+        private final String description;
+        private final int cost;
+        private final Predicate<MuseumItem> predicate;
+
+        private Residual(QueryClause clause, int cost, Predicate<MuseumItem> predicate) {
+            this(clause.toString(), cost, predicate);
+        }
+
+        private Residual(String description, int cost, Predicate<MuseumItem> predicate) {
+            this.description = description;
+            this.cost = cost;
+            this.predicate = predicate;
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package kz.enu.museum.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import kz.enu.museum.model.MuseumItem;
+import kz.enu.museum.util.SearchTextUtil;
+
+/**
+ * Оценка релевантности экспонатов по модели BM25F.
+ * Совпадения в названии весят больше, чем в инвентарном номере и описании,
+ * а точное совпадение инвентарного номера всегда ставится первым.
+ * Статистика коллекции (длины полей, документная частота слов)
+ * поддерживается инкрементально при добавлении, изменении и удалении экспонатов.
+ * Документная частота хранится по префиксам слов: запрос, набираемый
+ * по буквам, получает частоту каждого нового префикса из словаря,
+ * без просмотра коллекции.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+public class RelevanceScorer {
+
+    /** Вес совпадения в названии. */
+    public static final double NAME_WEIGHT = 3.0;
+
+    /** Вес совпадения в инвентарном номере. */
+    public static final double INVENTORY_WEIGHT = 2.0;
+
+    /** Вес совпадения в описании. */
+    public static final double DESCRIPTION_WEIGHT = 1.0;
+
+    /** Бонус за точное совпадение инвентарного номера. */
+    public static final double EXACT_INVENTORY_BOOST = 1_000_000.0;
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    /** Максимальная длина индексируемого префикса; более длинные слова обрезаются. */
+    static final int MAX_PREFIX_LENGTH = 24;
+
+    private final List<DocumentText> documents = new ArrayList<>();
+    private final Map<String, Integer> documentFrequency = new HashMap<>();
+    private boolean frequencyStale;
+    private int corpusSize;
+    private long totalNameTokens;
+    private long totalDescriptionTokens;
+
+    /**
+     * Добавляет экспонат в статистику или заменяет его прежнюю версию.
+     * Стоимость не зависит от размера коллекции: пересчитываются
+     * только суммарные длины и частоты префиксов слов самого экспоната.
+     *
+     * @param ordinal порядковый номер экспоната в индексе фильтров
+     * @param item экспонат
+     */
+    public void update(int ordinal, MuseumItem item) {
+        remove(ordinal);
+        while (documents.size() <= ordinal) {
+            documents.add(null);
+        }
+        DocumentText document = DocumentText.of(item);
+        documents.set(ordinal, document);
+        corpusSize++;
+        totalNameTokens += document.nameTokens;
+        totalDescriptionTokens += document.descriptionTokens;
+        if (!frequencyStale) {
+            addPrefixes(document);
+        }
+    }
+
+    /**
+     * Восстанавливает статистику экспоната из сохранённого индекса
+     * без повторного подсчёта слов. Частоты префиксов строятся одним
+     * проходом при первом запросе с текстом.
+     *
+     * @param ordinal порядковый номер экспоната
+     * @param item экспонат
+     * @param nameTokens количество слов в названии
+     * @param descriptionTokens количество слов в описании
+     */
+    void restore(int ordinal, MuseumItem item, int nameTokens, int descriptionTokens) {
+        remove(ordinal);
+        while (documents.size() <= ordinal) {
+            documents.add(null);
+        }
+        DocumentText document = new DocumentText(item.getNameSearchKey(), item.getDescriptionSearchKey(),
+                item.getInventorySearchKey(), nameTokens, descriptionTokens);
+        documents.set(ordinal, document);
+        corpusSize++;
+        totalNameTokens += nameTokens;
+        totalDescriptionTokens += descriptionTokens;
+        documentFrequency.clear();
+        frequencyStale = true;
+    }
+
+    /**
+     * Количество слов в названии экспоната на момент индексации.
+     *
+     * @param ordinal порядковый номер экспоната
+     * @return количество слов или 0 для свободного номера
+     */
+    int nameTokensAt(int ordinal) {
+        DocumentText document = ordinal < documents.size() ? documents.get(ordinal) : null;
+        return document != null ? document.nameTokens : 0;
+    }
+
+    /**
+     * Количество слов в описании экспоната на момент индексации.
+     *
+     * @param ordinal порядковый номер экспоната
+     * @return количество слов или 0 для свободного номера
+     */
+    int descriptionTokensAt(int ordinal) {
+        DocumentText document = ordinal < documents.size() ? documents.get(ordinal) : null;
+        return document != null ? document.descriptionTokens : 0;
+    }
+
+    /**
+     * Удаляет экспонат из статистики.
+     *
+     * @param ordinal порядковый номер экспоната
+     */
+    public void remove(int ordinal) {
+        if (ordinal >= documents.size() || documents.get(ordinal) == null) {
+            return;
+        }
+        DocumentText document = documents.set(ordinal, null);
+        corpusSize--;
+        totalNameTokens -= document.nameTokens;
+        totalDescriptionTokens -= document.descriptionTokens;
+        if (!frequencyStale) {
+            for (String prefix : document.prefixes()) {
+                documentFrequency.computeIfPresent(prefix, (key, df) -> df > 1 ? df - 1 : null);
+            }
+        }
+    }
+
+    /**
+     * Очищает статистику.
+     */
+    public void clear() {
+        documents.clear();
+        documentFrequency.clear();
+        frequencyStale = false;
+        corpusSize = 0;
+        totalNameTokens = 0;
+        totalDescriptionTokens = 0;
+    }
+
+    /**
+     * Проверяет, что статистика экспоната соответствует его текущим полям.
+     *
+     * @param ordinal порядковый номер экспоната
+     * @param item экспонат
+     * @return true если статистика актуальна
+     */
+    public boolean isConsistent(int ordinal, MuseumItem item) {
+        return ordinal < documents.size()
+                && documents.get(ordinal) != null
+                && documents.get(ordinal).equals(DocumentText.of(item));
+    }
+
+    /**
+     * Вычисляет оценку релевантности экспоната.
+     *
+     * @param item экспонат
+     * @param normalizedQuery нормализованный запрос целиком
+     * @param terms слова запроса
+     * @return оценка (чем больше, тем релевантнее)
+     */
+    public double score(MuseumItem item, String normalizedQuery, List<String> terms) {
+        double avgNameLength = averageLength(totalNameTokens);
+        double avgDescriptionLength = averageLength(totalDescriptionTokens);
+
+        String name = item.getNameSearchKey();
+        String description = item.getDescriptionSearchKey();
+        String inventory = item.getInventorySearchKey();
+
+        double nameNorm = 1 - B + B * SearchTextUtil.countTokens(name) / avgNameLength;
+        double descriptionNorm = 1 - B + B * SearchTextUtil.countTokens(description) / avgDescriptionLength;
+
+        double score = 0;
+        for (String term : terms) {
+            double tf = NAME_WEIGHT * SearchTextUtil.countOccurrences(name, term) / nameNorm
+                    + DESCRIPTION_WEIGHT * SearchTextUtil.countOccurrences(description, term) / descriptionNorm
+                    + INVENTORY_WEIGHT * SearchTextUtil.countOccurrences(inventory, term);
+            if (tf > 0) {
+                score += idf(term) * tf / (K1 + tf);
+            }
+        }
+
+        if (inventory.equals(normalizedQuery)) {
+            score += EXACT_INVENTORY_BOOST;
+        }
+        return score;
+    }
+
+    /**
+     * Обратная документная частота слова (вариант BM25, всегда положительная).
+     * Частота слова - число экспонатов, у которых есть слово с таким началом;
+     * для слов длиннее {@link #MAX_PREFIX_LENGTH} берётся частота их начала.
+     *
+     * @param term слово
+     * @return значение idf
+     */
+    double idf(String term) {
+        if (frequencyStale) {
+            rebuildFrequency();
+        }
+        String prefix = term.length() > MAX_PREFIX_LENGTH ? term.substring(0, MAX_PREFIX_LENGTH) : term;
+        int df = Math.min(corpusSize, documentFrequency.getOrDefault(prefix, 0));
+        return Math.log(1 + (corpusSize - df + 0.5) / (df + 0.5));
+    }
+
+    private void addPrefixes(DocumentText document) {
+        for (String prefix : document.prefixes()) {
+            documentFrequency.merge(prefix, 1, Integer::sum);
+        }
+    }
+
+    private void rebuildFrequency() {
+        documentFrequency.clear();
+        for (DocumentText document : documents) {
+            if (document != null) {
+                addPrefixes(document);
+            }
+        }
+        frequencyStale = false;
+    }
+
+    private double averageLength(long totalTokens) {
+        return corpusSize > 0 ? Math.max(1.0, (double) totalTokens / corpusSize) : 1.0;
+    }
+
+    /**
+     * Текст экспоната в нижнем регистре на момент индексации.
+     * Хранится, чтобы корректно вычесть экспонат из статистики
+     * после изменения его полей.
+     */
+    private static final class DocumentText {
+        private final String name;
+        private final String description;
+        private final String inventory;
+        private final int nameTokens;
+        private final int descriptionTokens;
+
+        private DocumentText(String name, String description, String inventory) {
+            this(name, description, inventory, SearchTextUtil.countTokens(name),
+                    SearchTextUtil.countTokens(description));
+        }
+
+        private DocumentText(String name, String description, String inventory,
+                             int nameTokens, int descriptionTokens) {
+            this.name = name;
+            this.description = description;
+            this.inventory = inventory;
+            this.nameTokens = nameTokens;
+            this.descriptionTokens = descriptionTokens;
+        }
+
+        static DocumentText of(MuseumItem item) {
+            return new DocumentText(item.getNameSearchKey(), item.getDescriptionSearchKey(),
+                    item.getInventorySearchKey());
+        }
+
+        /**
+         * Различные префиксы слов всех полей (каждый экспонат учитывается
+         * в частоте префикса один раз).
+         */
+        Set<String> prefixes() {
+            Set<String> prefixes = new HashSet<>();
+            addPrefixes(prefixes, name);
+            addPrefixes(prefixes, description);
+            addPrefixes(prefixes, inventory);
+            return prefixes;
+        }
+
+        private static void addPrefixes(Set<String> prefixes, String text) {
+            for (String token : SearchTextUtil.tokenize(text)) {
+                int length = Math.min(token.length(), MAX_PREFIX_LENGTH);
+                for (int end = length; end > 0; end--) {
+                    if (!prefixes.add(token.substring(0, end))) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof DocumentText)) return false;
+            DocumentText other = (DocumentText) o;
+            return name.equals(other.name) && description.equals(other.description)
+                    && inventory.equals(other.inventory);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, description, inventory);
+        }
+    }
+}
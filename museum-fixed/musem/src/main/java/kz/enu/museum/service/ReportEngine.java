@@ -0,0 +1,154 @@
+package kz.enu.museum.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import kz.enu.museum.model.MuseumItem;
+
+/**
+ * Вычисление отчётов с группировкой за один проход по каталогу.
+ * Для каждого экспоната один раз вычисляется ключ группы, после чего
+ * обновляются все показатели строки. При параллельном вычислении каталог
+ * делится на блоки, каждый блок заполняет собственную таблицу строк,
+ * а таблицы соседних блоков сливаются попарно ({@link ReportRow#merge}),
+ * так что потоки не делят изменяемое состояние. Порядок строк совпадает
+ * с последовательным вычислением. Небольшие каталоги считаются последовательно.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+public class ReportEngine {
+
+    private static final Logger logger = LogManager.getLogger(ReportEngine.class);
+
+    /** Размер каталога, начиная с которого отчёт считается параллельно. */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 8192;
+
+    private static final int MIN_CHUNK_SIZE = 1024;
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final ForkJoinPool pool;
+    private final int parallelThreshold;
+
+    /**
+     * Конструктор с общим пулом ForkJoin.
+     */
+    public ReportEngine() {
+        this(ForkJoinPool.commonPool(), DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Конструктор.
+     *
+     * @param pool пул потоков для параллельного вычисления
+     * @param parallelThreshold размер каталога, начиная с которого отчёт считается параллельно
+     */
+    public ReportEngine(ForkJoinPool pool, int parallelThreshold) {
+        if (pool == null) {
+            throw new IllegalArgumentException("Пул потоков не может быть null");
+        }
+        if (parallelThreshold < 0) {
+            throw new IllegalArgumentException("Порог параллельного вычисления не может быть отрицательным");
+        }
+        this.pool = pool;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Вычисляет отчёт.
+     *
+     * @param items экспонаты (не изменяются во время вычисления)
+     * @param query описание отчёта
+     * @return строки отчёта по группам
+     */
+    public ReportResult execute(Collection<? extends MuseumItem> items, ReportQuery query) {
+        if (items == null || query == null) {
+            throw new IllegalArgumentException("Экспонаты и запрос отчёта не могут быть null");
+        }
+        List<? extends MuseumItem> list = items instanceof List ? (List<? extends MuseumItem>) items : new ArrayList<>(items);
+        long started = System.nanoTime();
+        Map<List<Object>, ReportRow> rows;
+        if (!query.isParallel() || list.size() < parallelThreshold || pool.getParallelism() == 1) {
+            rows = accumulate(list, 0, list.size(), query);
+        } else {
+            int chunks = pool.getParallelism() * CHUNKS_PER_THREAD;
+            int chunkSize = Math.max(MIN_CHUNK_SIZE, (list.size() + chunks - 1) / chunks);
+            rows = pool.invoke(new Chunk(list, 0, list.size(), chunkSize, query));
+        }
+        logger.debug(String.format("Отчёт: %d экспонатов, %d групп за %.2f мс",
+                list.size(), rows.size(), (System.nanoTime() - started) / 1e6));
+        return new ReportResult(query, rows);
+    }
+
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    private static Map<List<Object>, ReportRow> accumulate(List<? extends MuseumItem> items, int from, int to,
+                                                          ReportQuery query) {
+        Map<List<Object>, ReportRow> rows = new LinkedHashMap<>();
+        for (int i = from; i < to; i++) {
+            MuseumItem item = items.get(i);
+            rows.computeIfAbsent(query.keyOf(item), key -> new ReportRow(key, query.getMeasures())).add(item);
+        }
+        return rows;
+    }
+
+    /**
+     * Сливает таблицу правого блока в таблицу левого с сохранением порядка групп.
+     */
+    private static Map<List<Object>, ReportRow> merge(Map<List<Object>, ReportRow> left,
+                                                      Map<List<Object>, ReportRow> right) {
+        for (Map.Entry<List<Object>, ReportRow> entry : right.entrySet()) {
+            ReportRow row = left.get(entry.getKey());
+            if (row == null) {
+                left.put(entry.getKey(), entry.getValue());
+            } else {
+                row.merge(entry.getValue());
+            }
+        }
+        return left;
+    }
+
+    /**
+     * Диапазон каталога: делится пополам, пока не станет не больше блока.
+     */
+    private static final class Chunk extends RecursiveTask<Map<List<Object>, ReportRow>> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<? extends MuseumItem> items;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+        private final ReportQuery query;
+
+        private Chunk(List<? extends MuseumItem> items, int from, int to, int chunkSize, ReportQuery query) {
+            this.items = items;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+            this.query = query;
+        }
+
+        @Override
+        protected Map<List<Object>, ReportRow> compute() {
+            if (to - from <= chunkSize) {
+                return accumulate(items, from, to, query);
+            }
+            int middle = (from + to) >>> 1;
+            Chunk right = new Chunk(items, middle, to, chunkSize, query);
+            right.fork();
+            Map<List<Object>, ReportRow> left = new Chunk(items, from, middle, chunkSize, query).compute();
+            return merge(left, right.join());
+        }
+    }
+}
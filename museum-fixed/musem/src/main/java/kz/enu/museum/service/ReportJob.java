@@ -0,0 +1,299 @@
+package kz.enu.museum.service;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Фоновое задание построения отчёта для {@link ReportScheduler}.
+ * Настраивается до запуска: приоритет, ключ кэша результата, слушатели
+ * хода работы и ошибки. Во время выполнения тело отчёта сообщает о ходе
+ * через {@link #progress(long, long)} и проверяет отмену через
+ * {@link #checkCancelled()}. Каждое задание запускается один раз.
+ *
+ * @param <T> тип результата
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+public class ReportJob<T> {
+
+    /**
+     * Приоритет задания: задания с более высоким приоритетом
+     * берутся из очереди первыми, равные - в порядке постановки.
+     */
+    public enum Priority {
+        HIGH, NORMAL, LOW
+    }
+
+    /**
+     * Состояние задания.
+     */
+    public enum State {
+        NEW, QUEUED, RUNNING, DONE, FAILED, CANCELLED
+    }
+
+    /**
+     * Слушатель хода выполнения. Вызывается в потоке доставки;
+     * частые обновления схлопываются до последнего значения.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+
+        /**
+         * Сообщает о ходе выполнения.
+         *
+         * @param done выполнено шагов
+         * @param total всего шагов (-1, если неизвестно)
+         */
+        void onProgress(long done, long total);
+    }
+
+    private final String name;
+    private final ReportTask<T> task;
+    private Priority priority = Priority.NORMAL;
+    private String cacheKey;
+    private ProgressListener progressListener;
+    private Consumer<? super Throwable> errorHandler;
+
+    private final CompletableFuture<T> completion = new CompletableFuture<>();
+    private final AtomicBoolean progressPending = new AtomicBoolean();
+    private volatile State state = State.NEW;
+    private volatile boolean cancelled;
+    private volatile long done;
+    private volatile long total = -1;
+    private volatile Future<?> future;
+    private Executor deliveryExecutor;
+    private long sequence;
+
+    /**
+     * Конструктор.
+     *
+     * @param name название отчёта (для журнала и интерфейса)
+     * @param task тело отчёта
+     */
+    public ReportJob(String name, ReportTask<T> task) {
+        if (name == null || task == null) {
+            throw new IllegalArgumentException("Название и тело отчёта не могут быть null");
+        }
+        this.name = name;
+        this.task = task;
+    }
+
+    /**
+     * Задаёт приоритет (по умолчанию NORMAL).
+     *
+     * @param priority приоритет
+     * @return это задание
+     */
+    public ReportJob<T> priority(Priority priority) {
+        checkNew();
+        if (priority == null) {
+            throw new IllegalArgumentException("Приоритет не может быть null");
+        }
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * Включает кэширование результата: пока каталог не изменился,
+     * повторный запуск с тем же ключом сразу возвращает готовый результат.
+     * Результат должен быть неизменяемым.
+     *
+     * @param cacheKey ключ кэша
+     * @return это задание
+     */
+    public ReportJob<T> cached(String cacheKey) {
+        checkNew();
+        this.cacheKey = cacheKey;
+        return this;
+    }
+
+    /**
+     * Задаёт слушателя хода выполнения.
+     *
+     * @param listener слушатель
+     * @return это задание
+     */
+    public ReportJob<T> onProgress(ProgressListener listener) {
+        checkNew();
+        this.progressListener = listener;
+        return this;
+    }
+
+    /**
+     * Задаёт обработчик ошибки (вызывается в потоке доставки).
+     * Без обработчика ошибка только записывается в журнал.
+     *
+     * @param handler обработчик
+     * @return это задание
+     */
+    public ReportJob<T> onError(Consumer<? super Throwable> handler) {
+        checkNew();
+        this.errorHandler = handler;
+        return this;
+    }
+
+    /**
+     * Сообщает о ходе выполнения. Вызывается из тела отчёта.
+     *
+     * @param done выполнено шагов
+     * @param total всего шагов (-1, если неизвестно)
+     */
+    public void progress(long done, long total) {
+        this.done = done;
+        this.total = total;
+        ProgressListener listener = progressListener;
+        if (listener != null && deliveryExecutor != null && progressPending.compareAndSet(false, true)) {
+            deliveryExecutor.execute(() -> {
+                progressPending.set(false);
+                if (!cancelled) {
+                    listener.onProgress(this.done, this.total);
+                }
+            });
+        }
+    }
+
+    /**
+     * Проверяет отмену задания. Вызывается из тела отчёта между шагами.
+     *
+     * @throws CancellationException если задание отменено или поток прерван
+     */
+    public void checkCancelled() {
+        if (cancelled || Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Отчёт '" + name + "' отменён");
+        }
+    }
+
+    /**
+     * Отменяет задание. Ожидающее задание убирается из очереди,
+     * выполняющееся прерывается; результат не будет доставлен.
+     *
+     * @return true, если задание ещё не было завершено
+     */
+    public boolean cancel() {
+        if (isFinished()) {
+            return false;
+        }
+        cancelled = true;
+        Future<?> running = future;
+        if (running != null) {
+            running.cancel(true);
+        }
+        if (state == State.NEW || state == State.QUEUED) {
+            finish(State.CANCELLED, null, new CancellationException("Отчёт '" + name + "' отменён"));
+        }
+        return true;
+    }
+
+    /**
+     * Ожидает результат (для фоновых потоков и тестов, не для потока интерфейса).
+     *
+     * @param timeout время ожидания
+     * @param unit единица времени
+     * @return результат отчёта
+     * @throws ExecutionException если отчёт завершился ошибкой
+     * @throws CancellationException если отчёт отменён
+     * @throws InterruptedException если ожидание прервано
+     * @throws TimeoutException если время ожидания истекло
+     */
+    public T await(long timeout, TimeUnit unit) throws ExecutionException, InterruptedException, TimeoutException {
+        return completion.get(timeout, unit);
+    }
+
+    // Методы для планировщика
+
+    void attach(Executor deliveryExecutor, long sequence) {
+        if (state != State.NEW) {
+            throw new IllegalStateException("Задание '" + name + "' уже запущено");
+        }
+        this.deliveryExecutor = deliveryExecutor;
+        this.sequence = sequence;
+        this.state = State.QUEUED;
+    }
+
+    void setFuture(Future<?> future) {
+        this.future = future;
+    }
+
+    void started() {
+        state = State.RUNNING;
+    }
+
+    T execute() throws Exception {
+        return task.run(this);
+    }
+
+    /**
+     * Фиксирует итог задания. Повторные вызовы игнорируются.
+     *
+     * @return true, если итог зафиксирован этим вызовом
+     */
+    synchronized boolean finish(State result, T value, Throwable error) {
+        if (isFinished()) {
+            return false;
+        }
+        state = result;
+        if (result == State.DONE) {
+            completion.complete(value);
+        } else if (result == State.CANCELLED) {
+            completion.completeExceptionally(error != null ? error : new CancellationException(name));
+        } else {
+            completion.completeExceptionally(error);
+        }
+        return true;
+    }
+
+    Consumer<? super Throwable> getErrorHandler() {
+        return errorHandler;
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    private void checkNew() {
+        if (state != State.NEW) {
+            throw new IllegalStateException("Задание '" + name + "' уже запущено");
+        }
+    }
+
+    private boolean isFinished() {
+        State current = state;
+        return current == State.DONE || current == State.FAILED || current == State.CANCELLED;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Priority getPriority() {
+        return priority;
+    }
+
+    public String getCacheKey() {
+        return cacheKey;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public long getDone() {
+        return done;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+}
@@ -0,0 +1,256 @@
+package kz.enu.museum.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import kz.enu.museum.model.MuseumItem;
+
+/**
+ * Описание отчёта с группировкой: разрезы (функции ключа группы) и
+ * показатели (количество, сумма, минимум, максимум, среднее по функции
+ * значения). Все показатели вычисляются {@link ReportEngine} за один
+ * проход по каталогу.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+public class ReportQuery {
+
+    /**
+     * Агрегатная функция показателя.
+     */
+    public enum Aggregate {
+        COUNT("Количество"),
+        SUM("Сумма"),
+        MIN("Минимум"),
+        MAX("Максимум"),
+        AVG("Среднее");
+
+        private final String displayName;
+
+        Aggregate(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    /**
+     * Показатель отчёта.
+     */
+    public static final class Measure {
+        private final String name;
+        private final Aggregate aggregate;
+        private final Function<? super MuseumItem, BigDecimal> value;
+
+        private Measure(String name, Aggregate aggregate, Function<? super MuseumItem, BigDecimal> value) {
+            this.name = name;
+            this.aggregate = aggregate;
+            this.value = value;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Aggregate getAggregate() {
+            return aggregate;
+        }
+
+        /**
+         * Возвращает значение показателя для экспоната.
+         *
+         * @param item экспонат
+         * @return значение или null, если у экспоната его нет (для COUNT без функции - 1)
+         */
+        BigDecimal valueOf(MuseumItem item) {
+            return value != null ? value.apply(item) : BigDecimal.ONE;
+        }
+    }
+
+    private final List<String> dimensionNames = new ArrayList<>();
+    private final List<Function<? super MuseumItem, ?>> dimensions = new ArrayList<>();
+    private final List<Measure> measures = new ArrayList<>();
+    private boolean parallel;
+
+    /**
+     * Добавляет разрез группировки.
+     *
+     * @param name название разреза
+     * @param key функция ключа группы (null - отдельная группа)
+     * @return этот запрос
+     */
+    public ReportQuery groupBy(String name, Function<? super MuseumItem, ?> key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Функция разреза не может быть null");
+        }
+        checkName(name);
+        if (dimensionNames.contains(name)) {
+            throw new IllegalArgumentException("Разрез уже добавлен: " + name);
+        }
+        dimensionNames.add(name);
+        dimensions.add(key);
+        return this;
+    }
+
+    /**
+     * Добавляет количество экспонатов в группе.
+     *
+     * @param name название показателя
+     * @return этот запрос
+     */
+    public ReportQuery count(String name) {
+        return measure(name, Aggregate.COUNT, null);
+    }
+
+    /**
+     * Добавляет количество экспонатов, у которых есть значение.
+     *
+     * @param name название показателя
+     * @param value функция значения
+     * @return этот запрос
+     */
+    public ReportQuery count(String name, Function<? super MuseumItem, BigDecimal> value) {
+        return measure(name, Aggregate.COUNT, requireValue(value));
+    }
+
+    /**
+     * Добавляет сумму значений.
+     *
+     * @param name название показателя
+     * @param value функция значения (null не учитывается)
+     * @return этот запрос
+     */
+    public ReportQuery sum(String name, Function<? super MuseumItem, BigDecimal> value) {
+        return measure(name, Aggregate.SUM, requireValue(value));
+    }
+
+    /**
+     * Добавляет минимальное значение.
+     *
+     * @param name название показателя
+     * @param value функция значения (null не учитывается)
+     * @return этот запрос
+     */
+    public ReportQuery min(String name, Function<? super MuseumItem, BigDecimal> value) {
+        return measure(name, Aggregate.MIN, requireValue(value));
+    }
+
+    /**
+     * Добавляет максимальное значение.
+     *
+     * @param name название показателя
+     * @param value функция значения (null не учитывается)
+     * @return этот запрос
+     */
+    public ReportQuery max(String name, Function<? super MuseumItem, BigDecimal> value) {
+        return measure(name, Aggregate.MAX, requireValue(value));
+    }
+
+    /**
+     * Добавляет среднее значение.
+     *
+     * @param name название показателя
+     * @param value функция значения (null не учитывается)
+     * @return этот запрос
+     */
+    public ReportQuery avg(String name, Function<? super MuseumItem, BigDecimal> value) {
+        return measure(name, Aggregate.AVG, requireValue(value));
+    }
+
+    /**
+     * Разрешает параллельное вычисление на больших каталогах.
+     * Функции разрезов и значений при этом вызываются из нескольких потоков.
+     *
+     * @param parallel true для параллельного вычисления
+     * @return этот запрос
+     */
+    public ReportQuery parallel(boolean parallel) {
+        this.parallel = parallel;
+        return this;
+    }
+
+    public List<String> getDimensionNames() {
+        return Collections.unmodifiableList(dimensionNames);
+    }
+
+    public List<Measure> getMeasures() {
+        return Collections.unmodifiableList(measures);
+    }
+
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * Возвращает номер показателя по названию.
+     *
+     * @param name название показателя
+     * @return номер показателя, -1 если его нет
+     */
+    public int indexOfMeasure(String name) {
+        for (int i = 0; i < measures.size(); i++) {
+            if (measures.get(i).getName().equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Вычисляет ключ группы экспоната.
+     *
+     * @param item экспонат
+     * @return значения разрезов в порядке добавления
+     */
+    List<Object> keyOf(MuseumItem item) {
+        Object[] key = new Object[dimensions.size()];
+        for (int i = 0; i < key.length; i++) {
+            key[i] = dimensions.get(i).apply(item);
+        }
+        return ReportRow.key(key);
+    }
+
+    /**
+     * Создаёт запрос с частью разрезов и теми же показателями.
+     *
+     * @param positions номера оставляемых разрезов
+     * @return новый запрос
+     */
+    ReportQuery select(int[] positions) {
+        ReportQuery result = new ReportQuery().parallel(parallel);
+        for (int position : positions) {
+            result.groupBy(dimensionNames.get(position), dimensions.get(position));
+        }
+        result.measures.addAll(measures);
+        return result;
+    }
+
+    private ReportQuery measure(String name, Aggregate aggregate, Function<? super MuseumItem, BigDecimal> value) {
+        checkName(name);
+        if (indexOfMeasure(name) >= 0) {
+            throw new IllegalArgumentException("Показатель уже добавлен: " + name);
+        }
+        measures.add(new Measure(name, aggregate, value));
+        return this;
+    }
+
+    private static Function<? super MuseumItem, BigDecimal> requireValue(Function<? super MuseumItem, BigDecimal> value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Функция значения не может быть null");
+        }
+        return value;
+    }
+
+    private static void checkName(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("Название не может быть пустым");
+        }
+    }
+}
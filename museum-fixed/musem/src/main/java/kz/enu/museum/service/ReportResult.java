@@ -0,0 +1,111 @@
+package kz.enu.museum.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Результат отчёта с группировкой: строки по группам в порядке первого
+ * появления группы в каталоге.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+public class ReportResult {
+
+    private final ReportQuery query;
+    private final Map<List<Object>, ReportRow> rows;
+
+    ReportResult(ReportQuery query, Map<List<Object>, ReportRow> rows) {
+        this.query = query;
+        this.rows = rows;
+    }
+
+    public ReportQuery getQuery() {
+        return query;
+    }
+
+    /**
+     * Возвращает строки отчёта.
+     *
+     * @return строки по группам
+     */
+    public List<ReportRow> getRows() {
+        return Collections.unmodifiableList(new ArrayList<>(rows.values()));
+    }
+
+    /**
+     * Возвращает строку группы.
+     *
+     * @param key значения разрезов в порядке запроса
+     * @return строка или null, если экспонатов в группе нет
+     */
+    public ReportRow getRow(Object... key) {
+        return rows.get(ReportRow.key(key));
+    }
+
+    /**
+     * Возвращает количество экспонатов в группе.
+     *
+     * @param key значения разрезов в порядке запроса
+     * @return количество экспонатов, 0 если группы нет
+     */
+    public long getCount(Object... key) {
+        ReportRow row = getRow(key);
+        return row != null ? row.getCount() : 0;
+    }
+
+    /**
+     * Возвращает количество групп.
+     *
+     * @return количество строк
+     */
+    public int size() {
+        return rows.size();
+    }
+
+    /**
+     * Сворачивает отчёт до части разрезов, сливая накопители строк.
+     * Каталог при этом повторно не просматривается.
+     *
+     * @param dimensions оставляемые разрезы (без разрезов - общий итог в одной строке)
+     * @return отчёт по выбранным разрезам
+     */
+    public ReportResult rollUp(String... dimensions) {
+        List<String> names = query.getDimensionNames();
+        int[] positions = new int[dimensions.length];
+        for (int i = 0; i < dimensions.length; i++) {
+            positions[i] = names.indexOf(dimensions[i]);
+            if (positions[i] < 0) {
+                throw new IllegalArgumentException("Нет разреза: " + dimensions[i]);
+            }
+        }
+
+        Map<List<Object>, ReportRow> result = new LinkedHashMap<>();
+        for (ReportRow row : rows.values()) {
+            Object[] key = new Object[positions.length];
+            for (int i = 0; i < positions.length; i++) {
+                key[i] = row.getKey().get(positions[i]);
+            }
+            List<Object> rolledKey = ReportRow.key(key);
+            result.computeIfAbsent(rolledKey, k -> new ReportRow(k, query.getMeasures())).merge(row);
+        }
+        return new ReportResult(query.select(positions), result);
+    }
+
+    /**
+     * Возвращает общий итог по всем группам.
+     *
+     * @return строка итога с пустым ключом
+     */
+    public ReportRow getTotal() {
+        ReportRow total = new ReportRow(ReportRow.key(), query.getMeasures());
+        for (ReportRow row : rows.values()) {
+            total.merge(row);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,165 @@
+package kz.enu.museum.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import kz.enu.museum.model.MuseumItem;
+import kz.enu.museum.service.ReportQuery.Measure;
+
+/**
+ * Строка отчёта с группировкой: ключ группы и накопители показателей.
+ * Накопители сливаются ({@link #merge(ReportRow)}), поэтому каждый поток
+ * параллельного вычисления заполняет собственные строки без синхронизации,
+ * а частичные результаты объединяются в конце. По этой же причине из
+ * строк отчёта можно получить итоги по части разрезов без прохода по каталогу.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+public class ReportRow {
+
+    /** Минимальное количество знаков после запятой у среднего значения. */
+    private static final int AVG_SCALE = 2;
+
+    private final List<Object> key;
+    private final List<Measure> measures;
+    private long count;
+    private final long[] counts;
+    private final BigDecimal[] sums;
+    private final BigDecimal[] mins;
+    private final BigDecimal[] maxs;
+
+    ReportRow(List<Object> key, List<Measure> measures) {
+        this.key = key;
+        this.measures = measures;
+        int size = measures.size();
+        this.counts = new long[size];
+        this.sums = new BigDecimal[size];
+        this.mins = new BigDecimal[size];
+        this.maxs = new BigDecimal[size];
+        Arrays.fill(sums, BigDecimal.ZERO);
+    }
+
+    /**
+     * Учитывает экспонат во всех показателях.
+     *
+     * @param item экспонат
+     */
+    void add(MuseumItem item) {
+        count++;
+        for (int i = 0; i < counts.length; i++) {
+            BigDecimal value = measures.get(i).valueOf(item);
+            if (value == null) {
+                continue;
+            }
+            counts[i]++;
+            sums[i] = sums[i].add(value);
+            if (mins[i] == null || value.compareTo(mins[i]) < 0) {
+                mins[i] = value;
+            }
+            if (maxs[i] == null || value.compareTo(maxs[i]) > 0) {
+                maxs[i] = value;
+            }
+        }
+    }
+
+    /**
+     * Добавляет накопленное в другой строке с теми же показателями.
+     *
+     * @param other строка
+     */
+    void merge(ReportRow other) {
+        count += other.count;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+            sums[i] = sums[i].add(other.sums[i]);
+            if (other.mins[i] != null && (mins[i] == null || other.mins[i].compareTo(mins[i]) < 0)) {
+                mins[i] = other.mins[i];
+            }
+            if (other.maxs[i] != null && (maxs[i] == null || other.maxs[i].compareTo(maxs[i]) > 0)) {
+                maxs[i] = other.maxs[i];
+            }
+        }
+    }
+
+    /**
+     * Возвращает значения разрезов группы.
+     *
+     * @return ключ группы
+     */
+    public List<Object> getKey() {
+        return key;
+    }
+
+    /**
+     * Возвращает количество экспонатов в группе.
+     *
+     * @return количество экспонатов
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Возвращает значение показателя.
+     *
+     * @param index номер показателя в запросе
+     * @return значение; для MIN, MAX и AVG - null, если значений не было
+     */
+    public BigDecimal getValue(int index) {
+        if (index < 0 || index >= counts.length) {
+            throw new IllegalArgumentException("Нет показателя с номером " + index);
+        }
+        switch (measures.get(index).getAggregate()) {
+            case COUNT:
+                return BigDecimal.valueOf(counts[index]);
+            case SUM:
+                return sums[index];
+            case MIN:
+                return mins[index];
+            case MAX:
+                return maxs[index];
+            default:
+                if (counts[index] == 0) {
+                    return null;
+                }
+                return sums[index].divide(BigDecimal.valueOf(counts[index]),
+                        Math.max(AVG_SCALE, sums[index].scale()), RoundingMode.HALF_UP);
+        }
+    }
+
+    /**
+     * Возвращает значение показателя по названию.
+     *
+     * @param name название показателя
+     * @return значение
+     */
+    public BigDecimal getValue(String name) {
+        for (int i = 0; i < measures.size(); i++) {
+            if (measures.get(i).getName().equals(name)) {
+                return getValue(i);
+            }
+        }
+        throw new IllegalArgumentException("Нет показателя: " + name);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("ReportRow{key=").append(key).append(", count=").append(count);
+        for (int i = 0; i < measures.size(); i++) {
+            sb.append(", ").append(measures.get(i).getName()).append('=').append(getValue(i));
+        }
+        return sb.append('}').toString();
+    }
+
+    /**
+     * Неизменяемый ключ группы, допускающий значения null.
+     */
+    static List<Object> key(Object... values) {
+        return Collections.unmodifiableList(Arrays.asList(values));
+    }
+}
@@ -0,0 +1,300 @@
+package kz.enu.museum.service;
+
+import java.io.InterruptedIOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import kz.enu.museum.model.MuseumItem;
+import kz.enu.museum.repository.ExhibitRepository;
+import kz.enu.museum.repository.RepositoryListener;
+import kz.enu.museum.util.VersionedLruCache;
+
+/**
+ * Планировщик фоновых отчётов.
+ * Задания выполняются ограниченным пулом потоков в порядке приоритета,
+ * результат, ход работы и ошибки передаются через исполнитель доставки
+ * (в приложении - Platform::runLater), поэтому тяжёлые отчёты не блокируют
+ * окно. Отмена кооперативная: ожидающее задание снимается с очереди,
+ * выполняющееся прерывается и должно проверять {@link ReportJob#checkCancelled()}.
+ * Результаты заданий с ключом кэша хранятся, пока каталог не изменится.
+ * Повторяющиеся отчёты запускаются ежедневно в заданное время.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+public class ReportScheduler implements RepositoryListener<MuseumItem> {
+
+    private static final Logger logger = LogManager.getLogger(ReportScheduler.class);
+
+    /** Размер кэша результатов по умолчанию. */
+    public static final int DEFAULT_CACHE_CAPACITY = 32;
+
+    private final Executor deliveryExecutor;
+    private final ThreadPoolExecutor workers;
+    private final ScheduledExecutorService timer;
+    private final VersionedLruCache<String, Object> cache;
+    private final boolean cacheEnabled;
+    private final Clock clock;
+    private final AtomicLong dataVersion = new AtomicLong();
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Конструктор: половина процессоров (не меньше одного потока), системные часы.
+     *
+     * @param repository репозиторий для сброса кэша при изменениях (null - без кэша)
+     * @param deliveryExecutor исполнитель для доставки результатов (поток интерфейса)
+     */
+    public ReportScheduler(ExhibitRepository repository, Executor deliveryExecutor) {
+        this(repository, deliveryExecutor, Math.max(1, Runtime.getRuntime().availableProcessors() / 2),
+                Clock.systemDefaultZone());
+    }
+
+    /**
+     * Конструктор.
+     *
+     * @param repository репозиторий для сброса кэша при изменениях (null - без кэша)
+     * @param deliveryExecutor исполнитель для доставки результатов (поток интерфейса)
+     * @param workerCount количество рабочих потоков
+     * @param clock часы для расписания повторяющихся отчётов
+     */
+    public ReportScheduler(ExhibitRepository repository, Executor deliveryExecutor, int workerCount, Clock clock) {
+        if (deliveryExecutor == null || clock == null) {
+            throw new IllegalArgumentException("Исполнитель доставки и часы не могут быть null");
+        }
+        if (workerCount <= 0) {
+            throw new IllegalArgumentException("Количество потоков должно быть положительным числом");
+        }
+        this.deliveryExecutor = deliveryExecutor;
+        this.clock = clock;
+        this.cache = new VersionedLruCache<>(DEFAULT_CACHE_CAPACITY);
+        this.cacheEnabled = repository != null;
+
+        AtomicInteger threads = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "report-worker-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "report-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        if (repository != null) {
+            repository.addListener(this);
+        }
+    }
+
+    /**
+     * Ставит задание в очередь. Если задание с ключом кэша уже было выполнено
+     * для текущего состояния каталога, результат доставляется сразу.
+     *
+     * @param job задание
+     * @param onResult обработчик результата (вызывается через исполнитель доставки)
+     * @param <T> тип результата
+     * @return это же задание (для отмены и наблюдения)
+     */
+    public <T> ReportJob<T> submit(ReportJob<T> job, Consumer<? super T> onResult) {
+        if (job == null || onResult == null) {
+            throw new IllegalArgumentException("Задание и обработчик результата не могут быть null");
+        }
+        job.attach(deliveryExecutor, sequence.incrementAndGet());
+
+        long version = dataVersion.get();
+        if (cacheEnabled && job.getCacheKey() != null) {
+            @SuppressWarnings("unchecked")
+            T cached = (T) cache.get(job.getCacheKey(), version);
+            if (cached != null) {
+                logger.debug("Отчёт '" + job.getName() + "' взят из кэша");
+                job.finish(ReportJob.State.DONE, cached, null);
+                deliver(job, () -> onResult.accept(cached));
+                return job;
+            }
+        }
+
+        Prioritized task = new Prioritized(job, () -> run(job, version, onResult));
+        job.setFuture(task);
+        workers.execute(task);
+        return job;
+    }
+
+    /**
+     * Запускает отчёт ежедневно в заданное время (первый раз - в ближайшее
+     * наступление этого времени). Каждый запуск получает новое задание от фабрики.
+     *
+     * @param time время запуска
+     * @param factory фабрика заданий
+     * @param onResult обработчик результата
+     * @param <T> тип результата
+     * @return расписание (отмена прекращает запуски)
+     */
+    public <T> ScheduledFuture<?> scheduleDaily(LocalTime time, Supplier<ReportJob<T>> factory,
+                                                Consumer<? super T> onResult) {
+        if (time == null || factory == null) {
+            throw new IllegalArgumentException("Время и фабрика заданий не могут быть null");
+        }
+        long delay = delayUntil(time).toMillis();
+        logger.info("Ежедневный отчёт запланирован на " + time + " (через " + delay / 60000 + " мин)");
+        return timer.scheduleAtFixedRate(() -> {
+            try {
+                submit(factory.get(), onResult);
+            } catch (RuntimeException e) {
+                logger.error("Не удалось запустить ежедневный отчёт", e);
+            }
+        }, delay, TimeUnit.DAYS.toMillis(1), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Вычисляет задержку до ближайшего наступления времени суток.
+     *
+     * @param time время суток
+     * @return задержка (ноль не возвращается: совпадение - через сутки)
+     */
+    Duration delayUntil(LocalTime time) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime next = now.toLocalDate().atTime(time);
+        if (!next.isAfter(now)) {
+            next = next.plusDays(1);
+        }
+        return Duration.between(now, next);
+    }
+
+    private <T> void run(ReportJob<T> job, long version, Consumer<? super T> onResult) {
+        if (job.isCancelled()) {
+            return;
+        }
+        job.started();
+        long started = System.nanoTime();
+        try {
+            T result = job.execute();
+            job.checkCancelled();
+            if (cacheEnabled && job.getCacheKey() != null && result != null) {
+                cache.put(job.getCacheKey(), result, version);
+            }
+            if (job.finish(ReportJob.State.DONE, result, null)) {
+                logger.debug(String.format("Отчёт '%s' построен за %.2f мс",
+                        job.getName(), (System.nanoTime() - started) / 1e6));
+                deliver(job, () -> onResult.accept(result));
+            }
+        } catch (CancellationException | InterruptedException | InterruptedIOException e) {
+            job.finish(ReportJob.State.CANCELLED, null, e);
+            logger.debug("Отчёт '" + job.getName() + "' отменён");
+        } catch (Exception e) {
+            if (job.isCancelled()) {
+                job.finish(ReportJob.State.CANCELLED, null, e);
+                return;
+            }
+            job.finish(ReportJob.State.FAILED, null, e);
+            logger.error("Ошибка построения отчёта '" + job.getName() + "'", e);
+            Consumer<? super Throwable> handler = job.getErrorHandler();
+            if (handler != null) {
+                deliver(job, () -> handler.accept(e));
+            }
+        }
+    }
+
+    /**
+     * Доставляет событие задания, если его не отменили до доставки.
+     */
+    private void deliver(ReportJob<?> job, Runnable action) {
+        deliveryExecutor.execute(() -> {
+            if (!job.isCancelled()) {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Сбрасывает кэш результатов.
+     */
+    public void invalidate() {
+        dataVersion.incrementAndGet();
+    }
+
+    @Override
+    public void onSaved(MuseumItem entity) {
+        invalidate();
+    }
+
+    @Override
+    public void onDeleted(MuseumItem entity) {
+        invalidate();
+    }
+
+    @Override
+    public void onCleared() {
+        invalidate();
+    }
+
+    /**
+     * Останавливает рабочие потоки и расписание.
+     */
+    public void shutdown() {
+        timer.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    public int getWorkerCount() {
+        return workers.getCorePoolSize();
+    }
+
+    /**
+     * Количество заданий, ожидающих в очереди.
+     *
+     * @return количество заданий
+     */
+    public int getQueuedCount() {
+        return workers.getQueue().size();
+    }
+
+    public VersionedLruCache<?, ?> getCache() {
+        return cache;
+    }
+
+    /**
+     * Элемент очереди пула: порядок по приоритету, затем по времени постановки.
+     * Отменённый элемент сразу убирается из очереди.
+     */
+    private final class Prioritized extends FutureTask<Void> implements Comparable<Prioritized> {
+        private final ReportJob<?> job;
+
+        Prioritized(ReportJob<?> job, Runnable body) {
+            super(body, null);
+            this.job = job;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean result = super.cancel(mayInterruptIfRunning);
+            workers.remove(this);
+            return result;
+        }
+
+        @Override
+        public int compareTo(Prioritized other) {
+            int byPriority = job.getPriority().compareTo(other.job.getPriority());
+            return byPriority != 0 ? byPriority : Long.compare(job.getSequence(), other.job.getSequence());
+        }
+    }
+}
@@ -2,15 +2,21 @@ package kz.enu.museum.service;
 
 import kz.enu.museum.model.*;
 import kz.enu.museum.model.enums.ExhibitStatus;
+import kz.enu.museum.repository.ExhibitRepository;
+import kz.enu.museum.service.CatalogAggregates.Dimension;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.math.BigDecimal;
 import java.util.*;
 import java.util.stream.Collectors;
 
 /**
  * Сервис для генерации отчётов.
  * Предоставляет методы для создания различных статистических отчётов.
+ * Счётчики и суммы берутся из {@link CatalogAggregates}, которые
+ * обновляются при каждом изменении каталога, поэтому статистика всегда
+ * актуальна и не требует прохода по экспонатам.
  *
  * @author Есим Артём
  * @version 1.0
@@ -20,11 +26,17 @@ public class ReportService {
     
     private static final Logger logger = LogManager.getLogger(ReportService.class);
     private final List<MuseumItem> exhibits;
+    private final ExhibitRepository repository;
+    private final CatalogAggregates aggregates;
+    private final ValuationService valuation;
+    private final TimeSeriesAnalytics timeSeries;
+    private final PivotCube pivotCube;
+    private final ReportEngine engine = new ReportEngine();
     private final CategoryService categoryService;
     private final ArtistService artistService;
     
     /**
-     * Конструктор сервиса.
+     * Конструктор сервиса по неизменному списку экспонатов.
      *
      * @param exhibits список экспонатов
      * @param categoryService сервис категорий
@@ -32,10 +44,85 @@ public class ReportService {
      */
     public ReportService(List<MuseumItem> exhibits, CategoryService categoryService, ArtistService artistService) {
         this.exhibits = exhibits != null ? exhibits : new ArrayList<>();
+        this.repository = null;
+        this.aggregates = new CatalogAggregates(this.exhibits);
+        this.valuation = new ValuationService(this.exhibits);
+        this.timeSeries = new TimeSeriesAnalytics(this.exhibits);
+        this.pivotCube = new PivotCube(this.exhibits);
         this.categoryService = categoryService;
         this.artistService = artistService;
     }
     
+    /**
+     * Конструктор сервиса, следящего за репозиторием экспонатов.
+     *
+     * @param repository репозиторий экспонатов
+     * @param categoryService сервис категорий
+     * @param artistService сервис художников
+     */
+    public ReportService(ExhibitRepository repository, CategoryService categoryService, ArtistService artistService) {
+        if (repository == null) {
+            throw new IllegalArgumentException("Репозиторий экспонатов не может быть null");
+        }
+        this.exhibits = null;
+        this.repository = repository;
+        this.aggregates = new CatalogAggregates(repository);
+        this.valuation = new ValuationService(repository);
+        this.timeSeries = new TimeSeriesAnalytics(repository);
+        this.pivotCube = new PivotCube(repository);
+        this.categoryService = categoryService;
+        this.artistService = artistService;
+    }
+    
+    /**
+     * Возвращает агрегаты каталога, на которых строятся отчёты.
+     *
+     * @return агрегаты каталога
+     */
+    public CatalogAggregates getAggregates() {
+        return aggregates;
+    }
+    
+    /**
+     * Возвращает сервис оценки коллекции для страховых отчётов.
+     *
+     * @return сервис оценки
+     */
+    public ValuationService getValuation() {
+        return valuation;
+    }
+    
+    /**
+     * Возвращает временные ряды поступления и создания экспонатов.
+     *
+     * @return временные ряды
+     */
+    public TimeSeriesAnalytics getTimeSeries() {
+        return timeSeries;
+    }
+    
+    /**
+     * Возвращает куб сводных таблиц по статусу, типу, категории, залу,
+     * стране автора и десятилетию.
+     *
+     * @return куб сводных таблиц
+     */
+    public PivotCube getPivotCube() {
+        return pivotCube;
+    }
+    
+    /**
+     * Получает количество поступлений по годам с накопленным итогом и изменением к прошлому году.
+     *
+     * @param fromYear первый год
+     * @param toYear последний год
+     * @return точки ряда по годам
+     */
+    public List<TimeSeriesPoint> getAcquisitionsByYear(int fromYear, int toYear) {
+        return timeSeries.histogram(TimeSeriesAnalytics.DateField.ACQUISITION,
+                TimeSeriesAnalytics.Granularity.YEAR, fromYear, toYear);
+    }
+    
     /**
      * Генерирует общую статистику.
      *
@@ -44,24 +131,12 @@ public class ReportService {
     public Map<String, Object> generateGeneralStatistics() {
         Map<String, Object> stats = new LinkedHashMap<>();
         
-        stats.put("Всего экспонатов", exhibits.size());
+        stats.put("Всего экспонатов", (int) aggregates.getTotalCount());
         stats.put("Категорий", categoryService.getAllCategories().size());
         stats.put("Художников", artistService.getAllArtists().size());
-        
-        // Статистика по статусам
-        Map<ExhibitStatus, Long> statusStats = exhibits.stream()
-                .collect(Collectors.groupingBy(MuseumItem::getStatus, Collectors.counting()));
-        
-        Map<String, Long> statusMap = new LinkedHashMap<>();
-        for (ExhibitStatus status : ExhibitStatus.values()) {
-            statusMap.put(status.getDisplayName(), statusStats.getOrDefault(status, 0L));
-        }
-        stats.put("Распределение по статусам", statusMap);
-        
-        // Типы экспонатов
-        Map<String, Long> typeStats = exhibits.stream()
-                .collect(Collectors.groupingBy(item -> item.getClass().getSimpleName(), Collectors.counting()));
-        stats.put("Распределение по типам", typeStats);
+        stats.put("Распределение по статусам", aggregates.getCounts(Dimension.STATUS));
+        stats.put("Распределение по типам", aggregates.getCounts(Dimension.TYPE));
+        stats.put("Оценочная стоимость", aggregates.getTotalValue());
         
         logger.info("Сгенерирована общая статистика");
         return stats;
@@ -73,22 +148,57 @@ public class ReportService {
      * @return Map со статистикой по категориям
      */
     public Map<String, Long> getCategoryStatistics() {
-        Map<String, Long> stats = new LinkedHashMap<>();
-        
-        exhibits.stream()
-                .filter(item -> item instanceof Exhibit)
-                .map(item -> (Exhibit) item)
-                .filter(exhibit -> exhibit.getCategory() != null)
-                .collect(Collectors.groupingBy(
-                        exhibit -> exhibit.getCategory().getName(),
-                        Collectors.counting()
-                ))
-                .forEach(stats::put);
+        Map<String, Long> stats = aggregates.getCounts(Dimension.CATEGORY);
+        stats.remove(CatalogAggregates.NONE);
         
         logger.info("Сгенерирована статистика по категориям");
         return stats;
     }
     
+    /**
+     * Получает количество экспонатов по авторам.
+     *
+     * @return Map автор -> количество экспонатов
+     */
+    public Map<String, Long> getAuthorStatistics() {
+        Map<String, Long> stats = aggregates.getCounts(Dimension.AUTHOR);
+        stats.remove(CatalogAggregates.NONE);
+        return stats;
+    }
+    
+    /**
+     * Получает количество экспонатов по залам.
+     *
+     * @return Map зал -> количество экспонатов
+     */
+    public Map<String, Long> getHallStatistics() {
+        Map<String, Long> stats = aggregates.getCounts(Dimension.HALL);
+        stats.remove(CatalogAggregates.NONE);
+        return stats;
+    }
+    
+    /**
+     * Получает суммарную оценочную стоимость в заданном разрезе.
+     *
+     * @param dimension разрез
+     * @return Map группа -> сумма стоимости
+     */
+    public Map<String, BigDecimal> getValueStatistics(Dimension dimension) {
+        return aggregates.getValues(dimension);
+    }
+    
+    /**
+     * Вычисляет произвольный отчёт с группировкой за один проход по каталогу.
+     *
+     * @param query описание отчёта
+     * @return строки отчёта по группам
+     */
+    public ReportResult aggregate(ReportQuery query) {
+        ReportResult result = engine.execute(exhibits(), query);
+        logger.info("Сгенерирован отчёт с группировкой: " + result.size() + " групп");
+        return result;
+    }
+    
     /**
      * Получает экспонаты по определённому статусу.
      *
@@ -96,7 +206,7 @@ public class ReportService {
      * @return список экспонатов с этим статусом
      */
     public List<MuseumItem> getExhibitsByStatus(ExhibitStatus status) {
-        return exhibits.stream()
+        return exhibits().stream()
                 .filter(item -> item.getStatus() == status)
                 .collect(Collectors.toList());
     }
@@ -108,7 +218,7 @@ public class ReportService {
      * @return список экспонатов этого художника
      */
     public List<MuseumItem> getExhibitsByArtist(Artist artist) {
-        return exhibits.stream()
+        return exhibits().stream()
                 .filter(item -> item instanceof Exhibit)
                 .map(item -> (Exhibit) item)
                 .filter(exhibit -> exhibit.getAuthor() != null && 
@@ -123,7 +233,7 @@ public class ReportService {
      * @return список экспонатов в этом зале
      */
     public List<MuseumItem> getExhibitsByLocation(Location location) {
-        return exhibits.stream()
+        return exhibits().stream()
                 .filter(item -> item instanceof Exhibit)
                 .map(item -> (Exhibit) item)
                 .filter(exhibit -> exhibit.getLocation() != null && 
@@ -133,6 +243,7 @@ public class ReportService {
     
     /**
      * Экспортирует отчёт в CSV формат.
+     * Полная выгрузка каталога (все колонки) - {@link ExportService}.
      *
      * @param items список экспонатов
      * @return CSV строка
@@ -180,12 +291,13 @@ public class ReportService {
         Map<String, Integer> summary = new LinkedHashMap<>();
         
         for (ExhibitStatus status : ExhibitStatus.values()) {
-            long count = exhibits.stream()
-                    .filter(item -> item.getStatus() == status)
-                    .count();
-            summary.put(status.getDisplayName(), (int) count);
+            summary.put(status.getDisplayName(), (int) aggregates.getCount(Dimension.STATUS, status.getDisplayName()));
         }
         
         return summary;
     }
+    
+    private List<MuseumItem> exhibits() {
+        return repository != null ? repository.findAll() : exhibits;
+    }
 }
@@ -0,0 +1,24 @@
+package kz.enu.museum.service;
+
+/**
+ * Тело фонового отчёта.
+ * Выполняется в потоке {@link ReportScheduler}; через задание сообщает
+ * о ходе работы и проверяет отмену.
+ *
+ * @param <T> тип результата
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+@FunctionalInterface
+public interface ReportTask<T> {
+
+    /**
+     * Строит отчёт.
+     *
+     * @param job выполняемое задание (ход работы и отмена)
+     * @return результат отчёта
+     * @throws Exception при ошибке построения; отмена - CancellationException или прерывание
+     */
+    T run(ReportJob<T> job) throws Exception;
+}
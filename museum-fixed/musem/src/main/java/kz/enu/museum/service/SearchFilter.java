@@ -0,0 +1,168 @@
+package kz.enu.museum.service;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
+import kz.enu.museum.model.Artist;
+import kz.enu.museum.model.Category;
+import kz.enu.museum.model.MuseumItem;
+import kz.enu.museum.model.enums.ExhibitStatus;
+
+/**
+ * Набор фильтров для расширенного поиска.
+ * Значения внутри одного измерения объединяются по ИЛИ,
+ * разные измерения - по И. Пустое измерение не ограничивает выборку.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+public class SearchFilter {
+
+    private final Set<ExhibitStatus> statuses = EnumSet.noneOf(ExhibitStatus.class);
+    private final Set<Long> categoryIds = new LinkedHashSet<>();
+    private final Set<Long> authorIds = new LinkedHashSet<>();
+    private final Set<String> types = new LinkedHashSet<>();
+    private final Set<String> halls = new LinkedHashSet<>();
+
+    /**
+     * Добавляет статус.
+     *
+     * @param status статус (null игнорируется)
+     * @return этот же фильтр
+     */
+    public SearchFilter addStatus(ExhibitStatus status) {
+        if (status != null) {
+            statuses.add(status);
+        }
+        return this;
+    }
+
+    /**
+     * Добавляет категорию.
+     *
+     * @param category категория (null игнорируется)
+     * @return этот же фильтр
+     */
+    public SearchFilter addCategory(Category category) {
+        if (category != null && category.getId() != null) {
+            categoryIds.add(category.getId());
+        }
+        return this;
+    }
+
+    /**
+     * Добавляет автора.
+     *
+     * @param author автор (null игнорируется)
+     * @return этот же фильтр
+     */
+    public SearchFilter addAuthor(Artist author) {
+        if (author != null && author.getId() != null) {
+            authorIds.add(author.getId());
+        }
+        return this;
+    }
+
+    /**
+     * Добавляет тип экспоната.
+     *
+     * @param type класс экспоната, например Painting.class (null игнорируется)
+     * @return этот же фильтр
+     */
+    public SearchFilter addType(Class<? extends MuseumItem> type) {
+        if (type != null) {
+            types.add(type.getSimpleName());
+        }
+        return this;
+    }
+
+    /**
+     * Добавляет зал.
+     *
+     * @param hallName название зала (null игнорируется)
+     * @return этот же фильтр
+     */
+    public SearchFilter addHall(String hallName) {
+        if (hallName != null && !hallName.isBlank()) {
+            halls.add(hallName);
+        }
+        return this;
+    }
+
+    public Set<ExhibitStatus> getStatuses() {
+        return Collections.unmodifiableSet(statuses);
+    }
+
+    public Set<Long> getCategoryIds() {
+        return Collections.unmodifiableSet(categoryIds);
+    }
+
+    public Set<Long> getAuthorIds() {
+        return Collections.unmodifiableSet(authorIds);
+    }
+
+    public Set<String> getTypes() {
+        return Collections.unmodifiableSet(types);
+    }
+
+    public Set<String> getHalls() {
+        return Collections.unmodifiableSet(halls);
+    }
+
+    /**
+     * Проверяет, задан ли хотя бы один фильтр.
+     *
+     * @return true если фильтр пустой
+     */
+    public boolean isEmpty() {
+        return statuses.isEmpty() && categoryIds.isEmpty() && authorIds.isEmpty()
+                && types.isEmpty() && halls.isEmpty();
+    }
+
+    /**
+     * Создаёт независимую копию фильтра.
+     *
+     * @return копия
+     */
+    public SearchFilter copy() {
+        SearchFilter copy = new SearchFilter();
+        copy.statuses.addAll(statuses);
+        copy.categoryIds.addAll(categoryIds);
+        copy.authorIds.addAll(authorIds);
+        copy.types.addAll(types);
+        copy.halls.addAll(halls);
+        return copy;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof SearchFilter)) return false;
+        SearchFilter other = (SearchFilter) o;
+        return statuses.equals(other.statuses)
+                && categoryIds.equals(other.categoryIds)
+                && authorIds.equals(other.authorIds)
+                && types.equals(other.types)
+                && halls.equals(other.halls);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(statuses, categoryIds, authorIds, types, halls);
+    }
+
+    @Override
+    public String toString() {
+        return "SearchFilter{" +
+                "statuses=" + statuses +
+                ", categoryIds=" + categoryIds +
+                ", authorIds=" + authorIds +
+                ", types=" + types +
+                ", halls=" + halls +
+                '}';
+    }
+}
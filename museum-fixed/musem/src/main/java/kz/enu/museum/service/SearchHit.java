@@ -0,0 +1,50 @@
+package kz.enu.museum.service;
+
+import java.util.Comparator;
+
+import kz.enu.museum.model.MuseumItem;
+
+/**
+ * Результат поиска с оценкой релевантности.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+public class SearchHit {
+
+    /**
+     * Порядок "самый релевантный первым".
+     * При равной оценке - по возрастанию ID, чтобы выдача была стабильной.
+     */
+    public static final Comparator<SearchHit> BY_RELEVANCE = Comparator
+            .comparingDouble(SearchHit::getScore).reversed()
+            .thenComparing(hit -> hit.getItem().getId(), Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final MuseumItem item;
+    private final double score;
+
+    /**
+     * Конструктор результата.
+     *
+     * @param item найденный экспонат
+     * @param score оценка релевантности
+     */
+    public SearchHit(MuseumItem item, double score) {
+        this.item = item;
+        this.score = score;
+    }
+
+    public MuseumItem getItem() {
+        return item;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    @Override
+    public String toString() {
+        return item + " [" + String.format("%.3f", score) + "]";
+    }
+}
@@ -0,0 +1,715 @@
+package kz.enu.museum.service;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import kz.enu.museum.model.Exhibit;
+import kz.enu.museum.model.MuseumItem;
+import kz.enu.museum.model.enums.ExhibitStatus;
+import kz.enu.museum.service.FilterIndex.FilterKeys;
+
+/**
+ * Хранение индекса поиска на диске для быстрого запуска.
+ * Снимок индекса записывается в компактный двоичный файл с версией формата:
+ * заголовок, таблица строк (типы и залы) и записи фиксированного размера
+ * по порядковым номерам (ID, значения фильтруемых полей, длины текста,
+ * числовые колонки). При запуске файл открывается через {@link FileChannel#map}
+ * и индекс восстанавливается без разбора текста экспонатов.
+ *
+ * <p>Изменения после снимка дописываются в журнал. Каждая запись журнала
+ * хранит контрольную сумму индекса после изменения. Сверка с контрольной
+ * суммой каталога требует прохода по всем экспонатам, поэтому выполняется
+ * в фоновом потоке записи ({@link #verify}); до её окончания поиск работает
+ * по восстановленному индексу. Если суммы не совпадают (каталог изменён
+ * вне приложения) или снимок повреждён, индекс строится заново в том же
+ * фоновом потоке.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+public class SearchIndexStore {
+
+    private static final Logger logger = LogManager.getLogger(SearchIndexStore.class);
+
+    /** Версия формата файла индекса. */
+    public static final int FORMAT_VERSION = 2;
+
+    /** Имя файла снимка индекса. */
+    public static final String INDEX_FILE_NAME = "search-index.bin";
+
+    /** Имя файла журнала изменений. */
+    public static final String LOG_FILE_NAME = "search-index.log";
+
+    private static final int MAGIC = 0x4D534958; // "MSIX"
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 4 + 4;
+    private static final int RECORD_SIZE = 8 + 1 + 4 + 8 + 8 + 4 + 4 + 4 + 8 + ExhibitColumns.ROW_BYTES;
+    private static final int LOG_RECORD_SIZE = 1 + 8 + 8 + 8;
+    private static final long NO_ID = Long.MIN_VALUE;
+    private static final byte OP_SAVED = 1;
+    private static final byte OP_DELETED = 2;
+    /** Сколько ждать завершения начатой записи снимка при остановке. */
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+    /**
+     * Результат загрузки индекса при запуске.
+     */
+    public enum LoadStatus {
+        /** Индекс восстановлен из снимка и журнала. */
+        WARM,
+        /** Снимка нет. */
+        MISSING,
+        /** Снимок повреждён или записан другой версией формата. */
+        CORRUPT,
+        /** Снимок не соответствует каталогу. */
+        STALE
+    }
+
+    private final Path indexFile;
+    private final Path logFile;
+    private final ExecutorService writer;
+
+    // Контрольная сумма текущего состояния индекса
+    private long[] ordinalHashes = new long[0];
+    private long checksum;
+    private long loadedChecksum;
+    private long sequence;
+    private long writtenSequence = -1;
+    private FileChannel logChannel;
+
+    private LoadStatus lastLoadStatus;
+    private long lastLoadNanos;
+
+    /**
+     * Конструктор.
+     *
+     * @param directory каталог для файлов индекса
+     */
+    public SearchIndexStore(Path directory) {
+        if (directory == null) {
+            throw new IllegalArgumentException("Каталог индекса не может быть пустым");
+        }
+        this.indexFile = directory.resolve(INDEX_FILE_NAME);
+        this.logFile = directory.resolve(LOG_FILE_NAME);
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "search-index-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public Path getIndexFile() {
+        return indexFile;
+    }
+
+    public Path getLogFile() {
+        return logFile;
+    }
+
+    /**
+     * Результат последней загрузки индекса.
+     *
+     * @return статус или null, если загрузки не было
+     */
+    public LoadStatus getLastLoadStatus() {
+        return lastLoadStatus;
+    }
+
+    /**
+     * Длительность последней загрузки (без фоновой сверки контрольной суммы).
+     *
+     * @return время загрузки, мс
+     */
+    public double getLastLoadMillis() {
+        return lastLoadNanos / 1_000_000.0;
+    }
+
+    /**
+     * Вычисляет контрольную сумму каталога. Сумма не зависит от порядка
+     * экспонатов и учитывает только поля, попадающие в индекс поиска.
+     *
+     * @param catalog экспонаты
+     * @return контрольная сумма
+     */
+    public static long catalogChecksum(Collection<MuseumItem> catalog) {
+        long sum = 0;
+        for (MuseumItem item : catalog) {
+            sum += itemHash(item);
+        }
+        return sum;
+    }
+
+    /**
+     * Хеш индексируемых полей экспоната: полей индекса фильтров, текста
+     * и числовых колонок (даты создания и поступления, оценочная стоимость),
+     * которые при быстром запуске восстанавливаются из снимка.
+     */
+    static long itemHash(MuseumItem item) {
+        long h = item.getId() != null ? item.getId() : 0;
+        h = 31 * h + (item.getStatus() != null ? item.getStatus().ordinal() : -1);
+        h = 31 * h + item.getClass().getSimpleName().hashCode();
+        if (item instanceof Exhibit exhibit) {
+            h = 31 * h + (exhibit.getCategory() != null ? hashOf(exhibit.getCategory().getId()) : 0);
+            h = 31 * h + (exhibit.getAuthor() != null ? hashOf(exhibit.getAuthor().getId()) : 0);
+            h = 31 * h + (exhibit.getLocation() != null ? hashOf(exhibit.getLocation().getHallName()) : 0);
+            // Масштаб (100.0 и 100.00) на колонку не влияет
+            BigDecimal value = exhibit.getEstimatedValue();
+            h = 31 * h + (value != null ? hashOf(value.stripTrailingZeros()) : 0);
+        }
+        h = 31 * h + hashOf(item.getCreationDate());
+        h = 31 * h + hashOf(item.getAcquisitionDate());
+        h = 31 * h + hashOf(item.getName());
+        h = 31 * h + hashOf(item.getDescription());
+        h = 31 * h + hashOf(item.getInventoryNumber());
+        return mix(h);
+    }
+
+    /**
+     * Загружает индекс из снимка и журнала. Текст и поля экспонатов
+     * не читаются: каталог нужен только для поиска экспонатов по ID.
+     * Соответствие каталогу проверяется отдельно методом {@link #verify}.
+     * При любом результате, кроме {@link LoadStatus#WARM},
+     * индекс, статистика и колонки остаются пустыми.
+     *
+     * @param catalog текущий каталог
+     * @param filterIndex пустой индекс фильтров
+     * @param scorer пустая статистика релевантности
+     * @param columns пустые числовые колонки
+     * @return результат загрузки
+     */
+    synchronized LoadStatus load(Collection<MuseumItem> catalog, FilterIndex filterIndex, RelevanceScorer scorer,
+                                 ExhibitColumns columns) {
+        long start = System.nanoTime();
+        LoadStatus status;
+        try {
+            status = tryLoad(catalog, filterIndex, scorer, columns);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Не удалось прочитать индекс поиска: " + e.getMessage());
+            status = LoadStatus.CORRUPT;
+        }
+        if (status != LoadStatus.WARM) {
+            filterIndex.clear();
+            scorer.clear();
+            columns.reset();
+        }
+        lastLoadStatus = status;
+        lastLoadNanos = System.nanoTime() - start;
+        logger.info("Индекс поиска: " + status + " за " + String.format("%.1f", getLastLoadMillis()) + " мс");
+        return status;
+    }
+
+    private LoadStatus tryLoad(Collection<MuseumItem> catalog, FilterIndex filterIndex, RelevanceScorer scorer,
+                               ExhibitColumns columns) throws IOException {
+        if (!Files.exists(indexFile)) {
+            return LoadStatus.MISSING;
+        }
+
+        Map<Long, MuseumItem> byId = new HashMap<>();
+        for (MuseumItem item : catalog) {
+            byId.put(item.getId(), item);
+        }
+
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.capacity() < HEADER_SIZE + 4
+                || buffer.getInt(0) != MAGIC
+                || buffer.getInt(4) != FORMAT_VERSION
+                || !crcMatches(buffer)) {
+            return LoadStatus.CORRUPT;
+        }
+
+        long snapshotChecksum = buffer.getLong(8);
+        long snapshotSequence = buffer.getLong(16);
+        int capacity = buffer.getInt(24);
+        int stringCount = buffer.getInt(28);
+
+        List<long[]> delta = readLog(snapshotSequence);
+
+        ByteBuffer data = buffer.duplicate();
+        data.position(HEADER_SIZE);
+        String[] strings = new String[stringCount];
+        for (int i = 0; i < stringCount; i++) {
+            byte[] bytes = new byte[data.getInt()];
+            data.get(bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        if (data.remaining() != (long) capacity * RECORD_SIZE + 4) {
+            return LoadStatus.CORRUPT;
+        }
+
+        // Для каждого экспоната в журнале важна только последняя операция
+        Map<Long, Byte> lastOperation = new LinkedHashMap<>();
+        for (long[] record : delta) {
+            lastOperation.remove(record[2]);
+            lastOperation.put(record[2], (byte) record[0]);
+        }
+
+        ExhibitStatus[] statuses = ExhibitStatus.values();
+        long[] hashes = new long[capacity];
+        long recorded = 0;
+        for (int ordinal = 0; ordinal < capacity; ordinal++) {
+            long id = data.getLong();
+            byte status = data.get();
+            int type = data.getInt();
+            long categoryId = data.getLong();
+            long authorId = data.getLong();
+            int hall = data.getInt();
+            int nameTokens = data.getInt();
+            int descriptionTokens = data.getInt();
+            long hash = data.getLong();
+            int row = data.position();
+            data.position(row + ExhibitColumns.ROW_BYTES);
+            if (id == NO_ID) {
+                filterIndex.restore(ordinal, null, null);
+                continue;
+            }
+            recorded += hash;
+            MuseumItem item = byId.get(id);
+            if (item == null) {
+                if (!Byte.valueOf(OP_DELETED).equals(lastOperation.get(id))) {
+                    return LoadStatus.STALE;
+                }
+                // Удалён после снимка: номер остаётся свободным
+                filterIndex.restore(ordinal, null, null);
+                continue;
+            }
+            FilterKeys keys = new FilterKeys(
+                    status >= 0 ? statuses[status] : null,
+                    strings[type],
+                    categoryId != NO_ID ? categoryId : null,
+                    authorId != NO_ID ? authorId : null,
+                    hall >= 0 ? strings[hall] : null);
+            filterIndex.restore(ordinal, item, keys);
+            scorer.restore(ordinal, item, nameTokens, descriptionTokens);
+            columns.readRow(ordinal, data, row);
+            hashes[ordinal] = hash;
+        }
+
+        if (recorded != snapshotChecksum) {
+            return LoadStatus.CORRUPT;
+        }
+
+        // Сумма по восстановленным записям: экспонаты, удалённые по журналу, в неё не входят
+        ordinalHashes = hashes;
+        checksum = 0;
+        for (long hash : hashes) {
+            checksum += hash;
+        }
+        if (!replay(lastOperation, byId, filterIndex, scorer, columns)) {
+            return LoadStatus.STALE;
+        }
+        loadedChecksum = checksum;
+        sequence = delta.isEmpty() ? snapshotSequence : delta.get(delta.size() - 1)[1];
+        logger.debug("Применено записей журнала индекса: " + delta.size());
+        return LoadStatus.WARM;
+    }
+
+    /**
+     * Применяет к восстановленному снимку последние операции журнала.
+     */
+    private boolean replay(Map<Long, Byte> lastOperation, Map<Long, MuseumItem> byId,
+                           FilterIndex filterIndex, RelevanceScorer scorer, ExhibitColumns columns) {
+        for (Map.Entry<Long, Byte> entry : lastOperation.entrySet()) {
+            if (entry.getValue() == OP_SAVED) {
+                MuseumItem item = byId.get(entry.getKey());
+                if (item == null) {
+                    return false;
+                }
+                int ordinal = filterIndex.add(item);
+                scorer.update(ordinal, item);
+                columns.set(ordinal, item);
+                setHash(ordinal, itemHash(item));
+            } else {
+                int ordinal = filterIndex.ordinalOfId(entry.getKey());
+                if (ordinal >= 0) {
+                    filterIndex.remove(filterIndex.get(ordinal));
+                    scorer.remove(ordinal);
+                    columns.clear(ordinal);
+                    setHash(ordinal, 0);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Сверяет загруженный индекс с каталогом по контрольной сумме.
+     * Проход по каталогу выполняется без монитора хранилища.
+     *
+     * @param catalog каталог на момент загрузки
+     * @return true если индекс соответствует каталогу
+     */
+    boolean verify(Collection<MuseumItem> catalog) {
+        long actual = catalogChecksum(catalog);
+        synchronized (this) {
+            if (actual == loadedChecksum) {
+                return true;
+            }
+            lastLoadStatus = LoadStatus.STALE;
+        }
+        logger.info("Индекс поиска не соответствует каталогу и будет построен заново");
+        return false;
+    }
+
+    /**
+     * Вычисляет хеши экспонатов по порядковым номерам индекса.
+     * Не требует монитора хранилища: вызывается для индекса,
+     * построенного в фоне, до его подмены.
+     *
+     * @param filterIndex индекс фильтров
+     * @return хеши по порядковым номерам (0 для свободных номеров)
+     */
+    static long[] hashes(FilterIndex filterIndex) {
+        long[] hashes = new long[filterIndex.capacity()];
+        for (int ordinal = 0; ordinal < hashes.length; ordinal++) {
+            MuseumItem item = filterIndex.get(ordinal);
+            if (item != null) {
+                hashes[ordinal] = itemHash(item);
+            }
+        }
+        return hashes;
+    }
+
+    /**
+     * Сбрасывает сохранённое состояние после полной перестройки индекса:
+     * прежний снимок и журнал удаляются, контрольная сумма пересчитывается.
+     *
+     * @param filterIndex перестроенный индекс фильтров
+     */
+    synchronized void reset(FilterIndex filterIndex) {
+        reset(hashes(filterIndex));
+    }
+
+    /**
+     * Сбрасывает сохранённое состояние с заранее вычисленными хешами.
+     *
+     * @param hashes хеши по порядковым номерам перестроенного индекса
+     */
+    synchronized void reset(long[] hashes) {
+        ordinalHashes = hashes;
+        checksum = 0;
+        for (long hash : hashes) {
+            checksum += hash;
+        }
+        loadedChecksum = checksum;
+        try {
+            Files.deleteIfExists(indexFile);
+            truncateLog();
+        } catch (IOException e) {
+            logger.warn("Не удалось удалить устаревший индекс поиска: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Записывает в журнал добавление или изменение экспоната.
+     *
+     * @param ordinal порядковый номер экспоната
+     * @param item экспонат
+     */
+    synchronized void recordSaved(int ordinal, MuseumItem item) {
+        setHash(ordinal, itemHash(item));
+        appendLog(OP_SAVED, item.getId());
+    }
+
+    /**
+     * Записывает в журнал удаление экспоната.
+     *
+     * @param ordinal освобождённый порядковый номер
+     * @param item экспонат
+     */
+    synchronized void recordDeleted(int ordinal, MuseumItem item) {
+        setHash(ordinal, 0);
+        appendLog(OP_DELETED, item.getId());
+    }
+
+    /**
+     * Сериализует текущее состояние индекса. Вызывается под блокировкой
+     * сервиса поиска; запись на диск выполняется отдельно.
+     *
+     * @param filterIndex индекс фильтров
+     * @param scorer статистика релевантности
+     * @param columns числовые колонки
+     * @return снимок для записи
+     */
+    synchronized Snapshot capture(FilterIndex filterIndex, RelevanceScorer scorer, ExhibitColumns columns) {
+        int capacity = filterIndex.capacity();
+        Map<String, Integer> stringIds = new LinkedHashMap<>();
+        for (int ordinal = 0; ordinal < capacity; ordinal++) {
+            FilterKeys keys = filterIndex.keysAt(ordinal);
+            if (keys != null) {
+                stringIds.putIfAbsent(keys.getType(), stringIds.size());
+                if (keys.getHall() != null) {
+                    stringIds.putIfAbsent(keys.getHall(), stringIds.size());
+                }
+            }
+        }
+        List<byte[]> strings = new ArrayList<>(stringIds.size());
+        int stringBytes = 0;
+        for (String value : stringIds.keySet()) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            strings.add(bytes);
+            stringBytes += 4 + bytes.length;
+        }
+
+        ByteBuffer data = ByteBuffer.allocate(HEADER_SIZE + stringBytes + capacity * RECORD_SIZE + 4);
+        data.putInt(MAGIC)
+                .putInt(FORMAT_VERSION)
+                .putLong(checksum)
+                .putLong(sequence)
+                .putInt(capacity)
+                .putInt(strings.size());
+        for (byte[] bytes : strings) {
+            data.putInt(bytes.length).put(bytes);
+        }
+        for (int ordinal = 0; ordinal < capacity; ordinal++) {
+            MuseumItem item = filterIndex.get(ordinal);
+            FilterKeys keys = filterIndex.keysAt(ordinal);
+            if (item == null || keys == null || item.getId() == null) {
+                data.putLong(NO_ID).put((byte) -1).putInt(-1).putLong(NO_ID).putLong(NO_ID).putInt(-1)
+                        .putInt(0).putInt(0).putLong(0);
+                columns.writeRow(ordinal, data);
+                continue;
+            }
+            data.putLong(item.getId())
+                    .put((byte) (keys.getStatus() != null ? keys.getStatus().ordinal() : -1))
+                    .putInt(stringIds.get(keys.getType()))
+                    .putLong(keys.getCategoryId() != null ? keys.getCategoryId() : NO_ID)
+                    .putLong(keys.getAuthorId() != null ? keys.getAuthorId() : NO_ID)
+                    .putInt(keys.getHall() != null ? stringIds.get(keys.getHall()) : -1)
+                    .putInt(scorer.nameTokensAt(ordinal))
+                    .putInt(scorer.descriptionTokensAt(ordinal))
+                    .putLong(ordinal < ordinalHashes.length ? ordinalHashes[ordinal] : 0);
+            columns.writeRow(ordinal, data);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(data.array(), 0, data.position());
+        data.putInt((int) crc.getValue());
+        data.flip();
+        return new Snapshot(sequence, data);
+    }
+
+    /**
+     * Записывает снимок на диск. Каждая запись идёт в свой временный файл
+     * в том же каталоге, который затем атомарно заменяет прежний снимок,
+     * поэтому одновременные записи не портят друг друга. Снимок старше
+     * уже записанного отбрасывается. Журнал очищается, если после снимка
+     * не было изменений.
+     *
+     * @param snapshot снимок индекса
+     * @throws IOException при ошибке записи
+     */
+    void write(Snapshot snapshot) throws IOException {
+        Path directory = indexFile.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path tempFile = Files.createTempFile(directory, INDEX_FILE_NAME, ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+                ByteBuffer data = snapshot.data.duplicate();
+                while (data.hasRemaining()) {
+                    channel.write(data);
+                }
+                channel.force(true);
+            }
+            synchronized (this) {
+                if (snapshot.sequence < writtenSequence) {
+                    logger.debug("Устаревший снимок индекса поиска не записан: " + snapshot.sequence);
+                    return;
+                }
+                Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                writtenSequence = snapshot.sequence;
+                if (sequence == snapshot.sequence) {
+                    truncateLog();
+                }
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+        logger.info("Индекс поиска сохранён: " + indexFile + " (" + snapshot.data.limit() + " байт)");
+    }
+
+    /**
+     * Снимает и записывает снимок в фоновом потоке записи. Снимок снимается
+     * в этом же потоке, после ранее поставленных задач (например,
+     * перестройки индекса).
+     *
+     * @param capture снятие снимка
+     * @return задача записи
+     */
+    CompletableFuture<Void> writeAsync(Supplier<Snapshot> capture) {
+        return runInBackground(() -> {
+            try {
+                write(capture.get());
+            } catch (IOException e) {
+                logger.warn("Не удалось сохранить индекс поиска: " + e.getMessage());
+                throw new IllegalStateException("Ошибка записи индекса поиска", e);
+            }
+        });
+    }
+
+    /**
+     * Выполняет задачу в фоновом потоке записи (сверка и перестройка индекса).
+     * Задачи выполняются по одной в порядке постановки.
+     *
+     * @param task задача
+     * @return задача в очереди потока записи
+     */
+    CompletableFuture<Void> runInBackground(Runnable task) {
+        return CompletableFuture.runAsync(task, writer);
+    }
+
+    /**
+     * Останавливает фоновую запись, дожидаясь начатого сохранения снимка,
+     * и закрывает журнал.
+     */
+    public void shutdown() {
+        writer.shutdown();
+        try {
+            // Запись снимка берёт монитор хранилища, поэтому ждём её без него
+            if (!writer.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                logger.warn("Сохранение индекса поиска не завершилось за " + SHUTDOWN_TIMEOUT_SECONDS + " с");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            closeLog();
+        }
+    }
+
+    private void setHash(int ordinal, long hash) {
+        if (ordinal >= ordinalHashes.length) {
+            ordinalHashes = Arrays.copyOf(ordinalHashes, Math.max(ordinal + 1, ordinalHashes.length * 2));
+        }
+        checksum += hash - ordinalHashes[ordinal];
+        ordinalHashes[ordinal] = hash;
+    }
+
+    private void appendLog(byte operation, Long id) {
+        sequence++;
+        if (id == null) {
+            return;
+        }
+        try {
+            if (logChannel == null) {
+                Files.createDirectories(logFile.toAbsolutePath().getParent());
+                logChannel = FileChannel.open(logFile, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            }
+            ByteBuffer record = ByteBuffer.allocate(LOG_RECORD_SIZE)
+                    .put(operation)
+                    .putLong(sequence)
+                    .putLong(id)
+                    .putLong(checksum);
+            record.flip();
+            while (record.hasRemaining()) {
+                logChannel.write(record);
+            }
+        } catch (IOException e) {
+            // Без записи в журнал при следующем запуске не сойдётся контрольная сумма,
+            // и индекс будет построен заново
+            logger.warn("Не удалось дописать журнал индекса поиска: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Читает записи журнала новее снимка. Неполная последняя запись
+     * (обрыв при записи) отбрасывается.
+     *
+     * @return записи {операция, номер, ID, контрольная сумма}
+     */
+    private List<long[]> readLog(long afterSequence) throws IOException {
+        List<long[]> records = new ArrayList<>();
+        if (!Files.exists(logFile)) {
+            return records;
+        }
+        ByteBuffer log = ByteBuffer.wrap(Files.readAllBytes(logFile));
+        while (log.remaining() >= LOG_RECORD_SIZE) {
+            long[] record = {log.get(), log.getLong(), log.getLong(), log.getLong()};
+            if (record[1] > afterSequence) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    private void truncateLog() throws IOException {
+        closeLog();
+        Files.deleteIfExists(logFile);
+    }
+
+    private void closeLog() {
+        if (logChannel != null) {
+            try {
+                logChannel.close();
+            } catch (IOException e) {
+                logger.warn("Не удалось закрыть журнал индекса поиска: " + e.getMessage());
+            }
+            logChannel = null;
+        }
+    }
+
+    private static boolean crcMatches(ByteBuffer buffer) {
+        int length = buffer.capacity() - 4;
+        CRC32 crc = new CRC32();
+        ByteBuffer content = buffer.duplicate();
+        content.position(0).limit(length);
+        crc.update(content);
+        return (int) crc.getValue() == buffer.getInt(length);
+    }
+
+    private static int hashOf(Object value) {
+        return value != null ? value.hashCode() : 0;
+    }
+
+    /**
+     * Перемешивание битов (финализатор MurmurHash3), чтобы сумма хешей
+     * не теряла различия между экспонатами.
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Сериализованный снимок индекса.
+     */
+    static final class Snapshot {
+        private final long sequence;
+        private final ByteBuffer data;
+
+        private Snapshot(long sequence, ByteBuffer data) {
+            this.sequence = sequence;
+            this.data = data;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package kz.enu.museum.service;
+
+import java.util.List;
+
+import kz.enu.museum.model.MuseumItem;
+
+/**
+ * Страница расширенного поиска: экспонаты с позиции offset по релевантности,
+ * общее количество совпадений и счётчики фасетов для тех же совпадений.
+ * Совпадения за пределами страницы не сортируются и не материализуются.
+ * Снимок на момент запроса.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+public class SearchPage {
+
+    private final List<MuseumItem> items;
+    private final int offset;
+    private final int totalHits;
+    private final FacetCounts facets;
+
+    SearchPage(List<MuseumItem> items, int offset, int totalHits, FacetCounts facets) {
+        this.items = List.copyOf(items);
+        this.offset = offset;
+        this.totalHits = totalHits;
+        this.facets = facets;
+    }
+
+    /**
+     * Возвращает экспонаты страницы.
+     *
+     * @return экспонаты от самого релевантного (без текста - в порядке индекса)
+     */
+    public List<MuseumItem> getItems() {
+        return items;
+    }
+
+    /**
+     * Возвращает позицию первого экспоната страницы среди всех совпадений.
+     *
+     * @return количество совпадений на предыдущих страницах
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Возвращает общее количество совпадений.
+     *
+     * @return количество совпадений
+     */
+    public int getTotalHits() {
+        return totalHits;
+    }
+
+    /**
+     * Возвращает счётчики фасетов для запроса и выбранных фильтров.
+     *
+     * @return счётчики фасетов
+     */
+    public FacetCounts getFacets() {
+        return facets;
+    }
+
+    /**
+     * Проверяет, остались ли совпадения за пределами страницы.
+     *
+     * @return true если после этой страницы есть ещё совпадения
+     */
+    public boolean hasMore() {
+        return totalHits > offset + items.size();
+    }
+
+    @Override
+    public String toString() {
+        return "SearchPage{" + offset + "+" + items.size() + " из " + totalHits + "}";
+    }
+}
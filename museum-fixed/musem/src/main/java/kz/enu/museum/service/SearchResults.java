@@ -0,0 +1,134 @@
+package kz.enu.museum.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import kz.enu.museum.model.MuseumItem;
+
+/**
+ * Постраничная выдача ранжированного поиска.
+ * Найденные результаты складываются в двоичную кучу за O(n),
+ * а каждая следующая страница извлекается лениво за O(pageSize * log n).
+ * Если пользователь смотрит только первую страницу, остальные результаты
+ * так и не сортируются.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+public class SearchResults {
+
+    private final SearchHit[] heap;
+    private final int pageSize;
+    private final int totalHits;
+    private int size;
+
+    /**
+     * Конструктор выдачи.
+     *
+     * @param hits найденные результаты в произвольном порядке
+     * @param pageSize размер страницы
+     */
+    public SearchResults(List<SearchHit> hits, int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Размер страницы должен быть положительным числом");
+        }
+        this.heap = hits.toArray(new SearchHit[0]);
+        this.pageSize = pageSize;
+        this.totalHits = heap.length;
+        this.size = heap.length;
+
+        // Построение кучи снизу вверх - O(n)
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+
+    /**
+     * Возвращает следующую страницу результатов.
+     *
+     * @return список экспонатов (пустой, если результаты закончились)
+     */
+    public List<MuseumItem> nextPage() {
+        if (size == 0) {
+            return Collections.emptyList();
+        }
+
+        int count = Math.min(pageSize, size);
+        List<MuseumItem> page = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            page.add(poll().getItem());
+        }
+        return page;
+    }
+
+    /**
+     * Проверяет, остались ли непросмотренные результаты.
+     *
+     * @return true если есть следующая страница
+     */
+    public boolean hasMore() {
+        return size > 0;
+    }
+
+    /**
+     * Возвращает общее количество найденных результатов.
+     *
+     * @return количество результатов
+     */
+    public int getTotalHits() {
+        return totalHits;
+    }
+
+    /**
+     * Возвращает количество ещё не выданных результатов.
+     *
+     * @return количество оставшихся результатов
+     */
+    public int getRemaining() {
+        return size;
+    }
+
+    /**
+     * Извлекает все оставшиеся результаты в порядке релевантности.
+     *
+     * @return список экспонатов
+     */
+    public List<MuseumItem> drain() {
+        List<MuseumItem> rest = new ArrayList<>(size);
+        while (size > 0) {
+            rest.add(poll().getItem());
+        }
+        return rest;
+    }
+
+    private SearchHit poll() {
+        SearchHit top = heap[0];
+        size--;
+        heap[0] = heap[size];
+        heap[size] = null;
+        if (size > 0) {
+            siftDown(0);
+        }
+        return top;
+    }
+
+    private void siftDown(int index) {
+        SearchHit moving = heap[index];
+        int half = size / 2;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && SearchHit.BY_RELEVANCE.compare(heap[right], heap[child]) < 0) {
+                child = right;
+            }
+            if (SearchHit.BY_RELEVANCE.compare(moving, heap[child]) <= 0) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = moving;
+    }
+}
@@ -1,7 +1,19 @@
 package kz.enu.museum.service;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import org.apache.logging.log4j.LogManager;
@@ -9,22 +21,66 @@ import org.apache.logging.log4j.Logger;
 
 import kz.enu.museum.model.Artist;
 import kz.enu.museum.model.Category;
-import kz.enu.museum.model.Exhibit;
 import kz.enu.museum.model.MuseumItem;
 import kz.enu.museum.model.enums.ExhibitStatus;
+import kz.enu.museum.repository.ExhibitRepository;
+import kz.enu.museum.repository.RepositoryListener;
+import kz.enu.museum.util.OrdinalBitmap;
+import kz.enu.museum.util.SearchTextUtil;
+import kz.enu.museum.util.TopKHeap;
+import kz.enu.museum.util.VersionedLruCache;
 
 /**
  * Сервис для поиска и фильтрации экспонатов.
  * Предоставляет комплексные методы для поиска с использованием интерфейса Searchable.
+ * Методы синхронизированы: поиск может выполняться в фоновом потоке
+ * одновременно с изменением данных из потока интерфейса.
+ * Созданный по репозиторию сервис подписывается на его изменения
+ * и обновляет индексы и результаты постоянных запросов по одному
+ * экспонату, без полного перестроения.
  *
  * @author Есим Артём
  * @version 1.0
  * @since 2025
  */
-public class SearchService {
+public class SearchService implements RepositoryListener<MuseumItem> {
     
     private static final Logger logger = LogManager.getLogger(SearchService.class);
-    private final List<MuseumItem> exhibits;
+    
+    /** Размер кэша результатов по умолчанию. */
+    public static final int DEFAULT_CACHE_CAPACITY = 256;
+    
+    private static final int CANCELLATION_CHECK_MASK = 1023;
+    
+    private final ExhibitRepository repository;
+    // Индексы подменяются целиком после фоновой перестройки
+    private RelevanceScorer scorer = new RelevanceScorer();
+    private FilterIndex filterIndex = new FilterIndex();
+    private ExhibitColumns columns = new ExhibitColumns();
+    // Строится при первом запросе по размерам или стоимости
+    private DimensionIndex dimensionIndex;
+    private final VersionedLruCache<QueryKey, SearchPage> resultCache;
+    private final SearchIndexStore indexStore;
+    private final List<StandingQuery> standingQueries = new CopyOnWriteArrayList<>();
+    private ParallelSearchExecutor parallelExecutor = new ParallelSearchExecutor();
+    private long dataVersion;
+    
+    // Фоновая сверка и перестройка индекса при запуске
+    private final CompletableFuture<Void> indexReady;
+    private List<Runnable> pendingChanges;
+    private long indexGeneration;
+    
+    // Изменения репозитория, ещё не внесённые в индексы: слушатель только
+    // ставит их в очередь и не ждёт выполняющийся поиск
+    private final Queue<Runnable> queuedChanges = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    
+    // Состояние предыдущего запроса для инкрементального уточнения
+    private String lastQuery;
+    private OrdinalBitmap lastMatches;
+    private long lastVersion;
+    private long incrementalEvaluations;
+    private long fullEvaluations;
     
     /**
      * Конструктор сервиса.
@@ -32,26 +88,208 @@ public class SearchService {
      * @param exhibits список экспонатов для поиска
      */
     public SearchService(List<MuseumItem> exhibits) {
-        this.exhibits = exhibits != null ? exhibits : new ArrayList<>();
+        this(exhibits, DEFAULT_CACHE_CAPACITY);
+    }
+    
+    /**
+     * Конструктор сервиса с заданным размером кэша результатов.
+     *
+     * @param exhibits список экспонатов для поиска
+     * @param cacheCapacity максимальное количество запомненных запросов
+     */
+    public SearchService(List<MuseumItem> exhibits, int cacheCapacity) {
+        this(null, exhibits, cacheCapacity, null);
+    }
+    
+    /**
+     * Конструктор сервиса, следящего за репозиторием.
+     * Добавленные, изменённые и удалённые экспонаты сразу попадают в поиск.
+     *
+     * @param repository репозиторий экспонатов
+     */
+    public SearchService(ExhibitRepository repository) {
+        this(repository, DEFAULT_CACHE_CAPACITY);
+    }
+    
+    /**
+     * Конструктор сервиса, следящего за репозиторием, с заданным размером кэша.
+     *
+     * @param repository репозиторий экспонатов
+     * @param cacheCapacity максимальное количество запомненных запросов
+     */
+    public SearchService(ExhibitRepository repository, int cacheCapacity) {
+        this(repository, repository.findAll(), cacheCapacity, null);
+        repository.addListener(this);
+    }
+    
+    /**
+     * Конструктор сервиса, следящего за репозиторием, с индексом на диске.
+     * Сохранённый индекс загружается без повторной индексации и сразу
+     * используется для поиска; сверка с каталогом идёт в фоне. Если снимка
+     * нет или он не соответствует каталогу, индекс строится заново в фоне,
+     * а до окончания перестройки поиск работает по пустому или прежнему
+     * индексу (см. {@link #indexReady()}).
+     *
+     * @param repository репозиторий экспонатов
+     * @param indexStore хранилище индекса поиска
+     */
+    public SearchService(ExhibitRepository repository, SearchIndexStore indexStore) {
+        this(repository, repository.findAll(), DEFAULT_CACHE_CAPACITY, indexStore);
+        repository.addListener(this);
+    }
+    
+    private SearchService(ExhibitRepository repository, List<MuseumItem> exhibits, int cacheCapacity,
+                          SearchIndexStore indexStore) {
+        this.repository = repository;
+        this.resultCache = new VersionedLruCache<>(cacheCapacity);
+        this.indexStore = indexStore;
+        if (indexStore == null) {
+            rebuild(exhibits);
+            indexReady = CompletableFuture.completedFuture(null);
+            return;
+        }
+        boolean warm = indexStore.load(exhibits, filterIndex, scorer, columns) == SearchIndexStore.LoadStatus.WARM;
+        pendingChanges = new ArrayList<>();
+        long generation = indexGeneration;
+        indexReady = indexStore.runInBackground(() -> refreshIndex(exhibits, warm, generation));
+    }
+    
+    /**
+     * Сверяет загруженный индекс с каталогом и при расхождении строит его
+     * заново. Выполняется в потоке записи индекса: новый индекс строится
+     * без блокировки сервиса и подменяет прежний вместе с изменениями,
+     * пришедшими за время перестройки. Затем записывается новый снимок.
+     *
+     * @param exhibits каталог на момент создания сервиса
+     * @param warm индекс загружен из снимка
+     * @param generation поколение индекса на момент постановки задачи
+     */
+    private void refreshIndex(List<MuseumItem> exhibits, boolean warm, long generation) {
+        if (warm && indexStore.verify(exhibits)) {
+            synchronized (this) {
+                if (generation == indexGeneration) {
+                    pendingChanges = null;
+                }
+            }
+            return;
+        }
+        
+        long started = System.nanoTime();
+        RelevanceScorer freshScorer = new RelevanceScorer();
+        FilterIndex freshIndex = new FilterIndex();
+        ExhibitColumns freshColumns = new ExhibitColumns();
+        for (MuseumItem item : exhibits) {
+            int ordinal = freshIndex.add(item);
+            freshScorer.update(ordinal, item);
+            freshColumns.set(ordinal, item);
+        }
+        long[] hashes = SearchIndexStore.hashes(freshIndex);
+        
+        synchronized (this) {
+            if (generation != indexGeneration) {
+                // Индекс уже перестроен синхронно (новый каталог или очистка)
+                return;
+            }
+            scorer = freshScorer;
+            filterIndex = freshIndex;
+            columns = freshColumns;
+            dimensionIndex = null;
+            indexStore.reset(hashes);
+            List<Runnable> changes = pendingChanges;
+            pendingChanges = null;
+            changes.forEach(Runnable::run);
+            lastMatches = null;
+            dataVersion++;
+            reloadStandingQueries();
+            logger.info(String.format("Индекс поиска перестроен в фоне: %d экспонатов, %d изменений за %.1f мс",
+                    exhibits.size(), changes.size(), (System.nanoTime() - started) / 1e6));
+        }
+        try {
+            indexStore.write(captureIndex());
+        } catch (IOException e) {
+            logger.warn("Не удалось сохранить перестроенный индекс поиска: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Возвращает задачу фоновой сверки и перестройки индекса при запуске.
+     * До её завершения поиск может не видеть экспонаты, отсутствующие
+     * в сохранённом снимке.
+     *
+     * @return завершённая задача, если индекс актуален
+     */
+    public CompletableFuture<Void> indexReady() {
+        return indexReady;
     }
     
     /**
      * Простой поиск по всем полям.
+     * Результаты упорядочены по релевантности.
      *
      * @param query поисковый запрос
      * @return список найденных экспонатов
      */
-    public List<MuseumItem> search(String query) {
+    public synchronized List<MuseumItem> search(String query) {
+        applyQueuedChanges();
         if (query == null || query.isBlank()) {
-            return new ArrayList<>(exhibits);
+            return filterIndex.items();
         }
         
         logger.debug("Поиск: " + query);
-        return exhibits.stream()
-                .filter(item -> item.matchesSearch(query))
+        return new SearchResults(collectHits(filterIndex.items(), query), Integer.MAX_VALUE).drain();
+    }
+    
+    /**
+     * Поиск k самых релевантных экспонатов.
+     * Отбор идёт через ограниченную кучу, полный набор совпадений не сортируется.
+     *
+     * @param query поисковый запрос
+     * @param limit максимальное количество результатов
+     * @return список найденных экспонатов, от самого релевантного
+     */
+    public synchronized List<MuseumItem> search(String query, int limit) {
+        applyQueuedChanges();
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Количество результатов должно быть положительным числом");
+        }
+        if (query == null || query.isBlank()) {
+            return filterIndex.items().stream().limit(limit).collect(Collectors.toList());
+        }
+        
+        TopKHeap<SearchHit> top = new TopKHeap<>(limit, SearchHit.BY_RELEVANCE);
+        for (SearchHit hit : collectHits(filterIndex.items(), query)) {
+            top.offer(hit);
+        }
+        
+        logger.debug("Поиск top-" + limit + ": " + query);
+        return top.toSortedList().stream()
+                .map(SearchHit::getItem)
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Ранжированный поиск с постраничной выдачей.
+     * Следующие страницы извлекаются лениво, по мере обращения.
+     *
+     * @param query поисковый запрос
+     * @param pageSize размер страницы
+     * @return постраничная выдача
+     */
+    public synchronized SearchResults searchRanked(String query, int pageSize) {
+        applyQueuedChanges();
+        List<SearchHit> hits;
+        if (query == null || query.isBlank()) {
+            hits = filterIndex.items().stream()
+                    .map(item -> new SearchHit(item, 0))
+                    .collect(Collectors.toList());
+        } else {
+            hits = collectHits(filterIndex.items(), query);
+        }
+        
+        logger.debug("Ранжированный поиск: " + query + " (" + hits.size() + " совпадений)");
+        return new SearchResults(hits, pageSize);
+    }
+    
     /**
      * Комбинированный поиск с фильтрами.
      *
@@ -61,45 +299,360 @@ public class SearchService {
      * @param status статус
      * @return список найденных экспонатов
      */
-    public List<MuseumItem> advancedSearch(String query, Category category, Artist author, ExhibitStatus status) {
-        List<MuseumItem> result = new ArrayList<>(exhibits);
-        
-        // Фильтр по поисковому запросу
-        if (query != null && !query.isBlank()) {
-            result = result.stream()
-                    .filter(item -> item.matchesSearch(query))
-                    .collect(Collectors.toList());
+    public synchronized List<MuseumItem> advancedSearch(String query, Category category, Artist author, ExhibitStatus status) {
+        SearchFilter filter = new SearchFilter()
+                .addCategory(category)
+                .addAuthor(author)
+                .addStatus(status);
+        return advancedSearch(query, filter);
+    }
+    
+    /**
+     * Расширенный поиск по набору фильтров.
+     * Совпадения запроса пересекаются с битовыми множествами фильтров индекса.
+     *
+     * @param query поисковый запрос
+     * @param filter фильтры по статусу, категории, автору, типу и залу
+     * @return список найденных экспонатов
+     */
+    public synchronized List<MuseumItem> advancedSearch(String query, SearchFilter filter) {
+        return new ArrayList<>(searchPage(query, filter, Integer.MAX_VALUE).getItems());
+    }
+    
+    /**
+     * Расширенный поиск с выдачей первой страницы.
+     * Совпадения отбираются так же, как в {@link #advancedSearch(String, SearchFilter)},
+     * но ранжируются через ограниченную кучу: сортируются только pageSize
+     * лучших, остальные лишь подсчитываются. Счётчики фасетов считаются
+     * по тем же совпадениям запроса, поэтому страница целиком готовится
+     * в потоке поиска.
+     *
+     * @param query поисковый запрос (обычный текст или структурированный)
+     * @param filter фильтры по статусу, категории, автору, типу и залу
+     * @param pageSize размер страницы
+     * @return первая страница, общее количество совпадений и фасеты
+     */
+    public SearchPage searchPage(String query, SearchFilter filter, int pageSize) {
+        return searchPage(query, filter, 0, pageSize);
+    }
+    
+    /**
+     * Расширенный поиск с выдачей страницы, начиная с заданной позиции
+     * в порядке релевантности. Куча держит offset + pageSize лучших,
+     * поэтому следующие страницы запрашиваются с тем же запросом и фильтрами.
+     *
+     * @param query поисковый запрос (обычный текст или структурированный)
+     * @param filter фильтры по статусу, категории, автору, типу и залу
+     * @param offset количество уже показанных совпадений
+     * @param pageSize размер страницы
+     * @return страница, общее количество совпадений и фасеты
+     */
+    public synchronized SearchPage searchPage(String query, SearchFilter filter, int offset, int pageSize) {
+        applyQueuedChanges();
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Размер страницы должен быть положительным числом");
         }
-        
-        // Фильтр по категории
-        if (category != null) {
-            result = result.stream()
-                    .filter(item -> item instanceof Exhibit)
-                    .map(item -> (Exhibit) item)
-                    .filter(exhibit -> exhibit.getCategory() != null && 
-                            exhibit.getCategory().getId().equals(category.getId()))
-                    .collect(Collectors.toList());
+        if (offset < 0) {
+            throw new IllegalArgumentException("Смещение страницы не может быть отрицательным: " + offset);
         }
+        String normalized = SearchTextUtil.normalizeQuery(query);
+        QueryKey key = new QueryKey(normalized, filter, offset, pageSize);
         
-        // Фильтр по автору
-        if (author != null) {
-            result = result.stream()
-                    .filter(item -> item instanceof Exhibit)
-                    .map(item -> (Exhibit) item)
-                    .filter(exhibit -> exhibit.getAuthor() != null && 
-                            exhibit.getAuthor().getId().equals(author.getId()))
-                    .collect(Collectors.toList());
+        SearchPage cached = resultCache.get(key, dataVersion);
+        if (cached != null) {
+            logger.debug("Расширенный поиск: результат из кэша (" + cached + ")");
+            return cached;
         }
         
-        // Фильтр по статусу
-        if (status != null) {
-            result = result.stream()
-                    .filter(item -> item.getStatus() == status)
-                    .collect(Collectors.toList());
+        QueryPlan plan = structuredPlan(normalized);
+        OrdinalBitmap queryMatches = matchQuery(plan, normalized);
+        String text = plan != null ? plan.getText() : normalized;
+        OrdinalBitmap matches = queryMatches != null
+                ? OrdinalBitmap.and(queryMatches, filterIndex.evaluate(filter))
+                : filterIndex.evaluate(filter);
+        FacetCounts facets = filterIndex.facets(queryMatches, filter, Integer.MAX_VALUE);
+        
+        List<MuseumItem> ranked = rank(matches, text, (int) Math.min((long) offset + pageSize, Integer.MAX_VALUE));
+        List<MuseumItem> items = ranked.subList(Math.min(offset, ranked.size()), ranked.size());
+        SearchPage page = new SearchPage(items, offset, matches.cardinality(), facets);
+        resultCache.put(key, page, dataVersion);
+        logger.debug("Расширенный поиск: найдено " + page.getTotalHits() + " результатов");
+        return page;
+    }
+    
+    /**
+     * Выполняет структурированный запрос, например
+     * {@code status:ON_DISPLAY author:"Моне" year:1880..1910 value>1000000 type:Painting}.
+     *
+     * @param query текст запроса
+     * @return найденные экспонаты (при наличии текста - по релевантности)
+     * @throws IllegalArgumentException если запрос содержит ошибку
+     */
+    public synchronized List<MuseumItem> query(String query) {
+        return explain(query).getResults();
+    }
+    
+    /**
+     * Выполняет структурированный запрос и возвращает его план
+     * с количеством строк и временем каждого шага.
+     *
+     * @param query текст запроса
+     * @return выполненный план (результаты - {@link QueryPlan#getResults()})
+     * @throws IllegalArgumentException если запрос содержит ошибку
+     */
+    public synchronized QueryPlan explain(String query) {
+        applyQueuedChanges();
+        QueryPlan plan = QueryPlan.compile(query, QueryParser.parse(query), filterIndex, dimensions(), columns);
+        plan.execute(filterIndex, scorer, parallelExecutor, new SearchFilter());
+        logger.debug(plan.explain());
+        return plan;
+    }
+    
+    /**
+     * Регистрирует постоянный запрос (сохранённое представление).
+     * Запрос выполняется один раз по индексам, после чего результат
+     * поддерживается проверкой каждого изменённого экспоната по условию
+     * запроса; получатель узнаёт о добавленных и выбывших экспонатах.
+     * Авторы, категории и залы проверяются по значениям условий, поэтому
+     * в результат попадают и появившиеся позже художники, категории и залы.
+     *
+     * @param query текст запроса (структурированный или обычный текст)
+     * @param listener получатель изменений
+     * @return постоянный запрос с текущим результатом
+     * @throws IllegalArgumentException если запрос содержит ошибку
+     */
+    public synchronized StandingQuery registerStandingQuery(String query, StandingQueryListener listener) {
+        applyQueuedChanges();
+        if (listener == null) {
+            throw new IllegalArgumentException("Получатель изменений не может быть null");
+        }
+        QueryPlan plan = QueryPlan.compile(query, QueryParser.parse(query), filterIndex, dimensions(), columns);
+        List<MuseumItem> initial = plan.execute(filterIndex, scorer, parallelExecutor, null);
+        StandingQuery standing = new StandingQuery(this, query, plan.matcher(), listener, initial);
+        standingQueries.add(standing);
+        logger.debug("Постоянный запрос зарегистрирован: " + query + " (" + initial.size() + " экспонатов)");
+        return standing;
+    }
+    
+    /**
+     * Прекращает поддержку постоянного запроса.
+     *
+     * @param standing постоянный запрос
+     */
+    public synchronized void unregisterStandingQuery(StandingQuery standing) {
+        if (standingQueries.remove(standing)) {
+            logger.debug("Постоянный запрос снят: " + standing.getQuery());
+        }
+    }
+    
+    /**
+     * Возвращает количество зарегистрированных постоянных запросов.
+     *
+     * @return количество запросов
+     */
+    public int getStandingQueryCount() {
+        return standingQueries.size();
+    }
+    
+    /**
+     * Передаёт получателям постоянных запросов разницу после изменения каталога.
+     * Ошибка одного получателя не мешает остальным и не отменяет изменение.
+     */
+    private void notifyStandingQueries(Function<StandingQuery, StandingQuery.Delta> change) {
+        for (StandingQuery standing : standingQueries) {
+            StandingQuery.Delta delta = change.apply(standing);
+            if (delta == null) {
+                continue;
+            }
+            try {
+                standing.getListener().onChange(standing, delta);
+            } catch (RuntimeException e) {
+                logger.error("Ошибка получателя постоянного запроса: " + standing.getQuery(), e);
+            }
+        }
+    }
+    
+    /**
+     * Находит картины, ближайшие по размеру к заданному
+     * (например, для подбора витрины или рамы).
+     *
+     * @param width ширина, см
+     * @param height высота, см
+     * @param limit количество картин
+     * @return картины от самой близкой по размеру
+     */
+    public synchronized List<MuseumItem> nearestPaintings(double width, double height, int limit) {
+        applyQueuedChanges();
+        return dimensions().nearestPaintings(width, height, limit);
+    }
+    
+    /**
+     * Находит скульптуры, ближайшие по весу и высоте к заданным.
+     *
+     * @param weight вес, кг
+     * @param height высота, см
+     * @param limit количество скульптур
+     * @return скульптуры от самой близкой по размеру
+     */
+    public synchronized List<MuseumItem> nearestSculptures(double weight, double height, int limit) {
+        applyQueuedChanges();
+        return dimensions().nearestSculptures(weight, height, limit);
+    }
+    
+    /**
+     * Компилирует запрос из строки поиска, если он структурированный.
+     * Незавершённый или некорректный запрос (пользователь ещё печатает)
+     * ищется как обычный текст.
+     *
+     * @param normalized нормализованный запрос
+     * @return план или null для обычного текстового запроса
+     */
+    private QueryPlan structuredPlan(String normalized) {
+        try {
+            QueryParser.ParsedQuery parsed = QueryParser.parse(normalized);
+            return parsed.isStructured() ? QueryPlan.compile(normalized, parsed, filterIndex, dimensions(), columns) : null;
+        } catch (IllegalArgumentException e) {
+            logger.debug("Запрос ищется как текст: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Подсчитывает количество экспонатов под фильтрами.
+     * Без запроса результат берётся из мощности битового множества,
+     * список экспонатов не строится.
+     *
+     * @param query поисковый запрос
+     * @param filter фильтры
+     * @return количество найденных экспонатов
+     */
+    public synchronized int countMatches(String query, SearchFilter filter) {
+        applyQueuedChanges();
+        OrdinalBitmap matching = filterIndex.evaluate(filter);
+        if (query == null || query.isBlank()) {
+            return matching.cardinality();
         }
         
-        logger.debug("Расширенный поиск: найдено " + result.size() + " результатов");
-        return result;
+        String normalized = SearchTextUtil.normalizeQuery(query);
+        int count = 0;
+        for (int ordinal : matching.toArray()) {
+            if (filterIndex.get(ordinal).matchesNormalizedSearch(normalized)) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Подсчитывает количество экспонатов по значениям фасетов для запроса.
+     * Вместо отдельного поиска на каждое значение выполняется один проход
+     * по экспонатам, подходящим под запрос (для структурированного запроса -
+     * по множеству его плана); без запроса и фильтров счётчики берутся
+     * из индекса напрямую.
+     *
+     * @param query поисковый запрос
+     * @param filter выбранные фильтры
+     * @param topN количество значений на фасет
+     * @return счётчики фасетов
+     */
+    public synchronized FacetCounts facetCounts(String query, SearchFilter filter, int topN) {
+        applyQueuedChanges();
+        String normalized = SearchTextUtil.normalizeQuery(query);
+        OrdinalBitmap queryMatches = matchQuery(structuredPlan(normalized), normalized);
+        FacetCounts counts = filterIndex.facets(queryMatches, filter, topN);
+        logger.debug("Фасеты для '" + normalized + "': " + counts);
+        return counts;
+    }
+    
+    /**
+     * Поиск по произвольному условию, которое нельзя ответить по индексу.
+     * Большой каталог проверяется параллельно, порядок результатов
+     * совпадает с последовательной проверкой.
+     *
+     * @param predicate условие (вызывается из нескольких потоков)
+     * @return список подходящих экспонатов
+     */
+    public List<MuseumItem> findWhere(Predicate<? super MuseumItem> predicate) {
+        return findWhere(predicate, Integer.MAX_VALUE);
+    }
+    
+    /**
+     * Поиск первых limit экспонатов по произвольному условию.
+     * Как только набрано нужное количество, оставшиеся блоки каталога не проверяются.
+     *
+     * @param predicate условие (вызывается из нескольких потоков)
+     * @param limit максимальное количество результатов
+     * @return список подходящих экспонатов
+     */
+    public List<MuseumItem> findWhere(Predicate<? super MuseumItem> predicate, int limit) {
+        if (predicate == null) {
+            throw new IllegalArgumentException("Условие поиска не может быть null");
+        }
+        List<MuseumItem> snapshot;
+        ParallelSearchExecutor executor;
+        synchronized (this) {
+            applyQueuedChanges();
+            snapshot = filterIndex.items();
+            executor = parallelExecutor;
+        }
+        // Проверка идёт по снимку без блокировки сервиса
+        return executor.filter(snapshot, predicate, limit);
+    }
+    
+    /**
+     * Поиск по регулярному выражению в названии, описании и инвентарном номере.
+     *
+     * @param regex регулярное выражение (без учёта регистра)
+     * @param limit максимальное количество результатов
+     * @return список найденных экспонатов
+     * @throws IllegalArgumentException если выражение некорректно
+     */
+    public List<MuseumItem> findByPattern(String regex, int limit) {
+        if (regex == null || regex.isBlank()) {
+            return new ArrayList<>();
+        }
+        Pattern pattern = Pattern.compile(regex, Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+        return findWhere(item -> find(pattern, item.getName())
+                || find(pattern, item.getDescription())
+                || find(pattern, item.getInventoryNumber()), limit);
+    }
+    
+    private static boolean find(Pattern pattern, String text) {
+        return text != null && pattern.matcher(text).find();
+    }
+    
+    /**
+     * Заменяет исполнитель параллельного поиска (например, с другим числом потоков).
+     * Пул прежнего исполнителя останавливается.
+     *
+     * @param executor новый исполнитель
+     */
+    public synchronized void setParallelExecutor(ParallelSearchExecutor executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("Исполнитель не может быть null");
+        }
+        if (executor != parallelExecutor) {
+            parallelExecutor.shutdown();
+            parallelExecutor = executor;
+        }
+    }
+    
+    public synchronized ParallelSearchExecutor getParallelExecutor() {
+        return parallelExecutor;
+    }
+    
+    /**
+     * Освобождает ресурсы сервиса при закрытии приложения: останавливает
+     * пул параллельного поиска и хранилище индекса (после записи
+     * уже начатого снимка).
+     */
+    public void shutdown() {
+        synchronized (this) {
+            parallelExecutor.shutdown();
+        }
+        if (indexStore != null) {
+            indexStore.shutdown();
+        }
     }
     
     /**
@@ -109,14 +662,9 @@ public class SearchService {
      * @param endYear конечный год
      * @return список экспонатов в диапазоне лет
      */
-    public List<MuseumItem> findByCreationPeriod(int startYear, int endYear) {
-        return exhibits.stream()
-                .filter(item -> item.getCreationDate() != null)
-                .filter(item -> {
-                    int year = item.getCreationDate().getYear();
-                    return year >= startYear && year <= endYear;
-                })
-                .collect(Collectors.toList());
+    public synchronized List<MuseumItem> findByCreationPeriod(int startYear, int endYear) {
+        applyQueuedChanges();
+        return scan(new ColumnFilter().creationYears(startYear, endYear));
     }
     
     /**
@@ -126,14 +674,32 @@ public class SearchService {
      * @param endYear конечный год
      * @return список экспонатов в диапазоне лет
      */
-    public List<MuseumItem> findByAcquisitionPeriod(int startYear, int endYear) {
-        return exhibits.stream()
-                .filter(item -> item.getAcquisitionDate() != null)
-                .filter(item -> {
-                    int year = item.getAcquisitionDate().getYear();
-                    return year >= startYear && year <= endYear;
-                })
-                .collect(Collectors.toList());
+    public synchronized List<MuseumItem> findByAcquisitionPeriod(int startYear, int endYear) {
+        applyQueuedChanges();
+        return scan(new ColumnFilter().acquisitionYears(startYear, endYear));
+    }
+    
+    /**
+     * Поиск по статусу, годам и стоимости проходом по числовым колонкам.
+     * Объекты экспонатов читаются только для найденных строк.
+     *
+     * @param filter условия
+     * @return найденные экспонаты в порядке индекса
+     */
+    public synchronized List<MuseumItem> scan(ColumnFilter filter) {
+        applyQueuedChanges();
+        return filterIndex.materialize(columns.scan(filter));
+    }
+    
+    /**
+     * Считает экспонаты, подходящие под условия по числовым колонкам.
+     *
+     * @param filter условия
+     * @return количество экспонатов
+     */
+    public synchronized int countScan(ColumnFilter filter) {
+        applyQueuedChanges();
+        return columns.count(filter);
     }
     
     /**
@@ -142,12 +708,13 @@ public class SearchService {
      * @param code начало инвентарного номера
      * @return список найденных экспонатов
      */
-    public List<MuseumItem> findByInventoryNumberStart(String code) {
+    public synchronized List<MuseumItem> findByInventoryNumberStart(String code) {
+        applyQueuedChanges();
         if (code == null || code.isBlank()) {
             return new ArrayList<>();
         }
         
-        return exhibits.stream()
+        return filterIndex.items().stream()
                 .filter(item -> item.getInventoryNumber().startsWith(code))
                 .collect(Collectors.toList());
     }
@@ -157,10 +724,460 @@ public class SearchService {
      *
      * @param newExhibits новый список экспонатов
      */
-    public void updateExhibits(List<MuseumItem> newExhibits) {
-        exhibits.clear();
-        if (newExhibits != null) {
-            exhibits.addAll(newExhibits);
+    public synchronized void updateExhibits(List<MuseumItem> newExhibits) {
+        applyQueuedChanges();
+        rebuild(newExhibits);
+        dataVersion++;
+        reloadStandingQueries();
+    }
+    
+    /**
+     * Индексирует добавленный или изменённый экспонат.
+     * Обновляются только множества старых и новых значений его полей
+     * и статистика релевантности по этому экспонату. Изменение ставится
+     * в очередь без блокировки сервиса и вносится в индексы в начале
+     * следующего обращения к ним (при хранилище индекса - ещё и в потоке
+     * записи, чтобы изменение попало в журнал), поэтому сохранение не ждёт
+     * фоновый поиск. Постоянные запросы проверяются сразу, по самому экспонату.
+     *
+     * @param item сохранённый экспонат
+     */
+    @Override
+    public void onSaved(MuseumItem item) {
+        queuedChanges.add(() -> {
+            index(item);
+            if (pendingChanges != null) {
+                pendingChanges.add(() -> index(item));
+            }
+            logger.debug("Индекс поиска обновлён: " + item.getName() + " (ID: " + item.getId() + ")");
+        });
+        scheduleFlush();
+        notifyStandingQueries(standing -> standing.saved(item));
+    }
+    
+    /**
+     * Удаляет экспонат из индексов поиска (через очередь изменений,
+     * как {@link #onSaved(MuseumItem)}).
+     *
+     * @param item удалённый экспонат
+     */
+    @Override
+    public void onDeleted(MuseumItem item) {
+        queuedChanges.add(() -> {
+            unindex(item);
+            if (pendingChanges != null) {
+                pendingChanges.add(() -> unindex(item));
+            }
+            logger.debug("Экспонат удалён из индекса поиска (ID: " + item.getId() + ")");
+        });
+        scheduleFlush();
+        notifyStandingQueries(standing -> standing.deleted(item));
+    }
+    
+    /**
+     * Ставит внесение очереди изменений в поток записи индекса; пока задача
+     * не выполнена, новые изменения её не дублируют. Без хранилища изменения
+     * вносятся при следующем обращении к индексам.
+     */
+    private void scheduleFlush() {
+        if (indexStore == null || !flushScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            indexStore.runInBackground(() -> {
+                flushScheduled.set(false);
+                synchronized (this) {
+                    applyQueuedChanges();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Хранилище уже остановлено: изменения останутся в очереди до обращения к индексам
+            flushScheduled.set(false);
+        }
+    }
+    
+    /**
+     * Вносит в индексы изменения из очереди, в порядке поступления.
+     * Вызывается под блокировкой сервиса перед каждым обращением к индексам.
+     */
+    private void applyQueuedChanges() {
+        Runnable change;
+        while ((change = queuedChanges.poll()) != null) {
+            change.run();
+            dataVersion++;
+        }
+    }
+    
+    private void index(MuseumItem item) {
+        int ordinal = filterIndex.add(item);
+        scorer.update(ordinal, item);
+        if (dimensionIndex != null) {
+            dimensionIndex.add(item);
+        }
+        columns.set(ordinal, item);
+        if (indexStore != null) {
+            indexStore.recordSaved(ordinal, item);
+        }
+    }
+    
+    private void unindex(MuseumItem item) {
+        int ordinal = filterIndex.remove(item);
+        if (dimensionIndex != null) {
+            dimensionIndex.remove(item);
+        }
+        if (ordinal >= 0) {
+            scorer.remove(ordinal);
+            columns.clear(ordinal);
+            if (indexStore != null) {
+                indexStore.recordDeleted(ordinal, item);
+            }
+        }
+    }
+    
+    /**
+     * Возвращает индекс размеров и стоимости, при первом обращении
+     * строит его по числовым полям экспонатов (текст не разбирается).
+     * Индекс не сохраняется в снимке, поэтому запуск его не строит.
+     *
+     * @return индекс размеров и стоимости
+     */
+    private DimensionIndex dimensions() {
+        if (dimensionIndex == null) {
+            dimensionIndex = new DimensionIndex();
+            dimensionIndex.rebuild(filterIndex.items());
+        }
+        return dimensionIndex;
+    }
+    
+    /**
+     * Очищает индексы поиска вслед за репозиторием (через очередь изменений,
+     * как {@link #onSaved(MuseumItem)}).
+     */
+    @Override
+    public void onCleared() {
+        queuedChanges.add(() -> rebuild(null));
+        scheduleFlush();
+        notifyStandingQueries(standing -> standing.reload(List.of()));
+    }
+    
+    private void reloadStandingQueries() {
+        if (!standingQueries.isEmpty()) {
+            List<MuseumItem> catalog = filterIndex.items();
+            notifyStandingQueries(standing -> standing.reload(catalog));
+        }
+    }
+    
+    /**
+     * Сохраняет снимок индекса на диск (например, при выходе из приложения
+     * после сохранения каталога). Журнал изменений при этом очищается.
+     *
+     * @throws IOException при ошибке записи
+     * @throws IllegalStateException если сервис создан без хранилища индекса
+     */
+    public void saveIndex() throws IOException {
+        requireIndexStore().write(captureIndex());
+    }
+    
+    /**
+     * Сохраняет снимок индекса в фоновом потоке, после ранее поставленных
+     * фоновых задач (например, перестройки при запуске). Поиск блокируется
+     * только на время снятия снимка, но не записи.
+     *
+     * @return задача записи
+     * @throws IllegalStateException если сервис создан без хранилища индекса
+     */
+    public CompletableFuture<Void> saveIndexInBackground() {
+        return requireIndexStore().writeAsync(this::captureIndex);
+    }
+    
+    public SearchIndexStore getIndexStore() {
+        return indexStore;
+    }
+    
+    private synchronized SearchIndexStore.Snapshot captureIndex() {
+        applyQueuedChanges();
+        return requireIndexStore().capture(filterIndex, scorer, columns);
+    }
+    
+    private SearchIndexStore requireIndexStore() {
+        if (indexStore == null) {
+            throw new IllegalStateException("Сервис поиска создан без хранилища индекса");
+        }
+        return indexStore;
+    }
+    
+    /**
+     * Сверяет индексы поиска с репозиторием, за которым следит сервис.
+     *
+     * @return список расхождений (пустой, если индексы актуальны)
+     * @throws IllegalStateException если сервис создан не по репозиторию
+     */
+    public List<String> checkConsistency() {
+        if (repository == null) {
+            throw new IllegalStateException("Сервис поиска не связан с репозиторием");
+        }
+        return checkConsistency(repository.findAll());
+    }
+    
+    /**
+     * Сверяет индексы поиска с эталонным набором экспонатов:
+     * состав, значения фильтруемых полей и статистику релевантности.
+     *
+     * @param source эталонный набор экспонатов
+     * @return список расхождений (пустой, если индексы актуальны)
+     */
+    public synchronized List<String> checkConsistency(Collection<MuseumItem> source) {
+        applyQueuedChanges();
+        List<String> problems = new ArrayList<>();
+        if (filterIndex.size() != source.size()) {
+            problems.add("Количество экспонатов: в индексе " + filterIndex.size() + ", в источнике " + source.size());
+        }
+        for (MuseumItem item : source) {
+            int ordinal = filterIndex.ordinalOf(item);
+            if (ordinal < 0) {
+                problems.add("Экспонат не проиндексирован: " + item.getName() + " (ID: " + item.getId() + ")");
+            } else if (!filterIndex.isConsistent(item)) {
+                problems.add("Устаревшие фильтры экспоната: " + item.getName() + " (ID: " + item.getId() + ")");
+            } else if (!scorer.isConsistent(ordinal, item)) {
+                problems.add("Устаревшая статистика релевантности: " + item.getName() + " (ID: " + item.getId() + ")");
+            }
+        }
+        return problems;
+    }
+    
+    /**
+     * Возвращает версию данных поиска.
+     * Растёт при каждом изменении набора экспонатов.
+     *
+     * @return номер версии
+     */
+    public synchronized long getDataVersion() {
+        applyQueuedChanges();
+        return dataVersion;
+    }
+    
+    /**
+     * Возвращает кэш результатов расширенного поиска
+     * (для просмотра статистики попаданий и промахов).
+     *
+     * @return кэш результатов
+     */
+    public VersionedLruCache<?, ?> getResultCache() {
+        return resultCache;
+    }
+    
+    /**
+     * Отбирает совпадения запроса без учёта фильтров интерфейса: фильтры
+     * пересекаются с результатом отдельно, а сам результат нужен ещё
+     * и для фасетов. Структурированный запрос выполняется по плану.
+     * Если текст дополняет предыдущий запрос и данные не менялись,
+     * проверяются только предыдущие совпадения - стоимость пропорциональна
+     * прошлому результату, а не всему каталогу.
+     *
+     * @param plan план структурированного запроса или null для текста
+     * @param normalized нормализованный запрос
+     * @return номера совпадений или null для пустого запроса (все экспонаты)
+     */
+    private OrdinalBitmap matchQuery(QueryPlan plan, String normalized) {
+        if (plan != null) {
+            OrdinalBitmap matches = plan.match(filterIndex, parallelExecutor, null);
+            logger.debug(plan.explain());
+            return matches;
+        }
+        if (normalized.isEmpty()) {
+            return null;
+        }
+        
+        OrdinalBitmap candidates;
+        if (refines(normalized)) {
+            candidates = lastMatches;
+            incrementalEvaluations++;
+        } else {
+            candidates = filterIndex.evaluate(new SearchFilter());
+            fullEvaluations++;
+        }
+        OrdinalBitmap matches = new OrdinalBitmap();
+        int[] checked = {0};
+        candidates.forEach(ordinal -> {
+            checkCancelled(++checked[0], normalized);
+            if (filterIndex.get(ordinal).matchesNormalizedSearch(normalized)) {
+                matches.add(ordinal);
+            }
+        });
+        
+        lastQuery = normalized;
+        lastMatches = matches;
+        lastVersion = dataVersion;
+        return matches;
+    }
+    
+    /**
+     * Упорядочивает совпадения: с текстом - по релевантности, причём при
+     * ограниченной странице через кучу на limit элементов; без текста -
+     * в порядке индекса, материализуются только первые limit.
+     *
+     * @param matches номера совпадений
+     * @param text нормализованный текст запроса
+     * @param limit размер страницы
+     * @return экспонаты страницы
+     */
+    private List<MuseumItem> rank(OrdinalBitmap matches, String text, int limit) {
+        if (text.isEmpty()) {
+            List<MuseumItem> page = new ArrayList<>();
+            for (int ordinal : matches.toArray(limit)) {
+                page.add(filterIndex.get(ordinal));
+            }
+            return page;
+        }
+        
+        List<String> terms = SearchTextUtil.tokenize(text);
+        List<SearchHit> hits = new ArrayList<>();
+        TopKHeap<SearchHit> top = limit < matches.cardinality() ? new TopKHeap<>(limit, SearchHit.BY_RELEVANCE) : null;
+        int[] scored = {0};
+        matches.forEach(ordinal -> {
+            checkCancelled(++scored[0], text);
+            MuseumItem item = filterIndex.get(ordinal);
+            SearchHit hit = new SearchHit(item, scorer.score(item, text, terms));
+            if (top != null) {
+                top.offer(hit);
+            } else {
+                hits.add(hit);
+            }
+        });
+        if (top == null) {
+            return new SearchResults(hits, Integer.MAX_VALUE).drain();
+        }
+        List<MuseumItem> page = new ArrayList<>(top.size());
+        for (SearchHit hit : top.toSortedList()) {
+            page.add(hit.getItem());
+        }
+        return page;
+    }
+    
+    /**
+     * Прерванный (устаревший) фоновый поиск останавливается досрочно.
+     */
+    private static void checkCancelled(int checked, String query) {
+        if ((checked & CANCELLATION_CHECK_MASK) == 0 && Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Поиск отменён: " + query);
+        }
+    }
+    
+    /**
+     * Проверяет, является ли запрос уточнением предыдущего.
+     * Совпадение ищется как подстрока, поэтому любой запрос, содержащий
+     * предыдущий, может совпасть только с подмножеством прошлых результатов.
+     *
+     * @param normalized нормализованный запрос
+     * @return true если можно сузить прошлый результат
+     */
+    private boolean refines(String normalized) {
+        return lastMatches != null
+                && lastVersion == dataVersion
+                && normalized.contains(lastQuery);
+    }
+    
+    /**
+     * Возвращает количество расчётов, выполненных сужением прошлого результата.
+     *
+     * @return количество инкрементальных расчётов
+     */
+    public synchronized long getIncrementalEvaluationCount() {
+        return incrementalEvaluations;
+    }
+    
+    /**
+     * Возвращает количество полных расчётов по всему каталогу.
+     *
+     * @return количество полных расчётов
+     */
+    public synchronized long getFullEvaluationCount() {
+        return fullEvaluations;
+    }
+    
+    /**
+     * Перестраивает индексы поиска по новому набору экспонатов.
+     *
+     * @param exhibits экспонаты (null - пустой набор)
+     */
+    private void rebuild(Collection<MuseumItem> exhibits) {
+        filterIndex.clear();
+        scorer.clear();
+        if (exhibits != null) {
+            for (MuseumItem item : exhibits) {
+                scorer.update(filterIndex.add(item), item);
+            }
+        }
+        dimensionIndex = null;
+        rebuildColumns();
+        indexGeneration++;
+        pendingChanges = null;
+        if (indexStore != null) {
+            indexStore.reset(filterIndex);
+        }
+    }
+
+    /**
+     * Заполняет колонки числовых полей по порядковым номерам индекса фильтров.
+     */
+    private void rebuildColumns() {
+        columns.reset();
+        for (int ordinal = 0; ordinal < filterIndex.capacity(); ordinal++) {
+            MuseumItem item = filterIndex.get(ordinal);
+            if (item != null) {
+                columns.set(ordinal, item);
+            }
+        }
+    }
+    
+    /**
+     * Отбирает совпадения с запросом и вычисляет их релевантность.
+     *
+     * @param candidates экспонаты-кандидаты
+     * @param query поисковый запрос
+     * @return список совпадений с оценками (без сортировки)
+     */
+    private List<SearchHit> collectHits(Collection<MuseumItem> candidates, String query) {
+        String normalized = SearchTextUtil.normalize(query);
+        List<String> terms = SearchTextUtil.tokenize(normalized);
+        
+        List<SearchHit> hits = new ArrayList<>();
+        for (MuseumItem item : candidates) {
+            if (item.matchesNormalizedSearch(normalized)) {
+                hits.add(new SearchHit(item, scorer.score(item, normalized, terms)));
+            }
+        }
+        return hits;
+    }
+    
+    /**
+     * Ключ кэша: нормализованный запрос, снимок фильтров, смещение и размер страницы.
+     */
+    private static final class QueryKey {
+        private final String query;
+        private final SearchFilter filter;
+        private final int offset;
+        private final int limit;
+        
+        private QueryKey(String query, SearchFilter filter, int offset, int limit) {
+            this.query = query;
+            this.filter = filter.copy();
+            this.offset = offset;
+            this.limit = limit;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof QueryKey)) return false;
+            QueryKey other = (QueryKey) o;
+            return offset == other.offset && limit == other.limit && query.equals(other.query)
+                    && filter.equals(other.filter);
+        }
+        
+        @Override
+        public int hashCode() {
+            return 31 * (31 * (31 * query.hashCode() + filter.hashCode()) + offset) + limit;
         }
     }
 }
@@ -0,0 +1,382 @@
+package kz.enu.museum.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import kz.enu.museum.model.Artifact;
+import kz.enu.museum.model.Exhibit;
+import kz.enu.museum.model.MuseumItem;
+import kz.enu.museum.repository.ExhibitRepository;
+import kz.enu.museum.repository.RepositoryListener;
+import kz.enu.museum.util.SearchTextUtil;
+import kz.enu.museum.util.TopKHeap;
+
+/**
+ * Поиск похожих экспонатов.
+ * Для каждого экспоната хранится MinHash-сигнатура множества его признаков
+ * (слова названия и описания, автор, категория, период), разбитая на полосы (LSH).
+ * Кандидатами считаются только экспонаты, совпавшие с образцом хотя бы в одной полосе,
+ * поэтому запрос не сравнивает образец со всем каталогом. Кандидаты упорядочиваются
+ * по сходству TF-IDF векторов текста с добавкой за общего автора, категорию и период.
+ * Индекс обновляется при каждом изменении репозитория.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+public class SimilarityService implements RepositoryListener<MuseumItem> {
+
+    private static final Logger logger = LogManager.getLogger(SimilarityService.class);
+
+    /** Количество похожих экспонатов по умолчанию. */
+    public static final int DEFAULT_LIMIT = 5;
+
+    /** Вес сходства текста. */
+    public static final double TEXT_WEIGHT = 0.6;
+
+    /** Вес общего автора. */
+    public static final double AUTHOR_WEIGHT = 0.2;
+
+    /** Вес общей категории. */
+    public static final double CATEGORY_WEIGHT = 0.1;
+
+    /** Вес общего периода. */
+    public static final double PERIOD_WEIGHT = 0.1;
+
+    private static final int BANDS = 16;
+    private static final int ROWS = 4;
+    private static final int SIGNATURE_SIZE = BANDS * ROWS;
+    private static final int MIN_TERM_LENGTH = 3;
+    private static final int MAX_CANDIDATES = 1000;
+    private static final long[] MULTIPLIERS = new long[SIGNATURE_SIZE];
+    private static final long[] OFFSETS = new long[SIGNATURE_SIZE];
+
+    static {
+        // Фиксированное зерно: сигнатуры одинаковы при каждом запуске
+        Random random = new Random(2025);
+        for (int i = 0; i < SIGNATURE_SIZE; i++) {
+            MULTIPLIERS[i] = random.nextLong() | 1;
+            OFFSETS[i] = random.nextLong();
+        }
+    }
+
+    private final Map<Long, Profile> profiles = new HashMap<>();
+    private final Map<Long, Set<Long>> buckets = new HashMap<>();
+    private final Map<String, Integer> documentFrequency = new HashMap<>();
+
+    /**
+     * Конструктор по набору экспонатов.
+     *
+     * @param exhibits экспонаты
+     */
+    public SimilarityService(Collection<MuseumItem> exhibits) {
+        for (MuseumItem item : exhibits) {
+            add(item);
+        }
+    }
+
+    /**
+     * Конструктор сервиса, следящего за репозиторием.
+     *
+     * @param repository репозиторий экспонатов
+     */
+    public SimilarityService(ExhibitRepository repository) {
+        this(repository.findAll());
+        repository.addListener(this);
+    }
+
+    /**
+     * Находит экспонаты, похожие на образец.
+     *
+     * @param item образец
+     * @param limit максимальное количество результатов
+     * @return похожие экспонаты с оценкой сходства от 0 до 1, самые похожие первыми
+     */
+    public synchronized List<SearchHit> findSimilar(MuseumItem item, int limit) {
+        if (item == null) {
+            throw new IllegalArgumentException("Экспонат не может быть null");
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Количество результатов должно быть положительным числом");
+        }
+
+        Profile sample = item.getId() != null && profiles.containsKey(item.getId())
+                ? profiles.get(item.getId())
+                : Profile.of(item);
+
+        Set<Long> candidates = new LinkedHashSet<>();
+        for (long bandKey : sample.bandKeys) {
+            Set<Long> bucket = buckets.get(bandKey);
+            if (bucket == null) {
+                continue;
+            }
+            for (Long id : bucket) {
+                if (candidates.size() >= MAX_CANDIDATES) {
+                    break;
+                }
+                if (!id.equals(item.getId())) {
+                    candidates.add(id);
+                }
+            }
+        }
+
+        TopKHeap<SearchHit> heap = new TopKHeap<>(limit, SearchHit.BY_RELEVANCE);
+        for (Long id : candidates) {
+            Profile candidate = profiles.get(id);
+            double score = similarity(sample, candidate);
+            if (score > 0) {
+                heap.offer(new SearchHit(candidate.item, score));
+            }
+        }
+        logger.debug("Похожие на " + item.getName() + ": кандидатов " + candidates.size()
+                + " из " + profiles.size());
+        return heap.toSortedList();
+    }
+
+    /**
+     * Находит экспонаты, похожие на образец (не больше {@link #DEFAULT_LIMIT}).
+     *
+     * @param item образец
+     * @return похожие экспонаты, самые похожие первыми
+     */
+    public List<SearchHit> findSimilar(MuseumItem item) {
+        return findSimilar(item, DEFAULT_LIMIT);
+    }
+
+    /**
+     * Возвращает количество проиндексированных экспонатов.
+     *
+     * @return количество экспонатов
+     */
+    public synchronized int size() {
+        return profiles.size();
+    }
+
+    @Override
+    public synchronized void onSaved(MuseumItem item) {
+        add(item);
+    }
+
+    @Override
+    public synchronized void onDeleted(MuseumItem item) {
+        if (item.getId() != null) {
+            remove(item.getId());
+        }
+    }
+
+    @Override
+    public synchronized void onCleared() {
+        profiles.clear();
+        buckets.clear();
+        documentFrequency.clear();
+    }
+
+    private void add(MuseumItem item) {
+        if (item.getId() == null) {
+            return;
+        }
+        remove(item.getId());
+        Profile profile = Profile.of(item);
+        profiles.put(item.getId(), profile);
+        for (long bandKey : profile.bandKeys) {
+            buckets.computeIfAbsent(bandKey, k -> new HashSet<>()).add(item.getId());
+        }
+        for (String term : profile.terms.keySet()) {
+            documentFrequency.merge(term, 1, Integer::sum);
+        }
+    }
+
+    private void remove(Long id) {
+        Profile profile = profiles.remove(id);
+        if (profile == null) {
+            return;
+        }
+        for (long bandKey : profile.bandKeys) {
+            Set<Long> bucket = buckets.get(bandKey);
+            if (bucket != null) {
+                bucket.remove(id);
+                if (bucket.isEmpty()) {
+                    buckets.remove(bandKey);
+                }
+            }
+        }
+        for (String term : profile.terms.keySet()) {
+            documentFrequency.computeIfPresent(term, (k, df) -> df > 1 ? df - 1 : null);
+        }
+    }
+
+    private double similarity(Profile a, Profile b) {
+        double score = TEXT_WEIGHT * cosine(a, b);
+        if (a.authorId != null && a.authorId.equals(b.authorId)) {
+            score += AUTHOR_WEIGHT;
+        }
+        if (a.categoryId != null && a.categoryId.equals(b.categoryId)) {
+            score += CATEGORY_WEIGHT;
+        }
+        if (a.period != null && a.period.equals(b.period)) {
+            score += PERIOD_WEIGHT;
+        }
+        return score;
+    }
+
+    /**
+     * Косинусное сходство TF-IDF векторов по текущей статистике каталога.
+     */
+    private double cosine(Profile a, Profile b) {
+        double dot = 0;
+        for (Map.Entry<String, Integer> entry : a.terms.entrySet()) {
+            Integer other = b.terms.get(entry.getKey());
+            if (other != null) {
+                double idf = idf(entry.getKey());
+                dot += entry.getValue() * other * idf * idf;
+            }
+        }
+        if (dot == 0) {
+            return 0;
+        }
+        return dot / (norm(a) * norm(b));
+    }
+
+    private double norm(Profile profile) {
+        double sum = 0;
+        for (Map.Entry<String, Integer> entry : profile.terms.entrySet()) {
+            double weight = entry.getValue() * idf(entry.getKey());
+            sum += weight * weight;
+        }
+        return Math.sqrt(sum);
+    }
+
+    private double idf(String term) {
+        int df = documentFrequency.getOrDefault(term, 0);
+        return Math.log(1 + (double) (profiles.size() + 1) / (df + 1));
+    }
+
+    /**
+     * Признаки экспоната на момент индексации.
+     */
+    private static final class Profile {
+        private final MuseumItem item;
+        private final Map<String, Integer> terms;
+        private final Long authorId;
+        private final Long categoryId;
+        private final String period;
+        private final long[] bandKeys;
+
+        private Profile(MuseumItem item, Map<String, Integer> terms, Long authorId, Long categoryId,
+                        String period) {
+            this.item = item;
+            this.terms = terms;
+            this.authorId = authorId;
+            this.categoryId = categoryId;
+            this.period = period;
+            this.bandKeys = bandKeys(features());
+        }
+
+        static Profile of(MuseumItem item) {
+            Long authorId = null;
+            Long categoryId = null;
+            if (item instanceof Exhibit exhibit) {
+                authorId = exhibit.getAuthor() != null ? exhibit.getAuthor().getId() : null;
+                categoryId = exhibit.getCategory() != null ? exhibit.getCategory().getId() : null;
+            }
+            Map<String, Integer> terms = new HashMap<>();
+            countTerms(item.getNameSearchKey(), terms);
+            countTerms(item.getDescriptionSearchKey(), terms);
+            return new Profile(item, terms, authorId, categoryId, periodOf(item));
+        }
+
+        /**
+         * Период: для артефактов - указанный период, для остальных - век создания.
+         */
+        private static String periodOf(MuseumItem item) {
+            if (item instanceof Artifact artifact && artifact.getPeriod() != null
+                    && !artifact.getPeriod().isBlank()) {
+                return SearchTextUtil.searchKey(artifact.getPeriod().trim());
+            }
+            if (item.getCreationDate() != null) {
+                return "век " + ((item.getCreationDate().getYear() - 1) / 100 + 1);
+            }
+            return null;
+        }
+
+        private static void countTerms(String text, Map<String, Integer> terms) {
+            int start = -1;
+            for (int i = 0; i <= text.length(); i++) {
+                boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+                if (wordChar && start < 0) {
+                    start = i;
+                } else if (!wordChar && start >= 0) {
+                    if (i - start >= MIN_TERM_LENGTH) {
+                        terms.merge(text.substring(start, i), 1, Integer::sum);
+                    }
+                    start = -1;
+                }
+            }
+        }
+
+        private List<String> features() {
+            List<String> features = new ArrayList<>(terms.keySet());
+            if (authorId != null) {
+                features.add("#author:" + authorId);
+            }
+            if (categoryId != null) {
+                features.add("#category:" + categoryId);
+            }
+            if (period != null) {
+                features.add("#period:" + period);
+            }
+            // Слова состоят из букв и цифр, поэтому служебные признаки с '#' с ними не совпадают
+            return features;
+        }
+
+        /**
+         * Ключи полос MinHash-сигнатуры. Экспонаты с одинаковым ключом
+         * хотя бы одной полосы становятся кандидатами друг для друга.
+         */
+        private static long[] bandKeys(List<String> features) {
+            if (features.isEmpty()) {
+                return new long[0];
+            }
+            long[] signature = new long[SIGNATURE_SIZE];
+            Arrays.fill(signature, Long.MAX_VALUE);
+            for (String feature : features) {
+                long x = feature.hashCode();
+                for (int i = 0; i < SIGNATURE_SIZE; i++) {
+                    long h = mix(x * MULTIPLIERS[i] + OFFSETS[i]);
+                    if (h < signature[i]) {
+                        signature[i] = h;
+                    }
+                }
+            }
+            long[] keys = new long[BANDS];
+            for (int band = 0; band < BANDS; band++) {
+                long key = band;
+                for (int row = 0; row < ROWS; row++) {
+                    key = 31 * key + signature[band * ROWS + row];
+                }
+                keys[band] = mix(key);
+            }
+            return keys;
+        }
+
+        private static long mix(long h) {
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package kz.enu.museum.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import kz.enu.museum.model.MuseumItem;
+
+/**
+ * Постоянный запрос: сохранённое представление каталога, результат которого
+ * поддерживается при каждом изменении экспоната. Изменённый экспонат
+ * проверяется по условию запроса один раз, без повторного выполнения запроса,
+ * и получателю передаётся разница с прежним результатом.
+ * Создаётся через {@link SearchService#registerStandingQuery(String, StandingQueryListener)}.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+public class StandingQuery {
+
+    private final SearchService owner;
+    private final String query;
+    private final Predicate<MuseumItem> matcher;
+    private final StandingQueryListener listener;
+
+    // Ключ - ID экспоната (или сам экспонат без ID), порядок - порядок появления в результате
+    private final Map<Object, MuseumItem> results = new LinkedHashMap<>();
+
+    StandingQuery(SearchService owner, String query, Predicate<MuseumItem> matcher,
+                  StandingQueryListener listener, List<MuseumItem> initial) {
+        this.owner = owner;
+        this.query = query;
+        this.matcher = matcher;
+        this.listener = listener;
+        for (MuseumItem item : initial) {
+            results.put(identity(item), item);
+        }
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    /**
+     * Возвращает текущий результат запроса.
+     *
+     * @return копия списка экспонатов
+     */
+    public synchronized List<MuseumItem> getResults() {
+        return new ArrayList<>(results.values());
+    }
+
+    /**
+     * Возвращает количество экспонатов в результате.
+     *
+     * @return количество экспонатов
+     */
+    public synchronized int size() {
+        return results.size();
+    }
+
+    /**
+     * Прекращает поддержку запроса: получатель больше не вызывается.
+     */
+    public void close() {
+        owner.unregisterStandingQuery(this);
+    }
+
+    StandingQueryListener getListener() {
+        return listener;
+    }
+
+    /**
+     * Учитывает сохранённый экспонат.
+     *
+     * @param item экспонат
+     * @return разница или null, если результат не изменился
+     */
+    synchronized Delta saved(MuseumItem item) {
+        Object key = identity(item);
+        boolean matches = matcher.test(item);
+        boolean present = results.containsKey(key);
+        if (matches) {
+            results.put(key, item);
+            return present ? Delta.updated(item) : Delta.added(item);
+        }
+        if (present) {
+            results.remove(key);
+            return Delta.removed(item);
+        }
+        return null;
+    }
+
+    /**
+     * Учитывает удалённый экспонат.
+     *
+     * @param item экспонат
+     * @return разница или null, если экспоната не было в результате
+     */
+    synchronized Delta deleted(MuseumItem item) {
+        return results.remove(identity(item)) != null ? Delta.removed(item) : null;
+    }
+
+    /**
+     * Пересчитывает результат по всему каталогу (после полной замены данных).
+     *
+     * @param catalog экспонаты каталога
+     * @return разница или null, если результат не изменился
+     */
+    synchronized Delta reload(List<MuseumItem> catalog) {
+        Map<Object, MuseumItem> previous = new LinkedHashMap<>(results);
+        results.clear();
+        List<MuseumItem> added = new ArrayList<>();
+        List<MuseumItem> updated = new ArrayList<>();
+        for (MuseumItem item : catalog) {
+            if (matcher.test(item)) {
+                Object key = identity(item);
+                results.put(key, item);
+                (previous.remove(key) != null ? updated : added).add(item);
+            }
+        }
+        List<MuseumItem> removed = new ArrayList<>(previous.values());
+        Delta delta = new Delta(added, removed, updated);
+        return delta.isEmpty() ? null : delta;
+    }
+
+    private static Object identity(MuseumItem item) {
+        return item.getId() != null ? item.getId() : item;
+    }
+
+    @Override
+    public String toString() {
+        return "StandingQuery{" + query + ", " + size() + " экспонатов}";
+    }
+
+    /**
+     * Разница между прежним и новым результатом запроса.
+     */
+    public static final class Delta {
+        private final List<MuseumItem> added;
+        private final List<MuseumItem> removed;
+        private final List<MuseumItem> updated;
+
+        Delta(List<MuseumItem> added, List<MuseumItem> removed, List<MuseumItem> updated) {
+            this.added = Collections.unmodifiableList(added);
+            this.removed = Collections.unmodifiableList(removed);
+            this.updated = Collections.unmodifiableList(updated);
+        }
+
+        static Delta added(MuseumItem item) {
+            return new Delta(List.of(item), List.of(), List.of());
+        }
+
+        static Delta removed(MuseumItem item) {
+            return new Delta(List.of(), List.of(item), List.of());
+        }
+
+        static Delta updated(MuseumItem item) {
+            return new Delta(List.of(), List.of(), List.of(item));
+        }
+
+        /**
+         * Экспонаты, вошедшие в результат.
+         *
+         * @return список экспонатов
+         */
+        public List<MuseumItem> getAdded() {
+            return added;
+        }
+
+        /**
+         * Экспонаты, выбывшие из результата (удалённые или переставшие подходить).
+         *
+         * @return список экспонатов
+         */
+        public List<MuseumItem> getRemoved() {
+            return removed;
+        }
+
+        /**
+         * Экспонаты, которые остались в результате, но были изменены.
+         *
+         * @return список экспонатов
+         */
+        public List<MuseumItem> getUpdated() {
+            return updated;
+        }
+
+        public boolean isEmpty() {
+            return added.isEmpty() && removed.isEmpty() && updated.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            return "+" + added.size() + " -" + removed.size() + " ~" + updated.size();
+        }
+    }
+}
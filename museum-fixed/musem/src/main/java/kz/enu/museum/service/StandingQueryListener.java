@@ -0,0 +1,22 @@
+package kz.enu.museum.service;
+
+/**
+ * Получатель изменений результата постоянного запроса.
+ * Вызывается в потоке, изменившем каталог, под блокировкой сервиса поиска,
+ * поэтому должен работать быстро (интерфейс - через Platform.runLater).
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+@FunctionalInterface
+public interface StandingQueryListener {
+
+    /**
+     * Результат запроса изменился.
+     *
+     * @param query постоянный запрос
+     * @param delta добавленные, удалённые и изменённые экспонаты
+     */
+    void onChange(StandingQuery query, StandingQuery.Delta delta);
+}
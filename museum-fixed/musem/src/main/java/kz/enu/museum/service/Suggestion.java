@@ -0,0 +1,61 @@
+package kz.enu.museum.service;
+
+import java.util.Comparator;
+
+/**
+ * Вариант автодополнения поискового запроса.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+public class Suggestion {
+
+    /**
+     * Порядок "самый весомый первым", при равном весе - по тексту.
+     */
+    public static final Comparator<Suggestion> BY_WEIGHT = Comparator
+            .comparingLong(Suggestion::getWeight).reversed()
+            .thenComparing(Suggestion::getText, String.CASE_INSENSITIVE_ORDER);
+
+    private final String text;
+    private final SuggestionService.Kind kind;
+    private final long weight;
+    private final Object value;
+
+    /**
+     * Конструктор варианта.
+     *
+     * @param text текст для подстановки
+     * @param kind источник варианта
+     * @param weight вес (количество экспонатов и популярность)
+     * @param value объект варианта (экспонат, художник или категория)
+     */
+    public Suggestion(String text, SuggestionService.Kind kind, long weight, Object value) {
+        this.text = text;
+        this.kind = kind;
+        this.weight = weight;
+        this.value = value;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public SuggestionService.Kind getKind() {
+        return kind;
+    }
+
+    public long getWeight() {
+        return weight;
+    }
+
+    public Object getValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return text + " (" + kind.getDisplayName() + ")";
+    }
+}
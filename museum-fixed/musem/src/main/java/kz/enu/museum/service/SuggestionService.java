@@ -0,0 +1,317 @@
+package kz.enu.museum.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import kz.enu.museum.model.Artist;
+import kz.enu.museum.model.Category;
+import kz.enu.museum.model.Exhibit;
+import kz.enu.museum.model.MuseumItem;
+import kz.enu.museum.repository.ExhibitRepository;
+import kz.enu.museum.repository.RepositoryListener;
+import kz.enu.museum.util.SearchTextUtil;
+import kz.enu.museum.util.TernarySearchTree;
+
+/**
+ * Автодополнение поискового запроса и выбора автора или категории.
+ * Названия экспонатов, имена художников, названия категорий и инвентарные
+ * номера хранятся в тернарных деревьях поиска с готовыми лучшими вариантами
+ * в каждом узле, поэтому дополнение префикса не обходит каталог и стоит
+ * порядка длины префикса. Вес варианта - количество экспонатов с этим
+ * значением плюс выбор варианта пользователем. Сервис следит за репозиторием
+ * экспонатов и обновляет веса по одному изменённому экспонату.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+public class SuggestionService implements RepositoryListener<MuseumItem> {
+
+    private static final Logger logger = LogManager.getLogger(SuggestionService.class);
+
+    /** Максимальное количество вариантов дополнения. */
+    public static final int MAX_SUGGESTIONS = 10;
+
+    /** Вес одного выбора варианта пользователем (в экспонатах). */
+    public static final int POPULARITY_WEIGHT = 5;
+
+    /**
+     * Источник варианта дополнения.
+     */
+    public enum Kind {
+        EXHIBIT("Экспонат"),
+        ARTIST("Художник"),
+        CATEGORY("Категория"),
+        INVENTORY("Инв. номер");
+
+        private final String displayName;
+
+        Kind(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    private final Map<Kind, TernarySearchTree<Counter>> trees = new EnumMap<>(Kind.class);
+
+    // Ключи, под которыми экспонат учтён (для уменьшения счётчиков после изменения полей)
+    private final Map<Long, EnumMap<Kind, String>> indexed = new HashMap<>();
+
+    /**
+     * Конструктор по наборам экспонатов, художников и категорий.
+     *
+     * @param exhibits экспонаты
+     * @param artists художники
+     * @param categories категории
+     */
+    public SuggestionService(Collection<MuseumItem> exhibits, Collection<Artist> artists,
+                             Collection<Category> categories) {
+        for (Kind kind : Kind.values()) {
+            trees.put(kind, new TernarySearchTree<>(MAX_SUGGESTIONS));
+        }
+        for (Artist artist : artists) {
+            addArtist(artist);
+        }
+        for (Category category : categories) {
+            addCategory(category);
+        }
+        for (MuseumItem item : exhibits) {
+            add(item);
+        }
+        logger.debug("Индекс автодополнения построен: " + indexed.size() + " экспонатов");
+    }
+
+    /**
+     * Конструктор сервиса, следящего за репозиторием экспонатов.
+     *
+     * @param repository репозиторий экспонатов
+     * @param artists художники
+     * @param categories категории
+     */
+    public SuggestionService(ExhibitRepository repository, Collection<Artist> artists,
+                             Collection<Category> categories) {
+        this(repository.findAll(), artists, categories);
+        repository.addListener(this);
+    }
+
+    /**
+     * Возвращает варианты дополнения из всех источников.
+     *
+     * @param prefix введённый текст
+     * @param limit максимальное количество вариантов (не больше {@link #MAX_SUGGESTIONS})
+     * @return варианты, самые весомые первыми
+     */
+    public synchronized List<Suggestion> suggest(String prefix, int limit) {
+        checkLimit(limit);
+        String key = SearchTextUtil.normalizeQuery(prefix);
+        List<Suggestion> result = new ArrayList<>();
+        if (key.isEmpty()) {
+            return result;
+        }
+        for (Kind kind : Kind.values()) {
+            collect(kind, key, limit, result);
+        }
+        result.sort(Suggestion.BY_WEIGHT);
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    /**
+     * Возвращает варианты дополнения из одного источника.
+     *
+     * @param prefix введённый текст (пустой - самые весомые варианты)
+     * @param kind источник
+     * @param limit максимальное количество вариантов (не больше {@link #MAX_SUGGESTIONS})
+     * @return варианты, самые весомые первыми
+     */
+    public synchronized List<Suggestion> suggest(String prefix, Kind kind, int limit) {
+        checkLimit(limit);
+        if (kind == null) {
+            throw new IllegalArgumentException("Источник вариантов не может быть null");
+        }
+        List<Suggestion> result = new ArrayList<>();
+        collect(kind, SearchTextUtil.normalizeQuery(prefix), limit, result);
+        return result;
+    }
+
+    /**
+     * Учитывает выбор варианта пользователем: вариант поднимается в списке.
+     *
+     * @param suggestion выбранный вариант
+     */
+    public synchronized void recordUse(Suggestion suggestion) {
+        if (suggestion == null) {
+            return;
+        }
+        String key = SearchTextUtil.normalizeQuery(suggestion.getText());
+        Counter counter = trees.get(suggestion.getKind()).get(key);
+        if (counter != null) {
+            counter.uses++;
+            update(suggestion.getKind(), key, counter);
+        }
+    }
+
+    /**
+     * Добавляет художника в варианты (в том числе без экспонатов).
+     *
+     * @param artist художник
+     */
+    public synchronized void addArtist(Artist artist) {
+        if (artist != null) {
+            register(Kind.ARTIST, artist.getFullName(), artist);
+        }
+    }
+
+    /**
+     * Добавляет категорию в варианты (в том числе без экспонатов).
+     *
+     * @param category категория
+     */
+    public synchronized void addCategory(Category category) {
+        if (category != null) {
+            register(Kind.CATEGORY, category.getName(), category);
+        }
+    }
+
+    /**
+     * Возвращает количество вариантов в источнике.
+     *
+     * @param kind источник
+     * @return количество вариантов
+     */
+    public synchronized int size(Kind kind) {
+        return trees.get(kind).size();
+    }
+
+    @Override
+    public synchronized void onSaved(MuseumItem item) {
+        add(item);
+    }
+
+    @Override
+    public synchronized void onDeleted(MuseumItem item) {
+        if (item.getId() != null) {
+            remove(item.getId());
+        }
+    }
+
+    @Override
+    public synchronized void onCleared() {
+        for (Long id : new ArrayList<>(indexed.keySet())) {
+            remove(id);
+        }
+    }
+
+    private void collect(Kind kind, String key, int limit, List<Suggestion> result) {
+        for (TernarySearchTree.Entry<Counter> entry : trees.get(kind).top(key, limit)) {
+            Counter counter = entry.getValue();
+            result.add(new Suggestion(counter.text, kind, entry.getWeight(), counter.value));
+        }
+    }
+
+    private void add(MuseumItem item) {
+        if (item.getId() == null) {
+            return;
+        }
+        remove(item.getId());
+        EnumMap<Kind, String> keys = new EnumMap<>(Kind.class);
+        count(keys, Kind.EXHIBIT, item.getName(), item);
+        count(keys, Kind.INVENTORY, item.getInventoryNumber(), item);
+        if (item instanceof Exhibit exhibit) {
+            if (exhibit.getAuthor() != null) {
+                count(keys, Kind.ARTIST, exhibit.getAuthor().getFullName(), exhibit.getAuthor());
+            }
+            if (exhibit.getCategory() != null) {
+                count(keys, Kind.CATEGORY, exhibit.getCategory().getName(), exhibit.getCategory());
+            }
+        }
+        indexed.put(item.getId(), keys);
+    }
+
+    private void remove(Long id) {
+        EnumMap<Kind, String> keys = indexed.remove(id);
+        if (keys == null) {
+            return;
+        }
+        for (Map.Entry<Kind, String> entry : keys.entrySet()) {
+            Counter counter = trees.get(entry.getKey()).get(entry.getValue());
+            if (counter != null) {
+                counter.itemCount--;
+                update(entry.getKey(), entry.getValue(), counter);
+            }
+        }
+    }
+
+    private void count(EnumMap<Kind, String> keys, Kind kind, String text, Object value) {
+        String key = SearchTextUtil.normalizeQuery(text);
+        if (key.isEmpty()) {
+            return;
+        }
+        Counter counter = trees.get(kind).get(key);
+        if (counter == null) {
+            counter = new Counter(text.trim(), value);
+        }
+        counter.itemCount++;
+        keys.put(kind, key);
+        update(kind, key, counter);
+    }
+
+    private void register(Kind kind, String text, Object value) {
+        String key = SearchTextUtil.normalizeQuery(text);
+        if (key.isEmpty()) {
+            return;
+        }
+        Counter counter = trees.get(kind).get(key);
+        if (counter == null) {
+            counter = new Counter(text.trim(), value);
+        }
+        // Зарегистрированный объект предпочтительнее копии из экспоната
+        counter.value = value;
+        counter.registered = true;
+        update(kind, key, counter);
+    }
+
+    private void update(Kind kind, String key, Counter counter) {
+        long weight = counter.weight();
+        if (weight <= 0) {
+            trees.get(kind).remove(key);
+        } else {
+            trees.get(kind).put(key, counter, weight);
+        }
+    }
+
+    private static void checkLimit(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Количество вариантов должно быть положительным числом");
+        }
+    }
+
+    /**
+     * Счётчики варианта дополнения.
+     */
+    private static final class Counter {
+        private final String text;
+        private Object value;
+        private int itemCount;
+        private int uses;
+        private boolean registered;
+
+        private Counter(String text, Object value) {
+            this.text = text;
+            this.value = value;
+        }
+
+        private long weight() {
+            return (registered ? 1 : 0) + itemCount + (long) uses * POPULARITY_WEIGHT;
+        }
+    }
+}
@@ -0,0 +1,362 @@
+package kz.enu.museum.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import kz.enu.museum.model.MuseumItem;
+import kz.enu.museum.repository.ExhibitRepository;
+import kz.enu.museum.repository.RepositoryListener;
+import kz.enu.museum.service.CatalogAggregates.Dimension;
+import kz.enu.museum.util.FenwickTree;
+
+/**
+ * Временные ряды поступления и создания экспонатов: гистограммы по годам
+ * и месяцам, в том числе в разрезе категории и типа, с накопленными
+ * итогами и изменением к предыдущему году.
+ * Каждая гистограмма хранится в дереве Фенвика, которое обновляется при
+ * каждом сохранении или удалении экспоната, поэтому количество за любой
+ * диапазон ("поступило в 1990-2005") вычисляется за O(log n) без прохода
+ * по каталогу.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+public class TimeSeriesAnalytics implements RepositoryListener<MuseumItem> {
+
+    private static final Logger logger = LogManager.getLogger(TimeSeriesAnalytics.class);
+
+    /** Разрезы, для которых ведутся отдельные ряды. */
+    public static final Set<Dimension> BREAKDOWNS = EnumSet.of(Dimension.CATEGORY, Dimension.TYPE);
+
+    /** Наибольшее количество точек в одном запрошенном ряду. */
+    public static final int MAX_POINTS = 100_000;
+
+    /**
+     * Дата экспоната, по которой строится ряд.
+     */
+    public enum DateField {
+        CREATION("Создание"),
+        ACQUISITION("Поступление");
+
+        private final String displayName;
+
+        DateField(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        LocalDate of(MuseumItem item) {
+            return this == CREATION ? item.getCreationDate() : item.getAcquisitionDate();
+        }
+    }
+
+    /**
+     * Шаг ряда.
+     */
+    public enum Granularity {
+        YEAR(1),
+        MONTH(12);
+
+        private final int periodsPerYear;
+
+        Granularity(int periodsPerYear) {
+            this.periodsPerYear = periodsPerYear;
+        }
+
+        int keyOf(LocalDate date) {
+            return this == YEAR ? date.getYear() : keyOf(date.getYear(), date.getMonthValue());
+        }
+
+        int keyOf(int year, int month) {
+            return this == YEAR ? year : Math.multiplyExact(year, 12) + month - 1;
+        }
+    }
+
+    // Ряды по полю даты и шагу: общий и по группам разрезов
+    private final Map<DateField, Map<Granularity, Series>> series = new EnumMap<>(DateField.class);
+
+    // Даты и группы каждого учтённого экспоната (для вычитания после изменения полей)
+    private final Map<Long, Snapshot> counted = new HashMap<>();
+
+    /**
+     * Конструктор по набору экспонатов.
+     *
+     * @param exhibits экспонаты
+     */
+    public TimeSeriesAnalytics(Collection<MuseumItem> exhibits) {
+        for (DateField field : DateField.values()) {
+            Map<Granularity, Series> byGranularity = new EnumMap<>(Granularity.class);
+            for (Granularity granularity : Granularity.values()) {
+                byGranularity.put(granularity, new Series());
+            }
+            series.put(field, byGranularity);
+        }
+        if (exhibits != null) {
+            for (MuseumItem item : exhibits) {
+                add(item);
+            }
+        }
+        logger.debug("Временные ряды построены: " + counted.size() + " экспонатов");
+    }
+
+    /**
+     * Конструктор рядов, следящих за репозиторием экспонатов.
+     *
+     * @param repository репозиторий экспонатов
+     */
+    public TimeSeriesAnalytics(ExhibitRepository repository) {
+        this(repository.findAll());
+        repository.addListener(this);
+    }
+
+    /**
+     * Считает экспонаты с датой в диапазоне лет.
+     *
+     * @param field поле даты
+     * @param fromYear начальный год
+     * @param toYear конечный год
+     * @return количество экспонатов
+     */
+    public synchronized long countYears(DateField field, int fromYear, int toYear) {
+        return tree(field, Granularity.YEAR, null, null).rangeSum(fromYear, toYear);
+    }
+
+    /**
+     * Считает экспонаты группы с датой в диапазоне лет.
+     *
+     * @param field поле даты
+     * @param dimension разрез из {@link #BREAKDOWNS}
+     * @param group значение разреза
+     * @param fromYear начальный год
+     * @param toYear конечный год
+     * @return количество экспонатов
+     */
+    public synchronized long countYears(DateField field, Dimension dimension, String group, int fromYear, int toYear) {
+        return tree(field, Granularity.YEAR, dimension, group).rangeSum(fromYear, toYear);
+    }
+
+    /**
+     * Считает экспонаты с датой в диапазоне месяцев.
+     *
+     * @param field поле даты
+     * @param from начальный месяц
+     * @param to конечный месяц
+     * @return количество экспонатов
+     */
+    public synchronized long countMonths(DateField field, YearMonth from, YearMonth to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Границы диапазона месяцев не могут быть null");
+        }
+        return tree(field, Granularity.MONTH, null, null).rangeSum(
+                Granularity.MONTH.keyOf(from.getYear(), from.getMonthValue()),
+                Granularity.MONTH.keyOf(to.getYear(), to.getMonthValue()));
+    }
+
+    /**
+     * Строит ряд по всему каталогу.
+     *
+     * @param field поле даты
+     * @param granularity шаг ряда
+     * @param fromYear первый год ряда
+     * @param toYear последний год ряда
+     * @return точки ряда по порядку периодов, включая пустые
+     */
+    public synchronized List<TimeSeriesPoint> histogram(DateField field, Granularity granularity, int fromYear, int toYear) {
+        return points(tree(field, granularity, null, null), granularity, fromYear, toYear);
+    }
+
+    /**
+     * Строит ряд по группе разреза.
+     *
+     * @param field поле даты
+     * @param granularity шаг ряда
+     * @param dimension разрез из {@link #BREAKDOWNS}
+     * @param group значение разреза
+     * @param fromYear первый год ряда
+     * @param toYear последний год ряда
+     * @return точки ряда по порядку периодов, включая пустые
+     */
+    public synchronized List<TimeSeriesPoint> histogram(DateField field, Granularity granularity,
+                                                        Dimension dimension, String group, int fromYear, int toYear) {
+        return points(tree(field, granularity, dimension, group), granularity, fromYear, toYear);
+    }
+
+    /**
+     * Возвращает группы разреза, по которым есть экспонаты с датой.
+     *
+     * @param field поле даты
+     * @param dimension разрез из {@link #BREAKDOWNS}
+     * @return группа -> количество экспонатов с датой
+     */
+    public synchronized Map<String, Long> getGroups(DateField field, Dimension dimension) {
+        checkBreakdown(dimension);
+        Map<String, Long> result = new LinkedHashMap<>();
+        Series yearly = series.get(checkField(field)).get(Granularity.YEAR);
+        for (Map.Entry<String, FenwickTree> entry : yearly.groups.get(dimension).entrySet()) {
+            result.put(entry.getKey(), entry.getValue().total());
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized void onSaved(MuseumItem item) {
+        add(item);
+    }
+
+    @Override
+    public synchronized void onDeleted(MuseumItem item) {
+        if (item.getId() != null) {
+            remove(item.getId());
+        }
+    }
+
+    @Override
+    public synchronized void onCleared() {
+        counted.clear();
+        for (Map<Granularity, Series> byGranularity : series.values()) {
+            for (Series one : byGranularity.values()) {
+                one.total.clear();
+                for (Map<String, FenwickTree> groups : one.groups.values()) {
+                    groups.clear();
+                }
+            }
+        }
+    }
+
+    private List<TimeSeriesPoint> points(FenwickTree tree, Granularity granularity, int fromYear, int toYear) {
+        if (fromYear > toYear) {
+            throw new IllegalArgumentException("Некорректный диапазон лет: " + fromYear + ".." + toYear);
+        }
+        long size = ((long) toYear - fromYear + 1) * granularity.periodsPerYear;
+        if (size > MAX_POINTS) {
+            throw new IllegalArgumentException("Слишком длинный ряд: " + size + " точек");
+        }
+        List<TimeSeriesPoint> result = new ArrayList<>((int) size);
+        int first = granularity.keyOf(fromYear, 1);
+        // Накопленный итог до ряда берётся из дерева один раз, дальше наращивается по точкам
+        long cumulative = tree.prefixSum(first - 1);
+        for (int i = 0; i < size; i++) {
+            int key = first + i;
+            long count = tree.get(key);
+            cumulative += count;
+            long previousYear = tree.get(key - granularity.periodsPerYear);
+            int year = granularity == Granularity.YEAR ? key : Math.floorDiv(key, 12);
+            int month = granularity == Granularity.YEAR ? 0 : Math.floorMod(key, 12) + 1;
+            result.add(new TimeSeriesPoint(year, month, count, cumulative, count - previousYear));
+        }
+        return result;
+    }
+
+    private FenwickTree tree(DateField field, Granularity granularity, Dimension dimension, String group) {
+        if (granularity == null) {
+            throw new IllegalArgumentException("Шаг ряда не может быть null");
+        }
+        Series one = series.get(checkField(field)).get(granularity);
+        if (dimension == null) {
+            return one.total;
+        }
+        checkBreakdown(dimension);
+        FenwickTree tree = one.groups.get(dimension).get(group);
+        return tree != null ? tree : new FenwickTree();
+    }
+
+    private static DateField checkField(DateField field) {
+        if (field == null) {
+            throw new IllegalArgumentException("Поле даты не может быть null");
+        }
+        return field;
+    }
+
+    private static void checkBreakdown(Dimension dimension) {
+        if (!BREAKDOWNS.contains(dimension)) {
+            throw new IllegalArgumentException("Ряды по разрезу не ведутся: " + dimension);
+        }
+    }
+
+    private void add(MuseumItem item) {
+        if (item.getId() == null) {
+            return;
+        }
+        remove(item.getId());
+        Snapshot snapshot = new Snapshot(item);
+        counted.put(item.getId(), snapshot);
+        apply(snapshot, 1);
+    }
+
+    private void remove(Long id) {
+        Snapshot snapshot = counted.remove(id);
+        if (snapshot != null) {
+            apply(snapshot, -1);
+        }
+    }
+
+    private void apply(Snapshot snapshot, int delta) {
+        for (DateField field : DateField.values()) {
+            LocalDate date = snapshot.dates.get(field);
+            if (date == null) {
+                continue;
+            }
+            for (Granularity granularity : Granularity.values()) {
+                Series one = series.get(field).get(granularity);
+                int key = granularity.keyOf(date);
+                one.total.add(key, delta);
+                for (Dimension dimension : BREAKDOWNS) {
+                    Map<String, FenwickTree> groups = one.groups.get(dimension);
+                    String group = snapshot.groups.get(dimension);
+                    FenwickTree tree = groups.computeIfAbsent(group, g -> new FenwickTree());
+                    tree.add(key, delta);
+                    if (tree.total() == 0) {
+                        groups.remove(group);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Ряд одного поля и шага: общее дерево и деревья групп разрезов.
+     */
+    private static final class Series {
+        private final FenwickTree total = new FenwickTree();
+        private final Map<Dimension, Map<String, FenwickTree>> groups = new EnumMap<>(Dimension.class);
+
+        private Series() {
+            for (Dimension dimension : BREAKDOWNS) {
+                groups.put(dimension, new LinkedHashMap<>());
+            }
+        }
+    }
+
+    /**
+     * Даты и группы экспоната на момент учёта.
+     */
+    private static final class Snapshot {
+        private final EnumMap<DateField, LocalDate> dates = new EnumMap<>(DateField.class);
+        private final EnumMap<Dimension, String> groups = new EnumMap<>(Dimension.class);
+
+        private Snapshot(MuseumItem item) {
+            for (DateField field : DateField.values()) {
+                dates.put(field, field.of(item));
+            }
+            for (Dimension dimension : BREAKDOWNS) {
+                groups.put(dimension, dimension.groupOf(item));
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package kz.enu.museum.service;
+
+/**
+ * Точка временного ряда: количество экспонатов за год или месяц,
+ * накопленный итог на конец периода и изменение к тому же периоду
+ * предыдущего года.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+public class TimeSeriesPoint {
+
+    private final int year;
+    private final int month;
+    private final long count;
+    private final long cumulative;
+    private final long yearOverYear;
+
+    TimeSeriesPoint(int year, int month, long count, long cumulative, long yearOverYear) {
+        this.year = year;
+        this.month = month;
+        this.count = count;
+        this.cumulative = cumulative;
+        this.yearOverYear = yearOverYear;
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    /**
+     * Возвращает месяц периода.
+     *
+     * @return месяц от 1 до 12, 0 для годового ряда
+     */
+    public int getMonth() {
+        return month;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Возвращает количество экспонатов с начала наблюдений по конец периода.
+     *
+     * @return накопленный итог
+     */
+    public long getCumulative() {
+        return cumulative;
+    }
+
+    /**
+     * Возвращает изменение количества к тому же периоду предыдущего года.
+     *
+     * @return разность количеств
+     */
+    public long getYearOverYear() {
+        return yearOverYear;
+    }
+
+    /**
+     * Возвращает подпись периода: "1995" или "1995-03".
+     *
+     * @return подпись
+     */
+    public String getPeriod() {
+        return month == 0 ? String.valueOf(year) : String.format("%d-%02d", year, month);
+    }
+
+    @Override
+    public String toString() {
+        return getPeriod() + ": " + count + " (всего " + cumulative + ", к прошлому году "
+                + (yearOverYear >= 0 ? "+" : "") + yearOverYear + ")";
+    }
+}
@@ -0,0 +1,272 @@
+package kz.enu.museum.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import kz.enu.museum.model.Exhibit;
+import kz.enu.museum.model.MuseumItem;
+import kz.enu.museum.repository.ExhibitRepository;
+import kz.enu.museum.repository.RepositoryListener;
+import kz.enu.museum.service.CatalogAggregates.Dimension;
+import kz.enu.museum.util.CentsSum;
+import kz.enu.museum.util.MoneyUtil;
+import kz.enu.museum.util.OrderStatisticMultiset;
+
+/**
+ * Оценка коллекции для страховых и оценочных отчётов: сумма, среднее,
+ * минимум, максимум и процентили оценочной стоимости по категориям,
+ * залам, авторам, статусам и типам экспонатов.
+ * Стоимость хранится в копейках (long, округление до копейки), суммы
+ * ведутся примитивной арифметикой с переносом при переполнении
+ * ({@link CentsSum}); в BigDecimal значения переводятся только в итогах.
+ * Сервис следит за репозиторием: итоги групп обновляются по одному
+ * изменённому экспонату, процентили выбираются по рангу из мультимножества
+ * стоимостей группы ({@link OrderStatisticMultiset}) за O(log n).
+ * Экспонаты без оценки в итогах не учитываются.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+public class ValuationService implements RepositoryListener<MuseumItem> {
+
+    private static final Logger logger = LogManager.getLogger(ValuationService.class);
+
+    private final Map<Dimension, Map<String, Group>> groups = new EnumMap<>(Dimension.class);
+    private final Group total = new Group();
+
+    // Группы и стоимость каждого оценённого экспоната на момент учёта
+    private final Map<Long, Valuation> valued = new HashMap<>();
+
+    /**
+     * Конструктор по набору экспонатов.
+     *
+     * @param exhibits экспонаты
+     */
+    public ValuationService(Collection<MuseumItem> exhibits) {
+        for (Dimension dimension : Dimension.values()) {
+            groups.put(dimension, new LinkedHashMap<>());
+        }
+        if (exhibits != null) {
+            for (MuseumItem item : exhibits) {
+                add(item);
+            }
+        }
+        logger.debug("Оценка коллекции построена: " + valued.size() + " оценённых экспонатов");
+    }
+
+    /**
+     * Конструктор сервиса, следящего за репозиторием экспонатов.
+     *
+     * @param repository репозиторий экспонатов
+     */
+    public ValuationService(ExhibitRepository repository) {
+        this(repository.findAll());
+        repository.addListener(this);
+    }
+
+    /**
+     * Возвращает итоги оценки всей коллекции.
+     *
+     * @return итоги
+     */
+    public synchronized ValuationSummary getTotal() {
+        return total.summary();
+    }
+
+    /**
+     * Возвращает итоги оценки одной группы.
+     *
+     * @param dimension разрез
+     * @param group значение разреза
+     * @return итоги или null, если в группе нет оценённых экспонатов
+     */
+    public synchronized ValuationSummary getSummary(Dimension dimension, String group) {
+        Group found = groups(dimension).get(group);
+        return found != null ? found.summary() : null;
+    }
+
+    /**
+     * Возвращает итоги оценки по всем группам разреза.
+     *
+     * @param dimension разрез
+     * @return группа -> итоги, в порядке появления групп
+     */
+    public synchronized Map<String, ValuationSummary> getSummaries(Dimension dimension) {
+        Map<String, ValuationSummary> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Group> entry : groups(dimension).entrySet()) {
+            result.put(entry.getKey(), entry.getValue().summary());
+        }
+        return result;
+    }
+
+    /**
+     * Возвращает процентиль стоимости всей коллекции (по ближайшему рангу).
+     *
+     * @param percentile процентиль от 0 до 100
+     * @return стоимость или null, если оценённых экспонатов нет
+     */
+    public synchronized BigDecimal getPercentile(double percentile) {
+        return total.percentile(checkPercentile(percentile));
+    }
+
+    /**
+     * Возвращает процентиль стоимости в группе (по ближайшему рангу).
+     *
+     * @param dimension разрез
+     * @param group значение разреза
+     * @param percentile процентиль от 0 до 100
+     * @return стоимость или null, если в группе нет оценённых экспонатов
+     */
+    public synchronized BigDecimal getPercentile(Dimension dimension, String group, double percentile) {
+        Group found = groups(dimension).get(group);
+        return found != null ? found.percentile(checkPercentile(percentile)) : null;
+    }
+
+    @Override
+    public synchronized void onSaved(MuseumItem item) {
+        add(item);
+    }
+
+    @Override
+    public synchronized void onDeleted(MuseumItem item) {
+        if (item.getId() != null) {
+            remove(item.getId());
+        }
+    }
+
+    @Override
+    public synchronized void onCleared() {
+        valued.clear();
+        total.clear();
+        for (Map<String, Group> cells : groups.values()) {
+            cells.clear();
+        }
+    }
+
+    private Map<String, Group> groups(Dimension dimension) {
+        if (dimension == null) {
+            throw new IllegalArgumentException("Разрез оценки не может быть null");
+        }
+        return groups.get(dimension);
+    }
+
+    private static double checkPercentile(double percentile) {
+        if (!(percentile >= 0 && percentile <= 100)) {
+            throw new IllegalArgumentException("Процентиль должен быть от 0 до 100: " + percentile);
+        }
+        return percentile;
+    }
+
+    private void add(MuseumItem item) {
+        if (item.getId() == null) {
+            return;
+        }
+        BigDecimal value = item instanceof Exhibit exhibit ? exhibit.getEstimatedValue() : null;
+        long cents = value != null ? MoneyUtil.toCentsSaturated(value, RoundingMode.HALF_UP) : 0;
+        remove(item.getId());
+        if (value == null) {
+            return;
+        }
+        Valuation valuation = new Valuation(item, cents);
+        valued.put(item.getId(), valuation);
+        total.add(valuation.cents);
+        for (Dimension dimension : Dimension.values()) {
+            groups.get(dimension).computeIfAbsent(valuation.keys.get(dimension), key -> new Group())
+                    .add(valuation.cents);
+        }
+    }
+
+    private void remove(Long id) {
+        Valuation valuation = valued.remove(id);
+        if (valuation == null) {
+            return;
+        }
+        total.remove(valuation.cents);
+        for (Dimension dimension : Dimension.values()) {
+            Map<String, Group> cells = groups.get(dimension);
+            String key = valuation.keys.get(dimension);
+            Group group = cells.get(key);
+            group.remove(valuation.cents);
+            if (group.size() == 0) {
+                cells.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Стоимости группы в копейках: сумма ведётся сразу, значения лежат в
+     * мультимножестве с порядковыми статистиками - изменение и любой
+     * процентиль стоят O(log n), без сортировки.
+     */
+    private static final class Group {
+        private final CentsSum sum = new CentsSum();
+        private final OrderStatisticMultiset values = new OrderStatisticMultiset();
+
+        private int size() {
+            return values.size();
+        }
+
+        private void add(long cents) {
+            values.add(cents);
+            sum.add(cents);
+        }
+
+        private void remove(long cents) {
+            if (!values.remove(cents)) {
+                throw new IllegalStateException("Стоимость не найдена в группе: " + cents);
+            }
+            sum.add(-cents);
+        }
+
+        private void clear() {
+            values.clear();
+            sum.clear();
+        }
+
+        private BigDecimal percentile(double percentile) {
+            int size = size();
+            if (size == 0) {
+                return null;
+            }
+            int rank = (int) Math.ceil(percentile / 100 * size);
+            return MoneyUtil.toBigDecimal(values.select(Math.max(0, rank - 1)));
+        }
+
+        private ValuationSummary summary() {
+            int size = size();
+            if (size == 0) {
+                return new ValuationSummary(0, sum.toBigDecimal(), null, null, null, null);
+            }
+            BigDecimal average = sum.fitsInLong()
+                    ? MoneyUtil.toBigDecimal(MoneyUtil.divide(sum.getCents(), size))
+                    : sum.toBigDecimal().divide(BigDecimal.valueOf(size), MoneyUtil.SCALE, RoundingMode.HALF_UP);
+            return new ValuationSummary(size, sum.toBigDecimal(), average,
+                    MoneyUtil.toBigDecimal(values.select(0)), percentile(50),
+                    MoneyUtil.toBigDecimal(values.select(size - 1)));
+        }
+    }
+
+    /**
+     * Вклад оценённого экспоната: группы разрезов и стоимость в копейках.
+     */
+    private static final class Valuation {
+        private final EnumMap<Dimension, String> keys = new EnumMap<>(Dimension.class);
+        private final long cents;
+
+        private Valuation(MuseumItem item, long cents) {
+            for (Dimension dimension : Dimension.values()) {
+                keys.put(dimension, dimension.groupOf(item));
+            }
+            this.cents = cents;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package kz.enu.museum.service;
+
+import java.math.BigDecimal;
+
+/**
+ * Итоги оценки группы экспонатов: количество оценённых экспонатов,
+ * сумма, среднее, минимум, медиана и максимум оценочной стоимости.
+ * Снимок на момент запроса.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+public class ValuationSummary {
+
+    private final long count;
+    private final BigDecimal total;
+    private final BigDecimal average;
+    private final BigDecimal min;
+    private final BigDecimal median;
+    private final BigDecimal max;
+
+    ValuationSummary(long count, BigDecimal total, BigDecimal average,
+                     BigDecimal min, BigDecimal median, BigDecimal max) {
+        this.count = count;
+        this.total = total;
+        this.average = average;
+        this.min = min;
+        this.median = median;
+        this.max = max;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    /**
+     * @return средняя стоимость или null, если оценённых экспонатов нет
+     */
+    public BigDecimal getAverage() {
+        return average;
+    }
+
+    /**
+     * @return минимальная стоимость или null, если оценённых экспонатов нет
+     */
+    public BigDecimal getMin() {
+        return min;
+    }
+
+    /**
+     * @return медиана стоимости или null, если оценённых экспонатов нет
+     */
+    public BigDecimal getMedian() {
+        return median;
+    }
+
+    /**
+     * @return максимальная стоимость или null, если оценённых экспонатов нет
+     */
+    public BigDecimal getMax() {
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return "ValuationSummary{count=" + count + ", total=" + total + ", average=" + average
+                + ", min=" + min + ", median=" + median + ", max=" + max + "}";
+    }
+}
@@ -0,0 +1,100 @@
+package kz.enu.museum.util;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Накопитель денежной суммы в копейках.
+ * Складывает значения в long; при переполнении накопленная часть
+ * переносится в {@link BigInteger}, и сложение продолжается в long, так что
+ * результат остаётся точным, а объекты создаются только при переполнении.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+public class CentsSum {
+
+    private long cents;
+    private BigInteger carry;
+
+    /**
+     * Прибавляет сумму.
+     *
+     * @param value сумма в копейках (отрицательная - вычитание)
+     */
+    public void add(long value) {
+        long result = cents + value;
+        if (((cents ^ result) & (value ^ result)) < 0) {
+            carry = carry().add(BigInteger.valueOf(cents));
+            result = value;
+        }
+        cents = result;
+    }
+
+    /**
+     * Прибавляет накопленное в другом накопителе.
+     *
+     * @param other накопитель
+     */
+    public void add(CentsSum other) {
+        add(other.cents);
+        if (other.carry != null) {
+            carry = carry().add(other.carry);
+        }
+    }
+
+    /**
+     * Обнуляет сумму.
+     */
+    public void clear() {
+        cents = 0;
+        carry = null;
+    }
+
+    /**
+     * Проверяет, что сумма помещается в long.
+     *
+     * @return true если сумма без переноса
+     */
+    public boolean fitsInLong() {
+        if (carry == null || carry.signum() == 0) {
+            return true;
+        }
+        return carry.add(BigInteger.valueOf(cents)).bitLength() < Long.SIZE;
+    }
+
+    /**
+     * Возвращает сумму в копейках.
+     *
+     * @return сумма
+     * @throws ArithmeticException если сумма не помещается в long
+     */
+    public long getCents() {
+        if (carry == null || carry.signum() == 0) {
+            return cents;
+        }
+        return carry.add(BigInteger.valueOf(cents)).longValueExact();
+    }
+
+    /**
+     * Переводит сумму в BigDecimal.
+     *
+     * @return сумма с двумя знаками после запятой
+     */
+    public BigDecimal toBigDecimal() {
+        if (carry == null || carry.signum() == 0) {
+            return MoneyUtil.toBigDecimal(cents);
+        }
+        return new BigDecimal(carry.add(BigInteger.valueOf(cents)), MoneyUtil.SCALE);
+    }
+
+    private BigInteger carry() {
+        return carry != null ? carry : BigInteger.ZERO;
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
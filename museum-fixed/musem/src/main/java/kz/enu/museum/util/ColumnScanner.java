@@ -0,0 +1,119 @@
+package kz.enu.museum.util;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Проход по числовой колонке с записью совпадений в битовую карту.
+ * Строка i соответствует биту i % 64 слова i / 64. Каждое слово
+ * вычисляется целиком (64 строки) и либо записывается, либо пересекается
+ * с уже записанным значением - так несколько условий дают одну карту
+ * без промежуточных множеств, а слова, обнулённые прежними условиями,
+ * повторно не проверяются.
+ * <p>
+ * Реализация на JDK Vector API выбирается, если модуль
+ * {@code jdk.incubator.vector} подключён к JVM
+ * ({@code --add-modules jdk.incubator.vector}); иначе используются
+ * обычные циклы. Векторный вариант отключается свойством
+ * {@code -Dmuseum.scan.vector=false}.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+public abstract class ColumnScanner {
+
+    private static final Logger logger = LogManager.getLogger(ColumnScanner.class);
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final String VECTOR_IMPLEMENTATION = "kz.enu.museum.util.VectorColumnScanner";
+
+    /**
+     * Возвращает векторную реализацию, если она доступна, иначе скалярную.
+     *
+     * @return реализация прохода
+     */
+    public static ColumnScanner create() {
+        if (Boolean.parseBoolean(System.getProperty("museum.scan.vector", "true"))
+                && ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent()) {
+            try {
+                // Класс загружается по имени: без модуля его нельзя даже связать
+                return (ColumnScanner) Class.forName(VECTOR_IMPLEMENTATION).getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // Ошибка конструктора приходит обёрнутой в InvocationTargetException
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                logger.warn("Vector API недоступен, используется скалярный проход: " + cause.getMessage());
+            }
+        }
+        return scalar();
+    }
+
+    /**
+     * Возвращает скалярную реализацию.
+     *
+     * @return реализация на обычных циклах
+     */
+    public static ColumnScanner scalar() {
+        return new ScalarColumnScanner();
+    }
+
+    /**
+     * Отбирает строки со значением в диапазоне (границы включаются).
+     *
+     * @param column колонка (не короче size)
+     * @param size количество строк
+     * @param min нижняя граница
+     * @param max верхняя граница
+     * @param words битовая карта (не короче (size + 63) / 64 слов)
+     * @param intersect true - пересечь с картой, false - записать в карту
+     */
+    public abstract void between(int[] column, int size, int min, int max, long[] words, boolean intersect);
+
+    /**
+     * Отбирает строки со значением в диапазоне (границы включаются).
+     *
+     * @param column колонка (не короче size)
+     * @param size количество строк
+     * @param min нижняя граница
+     * @param max верхняя граница
+     * @param words битовая карта (не короче (size + 63) / 64 слов)
+     * @param intersect true - пересечь с картой, false - записать в карту
+     */
+    public abstract void between(long[] column, int size, long min, long max, long[] words, boolean intersect);
+
+    /**
+     * Отбирает строки, у которых значение имеет общий бит с маской
+     * (колонка битов перечисления: {@code 1 << ordinal}).
+     *
+     * @param column колонка (не короче size)
+     * @param size количество строк
+     * @param mask маска допустимых значений
+     * @param words битовая карта (не короче (size + 63) / 64 слов)
+     * @param intersect true - пересечь с картой, false - записать в карту
+     */
+    public abstract void anyBit(int[] column, int size, int mask, long[] words, boolean intersect);
+
+    /**
+     * Проверяет, что проход использует векторные инструкции.
+     *
+     * @return true для реализации на Vector API
+     */
+    public abstract boolean isVectorized();
+
+    /**
+     * Количество слов битовой карты для заданного числа строк.
+     *
+     * @param size количество строк
+     * @return количество слов
+     */
+    public static int wordCount(int size) {
+        return (size + 63) >>> 6;
+    }
+
+    /**
+     * Записывает или пересекает слово карты.
+     */
+    static void store(long[] words, int word, long bits, boolean intersect) {
+        words[word] = intersect ? words[word] & bits : bits;
+    }
+}
@@ -0,0 +1,144 @@
+package kz.enu.museum.util;
+
+/**
+ * Дерево Фенвика (дерево двоичных индексов) над целочисленными ключами.
+ * Изменение значения ключа и сумма по любому диапазону ключей стоят
+ * O(log n), где n - ширина диапазона ключей. Диапазон задаётся первым
+ * ключом и расширяется в обе стороны по мере добавления ключей
+ * (с перестроением за O(n log n), число перестроений логарифмическое).
+ * Ключи могут быть отрицательными (годы до нашей эры, номера месяцев).
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+public class FenwickTree {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    // tree[1..capacity], позиция i соответствует ключу origin + i - 1
+    private long[] tree;
+    private int origin;
+    private long total;
+
+    /**
+     * Прибавляет значение к ключу.
+     *
+     * @param key ключ
+     * @param delta прибавляемое значение (отрицательное - вычитание)
+     */
+    public void add(int key, long delta) {
+        ensureRange(key);
+        for (int i = key - origin + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+        total += delta;
+    }
+
+    /**
+     * Сумма значений по ключам не больше заданного.
+     *
+     * @param key ключ
+     * @return сумма
+     */
+    public long prefixSum(int key) {
+        if (tree == null || key < origin) {
+            return 0;
+        }
+        if ((long) key - origin + 1 >= tree.length) {
+            return total;
+        }
+        long sum = 0;
+        for (int i = key - origin + 1; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Сумма значений по ключам диапазона (границы включаются).
+     *
+     * @param from начальный ключ
+     * @param to конечный ключ
+     * @return сумма, 0 для пустого диапазона
+     */
+    public long rangeSum(int from, int to) {
+        if (from > to) {
+            return 0;
+        }
+        return prefixSum(to) - (from == Integer.MIN_VALUE ? 0 : prefixSum(from - 1));
+    }
+
+    /**
+     * Значение одного ключа.
+     *
+     * @param key ключ
+     * @return значение
+     */
+    public long get(int key) {
+        return rangeSum(key, key);
+    }
+
+    /**
+     * Сумма всех значений.
+     *
+     * @return сумма
+     */
+    public long total() {
+        return total;
+    }
+
+    /**
+     * Удаляет все значения.
+     */
+    public void clear() {
+        tree = null;
+        total = 0;
+    }
+
+    private void ensureRange(int key) {
+        if (tree == null) {
+            tree = new long[INITIAL_CAPACITY + 1];
+            origin = key;
+            return;
+        }
+        int capacity = tree.length - 1;
+        if (key >= origin && (long) key - origin < capacity) {
+            return;
+        }
+        long low = Math.min(origin, key);
+        long high = Math.max((long) origin + capacity - 1, key);
+        long newCapacity = capacity;
+        while (newCapacity < high - low + 1) {
+            newCapacity *= 2;
+        }
+        if (newCapacity > Integer.MAX_VALUE - 1) {
+            throw new IllegalArgumentException("Слишком широкий диапазон ключей: " + low + ".." + high);
+        }
+        // Расширяемся в сторону нового ключа, чтобы следующие ключи с той же стороны поместились
+        int newOrigin = key < origin ? (int) Math.max(Integer.MIN_VALUE, high - newCapacity + 1) : origin;
+        long[] points = new long[capacity];
+        for (int i = 0; i < capacity; i++) {
+            points[i] = get(origin + i);
+        }
+        long[] rebuilt = new long[(int) newCapacity + 1];
+        for (int i = 0; i < capacity; i++) {
+            rebuilt[origin - newOrigin + i + 1] = points[i];
+        }
+        // Построение дерева за O(n): каждая позиция передаёт сумму родителю
+        for (int i = 1; i < rebuilt.length; i++) {
+            int parent = i + (i & -i);
+            if (parent < rebuilt.length) {
+                rebuilt[parent] += rebuilt[i];
+            }
+        }
+        tree = rebuilt;
+        origin = newOrigin;
+    }
+
+    @Override
+    public String toString() {
+        return "FenwickTree{origin=" + origin + ", capacity=" + (tree != null ? tree.length - 1 : 0)
+                + ", total=" + total + "}";
+    }
+}
@@ -0,0 +1,336 @@
+package kz.enu.museum.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+
+/**
+ * k-d дерево для поиска по нескольким числовым признакам.
+ * Поддерживает поиск по прямоугольному диапазону и поиск ближайших точек.
+ * Для сбалансированного дерева оба запроса посещают O(log n) узлов
+ * плюс найденные точки. Удаление помечает узел как удалённый; дерево
+ * перестраивается по медианам, когда удалённых узлов становится больше
+ * живых или после серии вставок глубина выходит за логарифмическую границу.
+ * Класс не потокобезопасен.
+ *
+ * @param <T> тип значений, привязанных к точкам
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+public class KdTree<T> {
+
+    private final int dimensions;
+    private Node<T> root;
+    private int size;
+    private int deleted;
+    private int insertsSinceBuild;
+
+    /**
+     * Конструктор пустого дерева.
+     *
+     * @param dimensions количество признаков (измерений)
+     */
+    public KdTree(int dimensions) {
+        if (dimensions <= 0) {
+            throw new IllegalArgumentException("Количество измерений должно быть положительным числом");
+        }
+        this.dimensions = dimensions;
+    }
+
+    /**
+     * Добавляет точку.
+     *
+     * @param point координаты
+     * @param value значение
+     */
+    public void insert(double[] point, T value) {
+        checkPoint(point);
+        Node<T> node = new Node<>(point.clone(), value);
+        size++;
+        insertsSinceBuild++;
+        if (root == null) {
+            root = node;
+            return;
+        }
+
+        Node<T> current = root;
+        int depth = 0;
+        while (true) {
+            int axis = depth % dimensions;
+            depth++;
+            if (point[axis] < current.point[axis]) {
+                if (current.left == null) {
+                    current.left = node;
+                    break;
+                }
+                current = current.left;
+            } else {
+                if (current.right == null) {
+                    current.right = node;
+                    break;
+                }
+                current = current.right;
+            }
+        }
+
+        // Перестраиваем не чаще, чем раз в size/8 вставок, чтобы стоимость была амортизированной
+        if (depth > maxDepth() && insertsSinceBuild > size / 8) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Удаляет точку с заданным значением.
+     *
+     * @param point координаты, под которыми значение было добавлено
+     * @param value значение
+     * @return true если точка была найдена
+     */
+    public boolean remove(double[] point, T value) {
+        checkPoint(point);
+        Deque<Node<T>> stack = new ArrayDeque<>();
+        Deque<Integer> depths = new ArrayDeque<>();
+        if (root != null) {
+            stack.push(root);
+            depths.push(0);
+        }
+        while (!stack.isEmpty()) {
+            Node<T> node = stack.pop();
+            int axis = depths.pop() % dimensions;
+            if (!node.deleted && Objects.equals(node.value, value) && samePoint(node.point, point)) {
+                node.deleted = true;
+                size--;
+                deleted++;
+                if (deleted > size) {
+                    rebuild();
+                }
+                return true;
+            }
+            // При равенстве координаты точка может быть в обоих поддеревьях
+            if (node.left != null && point[axis] <= node.point[axis]) {
+                stack.push(node.left);
+                depths.push(axis + 1);
+            }
+            if (node.right != null && point[axis] >= node.point[axis]) {
+                stack.push(node.right);
+                depths.push(axis + 1);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Находит точки внутри прямоугольного диапазона (границы включаются).
+     * Для открытой границы используется бесконечность.
+     *
+     * @param min нижние границы по каждому измерению
+     * @param max верхние границы по каждому измерению
+     * @return значения найденных точек
+     */
+    public List<T> range(double[] min, double[] max) {
+        checkPoint(min);
+        checkPoint(max);
+        List<T> found = new ArrayList<>();
+        Deque<Node<T>> stack = new ArrayDeque<>();
+        Deque<Integer> depths = new ArrayDeque<>();
+        if (root != null) {
+            stack.push(root);
+            depths.push(0);
+        }
+        while (!stack.isEmpty()) {
+            Node<T> node = stack.pop();
+            int axis = depths.pop() % dimensions;
+            if (!node.deleted && inside(node.point, min, max)) {
+                found.add(node.value);
+            }
+            if (node.left != null && min[axis] <= node.point[axis]) {
+                stack.push(node.left);
+                depths.push(axis + 1);
+            }
+            if (node.right != null && max[axis] >= node.point[axis]) {
+                stack.push(node.right);
+                depths.push(axis + 1);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Находит k ближайших точек (евклидово расстояние).
+     *
+     * @param target точка запроса
+     * @param k количество точек
+     * @return значения от ближайшего к дальнему
+     */
+    public List<T> nearest(double[] target, int k) {
+        checkPoint(target);
+        if (k <= 0) {
+            throw new IllegalArgumentException("Количество точек должно быть положительным числом");
+        }
+        // В вершине - самая дальняя из отобранных точек
+        PriorityQueue<Candidate<T>> best = new PriorityQueue<>(
+                Comparator.comparingDouble((Candidate<T> c) -> c.distance).reversed());
+        nearest(root, 0, target, k, best);
+
+        List<Candidate<T>> ordered = new ArrayList<>(best);
+        ordered.sort(Comparator.comparingDouble(c -> c.distance));
+        List<T> values = new ArrayList<>(ordered.size());
+        for (Candidate<T> candidate : ordered) {
+            values.add(candidate.value);
+        }
+        return values;
+    }
+
+    private void nearest(Node<T> node, int depth, double[] target, int k, PriorityQueue<Candidate<T>> best) {
+        if (node == null) {
+            return;
+        }
+        if (!node.deleted) {
+            double distance = squaredDistance(node.point, target);
+            if (best.size() < k) {
+                best.add(new Candidate<>(node.value, distance));
+            } else if (distance < best.peek().distance) {
+                best.poll();
+                best.add(new Candidate<>(node.value, distance));
+            }
+        }
+        int axis = depth % dimensions;
+        double delta = target[axis] - node.point[axis];
+        Node<T> near = delta < 0 ? node.left : node.right;
+        Node<T> far = delta < 0 ? node.right : node.left;
+        nearest(near, depth + 1, target, k, best);
+        // Дальнее поддерево проверяется, только если плоскость разреза ближе худшего кандидата
+        if (best.size() < k || delta * delta <= best.peek().distance) {
+            nearest(far, depth + 1, target, k, best);
+        }
+    }
+
+    /**
+     * Возвращает количество точек.
+     *
+     * @return количество точек
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Удаляет все точки.
+     */
+    public void clear() {
+        root = null;
+        size = 0;
+        deleted = 0;
+        insertsSinceBuild = 0;
+    }
+
+    /**
+     * Строит сбалансированное дерево по медианам заново.
+     */
+    public void rebuild() {
+        List<Node<T>> live = new ArrayList<>(size);
+        collect(root, live);
+        root = build(live, 0, live.size(), 0);
+        deleted = 0;
+        insertsSinceBuild = 0;
+    }
+
+    private void collect(Node<T> node, List<Node<T>> live) {
+        Deque<Node<T>> stack = new ArrayDeque<>();
+        if (node != null) {
+            stack.push(node);
+        }
+        while (!stack.isEmpty()) {
+            Node<T> current = stack.pop();
+            if (!current.deleted) {
+                live.add(new Node<>(current.point, current.value));
+            }
+            if (current.left != null) {
+                stack.push(current.left);
+            }
+            if (current.right != null) {
+                stack.push(current.right);
+            }
+        }
+    }
+
+    private Node<T> build(List<Node<T>> nodes, int from, int to, int depth) {
+        if (from >= to) {
+            return null;
+        }
+        int axis = depth % dimensions;
+        nodes.subList(from, to).sort(Comparator.comparingDouble(node -> node.point[axis]));
+        // Равные медиане точки могут оказаться в обоих поддеревьях,
+        // поэтому поиск при равенстве координаты спускается в обе стороны
+        int median = (from + to) >>> 1;
+        Node<T> node = nodes.get(median);
+        node.left = build(nodes, from, median, depth + 1);
+        node.right = build(nodes, median + 1, to, depth + 1);
+        return node;
+    }
+
+    private int maxDepth() {
+        return 2 * (32 - Integer.numberOfLeadingZeros(size)) + 2;
+    }
+
+    private boolean inside(double[] point, double[] min, double[] max) {
+        for (int i = 0; i < dimensions; i++) {
+            if (point[i] < min[i] || point[i] > max[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private double squaredDistance(double[] a, double[] b) {
+        double sum = 0;
+        for (int i = 0; i < dimensions; i++) {
+            double d = a[i] - b[i];
+            sum += d * d;
+        }
+        return sum;
+    }
+
+    private boolean samePoint(double[] a, double[] b) {
+        for (int i = 0; i < dimensions; i++) {
+            if (Double.compare(a[i], b[i]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void checkPoint(double[] point) {
+        if (point == null || point.length != dimensions) {
+            throw new IllegalArgumentException("Ожидалось координат: " + dimensions);
+        }
+    }
+
+    private static final class Node<T> {
+        private final double[] point;
+        private final T value;
+        private Node<T> left;
+        private Node<T> right;
+        private boolean deleted;
+
+        private Node(double[] point, T value) {
+            this.point = point;
+            this.value = value;
+        }
+    }
+
+    private static final class Candidate<T> {
+        private final T value;
+        private final double distance;
+
+        private Candidate(T value, double distance) {
+            this.value = value;
+            this.distance = distance;
+        }
+    }
+}
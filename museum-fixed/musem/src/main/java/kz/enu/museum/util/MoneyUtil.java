@@ -0,0 +1,98 @@
+package kz.enu.museum.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Утилита для денежных сумм в фиксированной точке.
+ * Внутри расчётов стоимость хранится как целое число копеек в long,
+ * что позволяет складывать и сравнивать суммы без создания объектов;
+ * в {@link BigDecimal} значения переводятся только на границе отчёта.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+public class MoneyUtil {
+
+    /** Количество знаков после запятой у суммы в копейках. */
+    public static final int SCALE = 2;
+
+    /**
+     * Переводит сумму в копейки с округлением до ближайшей копейки (половина - вверх).
+     *
+     * @param value сумма
+     * @return сумма в копейках
+     * @throws ArithmeticException если сумма не помещается в long
+     */
+    public static long toCents(BigDecimal value) {
+        return toCents(value, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Переводит сумму в копейки с заданным округлением
+     * (например, для границ диапазона: нижняя - вверх, верхняя - вниз).
+     *
+     * @param value сумма
+     * @param rounding способ округления до копейки
+     * @return сумма в копейках
+     * @throws ArithmeticException если сумма не помещается в long
+     */
+    public static long toCents(BigDecimal value, RoundingMode rounding) {
+        if (value == null) {
+            throw new IllegalArgumentException("Сумма не может быть null");
+        }
+        try {
+            return value.setScale(SCALE, rounding).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new ArithmeticException("Сумма вне допустимого диапазона: " + value.toPlainString());
+        }
+    }
+
+    /**
+     * Переводит сумму в копейки с насыщением: сумма, не помещающаяся в long
+     * (свыше ~9,2e16 - допустимо для DECIMAL(19,2) и JSON), заменяется
+     * ближайшей границей long вместо исключения.
+     *
+     * @param value сумма
+     * @param rounding способ округления до копейки
+     * @return сумма в копейках
+     */
+    public static long toCentsSaturated(BigDecimal value, RoundingMode rounding) {
+        try {
+            return toCents(value, rounding);
+        } catch (ArithmeticException e) {
+            return value.signum() > 0 ? Long.MAX_VALUE : Long.MIN_VALUE;
+        }
+    }
+
+    /**
+     * Переводит копейки в сумму.
+     *
+     * @param cents сумма в копейках
+     * @return сумма с двумя знаками после запятой
+     */
+    public static BigDecimal toBigDecimal(long cents) {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    /**
+     * Делит сумму в копейках на количество с округлением до копейки.
+     *
+     * @param cents сумма в копейках
+     * @param count количество (положительное)
+     * @return частное в копейках
+     */
+    public static long divide(long cents, long count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("Делитель должен быть положительным числом");
+        }
+        long quotient = cents / count;
+        long remainder = cents % count;
+        // Половина - от нуля, как RoundingMode.HALF_UP
+        if (Math.abs(remainder) >= count - Math.abs(remainder)) {
+            quotient += Long.signum(cents);
+        }
+        return quotient;
+    }
+}
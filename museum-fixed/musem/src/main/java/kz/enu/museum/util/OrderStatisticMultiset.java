@@ -0,0 +1,189 @@
+package kz.enu.museum.util;
+
+import java.util.SplittableRandom;
+
+/**
+ * Мультимножество целых чисел (long) с порядковыми статистиками:
+ * декартово дерево (treap), в каждом узле - значение, число его повторов
+ * и размер поддерева. Добавление, удаление и выбор k-го по возрастанию
+ * значения стоят ожидаемо O(log n), где n - число различных значений.
+ * Используется для процентилей, которые меняются по одному значению.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+public class OrderStatisticMultiset {
+
+    // Фиксированное зерно: форма дерева воспроизводима между запусками
+    private final SplittableRandom random = new SplittableRandom(0x5DEECE66DL);
+    private Node root;
+
+    /**
+     * Добавляет одно вхождение значения.
+     *
+     * @param value значение
+     */
+    public void add(long value) {
+        root = insert(root, value);
+    }
+
+    /**
+     * Удаляет одно вхождение значения.
+     *
+     * @param value значение
+     * @return true если значение было в множестве
+     */
+    public boolean remove(long value) {
+        if (count(root, value) == 0) {
+            return false;
+        }
+        root = delete(root, value);
+        return true;
+    }
+
+    /**
+     * Количество значений с учётом повторов.
+     *
+     * @return размер
+     */
+    public int size() {
+        return size(root);
+    }
+
+    /**
+     * Возвращает значение с заданным рангом в порядке возрастания.
+     *
+     * @param rank ранг от 0 до size() - 1
+     * @return значение
+     */
+    public long select(int rank) {
+        if (rank < 0 || rank >= size()) {
+            throw new IllegalArgumentException("Ранг вне диапазона: " + rank + " при размере " + size());
+        }
+        Node node = root;
+        while (true) {
+            int left = size(node.left);
+            if (rank < left) {
+                node = node.left;
+            } else if (rank < left + node.count) {
+                return node.value;
+            } else {
+                rank -= left + node.count;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Удаляет все значения.
+     */
+    public void clear() {
+        root = null;
+    }
+
+    private static int size(Node node) {
+        return node != null ? node.size : 0;
+    }
+
+    private static int count(Node node, long value) {
+        while (node != null) {
+            if (value < node.value) {
+                node = node.left;
+            } else if (value > node.value) {
+                node = node.right;
+            } else {
+                return node.count;
+            }
+        }
+        return 0;
+    }
+
+    private Node insert(Node node, long value) {
+        if (node == null) {
+            return new Node(value, random.nextInt());
+        }
+        if (value == node.value) {
+            node.count++;
+        } else if (value < node.value) {
+            node.left = insert(node.left, value);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, value);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        node.update();
+        return node;
+    }
+
+    // Значение гарантированно присутствует в поддереве
+    private static Node delete(Node node, long value) {
+        if (value < node.value) {
+            node.left = delete(node.left, value);
+        } else if (value > node.value) {
+            node.right = delete(node.right, value);
+        } else if (node.count > 1) {
+            node.count--;
+        } else if (node.left == null) {
+            return node.right;
+        } else if (node.right == null) {
+            return node.left;
+        } else if (node.left.priority > node.right.priority) {
+            node = rotateRight(node);
+            node.right = delete(node.right, value);
+        } else {
+            node = rotateLeft(node);
+            node.left = delete(node.left, value);
+        }
+        node.update();
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        node.update();
+        left.update();
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        node.update();
+        right.update();
+        return right;
+    }
+
+    @Override
+    public String toString() {
+        return "OrderStatisticMultiset{size=" + size() + "}";
+    }
+
+    /**
+     * Узел дерева: значение, повторы и размер поддерева с повторами.
+     */
+    private static final class Node {
+        private final long value;
+        private final int priority;
+        private int count = 1;
+        private int size = 1;
+        private Node left;
+        private Node right;
+
+        private Node(long value, int priority) {
+            this.value = value;
+            this.priority = priority;
+        }
+
+        private void update() {
+            size = count + size(left) + size(right);
+        }
+    }
+}
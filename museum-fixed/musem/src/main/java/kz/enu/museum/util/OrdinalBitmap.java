@@ -0,0 +1,626 @@
+package kz.enu.museum.util;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Сжатое битовое множество целых неотрицательных чисел в стиле Roaring.
+ * Пространство значений делится на блоки по 65536 чисел (по старшим 16 битам).
+ * Разреженный блок хранится отсортированным массивом младших 16 бит,
+ * плотный (более 4096 значений) - битовой картой из 1024 слов.
+ * Пересечение и объединение выполняются поблочно, а мощность считается
+ * без построения списка значений.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+public class OrdinalBitmap {
+
+    /** Порог перехода между массивом и битовой картой внутри блока. */
+    static final int ARRAY_LIMIT = 4096;
+
+    private char[] keys;
+    private Container[] containers;
+    private int size;
+
+    /**
+     * Создаёт пустое множество.
+     */
+    public OrdinalBitmap() {
+        this.keys = new char[4];
+        this.containers = new Container[4];
+    }
+
+    private OrdinalBitmap(char[] keys, Container[] containers, int size) {
+        this.keys = keys;
+        this.containers = containers;
+        this.size = size;
+    }
+
+    /**
+     * Добавляет значение.
+     *
+     * @param value неотрицательное значение
+     */
+    public void add(int value) {
+        checkValue(value);
+        char high = (char) (value >>> 16);
+        int index = findKey(high);
+        if (index >= 0) {
+            containers[index] = containers[index].add((char) value);
+        } else {
+            int insertAt = -index - 1;
+            insertContainer(insertAt, high, new ArrayContainer().add((char) value));
+        }
+    }
+
+    /**
+     * Удаляет значение.
+     *
+     * @param value значение
+     */
+    public void remove(int value) {
+        if (value < 0) {
+            return;
+        }
+        int index = findKey((char) (value >>> 16));
+        if (index < 0) {
+            return;
+        }
+        Container updated = containers[index].remove((char) value);
+        if (updated.cardinality() == 0) {
+            removeContainer(index);
+        } else {
+            containers[index] = updated;
+        }
+    }
+
+    /**
+     * Проверяет наличие значения.
+     *
+     * @param value значение
+     * @return true если значение есть в множестве
+     */
+    public boolean contains(int value) {
+        if (value < 0) {
+            return false;
+        }
+        int index = findKey((char) (value >>> 16));
+        return index >= 0 && containers[index].contains((char) value);
+    }
+
+    /**
+     * Возвращает количество значений в множестве.
+     *
+     * @return мощность множества
+     */
+    public int cardinality() {
+        int total = 0;
+        for (int i = 0; i < size; i++) {
+            total += containers[i].cardinality();
+        }
+        return total;
+    }
+
+    /**
+     * Проверяет, пусто ли множество.
+     *
+     * @return true если значений нет
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Обходит значения по возрастанию.
+     *
+     * @param action действие для каждого значения
+     */
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < size; i++) {
+            containers[i].forEach(keys[i] << 16, action);
+        }
+    }
+
+    /**
+     * Возвращает значения массивом по возрастанию.
+     *
+     * @return массив значений
+     */
+    public int[] toArray() {
+        int[] result = new int[cardinality()];
+        int[] position = {0};
+        forEach(value -> result[position[0]++] = value);
+        return result;
+    }
+
+    /**
+     * Возвращает не более limit наименьших значений по возрастанию.
+     * Блоки после набранного количества не обходятся.
+     *
+     * @param limit максимальное количество значений
+     * @return массив значений
+     */
+    public int[] toArray(int limit) {
+        int[] result = new int[Math.min(limit, cardinality())];
+        int[] position = {0};
+        for (int i = 0; i < size && position[0] < result.length; i++) {
+            containers[i].forEach(keys[i] << 16, value -> {
+                if (position[0] < result.length) {
+                    result[position[0]++] = value;
+                }
+            });
+        }
+        return result;
+    }
+
+    /**
+     * Создаёт независимую копию множества.
+     *
+     * @return копия
+     */
+    public OrdinalBitmap copy() {
+        Container[] copied = new Container[containers.length];
+        for (int i = 0; i < size; i++) {
+            copied[i] = containers[i].copy();
+        }
+        return new OrdinalBitmap(Arrays.copyOf(keys, keys.length), copied, size);
+    }
+
+    /**
+     * Строит множество по несжатой битовой карте (бит i слова w - значение w * 64 + i).
+     * Каждые 1024 слова дают один блок: плотный копируется как есть,
+     * разреженный переводится в массив.
+     *
+     * @param words битовая карта
+     * @return новое множество
+     */
+    public static OrdinalBitmap fromWords(long[] words) {
+        int blocks = (words.length + 1023) >>> 10;
+        OrdinalBitmap result = new OrdinalBitmap(new char[Math.max(1, blocks)], new Container[Math.max(1, blocks)], 0);
+        for (int block = 0; block < blocks; block++) {
+            int from = block << 10;
+            int to = Math.min(words.length, from + 1024);
+            int count = 0;
+            for (int i = from; i < to; i++) {
+                count += Long.bitCount(words[i]);
+            }
+            if (count == 0) {
+                continue;
+            }
+            long[] blockWords = new long[1024];
+            System.arraycopy(words, from, blockWords, 0, to - from);
+            BitmapContainer container = new BitmapContainer(blockWords, count);
+            result.appendContainer((char) block, count <= ARRAY_LIMIT ? container.toArrayContainer() : container);
+        }
+        return result;
+    }
+
+    /**
+     * Пересечение двух множеств.
+     *
+     * @param a первое множество
+     * @param b второе множество
+     * @return новое множество
+     */
+    public static OrdinalBitmap and(OrdinalBitmap a, OrdinalBitmap b) {
+        int capacity = Math.max(1, Math.min(a.size, b.size));
+        OrdinalBitmap result = new OrdinalBitmap(new char[capacity], new Container[capacity], 0);
+        int i = 0;
+        int j = 0;
+        while (i < a.size && j < b.size) {
+            if (a.keys[i] < b.keys[j]) {
+                i++;
+            } else if (a.keys[i] > b.keys[j]) {
+                j++;
+            } else {
+                Container c = a.containers[i].and(b.containers[j]);
+                if (c.cardinality() > 0) {
+                    result.appendContainer(a.keys[i], c);
+                }
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Объединение двух множеств.
+     *
+     * @param a первое множество
+     * @param b второе множество
+     * @return новое множество
+     */
+    public static OrdinalBitmap or(OrdinalBitmap a, OrdinalBitmap b) {
+        int capacity = Math.max(1, a.size + b.size);
+        OrdinalBitmap result = new OrdinalBitmap(new char[capacity], new Container[capacity], 0);
+        int i = 0;
+        int j = 0;
+        while (i < a.size || j < b.size) {
+            if (j >= b.size || (i < a.size && a.keys[i] < b.keys[j])) {
+                result.appendContainer(a.keys[i], a.containers[i].copy());
+                i++;
+            } else if (i >= a.size || a.keys[i] > b.keys[j]) {
+                result.appendContainer(b.keys[j], b.containers[j].copy());
+                j++;
+            } else {
+                result.appendContainer(a.keys[i], a.containers[i].or(b.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Мощность пересечения без построения результата.
+     *
+     * @param a первое множество
+     * @param b второе множество
+     * @return количество общих значений
+     */
+    public static int andCardinality(OrdinalBitmap a, OrdinalBitmap b) {
+        int total = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.size && j < b.size) {
+            if (a.keys[i] < b.keys[j]) {
+                i++;
+            } else if (a.keys[i] > b.keys[j]) {
+                j++;
+            } else {
+                total += a.containers[i].andCardinality(b.containers[j]);
+                i++;
+                j++;
+            }
+        }
+        return total;
+    }
+
+    private static void checkValue(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Значение битового множества не может быть отрицательным");
+        }
+    }
+
+    private int findKey(char high) {
+        return Arrays.binarySearch(keys, 0, size, high);
+    }
+
+    private void insertContainer(int index, char key, Container container) {
+        ensureCapacity(size + 1);
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = key;
+        containers[index] = container;
+        size++;
+    }
+
+    private void appendContainer(char key, Container container) {
+        ensureCapacity(size + 1);
+        keys[size] = key;
+        containers[size] = container;
+        size++;
+    }
+
+    private void removeContainer(int index) {
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+        size--;
+        containers[size] = null;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required > keys.length) {
+            int newLength = Math.max(required, keys.length * 2);
+            keys = Arrays.copyOf(keys, newLength);
+            containers = Arrays.copyOf(containers, newLength);
+        }
+    }
+
+    /**
+     * Блок из 65536 значений.
+     */
+    private abstract static class Container {
+        abstract Container add(char value);
+
+        abstract Container remove(char value);
+
+        abstract boolean contains(char value);
+
+        abstract int cardinality();
+
+        abstract Container and(Container other);
+
+        abstract Container or(Container other);
+
+        abstract int andCardinality(Container other);
+
+        abstract void forEach(int base, IntConsumer action);
+
+        abstract Container copy();
+    }
+
+    /**
+     * Разреженный блок: отсортированный массив младших 16 бит.
+     */
+    private static final class ArrayContainer extends Container {
+        private char[] content;
+        private int cardinality;
+
+        ArrayContainer() {
+            this.content = new char[4];
+        }
+
+        ArrayContainer(char[] content, int cardinality) {
+            this.content = content;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        Container add(char value) {
+            int index = Arrays.binarySearch(content, 0, cardinality, value);
+            if (index >= 0) {
+                return this;
+            }
+            if (cardinality >= ARRAY_LIMIT) {
+                return toBitmap().add(value);
+            }
+            int insertAt = -index - 1;
+            if (cardinality == content.length) {
+                content = Arrays.copyOf(content, Math.min(ARRAY_LIMIT, Math.max(4, content.length * 2)));
+            }
+            System.arraycopy(content, insertAt, content, insertAt + 1, cardinality - insertAt);
+            content[insertAt] = value;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            int index = Arrays.binarySearch(content, 0, cardinality, value);
+            if (index >= 0) {
+                System.arraycopy(content, index + 1, content, index, cardinality - index - 1);
+                cardinality--;
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(content, 0, cardinality, value) >= 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        Container and(Container other) {
+            char[] result = new char[Math.min(cardinality, other.cardinality())];
+            int count = 0;
+            if (other instanceof ArrayContainer array) {
+                int i = 0;
+                int j = 0;
+                while (i < cardinality && j < array.cardinality) {
+                    if (content[i] < array.content[j]) {
+                        i++;
+                    } else if (content[i] > array.content[j]) {
+                        j++;
+                    } else {
+                        result[count++] = content[i];
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < cardinality; i++) {
+                    if (other.contains(content[i])) {
+                        result[count++] = content[i];
+                    }
+                }
+            }
+            return new ArrayContainer(result, count);
+        }
+
+        @Override
+        Container or(Container other) {
+            if (other instanceof BitmapContainer) {
+                return other.or(this);
+            }
+            ArrayContainer array = (ArrayContainer) other;
+            char[] merged = new char[cardinality + array.cardinality];
+            int count = 0;
+            int i = 0;
+            int j = 0;
+            while (i < cardinality || j < array.cardinality) {
+                if (j >= array.cardinality || (i < cardinality && content[i] < array.content[j])) {
+                    merged[count++] = content[i++];
+                } else if (i >= cardinality || content[i] > array.content[j]) {
+                    merged[count++] = array.content[j++];
+                } else {
+                    merged[count++] = content[i];
+                    i++;
+                    j++;
+                }
+            }
+            ArrayContainer result = new ArrayContainer(merged, count);
+            return count > ARRAY_LIMIT ? result.toBitmap() : result;
+        }
+
+        @Override
+        int andCardinality(Container other) {
+            int count = 0;
+            if (other instanceof ArrayContainer array) {
+                int i = 0;
+                int j = 0;
+                while (i < cardinality && j < array.cardinality) {
+                    if (content[i] < array.content[j]) {
+                        i++;
+                    } else if (content[i] > array.content[j]) {
+                        j++;
+                    } else {
+                        count++;
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < cardinality; i++) {
+                    if (other.contains(content[i])) {
+                        count++;
+                    }
+                }
+            }
+            return count;
+        }
+
+        @Override
+        void forEach(int base, IntConsumer action) {
+            for (int i = 0; i < cardinality; i++) {
+                action.accept(base | content[i]);
+            }
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(content, Math.max(4, cardinality)), cardinality);
+        }
+
+        BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < cardinality; i++) {
+                bitmap.add(content[i]);
+            }
+            return bitmap;
+        }
+    }
+
+    /**
+     * Плотный блок: битовая карта из 1024 слов по 64 бита.
+     */
+    private static final class BitmapContainer extends Container {
+        private final long[] words;
+        private int cardinality;
+
+        BitmapContainer() {
+            this.words = new long[1024];
+        }
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        Container add(char value) {
+            long before = words[value >>> 6];
+            long after = before | (1L << value);
+            if (before != after) {
+                words[value >>> 6] = after;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            long before = words[value >>> 6];
+            long after = before & ~(1L << value);
+            if (before != after) {
+                words[value >>> 6] = after;
+                cardinality--;
+                if (cardinality <= ARRAY_LIMIT) {
+                    return toArrayContainer();
+                }
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        Container and(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.and(this);
+            }
+            BitmapContainer bitmap = (BitmapContainer) other;
+            long[] result = new long[1024];
+            int count = 0;
+            for (int i = 0; i < 1024; i++) {
+                result[i] = words[i] & bitmap.words[i];
+                count += Long.bitCount(result[i]);
+            }
+            BitmapContainer container = new BitmapContainer(result, count);
+            return count <= ARRAY_LIMIT ? container.toArrayContainer() : container;
+        }
+
+        @Override
+        Container or(Container other) {
+            long[] result = Arrays.copyOf(words, 1024);
+            BitmapContainer container = new BitmapContainer(result, cardinality);
+            if (other instanceof ArrayContainer array) {
+                for (int i = 0; i < array.cardinality; i++) {
+                    container.add(array.content[i]);
+                }
+                return container;
+            }
+            BitmapContainer bitmap = (BitmapContainer) other;
+            int count = 0;
+            for (int i = 0; i < 1024; i++) {
+                result[i] |= bitmap.words[i];
+                count += Long.bitCount(result[i]);
+            }
+            container.cardinality = count;
+            return container;
+        }
+
+        @Override
+        int andCardinality(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.andCardinality(this);
+            }
+            BitmapContainer bitmap = (BitmapContainer) other;
+            int count = 0;
+            for (int i = 0; i < 1024; i++) {
+                count += Long.bitCount(words[i] & bitmap.words[i]);
+            }
+            return count;
+        }
+
+        @Override
+        void forEach(int base, IntConsumer action) {
+            for (int i = 0; i < 1024; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    int bit = Long.numberOfTrailingZeros(word);
+                    action.accept(base | (i << 6) | bit);
+                    word &= word - 1;
+                }
+            }
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(Arrays.copyOf(words, 1024), cardinality);
+        }
+
+        ArrayContainer toArrayContainer() {
+            char[] content = new char[cardinality];
+            int[] position = {0};
+            forEach(0, value -> content[position[0]++] = (char) value);
+            return new ArrayContainer(content, cardinality);
+        }
+    }
+}
@@ -0,0 +1,479 @@
+package kz.enu.museum.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Потоковая запись документа PDF 1.4.
+ * Каждая страница сжимается и записывается в выход сразу после завершения;
+ * в памяти остаются только смещения объектов для таблицы xref и номера
+ * объектов страниц, поэтому память не зависит от количества страниц.
+ * Текст выводится одним встроенным шрифтом TrueType как составной шрифт
+ * (Type0/CIDFontType2, кодировка Identity-H): в строках записываются номера
+ * глифов, поэтому доступен любой символ шрифта, включая казахские буквы.
+ * Таблица ToUnicode строится по использованным глифам, чтобы текст
+ * копировался и искался в просмотрщиках.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+public class PdfWriter {
+
+    /** Ширина листа A4 в пунктах. */
+    public static final float A4_WIDTH = 595.28f;
+
+    /** Высота листа A4 в пунктах. */
+    public static final float A4_HEIGHT = 841.89f;
+
+    /** Записей в одном блоке beginbfchar таблицы ToUnicode (ограничение формата CMap). */
+    private static final int CMAP_BLOCK = 100;
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private final PositionStream out;
+    private final TrueTypeFont font;
+    // Символ Unicode для каждого использованного глифа (0 - глиф не использован)
+    private final char[] usedGlyphs;
+    private final int catalogId;
+    private final int pagesId;
+    private final int fontId;
+    private long[] offsets = new long[64];
+    private int objectCount;
+    private int[] pageIds = new int[64];
+    private int pageCount;
+
+    private final ByteArrayOutputStream content = new ByteArrayOutputStream(16 * 1024);
+    private final ByteArrayOutputStream compressed = new ByteArrayOutputStream(8 * 1024);
+    private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+    private Page page;
+    private boolean finished;
+
+    /**
+     * Конструктор. Сразу записывает заголовок документа.
+     *
+     * @param out поток (не закрывается)
+     * @param font встраиваемый шрифт
+     * @throws IOException при ошибке записи
+     */
+    public PdfWriter(OutputStream out, TrueTypeFont font) throws IOException {
+        if (out == null || font == null) {
+            throw new IllegalArgumentException("Поток и шрифт не могут быть null");
+        }
+        this.out = new PositionStream(out);
+        this.font = font;
+        this.usedGlyphs = new char[font.getGlyphCount()];
+
+        write("%PDF-1.4\n%âãÏÓ\n");
+        catalogId = reserve();
+        pagesId = reserve();
+        fontId = reserve();
+    }
+
+    /**
+     * Начинает новую страницу. Предыдущая страница должна быть завершена.
+     *
+     * @param width ширина в пунктах
+     * @param height высота в пунктах
+     * @return страница
+     */
+    public Page beginPage(float width, float height) {
+        if (finished || page != null) {
+            throw new IllegalStateException("Предыдущая страница не завершена или документ уже закрыт");
+        }
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Размер страницы должен быть положительным");
+        }
+        content.reset();
+        page = new Page(width, height);
+        return page;
+    }
+
+    /**
+     * Вычисляет ширину строки.
+     *
+     * @param text строка
+     * @param size кегль в пунктах
+     * @return ширина в пунктах
+     */
+    public float textWidth(String text, float size) {
+        long total = 0;
+        for (int i = 0; i < text.length(); i++) {
+            total += font.width(text.charAt(i));
+        }
+        return total * size / 1000f;
+    }
+
+    /**
+     * Обрезает строку по ширине, добавляя многоточие.
+     *
+     * @param text строка
+     * @param size кегль в пунктах
+     * @param maxWidth допустимая ширина в пунктах
+     * @return строка, не шире maxWidth
+     */
+    public String fit(String text, float size, float maxWidth) {
+        if (textWidth(text, size) <= maxWidth) {
+            return text;
+        }
+        float limit = maxWidth - textWidth("...", size);
+        float width = 0;
+        int end = 0;
+        while (end < text.length() && width + font.width(text.charAt(end)) * size / 1000f <= limit) {
+            width += font.width(text.charAt(end)) * size / 1000f;
+            end++;
+        }
+        if (end > 0 && Character.isHighSurrogate(text.charAt(end - 1))) {
+            end--;
+        }
+        return text.substring(0, end) + "...";
+    }
+
+    /**
+     * Завершает документ: записывает шрифт, дерево страниц, таблицу xref
+     * и трейлер. Поток не закрывается.
+     *
+     * @param title заголовок документа
+     * @throws IOException при ошибке записи
+     */
+    public void finish(String title) throws IOException {
+        if (finished) {
+            return;
+        }
+        if (page != null) {
+            page.end();
+        }
+        if (pageCount == 0) {
+            beginPage(A4_WIDTH, A4_HEIGHT).end();
+        }
+        finished = true;
+        writeFont();
+
+        beginObject(pagesId);
+        write("<< /Type /Pages /Count " + pageCount + " /Kids [");
+        for (int i = 0; i < pageCount; i++) {
+            write((i % 16 == 0 ? "\n" : " ") + pageIds[i] + " 0 R");
+        }
+        write("\n] >>\n");
+        endObject();
+
+        int infoId = reserve();
+        beginObject(infoId);
+        write("<< /Title " + unicodeString(title != null ? title : "") + " /Producer (Museum Catalog)"
+                + " /CreationDate (D:" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss")) + ") >>\n");
+        endObject();
+
+        beginObject(catalogId);
+        write("<< /Type /Catalog /Pages " + pagesId + " 0 R >>\n");
+        endObject();
+
+        long xref = out.position;
+        StringBuilder table = new StringBuilder(20 * (objectCount + 1));
+        table.append("xref\n0 ").append(objectCount + 1).append("\n0000000000 65535 f \n");
+        for (int id = 1; id <= objectCount; id++) {
+            table.append(String.format(Locale.ROOT, "%010d 00000 n \n", offsets[id]));
+        }
+        write(table.toString());
+        write("trailer\n<< /Size " + (objectCount + 1) + " /Root " + catalogId + " 0 R /Info " + infoId + " 0 R >>\n"
+                + "startxref\n" + xref + "\n%%EOF\n");
+        out.flush();
+        deflater.end();
+    }
+
+    public int getPageCount() {
+        return pageCount;
+    }
+
+    private void writePage(Page finishedPage) throws IOException {
+        int contentId = reserve();
+        writeStream(contentId, "", content.toByteArray(), true);
+
+        int pageId = reserve();
+        beginObject(pageId);
+        write("<< /Type /Page /Parent " + pagesId + " 0 R /MediaBox [0 0 " + number(finishedPage.width) + " "
+                + number(finishedPage.height) + "] /Resources << /Font << /F1 " + fontId + " 0 R >> >> /Contents "
+                + contentId + " 0 R >>\n");
+        endObject();
+
+        if (pageCount == pageIds.length) {
+            pageIds = Arrays.copyOf(pageIds, pageCount * 2);
+        }
+        pageIds[pageCount++] = pageId;
+        page = null;
+    }
+
+    private void writeFont() throws IOException {
+        int fileId = reserve();
+        byte[] data = font.getData();
+        writeStream(fileId, " /Length1 " + data.length, data, true);
+
+        int descriptorId = reserve();
+        int[] box = font.getBoundingBox();
+        beginObject(descriptorId);
+        write("<< /Type /FontDescriptor /FontName /" + font.getName() + " /Flags 32 /FontBBox ["
+                + box[0] + " " + box[1] + " " + box[2] + " " + box[3] + "] /ItalicAngle 0 /Ascent " + font.getAscent()
+                + " /Descent " + font.getDescent() + " /CapHeight " + font.getAscent() + " /StemV 80 /FontFile2 "
+                + fileId + " 0 R >>\n");
+        endObject();
+
+        // Ширины только использованных глифов, подряд идущие номера - одним массивом
+        int cidFontId = reserve();
+        beginObject(cidFontId);
+        StringBuilder dict = new StringBuilder("<< /Type /Font /Subtype /CIDFontType2 /BaseFont /").append(font.getName())
+                .append(" /CIDSystemInfo << /Registry (Adobe) /Ordering (Identity) /Supplement 0 >> /FontDescriptor ")
+                .append(descriptorId).append(" 0 R /DW ").append(font.advance(0)).append(" /W [");
+        for (int glyph = 1; glyph < usedGlyphs.length; glyph++) {
+            if (usedGlyphs[glyph] == 0) {
+                continue;
+            }
+            dict.append('\n').append(glyph).append(" [");
+            for (int run = glyph; glyph < usedGlyphs.length && usedGlyphs[glyph] != 0; glyph++) {
+                dict.append(glyph == run ? "" : " ").append(font.advance(glyph));
+            }
+            dict.append(']');
+        }
+        dict.append("\n] /CIDToGIDMap /Identity >>\n");
+        write(dict.toString());
+        endObject();
+
+        int toUnicodeId = reserve();
+        writeStream(toUnicodeId, "", toUnicodeCMap(), false);
+
+        beginObject(fontId);
+        write("<< /Type /Font /Subtype /Type0 /BaseFont /" + font.getName() + " /Encoding /Identity-H"
+                + " /DescendantFonts [" + cidFontId + " 0 R] /ToUnicode " + toUnicodeId + " 0 R >>\n");
+        endObject();
+    }
+
+    /**
+     * Таблица ToUnicode: глиф -> символ для всех использованных глифов.
+     */
+    private byte[] toUnicodeCMap() {
+        StringBuilder cmap = new StringBuilder(1024)
+                .append("/CIDInit /ProcSet findresource begin\n12 dict begin\nbegincmap\n")
+                .append("/CIDSystemInfo << /Registry (Adobe) /Ordering (UCS) /Supplement 0 >> def\n")
+                .append("/CMapName /Adobe-Identity-UCS def\n/CMapType 2 def\n")
+                .append("1 begincodespacerange\n<0000> <FFFF>\nendcodespacerange\n");
+        int glyph = 1;
+        while (glyph < usedGlyphs.length) {
+            StringBuilder block = new StringBuilder(CMAP_BLOCK * 16);
+            int entries = 0;
+            for (; glyph < usedGlyphs.length && entries < CMAP_BLOCK; glyph++) {
+                if (usedGlyphs[glyph] != 0) {
+                    block.append('<');
+                    appendHex(block, glyph);
+                    block.append("> <");
+                    appendHex(block, usedGlyphs[glyph]);
+                    block.append(">\n");
+                    entries++;
+                }
+            }
+            if (entries > 0) {
+                cmap.append(entries).append(" beginbfchar\n").append(block).append("endbfchar\n");
+            }
+        }
+        cmap.append("endcmap\nCMapName currentdict /CMap defineresource pop\nend\nend\n");
+        return cmap.toString().getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    private void writeStream(int id, String dictionary, byte[] data, boolean compress) throws IOException {
+        byte[] body = data;
+        int length = data.length;
+        if (compress) {
+            compressed.reset();
+            deflater.reset();
+            try (DeflaterOutputStream zip = new DeflaterOutputStream(compressed, deflater, 8 * 1024)) {
+                zip.write(data);
+            }
+            body = compressed.toByteArray();
+            length = body.length;
+        }
+        beginObject(id);
+        write("<< /Length " + length + (compress ? " /Filter /FlateDecode" : "") + dictionary + " >>\nstream\n");
+        out.write(body, 0, length);
+        write("\nendstream\n");
+        endObject();
+    }
+
+    private int reserve() {
+        objectCount++;
+        if (objectCount == offsets.length) {
+            offsets = Arrays.copyOf(offsets, offsets.length * 2);
+        }
+        return objectCount;
+    }
+
+    private void beginObject(int id) throws IOException {
+        offsets[id] = out.position;
+        write(id + " 0 obj\n");
+    }
+
+    private void endObject() throws IOException {
+        write("endobj\n");
+    }
+
+    private void write(String text) throws IOException {
+        out.write(text.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    private static void appendHex(StringBuilder hex, int value) {
+        hex.append(HEX[(value >> 12) & 0xF]).append(HEX[(value >> 8) & 0xF])
+                .append(HEX[(value >> 4) & 0xF]).append(HEX[value & 0xF]);
+    }
+
+    /**
+     * Строка PDF в UTF-16BE с BOM для метаданных документа.
+     */
+    private static String unicodeString(String text) {
+        StringBuilder hex = new StringBuilder("<FEFF");
+        for (int i = 0; i < text.length(); i++) {
+            hex.append(String.format(Locale.ROOT, "%04X", (int) text.charAt(i)));
+        }
+        return hex.append('>').toString();
+    }
+
+    private static String number(float value) {
+        String text = String.format(Locale.ROOT, "%.2f", value);
+        return text.replaceFirst("\\.?0+$", "");
+    }
+
+    /**
+     * Страница документа. Команды рисования копятся в буфере страницы
+     * и записываются в выход при {@link #end()}. Координаты - в пунктах
+     * от левого нижнего угла.
+     */
+    public final class Page {
+        private final float width;
+        private final float height;
+
+        private Page(float width, float height) {
+            this.width = width;
+            this.height = height;
+        }
+
+        /**
+         * Выводит строку текста.
+         *
+         * @param x левый край
+         * @param y базовая линия
+         * @param size кегль в пунктах
+         * @param text строка (переводы строк заменяются пробелами)
+         */
+        public void text(float x, float y, float size, String text) {
+            StringBuilder op = new StringBuilder(4 * text.length() + 48);
+            op.append("BT /F1 ").append(number(size)).append(" Tf ").append(number(x)).append(' ')
+                    .append(number(y)).append(" Td <");
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '\n' || c == '\r') {
+                    c = ' ';
+                }
+                int glyph = font.glyph(c);
+                if (glyph >= usedGlyphs.length) {
+                    glyph = 0;
+                }
+                if (glyph != 0 && usedGlyphs[glyph] == 0) {
+                    usedGlyphs[glyph] = c;
+                }
+                appendHex(op, glyph);
+            }
+            command(op.append("> Tj ET\n").toString());
+        }
+
+        /**
+         * Выводит строку текста, выровненную по правому краю.
+         *
+         * @param right правый край
+         * @param y базовая линия
+         * @param size кегль в пунктах
+         * @param text строка
+         */
+        public void textRight(float right, float y, float size, String text) {
+            text(right - textWidth(text, size), y, size, text);
+        }
+
+        /**
+         * Рисует отрезок.
+         *
+         * @param x1 начало по x
+         * @param y1 начало по y
+         * @param x2 конец по x
+         * @param y2 конец по y
+         * @param lineWidth толщина линии
+         */
+        public void line(float x1, float y1, float x2, float y2, float lineWidth) {
+            command(number(lineWidth) + " w " + number(x1) + " " + number(y1) + " m "
+                    + number(x2) + " " + number(y2) + " l S\n");
+        }
+
+        /**
+         * Заливает прямоугольник оттенком серого.
+         *
+         * @param x левый край
+         * @param y нижний край
+         * @param w ширина
+         * @param h высота
+         * @param gray оттенок от 0 (чёрный) до 1 (белый)
+         */
+        public void fillRect(float x, float y, float w, float h, float gray) {
+            command("q " + number(gray) + " g " + number(x) + " " + number(y) + " " + number(w) + " "
+                    + number(h) + " re f Q\n");
+        }
+
+        /**
+         * Завершает страницу и записывает её в выход.
+         *
+         * @throws IOException при ошибке записи
+         */
+        public void end() throws IOException {
+            if (page != this) {
+                throw new IllegalStateException("Страница уже завершена");
+            }
+            writePage(this);
+        }
+
+        public float getWidth() {
+            return width;
+        }
+
+        public float getHeight() {
+            return height;
+        }
+
+        private void command(String text) {
+            content.writeBytes(text.getBytes(StandardCharsets.ISO_8859_1));
+        }
+    }
+
+    /**
+     * Поток, считающий записанные байты (смещения объектов для xref).
+     */
+    private static final class PositionStream extends FilterOutputStream {
+        private long position;
+
+        PositionStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            position++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            position += len;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package kz.enu.museum.util;
+
+/**
+ * Проход по колонкам обычными циклами.
+ * Используется, когда модуль Vector API не подключён, а также
+ * для неполного последнего слова в векторном проходе.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+final class ScalarColumnScanner extends ColumnScanner {
+
+    @Override
+    public void between(int[] column, int size, int min, int max, long[] words, boolean intersect) {
+        for (int word = 0, count = wordCount(size); word < count; word++) {
+            if (!intersect || words[word] != 0) {
+                int base = word << 6;
+                store(words, word, betweenBits(column, base, Math.min(64, size - base), min, max), intersect);
+            }
+        }
+    }
+
+    @Override
+    public void between(long[] column, int size, long min, long max, long[] words, boolean intersect) {
+        for (int word = 0, count = wordCount(size); word < count; word++) {
+            if (!intersect || words[word] != 0) {
+                int base = word << 6;
+                store(words, word, betweenBits(column, base, Math.min(64, size - base), min, max), intersect);
+            }
+        }
+    }
+
+    @Override
+    public void anyBit(int[] column, int size, int mask, long[] words, boolean intersect) {
+        for (int word = 0, count = wordCount(size); word < count; word++) {
+            if (!intersect || words[word] != 0) {
+                int base = word << 6;
+                store(words, word, anyBitBits(column, base, Math.min(64, size - base), mask), intersect);
+            }
+        }
+    }
+
+    @Override
+    public boolean isVectorized() {
+        return false;
+    }
+
+    /**
+     * Биты одного слова карты для строк base..base+rows-1.
+     * Циклы без ветвлений: при случайных данных условный переход
+     * предсказывается плохо и стоит дороже самого сравнения.
+     */
+    static long betweenBits(int[] column, int base, int rows, int min, int max) {
+        long bits = 0;
+        for (int i = 0; i < rows; i++) {
+            long value = column[base + i];
+            // Знаковый бит равен нулю, только если обе разности неотрицательны
+            long outside = (value - min) | (max - value);
+            bits |= (~outside >>> 63) << i;
+        }
+        return bits;
+    }
+
+    static long betweenBits(long[] column, int base, int rows, long min, long max) {
+        long bits = 0;
+        for (int i = 0; i < rows; i++) {
+            long value = column[base + i];
+            bits |= (long) (Long.compare(value, min) >>> 31 | Long.compare(max, value) >>> 31) << i;
+        }
+        // Выше собраны строки вне диапазона
+        return ~bits & (rows == 64 ? -1L : (1L << rows) - 1);
+    }
+
+    static long anyBitBits(int[] column, int base, int rows, int mask) {
+        long bits = 0;
+        for (int i = 0; i < rows; i++) {
+            int masked = column[base + i] & mask;
+            // (x | -x) имеет знаковый бит, только если x != 0
+            bits |= (long) ((masked | -masked) >>> 31) << i;
+        }
+        return bits;
+    }
+}
@@ -0,0 +1,140 @@
+package kz.enu.museum.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Утилита для разбора поискового текста.
+ * Предоставляет статические методы для нормализации, разбиения на слова
+ * и подсчёта вхождений без создания промежуточных строк.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+public class SearchTextUtil {
+
+    /**
+     * Приводит текст к виду для сравнения (нижний регистр, без крайних пробелов).
+     *
+     * @param text исходный текст
+     * @return нормализованный текст (пустая строка для null)
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return searchKey(text.trim());
+    }
+
+    /**
+     * Строит ключ поиска для значения поля: текст в нижнем регистре
+     * (не зависит от локали системы). Ключ вычисляется один раз при изменении
+     * поля, после чего сравнение с запросом не создаёт новых строк.
+     *
+     * @param value значение поля
+     * @return ключ поиска (пустая строка для null)
+     */
+    public static String searchKey(String value) {
+        return value != null ? value.toLowerCase(Locale.ROOT) : "";
+    }
+
+    /**
+     * Нормализует поисковый запрос: нижний регистр, без крайних пробелов,
+     * последовательности пробельных символов заменяются одним пробелом.
+     * Одинаковые по смыслу запросы дают одинаковую строку.
+     *
+     * @param query запрос
+     * @return нормализованный запрос (пустая строка для null)
+     */
+    public static String normalizeQuery(String query) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty()) {
+            return normalized;
+        }
+        StringBuilder sb = new StringBuilder(normalized.length());
+        boolean space = false;
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = true;
+            } else {
+                if (space) {
+                    sb.append(' ');
+                    space = false;
+                }
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Разбивает нормализованный текст на слова.
+     * Разделителями считаются все символы, кроме букв и цифр.
+     * Повторяющиеся слова возвращаются один раз.
+     *
+     * @param normalized нормализованный текст
+     * @return список уникальных слов
+     */
+    public static List<String> tokenize(String normalized) {
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean wordChar = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String token = normalized.substring(start, i);
+                if (!tokens.contains(token)) {
+                    tokens.add(token);
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Подсчитывает количество слов в тексте без выделения подстрок.
+     *
+     * @param text текст
+     * @return количество слов
+     */
+    public static int countTokens(String text) {
+        if (text == null) {
+            return 0;
+        }
+        int count = 0;
+        boolean inWord = false;
+        for (int i = 0; i < text.length(); i++) {
+            boolean wordChar = Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && !inWord) {
+                count++;
+            }
+            inWord = wordChar;
+        }
+        return count;
+    }
+
+    /**
+     * Подсчитывает количество (непересекающихся) вхождений подстроки.
+     *
+     * @param text текст (в нижнем регистре)
+     * @param term искомая подстрока (в нижнем регистре)
+     * @return количество вхождений
+     */
+    public static int countOccurrences(String text, String term) {
+        if (text == null || term.isEmpty()) {
+            return 0;
+        }
+        int count = 0;
+        int from = text.indexOf(term);
+        while (from >= 0) {
+            count++;
+            from = text.indexOf(term, from + term.length());
+        }
+        return count;
+    }
+}
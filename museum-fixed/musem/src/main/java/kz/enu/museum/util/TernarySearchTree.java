@@ -0,0 +1,275 @@
+package kz.enu.museum.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Тернарное дерево поиска с готовыми k лучшими дополнениями в каждом узле.
+ * Каждый узел хранит отсортированный по весу список не более чем из k
+ * записей своего поддерева, поэтому дополнение префикса - это спуск
+ * по символам префикса и слияние двух коротких списков, без обхода
+ * поддерева. При вставке и удалении списки пересчитываются только
+ * на пути от корня до изменённого узла.
+ * Класс не потокобезопасен.
+ *
+ * @param <V> тип значений
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+public class TernarySearchTree<V> {
+
+    /**
+     * Порядок "самый тяжёлый первым", при равном весе - по ключу.
+     */
+    private static final Comparator<Entry<?>> BY_WEIGHT = Comparator
+            .comparingLong((Entry<?> entry) -> entry.weight).reversed()
+            .thenComparing(entry -> entry.key);
+
+    private final int topK;
+    private Node<V> root;
+    private int size;
+
+    /**
+     * Конструктор.
+     *
+     * @param topK сколько лучших дополнений хранить в каждом узле
+     */
+    public TernarySearchTree(int topK) {
+        if (topK <= 0) {
+            throw new IllegalArgumentException("Количество дополнений должно быть положительным числом");
+        }
+        this.topK = topK;
+    }
+
+    /**
+     * Добавляет или заменяет запись.
+     *
+     * @param key ключ (непустой)
+     * @param value значение
+     * @param weight вес (больше - выше в списке дополнений)
+     */
+    public void put(String key, V value, long weight) {
+        if (key == null || key.isEmpty()) {
+            throw new IllegalArgumentException("Ключ не может быть пустым");
+        }
+        root = put(root, key, 0, new Entry<>(key, value, weight));
+    }
+
+    private Node<V> put(Node<V> node, String key, int index, Entry<V> entry) {
+        char c = key.charAt(index);
+        if (node == null) {
+            node = new Node<>(c);
+        }
+        if (c < node.c) {
+            node.lo = put(node.lo, key, index, entry);
+        } else if (c > node.c) {
+            node.hi = put(node.hi, key, index, entry);
+        } else if (index < key.length() - 1) {
+            node.eq = put(node.eq, key, index + 1, entry);
+        } else {
+            if (node.entry == null) {
+                size++;
+            }
+            node.entry = entry;
+        }
+        recompute(node);
+        return node;
+    }
+
+    /**
+     * Удаляет запись.
+     *
+     * @param key ключ
+     * @return true если запись была
+     */
+    public boolean remove(String key) {
+        if (key == null || key.isEmpty()) {
+            return false;
+        }
+        int before = size;
+        root = remove(root, key, 0);
+        return size < before;
+    }
+
+    private Node<V> remove(Node<V> node, String key, int index) {
+        if (node == null) {
+            return null;
+        }
+        char c = key.charAt(index);
+        if (c < node.c) {
+            node.lo = remove(node.lo, key, index);
+        } else if (c > node.c) {
+            node.hi = remove(node.hi, key, index);
+        } else if (index < key.length() - 1) {
+            node.eq = remove(node.eq, key, index + 1);
+        } else if (node.entry != null) {
+            node.entry = null;
+            size--;
+        }
+        // Пустой узел без потомков удаляется; узел с одним боковым потомком заменяется им
+        if (node.entry == null && node.eq == null) {
+            if (node.lo == null) {
+                return node.hi;
+            }
+            if (node.hi == null) {
+                return node.lo;
+            }
+        }
+        recompute(node);
+        return node;
+    }
+
+    /**
+     * Возвращает значение по ключу.
+     *
+     * @param key ключ
+     * @return значение или null
+     */
+    public V get(String key) {
+        Node<V> node = find(key);
+        return node != null && node.entry != null ? node.entry.value : null;
+    }
+
+    /**
+     * Возвращает лучшие по весу записи с заданным префиксом.
+     *
+     * @param prefix префикс (пустой - все записи)
+     * @param limit количество записей (не больше topK)
+     * @return записи от самой тяжёлой
+     */
+    public List<Entry<V>> top(String prefix, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Количество дополнений должно быть положительным числом");
+        }
+        int count = Math.min(limit, topK);
+        if (prefix == null || prefix.isEmpty()) {
+            return root != null ? copy(root.best, count) : new ArrayList<>();
+        }
+        Node<V> node = find(prefix);
+        if (node == null) {
+            return new ArrayList<>();
+        }
+        List<Entry<V>> result = new ArrayList<>(count);
+        if (node.entry != null) {
+            result.add(node.entry);
+        }
+        if (node.eq != null) {
+            result.addAll(node.eq.best);
+        }
+        result.sort(BY_WEIGHT);
+        return copy(result, count);
+    }
+
+    /**
+     * Возвращает количество записей.
+     *
+     * @return количество записей
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Удаляет все записи.
+     */
+    public void clear() {
+        root = null;
+        size = 0;
+    }
+
+    private Node<V> find(String key) {
+        if (key == null || key.isEmpty()) {
+            return null;
+        }
+        Node<V> node = root;
+        int index = 0;
+        while (node != null) {
+            char c = key.charAt(index);
+            if (c < node.c) {
+                node = node.lo;
+            } else if (c > node.c) {
+                node = node.hi;
+            } else if (index < key.length() - 1) {
+                node = node.eq;
+                index++;
+            } else {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Пересчитывает лучшие записи поддерева узла по спискам потомков.
+     */
+    private void recompute(Node<V> node) {
+        List<Entry<V>> candidates = new ArrayList<>();
+        if (node.entry != null) {
+            candidates.add(node.entry);
+        }
+        addAll(candidates, node.lo);
+        addAll(candidates, node.eq);
+        addAll(candidates, node.hi);
+        candidates.sort(BY_WEIGHT);
+        node.best = copy(candidates, topK);
+    }
+
+    private static <V> void addAll(List<Entry<V>> candidates, Node<V> child) {
+        if (child != null) {
+            candidates.addAll(child.best);
+        }
+    }
+
+    private static <V> List<Entry<V>> copy(List<Entry<V>> entries, int count) {
+        return new ArrayList<>(entries.subList(0, Math.min(count, entries.size())));
+    }
+
+    /**
+     * Запись дерева: ключ, значение и вес.
+     *
+     * @param <V> тип значения
+     */
+    public static final class Entry<V> {
+        private final String key;
+        private final V value;
+        private final long weight;
+
+        private Entry(String key, V value, long weight) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public V getValue() {
+            return value;
+        }
+
+        public long getWeight() {
+            return weight;
+        }
+
+        @Override
+        public String toString() {
+            return key + " (" + weight + ")";
+        }
+    }
+
+    private static final class Node<V> {
+        private final char c;
+        private Node<V> lo;
+        private Node<V> eq;
+        private Node<V> hi;
+        private Entry<V> entry;
+        private List<Entry<V>> best = new ArrayList<>();
+
+        private Node(char c) {
+            this.c = c;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package kz.enu.museum.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Ограниченная куча для отбора k лучших элементов.
+ * Хранит не более k элементов: в вершине всегда худший из отобранных,
+ * поэтому каждый новый кандидат сравнивается только с ним.
+ * Полный набор кандидатов никогда не сортируется.
+ *
+ * @param <T> тип элементов
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+public class TopKHeap<T> {
+
+    private final int capacity;
+    private final Comparator<? super T> order;
+    private final PriorityQueue<T> heap;
+
+    /**
+     * Конструктор кучи.
+     *
+     * @param capacity максимальное количество элементов (k)
+     * @param order порядок "лучший первым"
+     */
+    public TopKHeap(int capacity, Comparator<? super T> order) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Размер выборки должен быть положительным числом");
+        }
+        this.capacity = capacity;
+        this.order = order;
+        // В вершине кучи - худший элемент
+        this.heap = new PriorityQueue<>(Math.min(capacity, 1024) + 1, order.reversed());
+    }
+
+    /**
+     * Предлагает элемент для отбора.
+     *
+     * @param element кандидат
+     * @return true если элемент попал в выборку
+     */
+    public boolean offer(T element) {
+        if (heap.size() < capacity) {
+            heap.add(element);
+            return true;
+        }
+        if (order.compare(element, heap.peek()) < 0) {
+            heap.poll();
+            heap.add(element);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Возвращает количество отобранных элементов.
+     *
+     * @return количество элементов
+     */
+    public int size() {
+        return heap.size();
+    }
+
+    /**
+     * Возвращает отобранные элементы, отсортированные от лучшего к худшему.
+     * Сортируются только k отобранных элементов.
+     *
+     * @return отсортированный список
+     */
+    public List<T> toSortedList() {
+        List<T> result = new ArrayList<>(heap);
+        result.sort(order);
+        return result;
+    }
+}
@@ -0,0 +1,245 @@
+package kz.enu.museum.util;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Шрифт TrueType, прочитанный из файла, для встраивания в PDF.
+ * Читаются только таблицы, нужные для вывода текста: head (единицы и габариты),
+ * hhea и hmtx (ширины глифов), maxp (число глифов) и cmap (Unicode, формат 4).
+ * Шрифты CFF (OTTO) и коллекции (.ttc) не поддерживаются.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+public class TrueTypeFont {
+
+    private final String name;
+    private final byte[] data;
+    private final int unitsPerEm;
+    private final int[] boundingBox;
+    private final int ascent;
+    private final int descent;
+    private final int glyphCount;
+    private final int[] advances;
+    private final char[] segmentEnds;
+    private final char[] segmentStarts;
+    private final short[] segmentDeltas;
+    private final int[] segmentRangeOffsets;
+    private final int rangeOffsetsPosition;
+    private final ByteBuffer buffer;
+
+    private TrueTypeFont(String name, byte[] data) {
+        this.name = name;
+        this.data = data;
+        this.buffer = ByteBuffer.wrap(data);
+
+        int version = buffer.getInt(0);
+        if (version != 0x00010000 && version != 0x74727565) {
+            throw new IllegalArgumentException("Поддерживаются только шрифты TrueType: " + name);
+        }
+        int head = table("head");
+        int hhea = table("hhea");
+        int hmtx = table("hmtx");
+        int maxp = table("maxp");
+        int cmap = table("cmap");
+
+        unitsPerEm = u16(head + 18);
+        boundingBox = new int[]{
+                scale(buffer.getShort(head + 36)), scale(buffer.getShort(head + 38)),
+                scale(buffer.getShort(head + 40)), scale(buffer.getShort(head + 42))
+        };
+        ascent = scale(buffer.getShort(hhea + 4));
+        descent = scale(buffer.getShort(hhea + 6));
+        glyphCount = u16(maxp + 4);
+
+        int metrics = u16(hhea + 34);
+        advances = new int[metrics];
+        for (int i = 0; i < metrics; i++) {
+            advances[i] = u16(hmtx + 4 * i);
+        }
+
+        int unicode = unicodeSubtable(cmap);
+        int segments = u16(unicode + 6) / 2;
+        segmentEnds = new char[segments];
+        segmentStarts = new char[segments];
+        segmentDeltas = new short[segments];
+        segmentRangeOffsets = new int[segments];
+        int ends = unicode + 14;
+        int starts = ends + 2 * segments + 2;
+        int deltas = starts + 2 * segments;
+        rangeOffsetsPosition = deltas + 2 * segments;
+        for (int i = 0; i < segments; i++) {
+            segmentEnds[i] = (char) u16(ends + 2 * i);
+            segmentStarts[i] = (char) u16(starts + 2 * i);
+            segmentDeltas[i] = buffer.getShort(deltas + 2 * i);
+            segmentRangeOffsets[i] = u16(rangeOffsetsPosition + 2 * i);
+        }
+    }
+
+    /**
+     * Загружает шрифт из файла .ttf.
+     *
+     * @param path путь к файлу
+     * @return шрифт
+     * @throws IOException при ошибке чтения
+     * @throws IllegalArgumentException если файл не является шрифтом TrueType
+     */
+    public static TrueTypeFont load(Path path) throws IOException {
+        String fileName = path.getFileName().toString();
+        String name = fileName.replaceFirst("\\.[^.]*$", "").replaceAll("[^A-Za-z0-9-]", "");
+        try {
+            return new TrueTypeFont(name.isEmpty() ? "EmbeddedFont" : name, Files.readAllBytes(path));
+        } catch (IndexOutOfBoundsException | BufferUnderflowException e) {
+            throw new IllegalArgumentException("Повреждённый файл шрифта: " + fileName, e);
+        }
+    }
+
+    /**
+     * Возвращает номер глифа символа (0, если символа нет в шрифте).
+     *
+     * @param c символ
+     * @return номер глифа
+     */
+    public int glyph(char c) {
+        int low = 0;
+        int high = segmentEnds.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (segmentEnds[mid] < c) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        if (segmentEnds.length == 0 || c < segmentStarts[low] || c > segmentEnds[low]) {
+            return 0;
+        }
+        if (segmentRangeOffsets[low] == 0) {
+            return (c + segmentDeltas[low]) & 0xFFFF;
+        }
+        int position = rangeOffsetsPosition + 2 * low + segmentRangeOffsets[low] + 2 * (c - segmentStarts[low]);
+        int glyph = u16(position);
+        return glyph == 0 ? 0 : (glyph + segmentDeltas[low]) & 0xFFFF;
+    }
+
+    /**
+     * Возвращает ширину символа в тысячных долях кегля.
+     *
+     * @param c символ
+     * @return ширина
+     */
+    public int width(char c) {
+        return advance(glyph(c));
+    }
+
+    /**
+     * Возвращает ширину глифа в тысячных долях кегля.
+     *
+     * @param glyph номер глифа
+     * @return ширина
+     */
+    public int advance(int glyph) {
+        return scale(advances[Math.min(glyph, advances.length - 1)]);
+    }
+
+    /**
+     * Проверяет, что в шрифте есть глифы всех символов строки.
+     *
+     * @param text строка
+     * @return true если ни один символ не заменяется пустым глифом
+     */
+    public boolean covers(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (glyph(text.charAt(i)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int table(String tag) {
+        int count = u16(4);
+        for (int i = 0; i < count; i++) {
+            int record = 12 + 16 * i;
+            if (tag.equals(new String(data, record, 4, StandardCharsets.US_ASCII))) {
+                return buffer.getInt(record + 8);
+            }
+        }
+        throw new IllegalArgumentException("В шрифте " + name + " нет таблицы " + tag);
+    }
+
+    /**
+     * Находит подтаблицу cmap формата 4 для Unicode BMP.
+     */
+    private int unicodeSubtable(int cmap) {
+        int count = u16(cmap + 2);
+        int fallback = -1;
+        for (int i = 0; i < count; i++) {
+            int record = cmap + 4 + 8 * i;
+            int platform = u16(record);
+            int encoding = u16(record + 2);
+            int subtable = cmap + buffer.getInt(record + 4);
+            if (u16(subtable) != 4) {
+                continue;
+            }
+            if (platform == 3 && encoding == 1) {
+                return subtable;
+            }
+            if (platform == 0) {
+                fallback = subtable;
+            }
+        }
+        if (fallback < 0) {
+            throw new IllegalArgumentException("В шрифте " + name + " нет таблицы символов Unicode");
+        }
+        return fallback;
+    }
+
+    private int u16(int position) {
+        return buffer.getShort(position) & 0xFFFF;
+    }
+
+    private int scale(int units) {
+        return Math.round(units * 1000f / unitsPerEm);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Возвращает содержимое файла шрифта (не копия, не изменять).
+     *
+     * @return байты файла
+     */
+    public byte[] getData() {
+        return data;
+    }
+
+    /**
+     * Возвращает габариты глифов в тысячных долях кегля: xMin, yMin, xMax, yMax.
+     *
+     * @return габариты
+     */
+    public int[] getBoundingBox() {
+        return boundingBox.clone();
+    }
+
+    public int getAscent() {
+        return ascent;
+    }
+
+    public int getDescent() {
+        return descent;
+    }
+
+    public int getGlyphCount() {
+        return glyphCount;
+    }
+}
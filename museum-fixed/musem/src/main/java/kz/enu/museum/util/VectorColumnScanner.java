@@ -0,0 +1,125 @@
+package kz.enu.museum.util;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Проход по колонкам на JDK Vector API.
+ * За одну операцию сравнивается столько строк, сколько помещается
+ * в векторный регистр (8 или 16 чисел int на AVX2/AVX-512), маска
+ * сравнения сразу становится битами слова карты. Неполное последнее
+ * слово проверяется обычным циклом. Биты маски укладываются в слово
+ * подряд, поэтому число элементов вектора должно делить 64; иначе
+ * (например, SVE на 384 бита) создание проходчика завершается ошибкой
+ * и {@link ColumnScanner#create()} выбирает скалярный проход.
+ * Загружается через {@link ColumnScanner#create()} только при подключённом
+ * модуле {@code jdk.incubator.vector}.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+final class VectorColumnScanner extends ColumnScanner {
+
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+
+    VectorColumnScanner() {
+        if (!dividesWord(INTS.length()) || !dividesWord(LONGS.length())) {
+            throw new IllegalStateException("Число элементов вектора не делит 64: int " + INTS.length()
+                    + ", long " + LONGS.length());
+        }
+    }
+
+    private static boolean dividesWord(int lanes) {
+        return lanes <= 64 && 64 % lanes == 0;
+    }
+
+    @Override
+    public void between(int[] column, int size, int min, int max, long[] words, boolean intersect) {
+        int fullWords = size >>> 6;
+        int lanes = INTS.length();
+        IntVector low = IntVector.broadcast(INTS, min);
+        IntVector high = IntVector.broadcast(INTS, max);
+        for (int word = 0; word < fullWords; word++) {
+            if (intersect && words[word] == 0) {
+                continue;
+            }
+            int base = word << 6;
+            long bits = 0;
+            for (int offset = 0; offset < 64; offset += lanes) {
+                IntVector values = IntVector.fromArray(INTS, column, base + offset);
+                VectorMask<Integer> match = values.compare(VectorOperators.GE, low)
+                        .and(values.compare(VectorOperators.LE, high));
+                bits |= match.toLong() << offset;
+            }
+            store(words, word, bits, intersect);
+        }
+        int rest = size & 63;
+        if (rest != 0 && (!intersect || words[fullWords] != 0)) {
+            long bits = ScalarColumnScanner.betweenBits(column, fullWords << 6, rest, min, max);
+            store(words, fullWords, bits, intersect);
+        }
+    }
+
+    @Override
+    public void between(long[] column, int size, long min, long max, long[] words, boolean intersect) {
+        int fullWords = size >>> 6;
+        int lanes = LONGS.length();
+        LongVector low = LongVector.broadcast(LONGS, min);
+        LongVector high = LongVector.broadcast(LONGS, max);
+        for (int word = 0; word < fullWords; word++) {
+            if (intersect && words[word] == 0) {
+                continue;
+            }
+            int base = word << 6;
+            long bits = 0;
+            for (int offset = 0; offset < 64; offset += lanes) {
+                LongVector values = LongVector.fromArray(LONGS, column, base + offset);
+                VectorMask<Long> match = values.compare(VectorOperators.GE, low)
+                        .and(values.compare(VectorOperators.LE, high));
+                bits |= match.toLong() << offset;
+            }
+            store(words, word, bits, intersect);
+        }
+        int rest = size & 63;
+        if (rest != 0 && (!intersect || words[fullWords] != 0)) {
+            long bits = ScalarColumnScanner.betweenBits(column, fullWords << 6, rest, min, max);
+            store(words, fullWords, bits, intersect);
+        }
+    }
+
+    @Override
+    public void anyBit(int[] column, int size, int mask, long[] words, boolean intersect) {
+        int fullWords = size >>> 6;
+        int lanes = INTS.length();
+        IntVector masks = IntVector.broadcast(INTS, mask);
+        for (int word = 0; word < fullWords; word++) {
+            if (intersect && words[word] == 0) {
+                continue;
+            }
+            int base = word << 6;
+            long bits = 0;
+            for (int offset = 0; offset < 64; offset += lanes) {
+                VectorMask<Integer> match = IntVector.fromArray(INTS, column, base + offset)
+                        .and(masks)
+                        .compare(VectorOperators.NE, 0);
+                bits |= match.toLong() << offset;
+            }
+            store(words, word, bits, intersect);
+        }
+        int rest = size & 63;
+        if (rest != 0 && (!intersect || words[fullWords] != 0)) {
+            long bits = ScalarColumnScanner.anyBitBits(column, fullWords << 6, rest, mask);
+            store(words, fullWords, bits, intersect);
+        }
+    }
+
+    @Override
+    public boolean isVectorized() {
+        return true;
+    }
+}
@@ -0,0 +1,156 @@
+package kz.enu.museum.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Ограниченный LRU-кэш, записи которого помечены версией данных.
+ * Запись считается действительной только при совпадении версии:
+ * после любого изменения данных версия растёт, и все старые записи
+ * становятся промахами и вытесняются при первом обращении.
+ * Ведёт статистику попаданий и промахов для подбора размера.
+ *
+ * @param <K> тип ключа
+ * @param <V> тип значения
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+public class VersionedLruCache<K, V> {
+
+    private final int capacity;
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    private long hits;
+    private long misses;
+    private long staleMisses;
+    private long evictions;
+
+    /**
+     * Конструктор кэша.
+     *
+     * @param capacity максимальное количество записей
+     */
+    public VersionedLruCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Размер кэша должен быть положительным числом");
+        }
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > VersionedLruCache.this.capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Возвращает значение, если оно есть и построено для указанной версии.
+     *
+     * @param key ключ
+     * @param version текущая версия данных
+     * @return значение или null при промахе
+     */
+    public synchronized V get(K key, long version) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        if (entry.version != version) {
+            entries.remove(key);
+            staleMisses++;
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value;
+    }
+
+    /**
+     * Сохраняет значение для указанной версии данных.
+     *
+     * @param key ключ
+     * @param value значение
+     * @param version версия данных, по которым построено значение
+     */
+    public synchronized void put(K key, V value, long version) {
+        entries.put(key, new Entry<>(value, version));
+    }
+
+    /**
+     * Очищает кэш (статистика сохраняется).
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Сбрасывает статистику.
+     */
+    public synchronized void resetStatistics() {
+        hits = 0;
+        misses = 0;
+        staleMisses = 0;
+        evictions = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    /**
+     * Количество промахов из-за устаревшей версии (входит в общее число промахов).
+     *
+     * @return количество устаревших записей
+     */
+    public synchronized long getStaleMissCount() {
+        return staleMisses;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictions;
+    }
+
+    /**
+     * Доля попаданий среди всех обращений.
+     *
+     * @return значение от 0 до 1
+     */
+    public synchronized double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("размер=%d/%d, попаданий=%d, промахов=%d (устаревших %d), вытеснено=%d, hit rate=%.1f%%",
+                entries.size(), capacity, hits, misses, staleMisses, evictions, getHitRate() * 100);
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long version;
+
+        private Entry(V value, long version) {
+            this.value = value;
+            this.version = version;
+        }
+    }
+}
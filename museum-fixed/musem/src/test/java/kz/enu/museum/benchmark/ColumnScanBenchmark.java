@@ -0,0 +1,144 @@
+package kz.enu.museum.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import kz.enu.museum.model.Artist;
+import kz.enu.museum.model.Category;
+import kz.enu.museum.model.Exhibit;
+import kz.enu.museum.model.MuseumItem;
+import kz.enu.museum.model.Painting;
+import kz.enu.museum.model.enums.ExhibitStatus;
+import kz.enu.museum.service.ColumnFilter;
+import kz.enu.museum.service.ExhibitColumns;
+import kz.enu.museum.util.ColumnScanner;
+
+/**
+ * Сравнение фильтра по статусу, году создания и стоимости: прежняя проверка
+ * объектов через Stream API (как в SearchService.findByCreationPeriod)
+ * и проход по числовым колонкам - скалярный и на Vector API.
+ * Модуль Vector API подключается к форку JMH автоматически; для каталога
+ * в 10 млн строк нужен параметр {@code -p catalogSize=10000000} и около 4 ГБ памяти:
+ * <pre>
+ * mvn test-compile
+ * java --add-modules jdk.incubator.vector -cp "target/test-classes:target/classes:&lt;classpath тестов&gt;" kz.enu.museum.benchmark.ColumnScanBenchmark
+ * </pre>
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules=jdk.incubator.vector", "-Xmx4g"})
+public class ColumnScanBenchmark {
+
+    private static final Logger logger = LogManager.getLogger(ColumnScanBenchmark.class);
+
+    @Param({"1000000"})
+    private int catalogSize;
+
+    private static final BigDecimal MIN_VALUE = new BigDecimal("1000000");
+    private static final BigDecimal MAX_VALUE = new BigDecimal("5000000");
+
+    private List<MuseumItem> catalog;
+    private ExhibitColumns scalarColumns;
+    private ExhibitColumns vectorColumns;
+    private ColumnFilter filter;
+
+    @Setup
+    public void setUp() {
+        Category category = new Category("Живопись", "ПЛ");
+        category.setId(1L);
+        Artist artist = new Artist("Винсент ван Гог", 1853, "Нидерланды");
+        artist.setId(1L);
+
+        Random random = new Random(42);
+        ExhibitStatus[] statuses = ExhibitStatus.values();
+        catalog = new ArrayList<>(catalogSize);
+        scalarColumns = new ExhibitColumns(ColumnScanner.scalar());
+        vectorColumns = new ExhibitColumns(ColumnScanner.create());
+        for (int i = 0; i < catalogSize; i++) {
+            Painting painting = new Painting("Картина №" + i, artist, category, "масло", 74, 92);
+            painting.setId((long) i);
+            painting.setStatus(statuses[random.nextInt(statuses.length)]);
+            painting.setCreationDate(LocalDate.of(1500 + random.nextInt(520), 1, 1));
+            painting.setEstimatedValue(BigDecimal.valueOf(random.nextInt(10_000_000)));
+            catalog.add(painting);
+            scalarColumns.set(i, painting);
+            vectorColumns.set(i, painting);
+        }
+        filter = new ColumnFilter()
+                .addStatus(ExhibitStatus.ON_DISPLAY)
+                .creationYears(1800, 1900)
+                .values(MIN_VALUE, MAX_VALUE);
+        if (!vectorColumns.getScanner().isVectorized()) {
+            logger.warn("Vector API недоступен: векторный вариант выполняется скалярно");
+        }
+    }
+
+    /**
+     * Прежний вариант: проверка каждого объекта через Stream API.
+     */
+    @Benchmark
+    public long streamFilter() {
+        return catalog.stream()
+                .filter(item -> item.getStatus() == ExhibitStatus.ON_DISPLAY)
+                .filter(item -> item.getCreationDate() != null)
+                .filter(item -> {
+                    int year = item.getCreationDate().getYear();
+                    return year >= 1800 && year <= 1900;
+                })
+                .filter(item -> {
+                    BigDecimal value = ((Exhibit) item).getEstimatedValue();
+                    return value != null && value.compareTo(MIN_VALUE) >= 0 && value.compareTo(MAX_VALUE) <= 0;
+                })
+                .count();
+    }
+
+    /**
+     * Проход по колонкам обычными циклами.
+     */
+    @Benchmark
+    public int scalarColumns() {
+        return scalarColumns.count(filter);
+    }
+
+    /**
+     * Проход по колонкам на Vector API.
+     */
+    @Benchmark
+    public int vectorColumns() {
+        return vectorColumns.count(filter);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ColumnScanBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
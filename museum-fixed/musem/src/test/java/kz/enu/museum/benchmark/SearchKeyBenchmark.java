@@ -0,0 +1,115 @@
+package kz.enu.museum.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import kz.enu.museum.model.Artist;
+import kz.enu.museum.model.Category;
+import kz.enu.museum.model.MuseumItem;
+import kz.enu.museum.model.Painting;
+import kz.enu.museum.util.SearchTextUtil;
+
+/**
+ * Сравнение проверки запроса по каталогу: прежний вариант с toLowerCase()
+ * для каждого поля каждого экспоната и проверка по готовым ключам поиска.
+ * Запуск с профилировщиком GC показывает выделение памяти на один запрос
+ * (gc.alloc.rate.norm):
+ * <pre>
+ * mvn test-compile
+ * java -cp "target/test-classes:target/classes:&lt;classpath тестов&gt;" kz.enu.museum.benchmark.SearchKeyBenchmark
+ * </pre>
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchKeyBenchmark {
+
+    @Param({"10000"})
+    private int catalogSize;
+
+    @Param({"ночь"})
+    private String query;
+
+    private List<MuseumItem> catalog;
+
+    @Setup
+    public void setUp() {
+        Category category = new Category("Живопись", "ПЛ");
+        category.setId(1L);
+        Artist artist = new Artist("Винсент ван Гог", 1853, "Нидерланды");
+        artist.setId(1L);
+
+        catalog = new ArrayList<>(catalogSize);
+        for (int i = 0; i < catalogSize; i++) {
+            Painting painting = new Painting("Картина №" + i + (i % 10 == 0 ? " Звёздная Ночь" : " Пейзаж"),
+                    artist, category, "масло", 74, 92);
+            painting.setId((long) i);
+            painting.setDescription("Описание экспоната " + i + ", Холст, Масло");
+            painting.setInventoryNumber("МУЗ-ПЛ-2025-" + i);
+            catalog.add(painting);
+        }
+    }
+
+    /**
+     * Прежняя проверка: три вызова toLowerCase() на экспонат.
+     */
+    @Benchmark
+    public int lowerCasePerItem() {
+        String lowerQuery = query.toLowerCase();
+        int count = 0;
+        for (MuseumItem item : catalog) {
+            if (item.getName().toLowerCase().contains(lowerQuery)
+                    || item.getDescription().toLowerCase().contains(lowerQuery)
+                    || item.getInventoryNumber().toLowerCase().contains(lowerQuery)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Проверка по ключам поиска: запрос нормализуется один раз.
+     */
+    @Benchmark
+    public int precomputedKeys() {
+        String normalized = SearchTextUtil.normalizeQuery(query);
+        int count = 0;
+        for (MuseumItem item : catalog) {
+            if (item.matchesNormalizedSearch(normalized)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SearchKeyBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -1,5 +1,6 @@
 package kz.enu.museum.repository;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
@@ -211,4 +212,50 @@ class ExhibitRepositoryTest {
         // Assert
         assertTrue(all.isEmpty());
     }
+    
+    @Test
+    @DisplayName("Ошибка одного слушателя не мешает остальным")
+    void testListenerFailure_IsolatedFromOthers() {
+        // Arrange
+        List<MuseumItem> saved = new ArrayList<>();
+        repository.addListener(new RepositoryListener<>() {
+            @Override
+            public void onSaved(MuseumItem entity) {
+                throw new IllegalStateException("сбой слушателя");
+            }
+
+            @Override
+            public void onDeleted(MuseumItem entity) {
+                throw new IllegalStateException("сбой слушателя");
+            }
+
+            @Override
+            public void onCleared() {
+            }
+        });
+        repository.addListener(new RepositoryListener<>() {
+            @Override
+            public void onSaved(MuseumItem entity) {
+                saved.add(entity);
+            }
+
+            @Override
+            public void onDeleted(MuseumItem entity) {
+                saved.remove(entity);
+            }
+
+            @Override
+            public void onCleared() {
+            }
+        });
+        Painting painting = new Painting("Картина", testArtist, testCategory, "масло", 74, 92);
+        
+        // Act
+        MuseumItem result = assertDoesNotThrow(() -> repository.save(painting));
+        
+        // Assert
+        assertEquals(List.of(painting), saved);
+        assertTrue(repository.deleteById(result.getId()));
+        assertTrue(saved.isEmpty());
+    }
 }
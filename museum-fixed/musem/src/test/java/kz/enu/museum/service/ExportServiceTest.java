@@ -0,0 +1,208 @@
+package kz.enu.museum.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import kz.enu.museum.model.Artist;
+import kz.enu.museum.model.Category;
+import kz.enu.museum.model.Painting;
+import kz.enu.museum.model.Sculpture;
+import kz.enu.museum.repository.ExhibitRepository;
+
+/**
+ * Тесты для потоковой выгрузки каталога.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+@DisplayName("Тесты ExportService")
+class ExportServiceTest {
+
+    private ExhibitRepository repository;
+    private ExportService exportService;
+    private Painting tricky;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        Category painting = new Category("Живопись", "ПЛ");
+        painting.setId(1L);
+        Artist vanGogh = new Artist("Винсент ван Гог", 1853, "Нидерланды");
+        vanGogh.setId(1L);
+        repository = new ExhibitRepository();
+        exportService = new ExportService();
+
+        tricky = new Painting("Ночь; \"звёзды\"\nи \\ луна", vanGogh, painting, "масло", 74, 92);
+        tricky.setCreationDate(LocalDate.of(1889, 6, 1));
+        tricky.setEstimatedValue(new BigDecimal("1000.50"));
+        repository.save(tricky);
+    }
+
+    @Test
+    @DisplayName("CSV и JSON экранируют кавычки, разделители и переводы строк")
+    void testExport_EscapesValues() throws IOException {
+        // Arrange
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+
+        // Act
+        exportService.export(repository.findAll(), csv, new ExportOptions(ExportFormat.CSV));
+        exportService.export(repository.findAll(), json, new ExportOptions(ExportFormat.JSON));
+
+        // Assert
+        String[] lines = csv.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("ID;Инвентарный номер;Название;"));
+        assertTrue(lines[1].contains(";\"Ночь; \"\"звёзды\"\"\nи \\ луна\";Painting;"));
+        assertTrue(lines[1].contains(";1889-06-01;"));
+        assertTrue(lines[1].contains(";1000.50;"));
+
+        String text = json.toString(StandardCharsets.UTF_8);
+        assertTrue(text.startsWith("[\n  {\"id\": " + tricky.getId() + ", "));
+        assertTrue(text.contains("\"name\": \"Ночь; \\\"звёзды\\\"\\nи \\\\ луна\""));
+        assertTrue(text.contains("\"status\": \"" + tricky.getStatus().name() + "\""));
+        assertTrue(text.contains("\"estimatedValue\": 1000.50"));
+        assertTrue(text.contains("\"acquisitionDate\": null"));
+        assertTrue(text.endsWith("}\n]\n"));
+    }
+
+    @Test
+    @DisplayName("Сжатый файл читается обратно, о ходе выгрузки сообщается по шагам")
+    void testExportAll_GzipAndProgress() throws IOException {
+        // Arrange
+        for (int i = 0; i < 24; i++) {
+            repository.save(new Painting("Этюд " + i, null, null, "масло", 10, 10));
+        }
+        List<Long> progress = new ArrayList<>();
+        ExportOptions options = new ExportOptions(ExportFormat.CSV).gzip(true)
+                .progress((written, total) -> {
+                    assertEquals(25, total);
+                    progress.add(written);
+                }, 10);
+        Path target = tempDir.resolve("catalog." + options.getFileExtension());
+
+        // Act
+        long count = exportService.export(repository.findAll(), target, options);
+
+        // Assert
+        assertEquals(25, count);
+        assertEquals(List.of(10L, 20L, 25L), progress);
+        assertEquals("catalog.csv.gz", target.getFileName().toString());
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(target))) {
+            String csv = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            assertEquals(26, csv.split("\r\n").length);
+            assertTrue(csv.contains(";Этюд 23;"));
+        }
+    }
+
+    @Test
+    @DisplayName("Параллельная выгрузка блоками совпадает с последовательной")
+    void testExport_ParallelMatchesSequential() throws IOException {
+        // Arrange
+        for (int i = 0; i < 99; i++) {
+            repository.save(new Painting("Эскиз " + i, null, null, "масло", 10, 10));
+        }
+        ExportService parallelService = new ExportService(4);
+        List<Long> progress = new ArrayList<>();
+
+        try {
+            for (ExportFormat format : EnumSet.of(ExportFormat.CSV, ExportFormat.JSON, ExportFormat.TEXT)) {
+                ByteArrayOutputStream sequential = new ByteArrayOutputStream();
+                ByteArrayOutputStream parallel = new ByteArrayOutputStream();
+                progress.clear();
+
+                // Act
+                exportService.export(repository.findAll(), sequential, new ExportOptions(format));
+                long count = parallelService.export(repository.findAll(), parallel, new ExportOptions(format)
+                        .parallel(true).chunkSize(7).progress((written, total) -> progress.add(written), 20));
+
+                // Assert
+                assertEquals(100, count);
+                assertEquals(sequential.toString(StandardCharsets.UTF_8).replaceAll("Дата формирования: .*", ""),
+                        parallel.toString(StandardCharsets.UTF_8).replaceAll("Дата формирования: .*", ""));
+                assertEquals(List.of(21L, 42L, 63L, 84L, 100L), progress);
+            }
+        } finally {
+            parallelService.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("PDF-отчёт: корректная таблица xref, страницы и разделы по категориям")
+    void testExport_PdfStructure() throws IOException {
+        // Arrange
+        Category sculpture = new Category("Скульптура", "СК");
+        sculpture.setId(2L);
+        for (int i = 0; i < 150; i++) {
+            repository.save(new Sculpture("Бюст (" + i + ")", null, sculpture, "мрамор", 40, 60));
+        }
+        repository.save(new Sculpture("Қыз Жібек әңгімесі", null, sculpture, "қола", 30, 50));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        List<Long> progress = new ArrayList<>();
+
+        // Act
+        long count = exportService.export(repository.findAll(), out, new ExportOptions(ExportFormat.PDF)
+                .progress((written, total) -> progress.add(written), 100));
+
+        // Assert
+        String pdf = out.toString(StandardCharsets.ISO_8859_1);
+        assertEquals(152, count);
+        assertEquals(List.of(100L, 152L), progress);
+        assertTrue(pdf.startsWith("%PDF-1.4\n"));
+        assertTrue(pdf.endsWith("%%EOF\n"));
+
+        Matcher startxref = Pattern.compile("startxref\\n(\\d+)\\n%%EOF\\n$").matcher(pdf);
+        assertTrue(startxref.find());
+        int xref = Integer.parseInt(startxref.group(1));
+        assertTrue(pdf.startsWith("xref\n0 ", xref));
+        Matcher entries = Pattern.compile("(\\d{10}) 00000 n \\n").matcher(pdf.substring(xref));
+        int id = 0;
+        while (entries.find()) {
+            id++;
+            assertTrue(pdf.startsWith(id + " 0 obj\n", Integer.parseInt(entries.group(1))), "Объект " + id);
+        }
+        assertTrue(pdf.contains("/Size " + (id + 1) + " "));
+
+        Matcher pages = Pattern.compile("/Type /Pages /Count (\\d+)").matcher(pdf);
+        assertTrue(pages.find());
+        long pageObjects = Pattern.compile("/Type /Page /Parent").matcher(pdf).results().count();
+        assertEquals(pageObjects, Long.parseLong(pages.group(1)));
+        assertTrue(pageObjects >= 4);
+
+        // Составной шрифт: казахские буквы записаны глифами и восстанавливаются через ToUnicode
+        assertTrue(pdf.contains("/Subtype /Type0"));
+        assertTrue(pdf.contains("/Encoding /Identity-H"));
+        assertTrue(pdf.contains("/CIDToGIDMap /Identity"));
+        assertTrue(pdf.contains("beginbfchar"));
+        for (String letter : List.of("049A", "0456", "04D9", "04A3")) {
+            assertTrue(Pattern.compile("<[0-9A-F]{4}> <" + letter + ">").matcher(pdf).find(), letter);
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> exportService.export(repository.findAll(),
+                new StringWriter(), new ExportOptions(ExportFormat.PDF)));
+    }
+}
@@ -0,0 +1,119 @@
+package kz.enu.museum.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import kz.enu.museum.model.Artist;
+import kz.enu.museum.model.Category;
+import kz.enu.museum.model.Exhibit;
+import kz.enu.museum.model.Location;
+import kz.enu.museum.model.Painting;
+import kz.enu.museum.model.Sculpture;
+import kz.enu.museum.model.enums.ExhibitStatus;
+import kz.enu.museum.repository.ExhibitRepository;
+import kz.enu.museum.service.PivotCube.Axis;
+
+/**
+ * Тесты для куба сводных таблиц.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+@DisplayName("Тесты PivotCube")
+class PivotCubeTest {
+
+    private ExhibitRepository repository;
+    private PivotCube cube;
+    private Artist vanGogh;
+    private Artist rodin;
+    private Category painting;
+    private Category portrait;
+    private Category sculpture;
+    private Location mainHall;
+
+    @BeforeEach
+    void setUp() {
+        painting = new Category("Живопись", "ПЛ");
+        portrait = new Category("Портрет", "ПР");
+        painting.addSubcategory(portrait);
+        sculpture = new Category("Скульптура", "СК");
+        vanGogh = new Artist("Винсент ван Гог", 1853, "Нидерланды");
+        rodin = new Artist("Огюст Роден", 1840, "Франция");
+        mainHall = new Location("Главный зал", "A-1", 100);
+        repository = new ExhibitRepository();
+        cube = new PivotCube(repository);
+    }
+
+    private Exhibit save(Exhibit item, int year, String value, ExhibitStatus status) {
+        item.setCreationDate(LocalDate.of(year, 1, 1));
+        item.setEstimatedValue(new BigDecimal(value));
+        item.setStatus(status);
+        item.setLocation(mainHall);
+        return (Exhibit) repository.save(item);
+    }
+
+    @Test
+    @DisplayName("Сводные таблицы сворачиваются из кубоидов и следуют за репозиторием")
+    void testPivot_FollowsRepository() {
+        // Arrange
+        save(new Painting("Звёздная ночь", vanGogh, painting, "масло", 74, 92), 1889, "100.50", ExhibitStatus.ON_DISPLAY);
+        Exhibit selfPortrait = save(new Painting("Автопортрет", vanGogh, portrait, "масло", 40, 50),
+                1887, "50.25", ExhibitStatus.IN_STORAGE);
+        save(new Sculpture("Мыслитель", rodin, sculpture, "бронза", 700, 186), 1904, "200", ExhibitStatus.ON_DISPLAY);
+        Painting unknown = new Painting("Без автора", null, null, "темпера", 10, 10);
+        repository.save(unknown);
+
+        // Act
+        PivotTable byCountryAndDecade = cube.pivot(Axis.COUNTRY, Axis.DECADE);
+        PivotTable byCategory = cube.pivot(List.of(Axis.CATEGORY), 0);
+        PivotTable threeAxes = cube.pivot(Axis.DECADE, Axis.STATUS, Axis.TYPE);
+
+        // Assert
+        assertEquals(EnumSet.of(Axis.COUNTRY, Axis.DECADE), byCountryAndDecade.getSource());
+        assertEquals(2, byCountryAndDecade.getCount("Нидерланды", "1880-е"));
+        assertEquals(new BigDecimal("150.75"), byCountryAndDecade.getValue("Нидерланды", "1880-е"));
+        assertEquals(List.of("Нидерланды", "Франция", PivotCube.NONE), byCountryAndDecade.getMembers(Axis.COUNTRY));
+        assertEquals(2, byCategory.getCount("Живопись"));
+        assertEquals(1, cube.pivot(Axis.CATEGORY).getCount("Портрет"));
+        assertEquals(EnumSet.allOf(Axis.class), threeAxes.getSource());
+        assertEquals(1, threeAxes.getCount("1880-е", "В хранилище", "Painting"));
+        assertEquals(List.of("1880-е", "1900-е", PivotCube.NONE), threeAxes.getMembers(Axis.DECADE));
+        assertEquals(4, cube.pivot().getTotalCount());
+        assertEquals(new BigDecimal("350.75"), cube.pivot().getTotalValue());
+
+        // Act
+        cube.materialize(List.of(Axis.TYPE, Axis.STATUS, Axis.DECADE));
+        selfPortrait.setCategory(sculpture);
+        selfPortrait.setStatus(ExhibitStatus.ON_DISPLAY);
+        repository.save(selfPortrait);
+        repository.deleteById(unknown.getId());
+        PivotTable materialized = cube.pivot(Axis.DECADE, Axis.STATUS, Axis.TYPE);
+
+        // Assert
+        assertEquals(EnumSet.of(Axis.TYPE, Axis.STATUS, Axis.DECADE), materialized.getSource());
+        assertEquals(0, materialized.getCount("1880-е", "В хранилище", "Painting"));
+        assertEquals(2, materialized.getCount("1880-е", "На выставке", "Painting"));
+        assertEquals(3, materialized.getTotalCount());
+        assertEquals(2, cube.pivot(List.of(Axis.CATEGORY), 0).getCount("Скульптура"));
+        assertEquals(1, cube.pivot(List.of(Axis.CATEGORY), 0).getCount("Живопись"));
+        assertTrue(cube.getMaterialized().contains(EnumSet.of(Axis.TYPE, Axis.STATUS, Axis.DECADE)));
+
+        // Act
+        repository.deleteAll();
+
+        // Assert
+        assertEquals(0, cube.pivot(Axis.STATUS, Axis.HALL).size());
+        assertThrows(IllegalArgumentException.class, () -> cube.pivot(Axis.HALL, Axis.HALL));
+        assertThrows(IllegalArgumentException.class, () -> cube.pivot(List.of(Axis.CATEGORY), -2));
+    }
+}
@@ -0,0 +1,126 @@
+package kz.enu.museum.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import kz.enu.museum.model.Artist;
+import kz.enu.museum.model.Category;
+import kz.enu.museum.model.Exhibit;
+import kz.enu.museum.model.MuseumItem;
+import kz.enu.museum.model.Painting;
+import kz.enu.museum.model.enums.ExhibitStatus;
+
+/**
+ * Тесты для вычисления отчётов с группировкой.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+@DisplayName("Тесты ReportEngine")
+class ReportEngineTest {
+
+    private ForkJoinPool pool;
+    private List<MuseumItem> catalog;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ForkJoinPool(4);
+        Category category = new Category("Живопись", "ПЛ");
+        category.setId(1L);
+        Artist artist = new Artist("Винсент ван Гог", 1853, "Нидерланды");
+        artist.setId(1L);
+
+        ExhibitStatus[] statuses = ExhibitStatus.values();
+        catalog = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            Painting painting = new Painting("Картина №" + i, artist, category, "масло", 74, 92);
+            painting.setId((long) i);
+            painting.setStatus(statuses[i % statuses.length]);
+            painting.setCreationDate(LocalDate.of(1800 + i % 100, 1, 1));
+            // У каждой десятой картины нет оценки
+            painting.setEstimatedValue(i % 10 == 0 ? null : BigDecimal.valueOf(i));
+            catalog.add(painting);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    private static ReportQuery query() {
+        return new ReportQuery()
+                .groupBy("Статус", MuseumItem::getStatus)
+                .groupBy("Век", item -> item.getCreationDate().getYear() / 100 + 1)
+                .count("Экспонатов")
+                .count("С оценкой", item -> ((Exhibit) item).getEstimatedValue())
+                .sum("Стоимость", item -> ((Exhibit) item).getEstimatedValue())
+                .min("Мин. стоимость", item -> ((Exhibit) item).getEstimatedValue())
+                .max("Макс. стоимость", item -> ((Exhibit) item).getEstimatedValue())
+                .avg("Средняя стоимость", item -> ((Exhibit) item).getEstimatedValue());
+    }
+
+    @Test
+    @DisplayName("Параллельное вычисление совпадает с последовательным и с пересчётом")
+    void testExecute_ParallelMatchesSequential() {
+        // Arrange
+        ReportEngine engine = new ReportEngine(pool, 0);
+
+        // Act
+        ReportResult sequential = engine.execute(catalog, query());
+        ReportResult parallel = engine.execute(catalog, query().parallel(true));
+
+        // Assert
+        assertEquals(sequential.getRows().toString(), parallel.getRows().toString());
+        assertEquals(ExhibitStatus.values().length, sequential.size());
+        List<Exhibit> loaned = catalog.stream()
+                .filter(item -> item.getStatus() == ExhibitStatus.ON_LOAN)
+                .map(item -> (Exhibit) item)
+                .collect(Collectors.toList());
+        ReportRow row = parallel.getRow(ExhibitStatus.ON_LOAN, 19);
+        assertEquals(loaned.size(), row.getCount());
+        List<BigDecimal> values = loaned.stream()
+                .map(Exhibit::getEstimatedValue)
+                .filter(value -> value != null)
+                .collect(Collectors.toList());
+        assertEquals(BigDecimal.valueOf(values.size()), row.getValue("С оценкой"));
+        assertEquals(values.stream().reduce(BigDecimal.ZERO, BigDecimal::add), row.getValue("Стоимость"));
+        assertEquals(values.stream().min(BigDecimal::compareTo).orElseThrow(), row.getValue("Мин. стоимость"));
+        assertEquals(values.stream().max(BigDecimal::compareTo).orElseThrow(), row.getValue("Макс. стоимость"));
+    }
+
+    @Test
+    @DisplayName("Свёртка отчёта сливает строки без повторного прохода")
+    void testRollUp_MergesRows() {
+        // Arrange
+        ReportResult result = new ReportEngine(pool, 0).execute(catalog, query().parallel(true));
+
+        // Act
+        ReportResult byStatus = result.rollUp("Статус");
+        ReportRow total = result.getTotal();
+
+        // Assert
+        assertEquals(List.of("Статус"), byStatus.getQuery().getDimensionNames());
+        assertEquals(1250, byStatus.getCount(ExhibitStatus.ON_DISPLAY));
+        assertEquals(catalog.size(), total.getCount());
+        assertEquals(new BigDecimal("4500"), total.getValue("С оценкой"));
+        assertEquals(new BigDecimal("2500.00"), total.getValue("Средняя стоимость"));
+        assertEquals(0, result.getCount(ExhibitStatus.ON_DISPLAY, 21));
+        assertNull(result.rollUp().getRow(ExhibitStatus.ON_DISPLAY));
+        assertThrows(IllegalArgumentException.class, () -> result.rollUp("Зал"));
+        assertThrows(IllegalArgumentException.class, () -> new ReportQuery().count("Экспонатов").count("Экспонатов"));
+    }
+}
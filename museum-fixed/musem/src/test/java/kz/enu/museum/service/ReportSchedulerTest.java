@@ -0,0 +1,128 @@
+package kz.enu.museum.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import kz.enu.museum.model.Painting;
+import kz.enu.museum.repository.ExhibitRepository;
+
+/**
+ * Тесты для планировщика фоновых отчётов.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+@DisplayName("Тесты ReportScheduler")
+class ReportSchedulerTest {
+
+    private ExhibitRepository repository;
+    private ReportScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        repository = new ExhibitRepository();
+        Clock clock = Clock.fixed(Instant.parse("2025-03-10T23:00:00Z"), ZoneOffset.UTC);
+        scheduler = new ReportScheduler(repository, Runnable::run, 1, clock);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    @DisplayName("Задания выполняются по приоритету, результат кэшируется до изменения каталога")
+    void testSubmit_PriorityAndCache() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingQueue<String> order = new LinkedBlockingQueue<>();
+        scheduler.submit(new ReportJob<>("Блокирующий", job -> release.await(5, TimeUnit.SECONDS)), ignored -> { });
+        ReportJob<String> low = scheduler.submit(new ReportJob<String>("Низкий", job -> "low")
+                .priority(ReportJob.Priority.LOW), order::add);
+        scheduler.submit(new ReportJob<String>("Обычный", job -> "normal"), order::add);
+        scheduler.submit(new ReportJob<String>("Высокий", job -> "high")
+                .priority(ReportJob.Priority.HIGH), order::add);
+
+        // Act
+        release.countDown();
+
+        // Assert
+        assertEquals("high", order.poll(5, TimeUnit.SECONDS));
+        assertEquals("normal", order.poll(5, TimeUnit.SECONDS));
+        assertEquals("low", order.poll(5, TimeUnit.SECONDS));
+        assertEquals(ReportJob.State.DONE, low.getState());
+
+        // Arrange
+        AtomicInteger runs = new AtomicInteger();
+        BlockingQueue<Integer> results = new LinkedBlockingQueue<>();
+
+        // Act
+        scheduler.submit(new ReportJob<Integer>("Счётчик", job -> runs.incrementAndGet()).cached("count"), results::add);
+        assertEquals(1, results.poll(5, TimeUnit.SECONDS));
+        ReportJob<Integer> cached = scheduler.submit(new ReportJob<Integer>("Счётчик", job -> runs.incrementAndGet())
+                .cached("count"), results::add);
+        assertEquals(1, results.poll(5, TimeUnit.SECONDS));
+        repository.save(new Painting("Новая картина", null, null, "масло", 10, 10));
+        scheduler.submit(new ReportJob<Integer>("Счётчик", job -> runs.incrementAndGet()).cached("count"), results::add);
+
+        // Assert
+        assertEquals(2, results.poll(5, TimeUnit.SECONDS));
+        assertEquals(ReportJob.State.DONE, cached.getState());
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    @DisplayName("Отмена останавливает выполняющееся и снимает ожидающее задание")
+    void testCancel_RunningAndQueued() throws Exception {
+        // Arrange
+        CountDownLatch started = new CountDownLatch(1);
+        BlockingQueue<Object> delivered = new LinkedBlockingQueue<>();
+        ReportJob<Long> running = scheduler.submit(new ReportJob<Long>("Долгий", job -> {
+            long step = 0;
+            while (true) {
+                job.progress(++step, -1);
+                started.countDown();
+                job.checkCancelled();
+                Thread.onSpinWait();
+            }
+        }), delivered::add);
+        ReportJob<String> queued = scheduler.submit(new ReportJob<String>("В очереди", job -> "never"), delivered::add);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Act
+        queued.cancel();
+        running.cancel();
+
+        // Assert
+        assertThrows(CancellationException.class, () -> running.await(5, TimeUnit.SECONDS));
+        assertThrows(CancellationException.class, () -> queued.await(5, TimeUnit.SECONDS));
+        assertEquals(ReportJob.State.CANCELLED, queued.getState());
+        assertTrue(running.getDone() > 0);
+        scheduler.submit(new ReportJob<String>("После отмены", job -> "done"), delivered::add);
+        assertEquals("done", delivered.poll(5, TimeUnit.SECONDS));
+        assertTrue(delivered.isEmpty());
+        assertEquals(ReportJob.State.CANCELLED, running.getState());
+
+        // Ежедневный запуск: ближайшие 02:00 - через 3 часа, 23:00 - через сутки
+        assertEquals(Duration.ofHours(3), scheduler.delayUntil(LocalTime.of(2, 0)));
+        assertEquals(Duration.ofDays(1), scheduler.delayUntil(LocalTime.of(23, 0)));
+    }
+}
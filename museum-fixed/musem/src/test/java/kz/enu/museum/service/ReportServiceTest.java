@@ -0,0 +1,116 @@
+package kz.enu.museum.service;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import kz.enu.museum.model.Artist;
+import kz.enu.museum.model.Category;
+import kz.enu.museum.model.Location;
+import kz.enu.museum.model.Painting;
+import kz.enu.museum.model.enums.ExhibitStatus;
+import kz.enu.museum.repository.ArtistRepository;
+import kz.enu.museum.repository.CategoryRepository;
+import kz.enu.museum.repository.ExhibitRepository;
+import kz.enu.museum.service.CatalogAggregates.Dimension;
+
+/**
+ * Тесты для сервиса отчётов и агрегатов каталога.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+@DisplayName("Тесты ReportService")
+class ReportServiceTest {
+
+    private ExhibitRepository repository;
+    private ReportService reportService;
+    private Painting starryNight;
+    private Category painting;
+
+    @BeforeEach
+    void setUp() {
+        painting = new Category("Живопись", "ПЛ");
+        painting.setId(1L);
+        Artist vanGogh = new Artist("Винсент ван Гог", 1853, "Нидерланды");
+        vanGogh.setId(1L);
+
+        repository = new ExhibitRepository();
+        starryNight = new Painting("Звёздная ночь", vanGogh, painting, "масло", 74, 92);
+        starryNight.setEstimatedValue(new BigDecimal("1000.50"));
+        starryNight.setLocation(new Location("Зал импрессионистов", "1", 10));
+        starryNight.setStatus(ExhibitStatus.ON_DISPLAY);
+        repository.save(starryNight);
+        Painting sunflowers = new Painting("Подсолнухи", vanGogh, painting, "масло", 73, 92);
+        sunflowers.setEstimatedValue(new BigDecimal("500"));
+        sunflowers.setStatus(ExhibitStatus.ON_DISPLAY);
+        repository.save(sunflowers);
+
+        reportService = new ReportService(repository,
+                new CategoryService(new CategoryRepository()), new ArtistService(new ArtistRepository()));
+    }
+
+    @Test
+    @DisplayName("Статистика следует за созданием, изменением и удалением экспонатов")
+    void testStatistics_FollowRepository() {
+        // Arrange
+        CatalogAggregates aggregates = reportService.getAggregates();
+        String onDisplay = ExhibitStatus.ON_DISPLAY.getDisplayName();
+        String onLoan = ExhibitStatus.ON_LOAN.getDisplayName();
+        assertEquals(2, aggregates.getCount(Dimension.STATUS, onDisplay));
+
+        // Act
+        starryNight.setStatus(ExhibitStatus.ON_LOAN);
+        starryNight.setEstimatedValue(new BigDecimal("2000"));
+        starryNight.setLocation(null);
+        repository.save(starryNight);
+
+        // Assert
+        assertEquals(2, aggregates.getTotalCount());
+        assertEquals(new BigDecimal("2500.00"), aggregates.getTotalValue().setScale(2));
+        assertEquals(1, reportService.getStatusSummary().get(onLoan));
+        assertEquals(1, aggregates.getCount(Dimension.STATUS, onDisplay));
+        assertFalse(reportService.getHallStatistics().containsKey("Зал импрессионистов"));
+        assertEquals(Map.of("Винсент ван Гог", 2L), reportService.getAuthorStatistics());
+
+        // Act
+        repository.deleteById(starryNight.getId());
+
+        // Assert
+        assertEquals(1, aggregates.getTotalCount());
+        assertEquals(Map.of("Живопись", 1L), reportService.getCategoryStatistics());
+        assertEquals(0, reportService.getStatusSummary().get(onLoan));
+        assertEquals(0, new BigDecimal("500").compareTo(reportService.getValueStatistics(Dimension.CATEGORY).get("Живопись")));
+        assertEquals(1, reportService.generateGeneralStatistics().get("Всего экспонатов"));
+    }
+
+    @Test
+    @DisplayName("Агрегаты по репозиторию совпадают с пересчётом по списку")
+    void testAggregates_MatchListConstructor() {
+        // Arrange
+        ReportService fromList = new ReportService(repository.findAll(),
+                new CategoryService(new CategoryRepository()), new ArtistService(new ArtistRepository()));
+
+        // Act
+        Map<String, Object> live = reportService.generateGeneralStatistics();
+        Map<String, Object> snapshot = fromList.generateGeneralStatistics();
+
+        // Assert
+        assertEquals(snapshot, live);
+        assertEquals(fromList.getStatusSummary(), reportService.getStatusSummary());
+
+        // Act
+        repository.deleteAll();
+
+        // Assert
+        assertEquals(0, reportService.getAggregates().getTotalCount());
+        assertEquals(4, reportService.getStatusSummary().size());
+        assertEquals(new BigDecimal("0.00"), reportService.getAggregates().getTotalValue());
+    }
+}
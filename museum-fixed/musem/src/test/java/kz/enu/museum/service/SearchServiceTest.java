@@ -0,0 +1,674 @@
+package kz.enu.museum.service;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import kz.enu.museum.model.Artist;
+import kz.enu.museum.model.Category;
+import kz.enu.museum.model.Location;
+import kz.enu.museum.model.MuseumItem;
+import kz.enu.museum.model.Painting;
+import kz.enu.museum.model.Sculpture;
+import kz.enu.museum.model.enums.ExhibitStatus;
+import kz.enu.museum.repository.ExhibitRepository;
+
+/**
+ * Тесты для сервиса поиска.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+@DisplayName("Тесты SearchService")
+class SearchServiceTest {
+
+    private SearchService searchService;
+    private List<MuseumItem> exhibits;
+    private Category testCategory;
+    private Artist testArtist;
+
+    @BeforeEach
+    void setUp() {
+        testCategory = new Category("Живопись", "ПЛ");
+        testCategory.setId(1L);
+
+        testArtist = new Artist("Винсент ван Гог", 1853, "Нидерланды");
+        testArtist.setId(1L);
+
+        exhibits = new ArrayList<>();
+        exhibits.add(createPainting(1L, "Пейзаж с мельницей", "Ночь над рекой", "МУЗ-ПЛ-2025-000001"));
+        exhibits.add(createPainting(2L, "Звёздная ночь", "Ночное небо над городом", "МУЗ-ПЛ-2025-000002"));
+        exhibits.add(createPainting(3L, "Портрет", "Написан ночью", "МУЗ-ПЛ-2025-000003"));
+        exhibits.add(createPainting(4L, "Подсолнухи", "Натюрморт", "МУЗ-ПЛ-2025-000004"));
+
+        searchService = new SearchService(exhibits);
+    }
+
+    private Painting createPainting(Long id, String name, String description, String inventoryNumber) {
+        Painting painting = new Painting(name, testArtist, testCategory, "масло", 74, 92);
+        painting.setId(id);
+        painting.setDescription(description);
+        painting.setInventoryNumber(inventoryNumber);
+        return painting;
+    }
+
+    @Test
+    @DisplayName("Совпадение в названии выше совпадения в описании")
+    void testSearch_NameMatchRankedFirst() {
+        // Act
+        List<MuseumItem> results = searchService.search("ночь");
+
+        // Assert
+        assertEquals(3, results.size());
+        assertEquals("Звёздная ночь", results.get(0).getName());
+    }
+
+    @Test
+    @DisplayName("Точный инвентарный номер всегда первый")
+    void testSearch_ExactInventoryNumberFirst() {
+        // Act
+        List<MuseumItem> results = searchService.search("мУЗ-ПЛ-2025-000003");
+
+        // Assert
+        assertEquals(1, results.size());
+        assertEquals(3L, results.get(0).getId());
+    }
+
+    @Test
+    @DisplayName("Top-k возвращает не больше k лучших")
+    void testSearch_TopK() {
+        // Act
+        List<MuseumItem> top = searchService.search("ноч", 2);
+        List<MuseumItem> all = searchService.search("ноч");
+
+        // Assert
+        assertEquals(2, top.size());
+        assertEquals(all.subList(0, 2), top);
+    }
+
+    @Test
+    @DisplayName("Постраничная выдача отдаёт все результаты по порядку")
+    void testSearchRanked_Paging() {
+        // Act
+        SearchResults results = searchService.searchRanked("ноч", 2);
+        List<MuseumItem> first = results.nextPage();
+        List<MuseumItem> second = results.nextPage();
+
+        // Assert
+        assertEquals(3, results.getTotalHits());
+        assertEquals(2, first.size());
+        assertEquals(1, second.size());
+        assertFalse(results.hasMore());
+
+        List<MuseumItem> paged = new ArrayList<>(first);
+        paged.addAll(second);
+        assertEquals(searchService.search("ноч"), paged);
+    }
+
+    @Test
+    @DisplayName("Фильтры внутри измерения по ИЛИ, между измерениями по И")
+    void testAdvancedSearch_BitmapFilters() {
+        // Arrange
+        exhibits.get(0).setStatus(ExhibitStatus.ON_DISPLAY);
+        exhibits.get(1).setStatus(ExhibitStatus.ON_RESTORATION);
+        exhibits.get(2).setStatus(ExhibitStatus.ON_LOAN);
+        ((Painting) exhibits.get(1)).setLocation(new Location("Зал импрессионизма", "1", 10));
+        searchService.updateExhibits(new ArrayList<>(exhibits));
+
+        SearchFilter filter = new SearchFilter()
+                .addStatus(ExhibitStatus.ON_DISPLAY)
+                .addStatus(ExhibitStatus.ON_RESTORATION)
+                .addType(Painting.class)
+                .addCategory(testCategory);
+
+        // Act
+        List<MuseumItem> results = searchService.advancedSearch(null, filter);
+
+        // Assert
+        assertEquals(2, results.size());
+        assertEquals(2, searchService.countMatches(null, filter));
+        assertEquals(1, searchService.countMatches("звёздная", filter));
+        assertEquals(1, searchService.countMatches(null, new SearchFilter().addHall("Зал импрессионизма")));
+        assertEquals(0, searchService.countMatches(null, new SearchFilter().addType(Sculpture.class)));
+    }
+
+    @Test
+    @DisplayName("Старый вариант advancedSearch работает через индекс")
+    void testAdvancedSearch_LegacySignature() {
+        // Act
+        List<MuseumItem> byAuthor = searchService.advancedSearch("ноч", null, testArtist, null);
+        List<MuseumItem> byStatus = searchService.advancedSearch("", null, null, ExhibitStatus.ON_LOAN);
+
+        // Assert
+        assertEquals(3, byAuthor.size());
+        assertTrue(byStatus.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Повторный запрос берётся из кэша, изменение данных его сбрасывает")
+    void testAdvancedSearch_ResultCache() {
+        // Act
+        List<MuseumItem> first = searchService.advancedSearch("Ночь", new SearchFilter());
+        List<MuseumItem> second = searchService.advancedSearch("  ночь ", new SearchFilter());
+
+        // Assert
+        assertEquals(first, second);
+        assertEquals(1, searchService.getResultCache().getHitCount());
+        assertEquals(1, searchService.getResultCache().getMissCount());
+
+        // Изменение данных делает запись устаревшей
+        List<MuseumItem> reduced = new ArrayList<>(exhibits.subList(0, 2));
+        searchService.updateExhibits(reduced);
+        List<MuseumItem> third = searchService.advancedSearch("ночь", new SearchFilter());
+
+        assertEquals(2, third.size());
+        assertEquals(1, searchService.getResultCache().getStaleMissCount());
+    }
+
+    @Test
+    @DisplayName("Дополнение запроса сужает прошлый результат, удаление символов - полный расчёт")
+    void testAdvancedSearch_IncrementalRefinement() {
+        // Act
+        searchService.advancedSearch("н", new SearchFilter());
+        searchService.advancedSearch("но", new SearchFilter());
+        List<MuseumItem> refined = searchService.advancedSearch("ноч", new SearchFilter().addType(Painting.class));
+        List<MuseumItem> broadened = searchService.advancedSearch("оч", new SearchFilter());
+
+        // Assert
+        assertEquals(2, searchService.getIncrementalEvaluationCount());
+        assertEquals(2, searchService.getFullEvaluationCount());
+        assertEquals(searchService.search("ноч"), refined);
+        assertEquals(searchService.search("оч"), broadened);
+    }
+
+    @Test
+    @DisplayName("Страница поиска содержит k лучших совпадений и общее количество")
+    void testSearchPage_TopK() {
+        // Act
+        SearchPage text = searchService.searchPage("ноч", new SearchFilter(), 2);
+        SearchPage all = searchService.searchPage("", new SearchFilter(), 3);
+        SearchPage structured = searchService.searchPage("type:painting ноч", new SearchFilter(), 1);
+
+        // Assert
+        assertEquals(searchService.search("ноч", 2), text.getItems());
+        assertEquals(3, text.getTotalHits());
+        assertTrue(text.hasMore());
+        assertEquals(searchService.search("").subList(0, 3), all.getItems());
+        assertEquals(4, all.getTotalHits());
+        assertEquals(searchService.search("ноч", 1), structured.getItems());
+        assertEquals(3, structured.getTotalHits());
+    }
+
+    @Test
+    @DisplayName("Следующие страницы продолжают выдачу того же запроса")
+    void testSearchPage_NextPages() {
+        // Arrange
+        SearchPage first = searchService.searchPage("ноч", new SearchFilter(), 2);
+
+        // Act
+        SearchPage second = searchService.searchPage("ноч", new SearchFilter(), 2, 2);
+        SearchPage beyond = searchService.searchPage("ноч", new SearchFilter(), 5, 2);
+
+        // Assert
+        List<MuseumItem> shown = new ArrayList<>(first.getItems());
+        shown.addAll(second.getItems());
+        assertEquals(searchService.search("ноч", 3), shown);
+        assertEquals(2, second.getOffset());
+        assertFalse(second.hasMore());
+        assertTrue(beyond.getItems().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> searchService.searchPage("ноч", new SearchFilter(), -1, 2));
+        assertThrows(IllegalArgumentException.class, () -> searchService.search("ноч", 0));
+    }
+
+    @Test
+    @DisplayName("Пустой запрос возвращает все экспонаты")
+    void testSearch_BlankQuery() {
+        // Act
+        List<MuseumItem> results = searchService.search("  ");
+
+        // Assert
+        assertEquals(exhibits.size(), results.size());
+        assertTrue(results.containsAll(exhibits));
+    }
+
+    @Test
+    @DisplayName("Асинхронный поиск доставляет только результат последнего запроса")
+    void testAsyncSearch_DeliversOnlyLatest() throws InterruptedException {
+        // Arrange
+        AsyncSearchRunner runner = new AsyncSearchRunner(searchService, Runnable::run, 50);
+        List<SearchPage> delivered = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(1);
+
+        // Act
+        runner.submit("н", new SearchFilter(), delivered::add);
+        runner.submit("но", new SearchFilter(), delivered::add);
+        runner.submit("подсолнухи", new SearchFilter(), page -> {
+            delivered.add(page);
+            latch.countDown();
+        });
+        boolean completed = latch.await(5, TimeUnit.SECONDS);
+        runner.shutdown();
+
+        // Assert
+        assertTrue(completed);
+        assertEquals(1, delivered.size());
+        assertEquals(1, delivered.get(0).getTotalHits());
+        assertEquals(4L, delivered.get(0).getItems().get(0).getId());
+        assertEquals(1, runner.getCompletedCount());
+    }
+
+    @Test
+    @DisplayName("Сохранение экспоната не ждёт выполняющийся поиск")
+    void testLiveIndex_SaveDoesNotWaitForSearch() throws InterruptedException {
+        // Arrange: поиск держит блокировку сервиса, пока не отпустим
+        ExhibitRepository repository = new ExhibitRepository();
+        repository.setNextId(5L);
+        SearchService live = new SearchService(repository);
+        CountDownLatch searching = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread search = new Thread(() -> {
+            synchronized (live) {
+                searching.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        search.start();
+        assertTrue(searching.await(5, TimeUnit.SECONDS));
+
+        // Act
+        long started = System.nanoTime();
+        repository.save(createPainting(null, "Ночной дозор", "Групповой портрет", "МУЗ-ПЛ-2025-000005"));
+        long savedMillis = (System.nanoTime() - started) / 1_000_000;
+        release.countDown();
+        search.join();
+
+        // Assert
+        assertTrue(savedMillis < 1000, "Сохранение ждало поиск " + savedMillis + " мс");
+        assertEquals(1, live.search("дозор").size());
+    }
+
+    @Test
+    @DisplayName("Сервис по репозиторию видит добавление, изменение и удаление экспонатов")
+    void testLiveIndex_FollowsRepository() {
+        // Arrange
+        ExhibitRepository repository = new ExhibitRepository();
+        for (MuseumItem item : exhibits) {
+            repository.save(item);
+        }
+        repository.setNextId(5L);
+        SearchService live = new SearchService(repository);
+        live.advancedSearch("ночь", new SearchFilter());
+        Painting added = createPainting(null, "Ночной дозор", "Групповой портрет", "МУЗ-ПЛ-2025-000005");
+        MuseumItem restored = exhibits.get(2);
+
+        // Act
+        repository.save(added);
+        restored.setStatus(ExhibitStatus.ON_RESTORATION);
+        repository.save(restored);
+        repository.deleteById(4L);
+
+        // Assert
+        assertTrue(live.checkConsistency().isEmpty());
+        assertEquals(4, live.advancedSearch("", new SearchFilter()).size());
+        assertTrue(live.advancedSearch("ночн", new SearchFilter()).contains(added));
+        assertEquals(List.of(restored),
+                live.advancedSearch("", new SearchFilter().addStatus(ExhibitStatus.ON_RESTORATION)));
+        assertTrue(live.search("подсолнухи").isEmpty());
+
+        // Изменение без сохранения обнаруживается проверкой
+        restored.setName("Портрет дамы");
+        assertEquals(1, live.checkConsistency().size());
+    }
+
+    @Test
+    @DisplayName("Параллельный поиск по условию сохраняет порядок и учитывает лимит")
+    void testFindWhere_ParallelMatchesSequential() {
+        // Arrange
+        List<MuseumItem> catalog = new ArrayList<>();
+        for (long i = 1; i <= 20_000; i++) {
+            catalog.add(createPainting(i, "Картина " + i, "Описание", "МУЗ-ПЛ-2025-" + i));
+        }
+        SearchService large = new SearchService(catalog);
+        large.setParallelExecutor(new ParallelSearchExecutor(4, 1000));
+        List<MuseumItem> expected = catalog.stream()
+                .filter(item -> item.getId() % 7 == 0)
+                .collect(Collectors.toList());
+
+        // Act
+        List<MuseumItem> all = large.findWhere(item -> item.getId() % 7 == 0);
+        List<MuseumItem> limited = large.findWhere(item -> item.getId() % 7 == 0, 10);
+        List<MuseumItem> byPattern = large.findByPattern("^картина 1999\\d$", 100);
+        large.getParallelExecutor().shutdown();
+
+        // Assert
+        assertEquals(expected, all);
+        assertEquals(expected.subList(0, 10), limited);
+        assertEquals(10, byPattern.size());
+        assertEquals(19990L, byPattern.get(0).getId());
+    }
+
+    @Test
+    @DisplayName("Счётчики фасетов за один проход учитывают фильтры других фасетов")
+    void testFacetCounts_SinglePass() {
+        // Arrange
+        exhibits.get(0).setStatus(ExhibitStatus.ON_DISPLAY);
+        exhibits.get(1).setStatus(ExhibitStatus.ON_LOAN);
+        searchService.updateExhibits(new ArrayList<>(exhibits));
+        SearchFilter filter = new SearchFilter().addStatus(ExhibitStatus.ON_DISPLAY);
+
+        // Act
+        FacetCounts counts = searchService.facetCounts("ночь", filter, 10);
+        FacetCounts topStatus = searchService.facetCounts("", new SearchFilter(), 1);
+        FacetCounts structured = searchService.facetCounts("status:on_display", new SearchFilter(), 10);
+        SearchPage page = searchService.searchPage("ночь", filter, 1);
+
+        // Assert
+        assertEquals(searchService.advancedSearch("ночь", filter).size(), counts.getTotal());
+        assertEquals(Map.of(ExhibitStatus.ON_DISPLAY, 1, ExhibitStatus.ON_LOAN, 1, ExhibitStatus.IN_STORAGE, 1),
+                counts.getStatusCounts());
+        assertEquals(Map.of("Painting", 1), counts.getTypeCounts());
+        assertEquals(Map.of(1L, 1), counts.getAuthorCounts());
+        assertEquals(Map.of(ExhibitStatus.IN_STORAGE, 2), topStatus.getStatusCounts());
+        assertEquals(4, topStatus.getTotal());
+        assertEquals(Map.of(ExhibitStatus.ON_DISPLAY, 1), structured.getStatusCounts());
+        assertEquals(1, structured.getTotal());
+        assertEquals(counts.getStatusCounts(), page.getFacets().getStatusCounts());
+        assertEquals(page.getTotalHits(), page.getFacets().getTotal());
+    }
+
+    @Test
+    @DisplayName("Ключи поиска обновляются при изменении полей, пустое описание не мешает поиску")
+    void testSearchKeys_FollowFieldChanges() {
+        // Arrange
+        Painting painting = new Painting("Сирень", testArtist, testCategory, "масло", 74, 92);
+        painting.setInventoryNumber("МУЗ-ПЛ-2025-000009");
+
+        // Act
+        boolean matchedBefore = painting.matchesSearch("СИРЕНЬ");
+        painting.setName("Ирисы");
+
+        // Assert
+        assertTrue(matchedBefore);
+        assertFalse(painting.matchesSearch("сирень"));
+        assertTrue(painting.matchesNormalizedSearch("ирис"));
+        assertTrue(painting.matchesSearch("муз-пл-2025-000009"));
+    }
+
+    @Test
+    @DisplayName("Структурированный запрос: индексные условия, общий проход и план выполнения")
+    void testQuery_StructuredWithExplain() {
+        // Arrange
+        setDetails(0, ExhibitStatus.ON_DISPLAY, 1850, "5000000");
+        setDetails(1, ExhibitStatus.ON_DISPLAY, 1889, "2000000");
+        setDetails(2, ExhibitStatus.IN_STORAGE, 1885, "3000000");
+        searchService.updateExhibits(new ArrayList<>(exhibits));
+
+        // Act
+        QueryPlan plan = searchService.explain(
+                "status:ON_DISPLAY author:\"ван гог\" year:1880..1890 value>1000000 type:Painting");
+        List<MuseumItem> ranked = searchService.query("тип:картина ночь");
+        List<MuseumItem> fromSearchField = searchService.advancedSearch("status:on_display год:<1860", new SearchFilter());
+
+        // Assert
+        assertEquals(List.of(exhibits.get(1)), plan.getResults());
+        assertEquals(5, plan.getSteps().stream().filter(step -> step.getOperation().equals("Индекс")).count());
+        assertTrue(plan.explain().contains("year:1880..1890"));
+        assertTrue(plan.explain().contains("колонки year:1880..1890"));
+        // Время шагов включает вычисление индексных множеств и не превышает общего
+        double stepMillis = plan.getSteps().stream().mapToDouble(QueryPlan.Step::getMillis).sum();
+        assertTrue(stepMillis > 0 && stepMillis <= plan.getTotalMillis(), stepMillis + " из " + plan.getTotalMillis());
+        assertEquals(searchService.search("ночь"), ranked);
+        assertEquals(List.of(exhibits.get(0)), fromSearchField);
+        assertThrows(IllegalArgumentException.class, () -> searchService.query("color:red"));
+        assertTrue(searchService.advancedSearch("color:red", new SearchFilter()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Индекс на диске: быстрый запуск со снимком и журналом, перестройка при расхождении")
+    void testIndexStore_WarmStartAndDeltaLog(@TempDir Path directory) throws Exception {
+        // Arrange
+        ExhibitRepository repository = new ExhibitRepository();
+        for (MuseumItem item : exhibits) {
+            repository.save(item);
+        }
+        repository.setNextId(5L);
+        SearchIndexStore firstStore = new SearchIndexStore(directory);
+        SearchService first = new SearchService(repository, firstStore);
+        first.indexReady().get(5, TimeUnit.SECONDS);
+        first.saveIndexInBackground().get(5, TimeUnit.SECONDS);
+        Painting added = createPainting(null, "Ночной дозор", "Групповой портрет", "МУЗ-ПЛ-2025-000005");
+        repository.save(added);
+        repository.deleteById(4L);
+        firstStore.shutdown();
+
+        // Act
+        SearchIndexStore secondStore = new SearchIndexStore(directory);
+        SearchService second = new SearchService(repository, secondStore);
+        second.indexReady().get(5, TimeUnit.SECONDS);
+        exhibits.get(0).setName("Пейзаж с ветряной мельницей");
+        SearchIndexStore thirdStore = new SearchIndexStore(directory);
+        SearchService third = new SearchService(repository, thirdStore);
+        third.indexReady().get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(SearchIndexStore.LoadStatus.MISSING, firstStore.getLastLoadStatus());
+        assertEquals(SearchIndexStore.LoadStatus.WARM, secondStore.getLastLoadStatus());
+        assertEquals(first.advancedSearch("", new SearchFilter()), second.advancedSearch("", new SearchFilter()));
+        assertEquals(first.search("ночь"), second.search("ночь"));
+        assertEquals(SearchIndexStore.LoadStatus.STALE, thirdStore.getLastLoadStatus());
+        assertTrue(third.checkConsistency().isEmpty());
+        secondStore.shutdown();
+        thirdStore.shutdown();
+    }
+
+    @Test
+    @DisplayName("Индекс на диске: изменение дат и стоимости вне приложения ведёт к перестройке")
+    void testIndexStore_ColumnChangesMakeSnapshotStale(@TempDir Path directory) throws Exception {
+        // Arrange
+        ExhibitRepository repository = new ExhibitRepository();
+        for (MuseumItem item : exhibits) {
+            repository.save(item);
+        }
+        SearchIndexStore firstStore = new SearchIndexStore(directory);
+        SearchService first = new SearchService(repository, firstStore);
+        first.indexReady().get(5, TimeUnit.SECONDS);
+        first.saveIndex();
+        firstStore.shutdown();
+
+        // Act: данные меняются в обход репозитория (правка файла, другой источник)
+        ((Painting) exhibits.get(3)).setEstimatedValue(new BigDecimal("2500000"));
+        exhibits.get(3).setCreationDate(LocalDate.of(1888, 8, 1));
+        SearchIndexStore secondStore = new SearchIndexStore(directory);
+        SearchService second = new SearchService(repository, secondStore);
+        second.indexReady().get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(SearchIndexStore.LoadStatus.STALE, secondStore.getLastLoadStatus());
+        assertEquals(List.of(exhibits.get(3)), second.query("value>1000000"));
+        assertEquals(List.of(exhibits.get(3)), second.query("year:1888"));
+        secondStore.shutdown();
+    }
+
+    @Test
+    @DisplayName("Запросы по размерам и стоимости выполняются по k-d деревьям")
+    void testQuery_DimensionsAndValue() {
+        // Arrange
+        Painting large = createPainting(5L, "Большой пейзаж", "Панорама", "МУЗ-ПЛ-2025-000005");
+        large.setWidth(180);
+        large.setHeight(120);
+        Sculpture bust = new Sculpture("Бюст", testArtist, testCategory, "мрамор", 150.0, 70.0);
+        bust.setId(6L);
+        bust.setInventoryNumber("МУЗ-СК-2025-000006");
+        Sculpture statue = new Sculpture("Статуя", testArtist, testCategory, "бронза", 900.0, 210.0);
+        statue.setId(7L);
+        statue.setInventoryNumber("МУЗ-СК-2025-000007");
+        setDetails(0, ExhibitStatus.ON_DISPLAY, 1850, "5000000");
+        setDetails(1, ExhibitStatus.ON_DISPLAY, 1889, "2000000");
+        List<MuseumItem> catalog = new ArrayList<>(exhibits);
+        catalog.addAll(List.of(large, bust, statue));
+        searchService.updateExhibits(catalog);
+
+        // Act
+        QueryPlan sized = searchService.explain("ширина:60..120 высота:80..150");
+        List<MuseumItem> light = searchService.query("weight<200");
+        List<MuseumItem> valued = searchService.query("value:1000000..3000000");
+        List<MuseumItem> nearest = searchService.nearestPaintings(170, 110, 1);
+
+        // Assert
+        assertEquals(4, sized.getResults().size());
+        assertFalse(sized.getResults().contains(large));
+        assertTrue(sized.explain().contains("k-d"));
+        assertEquals(List.of(bust), light);
+        assertEquals(List.of(exhibits.get(1)), valued);
+        assertEquals(List.of(large), nearest);
+        assertEquals(List.of(statue), searchService.nearestSculptures(800, 200, 1));
+    }
+
+    @Test
+    @DisplayName("Проход по числовым колонкам совпадает с проверкой объектов и следует за изменениями")
+    void testScan_ColumnsMatchObjects() {
+        // Arrange
+        setDetails(0, ExhibitStatus.ON_DISPLAY, 1850, "5000000");
+        setDetails(1, ExhibitStatus.ON_DISPLAY, 1889, "2000000.50");
+        setDetails(2, ExhibitStatus.IN_STORAGE, 1885, "3000000");
+        exhibits.get(2).setAcquisitionDate(LocalDate.of(1999, 5, 1));
+        ExhibitRepository repository = new ExhibitRepository();
+        for (MuseumItem item : exhibits) {
+            repository.save(item);
+        }
+        repository.setNextId(5L);
+        SearchService live = new SearchService(repository);
+
+        // Act
+        List<MuseumItem> byYear = live.findByCreationPeriod(1880, 1890);
+        List<MuseumItem> combined = live.scan(new ColumnFilter()
+                .addStatus(ExhibitStatus.ON_DISPLAY)
+                .creationYears(1800, 1900)
+                .values(new BigDecimal("2000000.50"), null));
+        repository.deleteById(2L);
+
+        // Assert
+        assertEquals(List.of(exhibits.get(1), exhibits.get(2)), byYear);
+        assertEquals(List.of(exhibits.get(0), exhibits.get(1)), combined);
+        assertEquals(List.of(exhibits.get(2)), live.findByAcquisitionPeriod(1990, 2000));
+        assertEquals(List.of(exhibits.get(2)), live.findByCreationPeriod(1880, 1890));
+        assertEquals(0, live.countScan(new ColumnFilter().values(new BigDecimal("2000000.51"), new BigDecimal("2999999.99"))));
+        assertEquals(3, live.countScan(new ColumnFilter()));
+    }
+
+    @Test
+    @DisplayName("Постоянный запрос поддерживает результат по изменениям и сообщает разницу")
+    void testStandingQuery_IncrementalDeltas() {
+        // Arrange
+        ExhibitRepository repository = new ExhibitRepository();
+        for (MuseumItem item : exhibits) {
+            repository.save(item);
+        }
+        repository.setNextId(5L);
+        SearchService live = new SearchService(repository);
+        exhibits.get(0).setStatus(ExhibitStatus.ON_RESTORATION);
+        ((Painting) exhibits.get(0)).setLocation(new Location("Египетский зал", "В-1", 10));
+        repository.save(exhibits.get(0));
+        List<StandingQuery.Delta> deltas = new ArrayList<>();
+        StandingQuery restoration = live.registerStandingQuery("status:ON_RESTORATION зал:\"египетский зал\"",
+                (query, delta) -> deltas.add(delta));
+
+        // Act
+        Painting second = (Painting) exhibits.get(1);
+        second.setStatus(ExhibitStatus.ON_RESTORATION);
+        second.setLocation(new Location("Египетский зал", "В-2", 10));
+        repository.save(second);
+        exhibits.get(0).setDescription("Ночь над рекой после реставрации");
+        repository.save(exhibits.get(0));
+        exhibits.get(0).setStatus(ExhibitStatus.ON_DISPLAY);
+        repository.save(exhibits.get(0));
+        repository.save(exhibits.get(3));
+        repository.deleteById(2L);
+        restoration.close();
+        repository.save(exhibits.get(2));
+
+        // Assert
+        assertEquals(4, deltas.size());
+        assertEquals(List.of(second), deltas.get(0).getAdded());
+        assertEquals(List.of(exhibits.get(0)), deltas.get(1).getUpdated());
+        assertEquals(List.of(exhibits.get(0)), deltas.get(2).getRemoved());
+        assertEquals(List.of(second), deltas.get(3).getRemoved());
+        assertTrue(restoration.getResults().isEmpty());
+        assertEquals(0, live.getStandingQueryCount());
+    }
+
+    private void setDetails(int index, ExhibitStatus status, int year, String value) {
+        Painting painting = (Painting) exhibits.get(index);
+        painting.setStatus(status);
+        painting.setCreationDate(LocalDate.of(year, 1, 1));
+        painting.setEstimatedValue(new BigDecimal(value));
+    }
+
+    @Test
+    @DisplayName("Постоянный запрос находит зал и автора, появившихся после регистрации")
+    void testStandingQuery_NewDictionaryValues() {
+        // Arrange
+        ExhibitRepository repository = new ExhibitRepository();
+        for (MuseumItem item : exhibits) {
+            repository.save(item);
+        }
+        SearchService live = new SearchService(repository);
+        List<StandingQuery.Delta> deltas = new ArrayList<>();
+        StandingQuery newHall = live.registerStandingQuery("зал:\"новый зал\" автор:моне",
+                (query, delta) -> deltas.add(delta));
+        Painting painting = createPainting(null, "Кувшинки", "Пруд в Живерни", "МУЗ-ПЛ-2025-000010");
+        painting.setAuthor(new Artist("Клод Моне", 1840, "Франция"));
+        painting.setLocation(new Location("Новый зал", "Н-1", 20));
+
+        // Act
+        repository.save(painting);
+
+        // Assert
+        assertEquals(List.of(painting), newHall.getResults());
+        assertEquals(List.of(painting), deltas.get(0).getAdded());
+        newHall.close();
+    }
+
+    @Test
+    @DisplayName("Частота префиксов слов следует за изменениями экспонатов")
+    void testScorer_PrefixFrequencyTracksUpdates() {
+        // Arrange
+        RelevanceScorer scorer = new RelevanceScorer();
+        for (int i = 0; i < exhibits.size(); i++) {
+            scorer.update(i, exhibits.get(i));
+        }
+        double rare = scorer.idf("подсол");
+        double common = scorer.idf("ноч");
+
+        // Act
+        Painting renamed = createPainting(4L, "Ночные подсолнухи", "Натюрморт", "МУЗ-ПЛ-2025-000004");
+        scorer.update(3, renamed);
+        scorer.remove(0);
+
+        // Assert
+        assertTrue(rare > common);
+        assertEquals(Math.log(1 + 0.5 / 3.5), scorer.idf("ноч"), 1e-9);
+        assertEquals(scorer.idf("мельн"), scorer.idf("неизвестное"), 1e-9);
+    }
+}
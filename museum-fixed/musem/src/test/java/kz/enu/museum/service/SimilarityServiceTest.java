@@ -0,0 +1,102 @@
+package kz.enu.museum.service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import kz.enu.museum.model.Artifact;
+import kz.enu.museum.model.Artist;
+import kz.enu.museum.model.Category;
+import kz.enu.museum.model.MuseumItem;
+import kz.enu.museum.model.Painting;
+import kz.enu.museum.repository.ExhibitRepository;
+
+/**
+ * Тесты для сервиса похожих экспонатов.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+@DisplayName("Тесты SimilarityService")
+class SimilarityServiceTest {
+
+    private ExhibitRepository repository;
+    private SimilarityService similarityService;
+    private Painting starryNight;
+    private Painting starryNightOverRhone;
+    private Painting sunflowers;
+    private Artifact amphora;
+
+    @BeforeEach
+    void setUp() {
+        Category painting = new Category("Живопись", "ПЛ");
+        painting.setId(1L);
+        Category antiquity = new Category("Античность", "АН");
+        antiquity.setId(2L);
+        Artist vanGogh = new Artist("Винсент ван Гог", 1853, "Нидерланды");
+        vanGogh.setId(1L);
+
+        repository = new ExhibitRepository();
+        starryNight = createPainting("Звёздная ночь", "Ночное небо над городом, звёзды и кипарис",
+                vanGogh, painting, 1889);
+        starryNightOverRhone = createPainting("Звёздная ночь над Роной", "Ночное небо над рекой, звёзды и огни",
+                vanGogh, painting, 1888);
+        sunflowers = createPainting("Подсолнухи", "Натюрморт с подсолнухами в вазе", vanGogh, painting, 1888);
+        amphora = new Artifact("Амфора", null, antiquity, "Греция", "Античность", "керамика");
+        amphora.setDescription("Сосуд для хранения вина и масла");
+        repository.save(amphora);
+
+        similarityService = new SimilarityService(repository);
+    }
+
+    private Painting createPainting(String name, String description, Artist author, Category category, int year) {
+        Painting painting = new Painting(name, author, category, "масло", 74, 92);
+        painting.setDescription(description);
+        painting.setCreationDate(LocalDate.of(year, 1, 1));
+        repository.save(painting);
+        return painting;
+    }
+
+    @Test
+    @DisplayName("Самым похожим считается экспонат с близким текстом, тем же автором и периодом")
+    void testFindSimilar_RanksByTextAndAttributes() {
+        // Act
+        List<SearchHit> similar = similarityService.findSimilar(starryNight);
+        List<MuseumItem> items = similar.stream().map(SearchHit::getItem).collect(Collectors.toList());
+
+        // Assert
+        assertFalse(similar.isEmpty());
+        assertEquals(starryNightOverRhone, items.get(0));
+        assertFalse(items.contains(starryNight));
+        assertFalse(items.contains(amphora));
+        assertTrue(similar.get(0).getScore() <= 1.0);
+        assertThrows(IllegalArgumentException.class, () -> similarityService.findSimilar(starryNight, 0));
+    }
+
+    @Test
+    @DisplayName("Индекс похожих экспонатов следует за изменениями репозитория")
+    void testFindSimilar_FollowsRepository() {
+        // Act
+        repository.deleteById(starryNightOverRhone.getId());
+        sunflowers.setName("Звёздная ночь с подсолнухами");
+        sunflowers.setDescription("Ночное небо над полем, звёзды и подсолнухи");
+        repository.save(sunflowers);
+        List<MuseumItem> items = similarityService.findSimilar(starryNight).stream()
+                .map(SearchHit::getItem)
+                .collect(Collectors.toList());
+
+        // Assert
+        assertEquals(3, similarityService.size());
+        assertFalse(items.contains(starryNightOverRhone));
+        assertEquals(sunflowers, items.get(0));
+    }
+}
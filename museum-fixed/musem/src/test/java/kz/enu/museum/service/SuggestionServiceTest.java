@@ -0,0 +1,99 @@
+package kz.enu.museum.service;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import kz.enu.museum.model.Artist;
+import kz.enu.museum.model.Category;
+import kz.enu.museum.model.Painting;
+import kz.enu.museum.repository.ExhibitRepository;
+
+/**
+ * Тесты для сервиса автодополнения.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+@DisplayName("Тесты SuggestionService")
+class SuggestionServiceTest {
+
+    private ExhibitRepository repository;
+    private SuggestionService suggestionService;
+    private Artist vanGogh;
+    private Artist vasnetsov;
+    private Category painting;
+
+    @BeforeEach
+    void setUp() {
+        painting = new Category("Живопись", "ПЛ");
+        painting.setId(1L);
+        vanGogh = new Artist("Винсент ван Гог", 1853, "Нидерланды");
+        vanGogh.setId(1L);
+        vasnetsov = new Artist("Виктор Васнецов", 1848, "Россия");
+        vasnetsov.setId(2L);
+
+        repository = new ExhibitRepository();
+        repository.save(new Painting("Звёздная ночь", vanGogh, painting, "масло", 74, 92));
+        repository.save(new Painting("Подсолнухи", vanGogh, painting, "масло", 73, 92));
+        repository.save(new Painting("Богатыри", vasnetsov, painting, "масло", 446, 295));
+
+        suggestionService = new SuggestionService(repository, List.of(vanGogh, vasnetsov), List.of(painting));
+    }
+
+    @Test
+    @DisplayName("Варианты упорядочены по количеству экспонатов и поднимаются после выбора")
+    void testSuggest_WeightedByItemsAndUses() {
+        // Act
+        List<Suggestion> artists = suggestionService.suggest("ви", SuggestionService.Kind.ARTIST, 5);
+
+        // Assert
+        assertEquals(List.of(vanGogh, vasnetsov),
+                artists.stream().map(Suggestion::getValue).collect(Collectors.toList()));
+        assertEquals(3, artists.get(0).getWeight());
+
+        // Act
+        suggestionService.recordUse(artists.get(1));
+        List<Suggestion> afterUse = suggestionService.suggest("ВИ", SuggestionService.Kind.ARTIST, 5);
+
+        // Assert
+        assertEquals(vasnetsov, afterUse.get(0).getValue());
+        assertEquals(1, suggestionService.suggest("ВИ", SuggestionService.Kind.ARTIST, 1).size());
+        assertThrows(IllegalArgumentException.class, () -> suggestionService.suggest("ви", 0));
+    }
+
+    @Test
+    @DisplayName("Варианты следуют за изменениями репозитория")
+    void testSuggest_FollowsRepository() {
+        // Arrange
+        Painting sunflowers = (Painting) repository.findAll().stream()
+                .filter(item -> item.getName().equals("Подсолнухи"))
+                .findFirst()
+                .orElseThrow();
+
+        // Act
+        sunflowers.setName("Звёзды над Роной");
+        repository.save(sunflowers);
+        List<String> exhibits = suggestionService.suggest("зв", 10).stream()
+                .filter(s -> s.getKind() == SuggestionService.Kind.EXHIBIT)
+                .map(Suggestion::getText)
+                .collect(Collectors.toList());
+        repository.deleteById(sunflowers.getId());
+
+        // Assert
+        assertEquals(List.of("Звёздная ночь", "Звёзды над Роной"), exhibits);
+        assertTrue(suggestionService.suggest("подс", 10).isEmpty());
+        assertEquals(2, suggestionService.size(SuggestionService.Kind.EXHIBIT));
+        List<Long> artistWeights = suggestionService.suggest("ви", SuggestionService.Kind.ARTIST, 5).stream()
+                .map(Suggestion::getWeight)
+                .collect(Collectors.toList());
+        assertEquals(List.of(2L, 2L), artistWeights);
+    }
+}
@@ -0,0 +1,98 @@
+package kz.enu.museum.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import kz.enu.museum.model.Artist;
+import kz.enu.museum.model.Category;
+import kz.enu.museum.model.Painting;
+import kz.enu.museum.repository.ExhibitRepository;
+import kz.enu.museum.service.CatalogAggregates.Dimension;
+import kz.enu.museum.service.TimeSeriesAnalytics.DateField;
+import kz.enu.museum.service.TimeSeriesAnalytics.Granularity;
+
+/**
+ * Тесты для временных рядов поступления и создания экспонатов.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+@DisplayName("Тесты TimeSeriesAnalytics")
+class TimeSeriesAnalyticsTest {
+
+    private ExhibitRepository repository;
+    private TimeSeriesAnalytics analytics;
+    private Artist vanGogh;
+    private Category painting;
+
+    @BeforeEach
+    void setUp() {
+        painting = new Category("Живопись", "ПЛ");
+        painting.setId(1L);
+        vanGogh = new Artist("Винсент ван Гог", 1853, "Нидерланды");
+        vanGogh.setId(1L);
+        repository = new ExhibitRepository();
+        analytics = new TimeSeriesAnalytics(repository);
+    }
+
+    private Painting save(String name, LocalDate acquired) {
+        Painting item = new Painting(name, vanGogh, painting, "масло", 74, 92);
+        item.setCreationDate(LocalDate.of(1889, 6, 1));
+        item.setAcquisitionDate(acquired);
+        return (Painting) repository.save(item);
+    }
+
+    @Test
+    @DisplayName("Ряды по годам и месяцам следуют за изменениями репозитория")
+    void testHistogram_FollowsRepository() {
+        // Arrange
+        save("Звёздная ночь", LocalDate.of(1990, 3, 15));
+        save("Подсолнухи", LocalDate.of(1990, 3, 20));
+        Painting irises = save("Ирисы", LocalDate.of(1992, 11, 2));
+        save("Без даты поступления", null);
+
+        // Act
+        List<TimeSeriesPoint> yearly = analytics.histogram(DateField.ACQUISITION, Granularity.YEAR, 1989, 1992);
+
+        // Assert
+        assertEquals(List.of("1989", "1990", "1991", "1992"),
+                yearly.stream().map(TimeSeriesPoint::getPeriod).toList());
+        assertEquals(List.of(0L, 2L, 0L, 1L), yearly.stream().map(TimeSeriesPoint::getCount).toList());
+        assertEquals(List.of(0L, 2L, 2L, 3L), yearly.stream().map(TimeSeriesPoint::getCumulative).toList());
+        assertEquals(List.of(0L, 2L, -2L, 1L), yearly.stream().map(TimeSeriesPoint::getYearOverYear).toList());
+        assertEquals(3, analytics.countYears(DateField.ACQUISITION, 1990, 2005));
+        assertEquals(4, analytics.countYears(DateField.CREATION, Dimension.CATEGORY, "Живопись", 1800, 1900));
+        assertEquals(2, analytics.countMonths(DateField.ACQUISITION, YearMonth.of(1990, 3), YearMonth.of(1990, 3)));
+
+        // Act
+        irises.setAcquisitionDate(LocalDate.of(1991, 3, 1));
+        repository.save(irises);
+        List<TimeSeriesPoint> monthly = analytics.histogram(DateField.ACQUISITION, Granularity.MONTH,
+                Dimension.TYPE, "Painting", 1991, 1991);
+
+        // Assert
+        assertEquals(12, monthly.size());
+        assertEquals("1991-03", monthly.get(2).getPeriod());
+        assertEquals(1, monthly.get(2).getCount());
+        assertEquals(-1, monthly.get(2).getYearOverYear());
+        assertEquals(3, monthly.get(11).getCumulative());
+        assertEquals(0, analytics.countYears(DateField.ACQUISITION, 1992, 1992));
+
+        // Act
+        repository.deleteById(irises.getId());
+
+        // Assert
+        assertEquals(Map.of("Живопись", 2L), analytics.getGroups(DateField.ACQUISITION, Dimension.CATEGORY));
+        assertThrows(IllegalArgumentException.class,
+                () -> analytics.countYears(DateField.ACQUISITION, Dimension.HALL, "Зал", 1990, 2000));
+    }
+}
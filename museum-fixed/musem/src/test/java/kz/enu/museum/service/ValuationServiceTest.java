@@ -0,0 +1,147 @@
+package kz.enu.museum.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import kz.enu.museum.model.Artist;
+import kz.enu.museum.model.Category;
+import kz.enu.museum.model.Painting;
+import kz.enu.museum.repository.ExhibitRepository;
+import kz.enu.museum.service.CatalogAggregates.Dimension;
+import kz.enu.museum.util.CentsSum;
+import kz.enu.museum.util.MoneyUtil;
+
+/**
+ * Тесты для сервиса оценки коллекции.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+@DisplayName("Тесты ValuationService")
+class ValuationServiceTest {
+
+    private ExhibitRepository repository;
+    private ValuationService valuationService;
+    private Artist vanGogh;
+    private Category painting;
+
+    @BeforeEach
+    void setUp() {
+        painting = new Category("Живопись", "ПЛ");
+        painting.setId(1L);
+        vanGogh = new Artist("Винсент ван Гог", 1853, "Нидерланды");
+        vanGogh.setId(1L);
+        repository = new ExhibitRepository();
+        valuationService = new ValuationService(repository);
+    }
+
+    private Painting save(String name, String value) {
+        Painting item = new Painting(name, vanGogh, painting, "масло", 74, 92);
+        item.setEstimatedValue(value != null ? new BigDecimal(value) : null);
+        return (Painting) repository.save(item);
+    }
+
+    @Test
+    @DisplayName("Итоги и процентили следуют за изменениями репозитория")
+    void testSummary_FollowsRepository() {
+        // Arrange
+        for (int i = 1; i <= 10; i++) {
+            save("Картина №" + i, i + "00.005");
+        }
+        Painting unvalued = save("Без оценки", null);
+
+        // Act
+        ValuationSummary summary = valuationService.getSummary(Dimension.CATEGORY, "Живопись");
+
+        // Assert: 100.005 округляется до 100.01
+        assertEquals(10, summary.getCount());
+        assertEquals(new BigDecimal("5500.10"), summary.getTotal());
+        assertEquals(new BigDecimal("550.01"), summary.getAverage());
+        assertEquals(new BigDecimal("100.01"), summary.getMin());
+        assertEquals(new BigDecimal("500.01"), summary.getMedian());
+        assertEquals(new BigDecimal("1000.01"), summary.getMax());
+        assertEquals(new BigDecimal("900.01"), valuationService.getPercentile(90));
+
+        // Act
+        Painting first = (Painting) repository.findAll().get(0);
+        first.setEstimatedValue(new BigDecimal("5000"));
+        repository.save(first);
+        unvalued.setEstimatedValue(new BigDecimal("1"));
+        repository.save(unvalued);
+        repository.deleteById(repository.findAll().get(9).getId());
+
+        // Assert
+        ValuationSummary total = valuationService.getTotal();
+        assertEquals(10, total.getCount());
+        assertEquals(new BigDecimal("9401.08"), total.getTotal());
+        assertEquals(new BigDecimal("1.00"), total.getMin());
+        assertEquals(new BigDecimal("5000.00"), total.getMax());
+        assertEquals(new BigDecimal("5000.00"),
+                valuationService.getPercentile(Dimension.AUTHOR, "Винсент ван Гог", 100));
+        assertThrows(IllegalArgumentException.class, () -> valuationService.getPercentile(101));
+
+        // Act
+        repository.deleteAll();
+
+        // Assert
+        assertEquals(0, valuationService.getTotal().getCount());
+        assertNull(valuationService.getTotal().getAverage());
+        assertNull(valuationService.getSummary(Dimension.CATEGORY, "Живопись"));
+    }
+
+    @Test
+    @DisplayName("Сумма в копейках остаётся точной при переполнении long")
+    void testCentsSum_CarriesOverflow() {
+        // Arrange
+        CentsSum sum = new CentsSum();
+
+        // Act
+        sum.add(Long.MAX_VALUE);
+        sum.add(Long.MAX_VALUE);
+
+        // Assert
+        assertFalse(sum.fitsInLong());
+        assertEquals(MoneyUtil.toBigDecimal(Long.MAX_VALUE).multiply(BigDecimal.valueOf(2)), sum.toBigDecimal());
+        assertThrows(ArithmeticException.class, sum::getCents);
+
+        // Act
+        sum.add(-Long.MAX_VALUE);
+
+        // Assert
+        assertTrue(sum.fitsInLong());
+        assertEquals(Long.MAX_VALUE, sum.getCents());
+        assertEquals(-3, MoneyUtil.divide(-5, 2));
+        assertEquals(12345, MoneyUtil.toCents(new BigDecimal("123.445")));
+        assertThrows(ArithmeticException.class, () -> MoneyUtil.toCents(new BigDecimal("1e30")));
+    }
+
+    @Test
+    @DisplayName("Оценка вне диапазона long не выбрасывает исключение и не выпадает из итогов")
+    void testHugeValue_StaysCounted() {
+        // Arrange: DECIMAL(19,2) и JSON допускают сумму больше ~9,2e16
+        Painting huge = save("Бесценная", "1e20");
+        CatalogAggregates aggregates = new CatalogAggregates(repository);
+        PivotCube cube = new PivotCube(repository);
+
+        // Act: повторное сохранение с той же оценкой
+        repository.save(huge);
+
+        // Assert
+        assertEquals(1, valuationService.getTotal().getCount());
+        assertEquals(MoneyUtil.toBigDecimal(Long.MAX_VALUE), valuationService.getTotal().getMax());
+        assertEquals(1, aggregates.getTotalCount());
+        assertEquals(MoneyUtil.toBigDecimal(Long.MAX_VALUE), aggregates.getTotalValue());
+        assertEquals(1, cube.getTotalCount());
+        assertEquals(Long.MIN_VALUE, MoneyUtil.toCentsSaturated(new BigDecimal("-1e20"), RoundingMode.HALF_UP));
+    }
+}
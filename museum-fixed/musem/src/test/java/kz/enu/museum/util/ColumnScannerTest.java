@@ -0,0 +1,75 @@
+package kz.enu.museum.util;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Тесты для прохода по колонкам.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+@DisplayName("Тесты ColumnScanner")
+class ColumnScannerTest {
+
+    @Test
+    @DisplayName("Векторный и скалярный проходы совпадают с полным перебором, включая неполное слово")
+    void testScan_MatchesBruteForce() {
+        // Arrange
+        Random random = new Random(3);
+        int size = 64 * 40 + 37;
+        int[] years = new int[size];
+        long[] values = new long[size];
+        int[] statuses = new int[size];
+        for (int i = 0; i < size; i++) {
+            years[i] = i % 17 == 0 ? Integer.MIN_VALUE : 1500 + random.nextInt(500);
+            values[i] = random.nextInt(1_000_000) * 100L;
+            statuses[i] = 1 << random.nextInt(4);
+        }
+
+        // Act & Assert
+        for (ColumnScanner scanner : new ColumnScanner[] {ColumnScanner.create(), ColumnScanner.scalar()}) {
+            long[] words = new long[ColumnScanner.wordCount(size)];
+            scanner.between(years, size, 1800, 1900, words, false);
+            scanner.between(values, size, 10_000_000L, 50_000_000L, words, true);
+            scanner.anyBit(statuses, size, 0b0101, words, true);
+
+            long[] expected = new long[words.length];
+            for (int i = 0; i < size; i++) {
+                if (years[i] >= 1800 && years[i] <= 1900
+                        && values[i] >= 10_000_000L && values[i] <= 50_000_000L
+                        && (statuses[i] & 0b0101) != 0) {
+                    expected[i >>> 6] |= 1L << i;
+                }
+            }
+            assertArrayEquals(expected, words, "векторный: " + scanner.isVectorized());
+        }
+        assertFalse(ColumnScanner.scalar().isVectorized());
+    }
+
+    @Test
+    @DisplayName("Множество по битовой карте содержит те же значения")
+    void testFromWords_MatchesBits() {
+        // Arrange
+        long[] words = new long[3000];
+        OrdinalBitmap expected = new OrdinalBitmap();
+        Random random = new Random(9);
+        for (int i = 0; i < 20000; i++) {
+            // Первый блок плотный, остальные разреженные
+            int value = i < 10000 ? random.nextInt(65536) : random.nextInt(words.length * 64);
+            words[value >>> 6] |= 1L << value;
+            expected.add(value);
+        }
+
+        // Act
+        OrdinalBitmap bitmap = OrdinalBitmap.fromWords(words);
+
+        // Assert
+        assertArrayEquals(expected.toArray(), bitmap.toArray());
+    }
+}
@@ -0,0 +1,56 @@
+package kz.enu.museum.util;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Тесты для дерева Фенвика.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+@DisplayName("Тесты FenwickTree")
+class FenwickTreeTest {
+
+    @Test
+    @DisplayName("Суммы по диапазонам совпадают с перебором при расширении в обе стороны")
+    void testRangeSum_MatchesBruteForce() {
+        // Arrange: первый ключ в середине, дальше ключи слева (до нашей эры) и справа
+        Random random = new Random(11);
+        FenwickTree tree = new FenwickTree();
+        int low = -3000;
+        long[] naive = new long[6000];
+        tree.add(1900, 1);
+        naive[1900 - low]++;
+        for (int i = 0; i < 5000; i++) {
+            int key = low + random.nextInt(naive.length);
+            long delta = random.nextInt(3) == 0 ? -1 : 2;
+            tree.add(key, delta);
+            naive[key - low] += delta;
+        }
+
+        // Act & Assert
+        for (int i = 0; i < 500; i++) {
+            int from = low - 10 + random.nextInt(naive.length + 20);
+            int to = from + random.nextInt(800);
+            long expected = 0;
+            for (int key = Math.max(from, low); key <= to && key - low < naive.length; key++) {
+                expected += naive[key - low];
+            }
+            assertEquals(expected, tree.rangeSum(from, to), from + ".." + to);
+        }
+        long total = 0;
+        for (long value : naive) {
+            total += value;
+        }
+        assertEquals(total, tree.total());
+        assertEquals(total, tree.prefixSum(Integer.MAX_VALUE));
+        assertEquals(0, tree.prefixSum(Integer.MIN_VALUE));
+        assertEquals(naive[1900 - low], tree.get(1900));
+        assertEquals(0, tree.rangeSum(10, 5));
+    }
+}
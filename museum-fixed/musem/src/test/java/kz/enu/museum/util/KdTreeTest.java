@@ -0,0 +1,98 @@
+package kz.enu.museum.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Тесты для k-d дерева.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+@DisplayName("Тесты KdTree")
+class KdTreeTest {
+
+    @Test
+    @DisplayName("Поиск по диапазону совпадает с полным перебором после вставок и удалений")
+    void testRange_MatchesBruteForce() {
+        // Arrange
+        Random random = new Random(7);
+        KdTree<Integer> tree = new KdTree<>(2);
+        List<double[]> points = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            // Целые размеры дают много равных координат
+            double[] point = {random.nextInt(200), random.nextInt(200)};
+            points.add(point);
+            tree.insert(point, i);
+        }
+        Set<Integer> removed = new HashSet<>();
+        for (int i = 0; i < 3000; i += 3) {
+            assertTrue(tree.remove(points.get(i), i));
+            removed.add(i);
+        }
+
+        // Act
+        double[] min = {60, 80};
+        double[] max = {120, 150};
+        Set<Integer> found = new HashSet<>(tree.range(min, max));
+
+        // Assert
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 0; i < points.size(); i++) {
+            double[] p = points.get(i);
+            if (!removed.contains(i) && p[0] >= 60 && p[0] <= 120 && p[1] >= 80 && p[1] <= 150) {
+                expected.add(i);
+            }
+        }
+        assertEquals(expected, found);
+        assertEquals(2000, tree.size());
+        assertFalse(tree.remove(points.get(0), 0));
+    }
+
+    @Test
+    @DisplayName("Поиск ближайших совпадает с полным перебором")
+    void testNearest_MatchesBruteForce() {
+        // Arrange
+        Random random = new Random(11);
+        KdTree<Integer> tree = new KdTree<>(2);
+        List<double[]> points = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            double[] point = {random.nextDouble() * 500, random.nextDouble() * 300};
+            points.add(point);
+            tree.insert(point, i);
+        }
+        double[] target = {250, 120};
+
+        // Act
+        List<Integer> nearest = tree.nearest(target, 5);
+
+        // Assert
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < points.size(); i++) {
+            expected.add(i);
+        }
+        expected = expected.stream()
+                .sorted(Comparator.comparingDouble(i -> distance(points.get(i), target)))
+                .limit(5)
+                .collect(Collectors.toList());
+        assertEquals(expected, nearest);
+    }
+
+    private static double distance(double[] a, double[] b) {
+        double dx = a[0] - b[0];
+        double dy = a[1] - b[1];
+        return dx * dx + dy * dy;
+    }
+}
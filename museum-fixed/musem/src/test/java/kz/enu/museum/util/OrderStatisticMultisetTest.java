@@ -0,0 +1,56 @@
+package kz.enu.museum.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Тесты для мультимножества с порядковыми статистиками.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+@DisplayName("Тесты OrderStatisticMultiset")
+class OrderStatisticMultisetTest {
+
+    @Test
+    @DisplayName("Выбор по рангу совпадает с отсортированным списком при добавлениях и удалениях")
+    void testSelect_MatchesSortedList() {
+        // Arrange: много повторов и отрицательные значения
+        Random random = new Random(17);
+        OrderStatisticMultiset multiset = new OrderStatisticMultiset();
+        List<Long> naive = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 5000; i++) {
+            long value = random.nextInt(400) - 100;
+            if (!naive.isEmpty() && random.nextInt(3) == 0) {
+                Long removed = naive.remove(random.nextInt(naive.size()));
+                assertTrue(multiset.remove(removed));
+            } else {
+                naive.add(value);
+                multiset.add(value);
+            }
+        }
+
+        // Assert
+        Collections.sort(naive);
+        assertEquals(naive.size(), multiset.size());
+        for (int rank = 0; rank < naive.size(); rank++) {
+            assertEquals(naive.get(rank).longValue(), multiset.select(rank), "ранг " + rank);
+        }
+        assertFalse(multiset.remove(10_000));
+        assertThrows(IllegalArgumentException.class, () -> multiset.select(naive.size()));
+        multiset.clear();
+        assertEquals(0, multiset.size());
+    }
+}
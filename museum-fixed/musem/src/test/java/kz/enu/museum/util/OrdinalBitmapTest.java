@@ -0,0 +1,96 @@
+package kz.enu.museum.util;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Тесты для сжатого битового множества.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+@DisplayName("Тесты OrdinalBitmap")
+class OrdinalBitmapTest {
+
+    @Test
+    @DisplayName("Добавление, удаление и проверка значений")
+    void testAddRemoveContains() {
+        // Arrange
+        OrdinalBitmap bitmap = new OrdinalBitmap();
+
+        // Act
+        bitmap.add(5);
+        bitmap.add(70000);
+        bitmap.add(5);
+        bitmap.remove(70000);
+
+        // Assert
+        assertTrue(bitmap.contains(5));
+        assertFalse(bitmap.contains(70000));
+        assertEquals(1, bitmap.cardinality());
+    }
+
+    @Test
+    @DisplayName("Пересечение и объединение совпадают с BitSet (разреженные и плотные блоки)")
+    void testAndOr_MatchBitSet() {
+        // Arrange
+        Random random = new Random(42);
+        OrdinalBitmap a = new OrdinalBitmap();
+        OrdinalBitmap b = new OrdinalBitmap();
+        BitSet expectedA = new BitSet();
+        BitSet expectedB = new BitSet();
+        for (int i = 0; i < 200_000; i++) {
+            // Первый блок плотный, остальные разреженные
+            int value = i < 100_000 ? random.nextInt(65536) : random.nextInt(1_000_000);
+            if (random.nextBoolean()) {
+                a.add(value);
+                expectedA.set(value);
+            } else {
+                b.add(value);
+                expectedB.set(value);
+            }
+        }
+
+        BitSet expectedAnd = (BitSet) expectedA.clone();
+        expectedAnd.and(expectedB);
+        BitSet expectedOr = (BitSet) expectedA.clone();
+        expectedOr.or(expectedB);
+
+        // Act
+        OrdinalBitmap and = OrdinalBitmap.and(a, b);
+        OrdinalBitmap or = OrdinalBitmap.or(a, b);
+
+        // Assert
+        assertArrayEquals(expectedAnd.stream().toArray(), and.toArray());
+        assertArrayEquals(expectedOr.stream().toArray(), or.toArray());
+        assertEquals(expectedAnd.cardinality(), OrdinalBitmap.andCardinality(a, b));
+    }
+
+    @Test
+    @DisplayName("Плотный блок становится разреженным после удалений")
+    void testDenseToSparseAfterRemove() {
+        // Arrange
+        OrdinalBitmap bitmap = new OrdinalBitmap();
+        for (int i = 0; i < 10_000; i++) {
+            bitmap.add(i);
+        }
+
+        // Act
+        for (int i = 0; i < 9_990; i++) {
+            bitmap.remove(i);
+        }
+
+        // Assert
+        assertEquals(10, bitmap.cardinality());
+        assertTrue(bitmap.contains(9_995));
+        assertFalse(bitmap.contains(100));
+    }
+}
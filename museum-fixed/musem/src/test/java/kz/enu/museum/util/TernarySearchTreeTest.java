@@ -0,0 +1,94 @@
+package kz.enu.museum.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Тесты для тернарного дерева поиска.
+ *
+ * @author Есим Артём
+ * @version 1.0
+ * @since 2025
+ */
+@DisplayName("Тесты TernarySearchTree")
+class TernarySearchTreeTest {
+
+    @Test
+    @DisplayName("Лучшие дополнения префикса совпадают с полным перебором после изменений")
+    void testTop_MatchesBruteForce() {
+        // Arrange
+        Random random = new Random(5);
+        TernarySearchTree<String> tree = new TernarySearchTree<>(10);
+        Map<String, Long> weights = new HashMap<>();
+        for (int i = 0; i < 3000; i++) {
+            // Короткий алфавит даёт много общих префиксов
+            StringBuilder key = new StringBuilder();
+            int length = 1 + random.nextInt(6);
+            for (int j = 0; j < length; j++) {
+                key.append((char) ('а' + random.nextInt(4)));
+            }
+            long weight = random.nextInt(50);
+            tree.put(key.toString(), key.toString(), weight);
+            weights.put(key.toString(), weight);
+        }
+        List<String> keys = new ArrayList<>(weights.keySet());
+        for (int i = 0; i < keys.size(); i += 3) {
+            assertTrue(tree.remove(keys.get(i)));
+            weights.remove(keys.get(i));
+        }
+
+        // Act & Assert
+        for (String prefix : List.of("", "а", "аб", "вг", "ггг", "бавг")) {
+            List<String> expected = weights.entrySet().stream()
+                    .filter(e -> e.getKey().startsWith(prefix))
+                    .sorted(Map.Entry.<String, Long>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .limit(10)
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList());
+            List<String> found = tree.top(prefix, 10).stream()
+                    .map(TernarySearchTree.Entry::getKey)
+                    .collect(Collectors.toList());
+            assertEquals(expected, found, "префикс '" + prefix + "'");
+        }
+        assertEquals(weights.size(), tree.size());
+    }
+
+    @Test
+    @DisplayName("Замена веса и удаление ключа обновляют дополнения")
+    void testPutAndRemove_UpdateTop() {
+        // Arrange
+        TernarySearchTree<Integer> tree = new TernarySearchTree<>(2);
+        tree.put("мона лиза", 1, 3);
+        tree.put("монет", 2, 2);
+        tree.put("мост", 3, 1);
+
+        // Act
+        tree.put("мост", 3, 10);
+        boolean removed = tree.remove("мона лиза");
+
+        // Assert
+        assertTrue(removed);
+        assertFalse(tree.remove("мона"));
+        assertNull(tree.get("мона лиза"));
+        assertEquals(3, tree.get("мост"));
+        List<String> top = tree.top("мо", 5).stream()
+                .sorted(Comparator.comparingLong(TernarySearchTree.Entry<Integer>::getWeight).reversed())
+                .map(TernarySearchTree.Entry::getKey)
+                .collect(Collectors.toList());
+        assertEquals(List.of("мост", "монет"), top);
+        assertTrue(tree.top("я", 5).isEmpty());
+    }
+}